@@ -27,6 +27,24 @@ CREATE TABLE IF NOT EXISTS t_storage_tcc (
   UNIQUE KEY uk_product_id (product_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Outbox库存扣减记录表，message_id去重
+CREATE TABLE IF NOT EXISTS t_storage_deduction (
+  message_id BIGINT NOT NULL COMMENT '订单服务outbox消息ID',
+  product_id VARCHAR(50) NOT NULL,
+  count INT NOT NULL,
+  applied TINYINT(1) NOT NULL COMMENT '1-扣减成功，0-库存不足',
+  message VARCHAR(255) NULL COMMENT '失败原因',
+  create_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (message_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 从库心跳表，开启 storage.replica 时每个服务实例一行，在主库写入、从从库读回，用来计算复制延迟
+CREATE TABLE IF NOT EXISTS t_replica_heartbeat (
+  instance_id VARCHAR(64) NOT NULL,
+  beat_millis BIGINT NOT NULL COMMENT '实例写入心跳时的时间戳',
+  PRIMARY KEY (instance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- AT模式回滚日志表
 CREATE TABLE IF NOT EXISTS undo_log (
   id BIGINT NOT NULL AUTO_INCREMENT,
@@ -55,6 +55,78 @@ CREATE TABLE undo_log (
   UNIQUE KEY ux_undo_log (xid, branch_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- 下单幂等键记录表
+CREATE TABLE t_idempotency_record (
+  scope VARCHAR(64) NOT NULL COMMENT '接口标识',
+  idem_key VARCHAR(128) NOT NULL COMMENT '请求头 Idempotency-Key',
+  request_hash CHAR(64) NOT NULL COMMENT '请求体的 SHA-256 摘要，同一个 key 的请求体不同时不返回已有结果',
+  status TINYINT NOT NULL COMMENT '1-执行中，2-已完成',
+  result TEXT NULL COMMENT '执行结果(JSON)',
+  create_time DATETIME(3) NOT NULL,
+  update_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (scope, idem_key),
+  KEY idx_create_time (create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Outbox库存扣减消息表，与订单在同一个本地事务中写入
+CREATE TABLE t_outbox_message (
+  id BIGINT NOT NULL AUTO_INCREMENT COMMENT '消息ID',
+  order_id BIGINT NOT NULL COMMENT '订单ID',
+  product_id VARCHAR(50) NOT NULL COMMENT '商品ID',
+  count INT NOT NULL COMMENT '扣减数量',
+  status VARCHAR(20) NOT NULL DEFAULT 'NEW' COMMENT 'NEW-待投递，DONE-已处理',
+  attempts INT NOT NULL DEFAULT 0 COMMENT '投递失败次数',
+  next_retry_time DATETIME(3) NOT NULL COMMENT '下次投递时间',
+  create_time DATETIME(3) NOT NULL,
+  update_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (id),
+  KEY idx_status_retry (status, next_retry_time),
+  KEY idx_create_time (create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 对账检查点，每个模式一行，记录已对账的最大订单ID
+CREATE TABLE t_reconcile_checkpoint (
+  mode VARCHAR(10) NOT NULL COMMENT 'AT/TCC',
+  last_order_id BIGINT NOT NULL DEFAULT 0 COMMENT '已对账的最大订单ID',
+  update_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (mode)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 对账期望值，检查点之前的成功订单按商品累加的数量
+CREATE TABLE t_reconcile_expected (
+  mode VARCHAR(10) NOT NULL COMMENT 'AT/TCC',
+  product_id VARCHAR(50) NOT NULL COMMENT '商品ID',
+  expected_used BIGINT NOT NULL DEFAULT 0 COMMENT '期望的库存扣减量',
+  update_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (mode, product_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 越过检查点时仍未完成的订单，每轮重新检查状态
+CREATE TABLE t_reconcile_open (
+  mode VARCHAR(10) NOT NULL COMMENT 'AT/TCC',
+  order_id BIGINT NOT NULL COMMENT '订单ID',
+  product_id VARCHAR(50) NOT NULL COMMENT '商品ID',
+  count INT NOT NULL COMMENT '购买数量',
+  create_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (mode, order_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 对账差异报告
+CREATE TABLE t_reconcile_discrepancy (
+  id BIGINT NOT NULL AUTO_INCREMENT,
+  mode VARCHAR(10) NOT NULL COMMENT 'AT/TCC',
+  kind VARCHAR(20) NOT NULL COMMENT 'USED_MISMATCH-库存扣减量超出期望区间，STUCK_ORDER-订单长时间未完成',
+  product_id VARCHAR(50) NOT NULL COMMENT '商品ID',
+  order_id BIGINT NULL COMMENT 'STUCK_ORDER 的订单ID',
+  expected_min BIGINT NOT NULL COMMENT '期望区间下限',
+  expected_max BIGINT NOT NULL COMMENT '期望区间上限',
+  observed BIGINT NOT NULL COMMENT '实际的 used',
+  checkpoint_order_id BIGINT NOT NULL COMMENT '发现时的检查点',
+  detected_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (id),
+  KEY idx_detected_time (detected_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 USE seata_storage;
 
 -- AT模式库存表
@@ -84,6 +156,24 @@ CREATE TABLE t_storage_tcc (
   UNIQUE KEY uk_product_id (product_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Outbox库存扣减记录表，message_id去重
+CREATE TABLE t_storage_deduction (
+  message_id BIGINT NOT NULL COMMENT '订单服务outbox消息ID',
+  product_id VARCHAR(50) NOT NULL,
+  count INT NOT NULL,
+  applied TINYINT(1) NOT NULL COMMENT '1-扣减成功，0-库存不足',
+  message VARCHAR(255) NULL COMMENT '失败原因',
+  create_time DATETIME(3) NOT NULL,
+  PRIMARY KEY (message_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 从库心跳表，开启 storage.replica 时每个服务实例一行，在主库写入、从从库读回，用来计算复制延迟
+CREATE TABLE t_replica_heartbeat (
+  instance_id VARCHAR(64) NOT NULL,
+  beat_millis BIGINT NOT NULL COMMENT '实例写入心跳时的时间戳',
+  PRIMARY KEY (instance_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- AT模式回滚日志表
 CREATE TABLE undo_log (
   id BIGINT NOT NULL AUTO_INCREMENT,
@@ -102,12 +192,18 @@ CREATE TABLE undo_log (
 USE seata_order;
 TRUNCATE TABLE t_order;
 TRUNCATE TABLE t_order_tcc;
+TRUNCATE TABLE t_idempotency_record;
+TRUNCATE TABLE t_outbox_message;
+TRUNCATE TABLE t_reconcile_checkpoint;
+TRUNCATE TABLE t_reconcile_expected;
+TRUNCATE TABLE t_reconcile_open;
 TRUNCATE TABLE undo_log;
 
 -- 清空库存数据
 USE seata_storage;
 TRUNCATE TABLE t_storage;
 TRUNCATE TABLE t_storage_tcc;
+TRUNCATE TABLE t_storage_deduction;
 TRUNCATE TABLE undo_log;
 
 -- AT模式库存数据
@@ -154,6 +154,15 @@ else
     echo ""
 fi
 
+# 3.5 事务模式对比（AT / TCC / Outbox 吞吐量和延迟）
+if lsof -i :8082 > /dev/null 2>&1; then
+    run_test "$SERVICE_A_DIR" "ModeComparisonIntegrationTest" "事务模式对比测试"
+else
+    echo "【跳过】事务模式对比测试"
+    echo -e "${YELLOW}原因: 库存服务未运行${NC}"
+    echo ""
+fi
+
 # 测试总结
 echo "=========================================="
 echo "测试执行完成"
@@ -0,0 +1,17 @@
+package com.example.seata.order.admission;
+
+import com.example.seata.order.exception.BusinessException;
+
+/**
+ * 准入拒绝异常，在开启全局事务之前抛出，不产生任何事务开销
+ */
+public class AdmissionRejectedException extends BusinessException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int CODE = 429;
+
+    public AdmissionRejectedException(String message) {
+        super(CODE, message);
+    }
+}
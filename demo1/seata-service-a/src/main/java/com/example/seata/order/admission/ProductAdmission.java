@@ -0,0 +1,138 @@
+package com.example.seata.order.admission;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 商品维度的下单准入控制
+ * 在开启全局事务之前执行：本地缓存的售罄标记命中直接拒绝，否则按商品令牌桶限流。
+ * 售罄标记由库存服务返回的"库存不足"设置，过期后放行请求重新向库存服务确认，补货后自动恢复。
+ * 令牌桶最多保留maxTrackedProducts个，达到上限时清理令牌已补满的桶；仍然全部在用时新的商品ID直接限流，
+ * 不存在的商品ID刷接口不会让内存无限增长
+ */
+@Slf4j
+@Component
+public class ProductAdmission {
+
+    /**
+     * 库存服务库存不足时返回的消息
+     */
+    public static final String SOLD_OUT_MESSAGE = "库存不足";
+
+    @Value("${order.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.admission.permits-per-second:200}")
+    private double permitsPerSecond;
+
+    @Value("${order.admission.burst:50}")
+    private int burst;
+
+    @Value("${order.admission.sold-out-ttl-millis:2000}")
+    private long soldOutTtlMillis;
+
+    @Value("${order.admission.max-tracked-products:10000}")
+    private int maxTrackedProducts;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 商品ID -> 售罄标记过期时间（System.nanoTime）
+     */
+    private final Map<String, Long> soldOut = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejectedSoldOut = new LongAdder();
+
+    private final LongAdder rejectedRateLimited = new LongAdder();
+
+    /**
+     * 准入检查，不通过时抛出AdmissionRejectedException
+     *
+     * @param productId 商品ID
+     */
+    public void admit(String productId) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        Long expiresAt = soldOut.get(productId);
+        if (expiresAt != null) {
+            if (System.nanoTime() - expiresAt < 0) {
+                rejectedSoldOut.increment();
+                throw new AdmissionRejectedException(SOLD_OUT_MESSAGE);
+            }
+            soldOut.remove(productId, expiresAt);
+        }
+        TokenBucket bucket = bucket(productId);
+        if (bucket == null || !bucket.tryAcquire()) {
+            rejectedRateLimited.increment();
+            throw new AdmissionRejectedException("商品下单请求过多，请稍后重试");
+        }
+        admitted.increment();
+    }
+
+    /**
+     * @return 令牌桶已达上限且都在使用中时返回null
+     */
+    private TokenBucket bucket(String productId) {
+        TokenBucket bucket = buckets.get(productId);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxTrackedProducts) {
+            buckets.entrySet().removeIf(e -> e.getValue().isIdle());
+            if (buckets.size() >= maxTrackedProducts) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(productId, id -> new TokenBucket(permitsPerSecond, burst));
+    }
+
+    /**
+     * 根据库存服务的失败消息更新售罄标记
+     *
+     * @param productId 商品ID
+     * @param message   库存服务返回的消息
+     */
+    public void onStorageFailure(String productId, String message) {
+        if (enabled && productId != null && message != null && message.contains(SOLD_OUT_MESSAGE)) {
+            if (soldOut.put(productId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(soldOutTtlMillis)) == null) {
+                log.info("准入控制：商品{}售罄，{}ms内的下单请求直接拒绝", productId, soldOutTtlMillis);
+            }
+        }
+    }
+
+    /**
+     * 库存扣减成功说明商品有货，清除售罄标记
+     *
+     * @param productId 商品ID
+     */
+    public void onStorageSuccess(String productId) {
+        if (productId != null) {
+            soldOut.remove(productId);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("admitted", admitted.sum());
+        stats.put("rejectedSoldOut", rejectedSoldOut.sum());
+        stats.put("rejectedRateLimited", rejectedRateLimited.sum());
+        stats.put("trackedProducts", buckets.size());
+        long now = System.nanoTime();
+        stats.put("soldOutProducts", soldOut.entrySet().stream()
+                .filter(e -> e.getValue() - now > 0)
+                .map(Map.Entry::getKey)
+                .toArray());
+        return stats;
+    }
+}
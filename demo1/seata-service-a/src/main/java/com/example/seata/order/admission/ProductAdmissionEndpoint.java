@@ -0,0 +1,27 @@
+package com.example.seata.order.admission;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 准入控制端点
+ * GET /actuator/admission 查看放行数、售罄拒绝数、限流拒绝数和当前售罄的商品
+ */
+@Component
+@Endpoint(id = "admission")
+public class ProductAdmissionEndpoint {
+
+    private final ProductAdmission productAdmission;
+
+    public ProductAdmissionEndpoint(ProductAdmission productAdmission) {
+        this.productAdmission = productAdmission;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return productAdmission.stats();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.seata.order.config;
+
+import com.example.seata.order.logging.XidResponseHeaderInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web配置类
+ * 下单接口的响应头带上本次请求的全局事务XID
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new XidResponseHeaderInterceptor()).addPathPatterns("/order/**");
+    }
+}
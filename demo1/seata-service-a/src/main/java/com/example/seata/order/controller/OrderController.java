@@ -1,13 +1,19 @@
 package com.example.seata.order.controller;
 
+import com.example.seata.order.admission.AdmissionRejectedException;
+import com.example.seata.order.admission.ProductAdmission;
 import com.example.seata.order.dto.OrderDTO;
 import com.example.seata.order.dto.Result;
+import com.example.seata.order.idempotency.IdempotencyService;
 import com.example.seata.order.service.OrderService;
+import com.example.seata.order.service.OutboxOrderService;
+import com.fasterxml.jackson.core.type.TypeReference;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,21 +31,36 @@ public class OrderController {
     @Resource
     private OrderService orderService;
 
+    @Resource
+    private ProductAdmission productAdmission;
+
+    @Resource
+    private IdempotencyService idempotencyService;
+
+    @Resource
+    private OutboxOrderService outboxOrderService;
+
     /**
      * 创建订单（AT模式 - 正常提交）
      */
     @ApiOperation(value = "创建订单（AT模式 - 正常提交）", 
-                  notes = "验证AT模式正常提交流程，包括订单创建和库存扣减")
+                  notes = "验证AT模式正常提交流程，包括订单创建和库存扣减；带 Idempotency-Key 请求头时相同 key 只下单一次")
     @PostMapping("/create-at")
-    public Result<Long> createOrderAT(@RequestBody OrderDTO orderDTO) {
-        try {
-            log.info("接收到创建订单请求（AT模式）：{}", orderDTO);
-            Long orderId = orderService.createOrder(orderDTO);
-            return Result.success("订单创建成功", orderId);
-        } catch (Exception e) {
-            log.error("创建订单失败（AT模式）", e);
-            return Result.fail(e.getMessage());
-        }
+    public Result<Long> createOrderAT(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                      @RequestBody OrderDTO orderDTO) {
+        return idempotencyService.execute("create-at", idempotencyKey, orderDTO, new TypeReference<Result<Long>>() {}, () -> {
+            try {
+                productAdmission.admit(orderDTO.getProductId());
+                log.info("接收到创建订单请求（AT模式）：{}", orderDTO);
+                Long orderId = orderService.createOrder(orderDTO);
+                return Result.success("订单创建成功", orderId);
+            } catch (AdmissionRejectedException e) {
+                return Result.fail(e.getCode(), e.getMessage());
+            } catch (Exception e) {
+                log.error("创建订单失败（AT模式）", e);
+                return Result.fail(e.getMessage());
+            }
+        });
     }
 
     /**
@@ -50,9 +71,12 @@ public class OrderController {
     @PostMapping("/create-at-rollback")
     public Result<Long> createOrderATRollback(@RequestBody OrderDTO orderDTO) {
         try {
+            productAdmission.admit(orderDTO.getProductId());
             log.info("接收到创建订单请求（AT模式-回滚场景）：{}", orderDTO);
             Long orderId = orderService.createOrderWithRollback(orderDTO);
             return Result.success("订单创建成功", orderId);
+        } catch (AdmissionRejectedException e) {
+            return Result.fail(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("创建订单触发回滚（AT模式）", e);
             return Result.fail(e.getMessage());
@@ -63,17 +87,23 @@ public class OrderController {
      * 创建订单（TCC模式 - 正常提交）
      */
     @ApiOperation(value = "创建订单（TCC模式 - 正常提交）", 
-                  notes = "验证TCC模式Try-Confirm流程，包括订单创建和库存冻结确认")
+                  notes = "验证TCC模式Try-Confirm流程，包括订单创建和库存冻结确认；带 Idempotency-Key 请求头时相同 key 只下单一次")
     @PostMapping("/create-tcc")
-    public Result<String> createOrderTCC(@RequestBody OrderDTO orderDTO) {
-        try {
-            log.info("接收到创建订单请求（TCC模式）：{}", orderDTO);
-            String result = orderService.createOrderTCC(orderDTO);
-            return Result.success("订单创建成功（TCC模式）", result);
-        } catch (Exception e) {
-            log.error("创建订单失败（TCC模式）", e);
-            return Result.fail(e.getMessage());
-        }
+    public Result<String> createOrderTCC(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                         @RequestBody OrderDTO orderDTO) {
+        return idempotencyService.execute("create-tcc", idempotencyKey, orderDTO, new TypeReference<Result<String>>() {}, () -> {
+            try {
+                productAdmission.admit(orderDTO.getProductId());
+                log.info("接收到创建订单请求（TCC模式）：{}", orderDTO);
+                String result = orderService.createOrderTCC(orderDTO);
+                return Result.success("订单创建成功（TCC模式）", result);
+            } catch (AdmissionRejectedException e) {
+                return Result.fail(e.getCode(), e.getMessage());
+            } catch (Exception e) {
+                log.error("创建订单失败（TCC模式）", e);
+                return Result.fail(e.getMessage());
+            }
+        });
     }
 
     /**
@@ -84,12 +114,38 @@ public class OrderController {
     @PostMapping("/create-tcc-rollback")
     public Result<String> createOrderTCCRollback(@RequestBody OrderDTO orderDTO) {
         try {
+            productAdmission.admit(orderDTO.getProductId());
             log.info("接收到创建订单请求（TCC模式-回滚场景）：{}", orderDTO);
             String result = orderService.createOrderTCCWithRollback(orderDTO);
             return Result.success("订单创建成功（TCC模式）", result);
+        } catch (AdmissionRejectedException e) {
+            return Result.fail(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("创建订单触发回滚（TCC模式）", e);
             return Result.fail(e.getMessage());
         }
     }
+
+    /**
+     * 创建订单（Outbox模式）
+     */
+    @ApiOperation(value = "创建订单（Outbox模式）",
+                  notes = "订单和库存扣减消息在本地事务中提交后立即返回，库存由中继异步批量扣减，库存不足时订单被取消；GET /actuator/outbox 查看积压和延迟")
+    @PostMapping("/create-outbox")
+    public Result<Long> createOrderOutbox(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                          @RequestBody OrderDTO orderDTO) {
+        return idempotencyService.execute("create-outbox", idempotencyKey, orderDTO, new TypeReference<Result<Long>>() {}, () -> {
+            try {
+                productAdmission.admit(orderDTO.getProductId());
+                log.info("接收到创建订单请求（Outbox模式）：{}", orderDTO);
+                Long orderId = outboxOrderService.createOrder(orderDTO);
+                return Result.success("订单已受理（Outbox模式）", orderId);
+            } catch (AdmissionRejectedException e) {
+                return Result.fail(e.getCode(), e.getMessage());
+            } catch (Exception e) {
+                log.error("创建订单失败（Outbox模式）", e);
+                return Result.fail(e.getMessage());
+            }
+        });
+    }
 }
@@ -45,7 +45,7 @@ public class Order implements Serializable {
     private BigDecimal amount;
 
     /**
-     * 订单状态：INIT-初始化，SUCCESS-成功，CANCEL-取消
+     * 订单状态：INIT-初始化，PENDING-等待库存扣减（Outbox模式），SUCCESS-成功，CANCEL-取消
      */
     private String status;
 
@@ -0,0 +1,65 @@
+package com.example.seata.order.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox库存扣减消息实体，与订单在同一个本地事务中写入
+ */
+@Data
+@TableName("t_outbox_message")
+public class OutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 消息ID，库存服务按该ID去重
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 订单ID
+     */
+    private Long orderId;
+
+    /**
+     * 商品ID
+     */
+    private String productId;
+
+    /**
+     * 扣减数量
+     */
+    private Integer count;
+
+    /**
+     * 消息状态：NEW-待投递，DONE-已处理
+     */
+    private String status;
+
+    /**
+     * 投递失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 下次投递时间
+     */
+    private LocalDateTime nextRetryTime;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -2,10 +2,14 @@ package com.example.seata.order.feign;
 
 import com.example.seata.order.dto.Result;
 import com.example.seata.order.dto.StorageDTO;
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 /**
  * 库存服务Feign客户端
  */
@@ -29,4 +33,13 @@ public interface StorageFeignClient {
      */
     @PostMapping("/storage/tcc/reduce")
     Result<Void> reduceTcc(@RequestBody StorageDTO dto);
-}
\ No newline at end of file
+
+    /**
+     * 批量扣减库存（Outbox模式），按消息ID幂等
+     *
+     * @param deductions 扣减消息
+     * @return 每条消息的扣减结果
+     */
+    @PostMapping("/storage/outbox/deductions")
+    Result<List<StorageDeductionResultDTO>> applyDeductions(@RequestBody List<StorageDeductionDTO> deductions);
+}
@@ -0,0 +1,27 @@
+package com.example.seata.order.idempotency;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 幂等键端点
+ * GET /actuator/idempotency 查看缓存命中、等待首个请求、数据库命中、实际执行次数和命中率
+ */
+@Component
+@Endpoint(id = "idempotency")
+public class IdempotencyEndpoint {
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyEndpoint(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return idempotencyService.stats();
+    }
+}
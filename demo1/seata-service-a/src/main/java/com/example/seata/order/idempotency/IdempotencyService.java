@@ -0,0 +1,417 @@
+package com.example.seata.order.idempotency;
+
+import com.example.seata.order.dto.Result;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 下单接口的幂等键处理
+ * 依次查找：本地结果缓存 → 本实例正在执行的同 key 请求（等待其结果，不重复下单）→ t_idempotency_record 表
+ * （插入成功才执行，其他实例已完成则返回其结果，执行中则轮询等待）。
+ * 只保存成功的结果，失败时删除记录，客户端可以用同一个 key 重试。
+ * 每一步都比较请求体的 SHA-256 摘要，同一个 key 的请求体不同时返回 422，不返回第一次请求的结果
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+
+    /**
+     * 幂等键请求头
+     */
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final int CONFLICT_CODE = 409;
+
+    public static final int MISMATCH_CODE = 422;
+
+    private static final int IN_PROGRESS = 1;
+
+    private static final int COMPLETED = 2;
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    @Value("${order.idempotency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${order.idempotency.cache-ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    @Value("${order.idempotency.wait-timeout-millis:5000}")
+    private long waitTimeoutMillis;
+
+    @Value("${order.idempotency.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${order.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * scope + key -> 结果，命中时不加锁；写入时超过 cacheSize 先清理过期条目，仍然超出时淘汰最早写入的条目
+     */
+    private final Map<String, CachedResult> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<Result<?>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    private final LongAdder joined = new LongAdder();
+
+    private final LongAdder storeHits = new LongAdder();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder conflicts = new LongAdder();
+
+    private final LongAdder mismatches = new LongAdder();
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 按幂等键执行下单，key 为空时直接执行
+     *
+     * @param scope   接口标识
+     * @param key     请求头 Idempotency-Key
+     * @param request 请求体，按 JSON 序列化后计算摘要
+     * @param type    结果类型，用于反序列化其他实例保存的结果
+     * @param action  下单逻辑
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String scope, String key, Object request, TypeReference<Result<T>> type,
+                                 Supplier<Result<T>> action) {
+        if (!enabled || key == null || key.isEmpty()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return Result.fail(400, HEADER + " 长度不能超过 " + MAX_KEY_LENGTH);
+        }
+        String cacheKey = scope + '\n' + key;
+        String fingerprint = fingerprint(request);
+        CachedResult cached = getCached(cacheKey);
+        if (cached != null) {
+            if (!fingerprint.equals(cached.fingerprint)) {
+                return mismatch();
+            }
+            cacheHits.increment();
+            return (Result<T>) cached.result;
+        }
+
+        // 请求体不同的请求不等待本实例的执行结果，在数据库记录上判定为不一致
+        String flightKey = cacheKey + '\n' + fingerprint;
+        CompletableFuture<Result<?>> mine = new CompletableFuture<>();
+        CompletableFuture<Result<?>> first = inFlight.putIfAbsent(flightKey, mine);
+        if (first != null) {
+            joined.increment();
+            return (Result<T>) await(first);
+        }
+        try {
+            Result<T> result = claimAndExecute(scope, key, fingerprint, type, action);
+            if (isSuccess(result)) {
+                putCached(cacheKey, fingerprint, result);
+            }
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private <T> Result<T> claimAndExecute(String scope, String key, String fingerprint,
+                                          TypeReference<Result<T>> type, Supplier<Result<T>> action) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMillis);
+        Record record = claim(scope, key, fingerprint);
+        while (record != null && record.status == IN_PROGRESS && fingerprint.equals(record.fingerprint)) {
+            if (System.nanoTime() - deadline >= 0) {
+                conflicts.increment();
+                return Result.fail(CONFLICT_CODE, "相同 " + HEADER + " 的请求正在处理中");
+            }
+            sleep();
+            record = find(scope, key);
+            if (record == null) {
+                // 上一次执行失败，记录已删除，重新争抢执行权
+                record = claim(scope, key, fingerprint);
+            }
+        }
+        if (record != null && !fingerprint.equals(record.fingerprint)) {
+            return mismatch();
+        }
+        if (record != null) {
+            storeHits.increment();
+            return deserialize(record.result, type);
+        }
+
+        Result<T> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            release(scope, key);
+            throw e;
+        }
+        executed.increment();
+        if (!isSuccess(result)) {
+            release(scope, key);
+            return result;
+        }
+        try {
+            jdbcTemplate.update("UPDATE t_idempotency_record SET status = ?, result = ?, update_time = ? "
+                    + "WHERE scope = ? AND idem_key = ?",
+                    COMPLETED, objectMapper.writeValueAsString(result), now(), scope, key);
+        } catch (Exception e) {
+            // 下单已成功，保存结果失败只影响其他实例上的重试，本实例的缓存仍然生效
+            log.warn("保存幂等结果失败：{} {}", scope, key, e);
+        }
+        return result;
+    }
+
+    /**
+     * 插入执行中记录
+     *
+     * @return null 表示当前请求获得执行权，否则为已有记录；执行中的记录超过租期未更新时由当前请求接管，
+     * 接管时请求摘要一并改为当前请求的
+     */
+    private Record claim(String scope, String key, String fingerprint) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Timestamp now = now();
+            try {
+                jdbcTemplate.update("INSERT INTO t_idempotency_record (scope, idem_key, request_hash, status, "
+                        + "create_time, update_time) VALUES (?, ?, ?, ?, ?, ?)",
+                        scope, key, fingerprint, IN_PROGRESS, now, now);
+                return null;
+            } catch (DuplicateKeyException e) {
+                Record record = find(scope, key);
+                if (record == null) {
+                    continue;
+                }
+                if (record.status == IN_PROGRESS
+                        && now.getTime() - record.updateTime.getTime() > TimeUnit.SECONDS.toMillis(leaseSeconds)
+                        && jdbcTemplate.update("UPDATE t_idempotency_record SET request_hash = ?, update_time = ? "
+                        + "WHERE scope = ? AND idem_key = ? AND status = ? AND update_time = ?",
+                        fingerprint, now, scope, key, IN_PROGRESS, record.updateTime) == 1) {
+                    return null;
+                }
+                return record;
+            }
+        }
+        return new Record(IN_PROGRESS, null, now(), fingerprint);
+    }
+
+    private Record find(String scope, String key) {
+        List<Record> records = jdbcTemplate.query("SELECT status, result, update_time, request_hash "
+                        + "FROM t_idempotency_record WHERE scope = ? AND idem_key = ?",
+                (rs, rowNum) -> new Record(rs.getInt(1), rs.getString(2), rs.getTimestamp(3), rs.getString(4)),
+                scope, key);
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    private void release(String scope, String key) {
+        try {
+            jdbcTemplate.update("DELETE FROM t_idempotency_record WHERE scope = ? AND idem_key = ? AND status = ?",
+                    scope, key, IN_PROGRESS);
+        } catch (Exception e) {
+            log.warn("删除幂等执行中记录失败，租期过后才能重试：{} {}", scope, key, e);
+        }
+    }
+
+    /**
+     * 每分钟删除超过保留时长的记录，每次最多 1000 条
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM t_idempotency_record WHERE create_time < ? LIMIT 1000",
+                    new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours)));
+        } catch (Exception e) {
+            log.warn("删除过期幂等记录失败", e);
+        }
+    }
+
+    private Result<?> await(CompletableFuture<Result<?>> first) {
+        try {
+            return first.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            return Result.fail(CONFLICT_CODE, "相同 " + HEADER + " 的请求正在处理中");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.fail(CONFLICT_CODE, "等待相同 " + HEADER + " 的请求时被中断");
+        }
+    }
+
+    private <T> Result<T> deserialize(String result, TypeReference<Result<T>> type) {
+        try {
+            return objectMapper.readValue(result, type);
+        } catch (Exception e) {
+            throw new IllegalStateException("幂等结果反序列化失败", e);
+        }
+    }
+
+    private <T> Result<T> mismatch() {
+        mismatches.increment();
+        return Result.fail(MISMATCH_CODE, "相同 " + HEADER + " 的请求内容不一致");
+    }
+
+    /**
+     * @return 请求体按 JSON 序列化后的 SHA-256 摘要
+     */
+    private String fingerprint(Object request) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private CachedResult getCached(String cacheKey) {
+        CachedResult cached = cache.get(cacheKey);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.expiresAt >= 0) {
+            cache.remove(cacheKey, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    private void putCached(String cacheKey, String fingerprint, Result<?> result) {
+        long now = System.nanoTime();
+        if (cache.size() >= cacheSize) {
+            evict(now);
+        }
+        cache.put(cacheKey, new CachedResult(result, fingerprint, now + TimeUnit.SECONDS.toNanos(cacheTtlSeconds)));
+    }
+
+    /**
+     * 只在写入成功结果时调用，先清理过期条目，仍然超出时淘汰最早过期（即最早写入）的条目
+     */
+    private void evict(long now) {
+        cache.values().removeIf(cached -> now - cached.expiresAt >= 0);
+        while (cache.size() >= cacheSize) {
+            Map.Entry<String, CachedResult> eldest = null;
+            for (Map.Entry<String, CachedResult> entry : cache.entrySet()) {
+                if (eldest == null || entry.getValue().expiresAt - eldest.getValue().expiresAt < 0) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            cache.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private static boolean isSuccess(Result<?> result) {
+        return result != null && result.getCode() != null && result.getCode() == 200;
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 幂等统计，hitRatio 为带幂等键的请求中直接返回已有结果的比例
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hits = cacheHits.sum() + joined.sum() + storeHits.sum();
+        long total = hits + executed.sum();
+        stats.put("enabled", enabled);
+        stats.put("cacheHits", cacheHits.sum());
+        stats.put("joined", joined.sum());
+        stats.put("storeHits", storeHits.sum());
+        stats.put("executed", executed.sum());
+        stats.put("conflicts", conflicts.sum());
+        stats.put("mismatches", mismatches.sum());
+        stats.put("hitRatio", total == 0 ? 0 : (double) hits / total);
+        stats.put("cacheSize", cache.size());
+        return stats;
+    }
+
+    private static final class CachedResult {
+
+        private final Result<?> result;
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private CachedResult(Result<?> result, String fingerprint, long expiresAt) {
+            this.result = result;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Record {
+
+        private final int status;
+
+        private final String result;
+
+        private final Timestamp updateTime;
+
+        private final String fingerprint;
+
+        private Record(int status, String result, Timestamp updateTime, String fingerprint) {
+            this.status = status;
+            this.result = result;
+            this.updateTime = updateTime;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
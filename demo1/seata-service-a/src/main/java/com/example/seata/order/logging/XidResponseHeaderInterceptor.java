@@ -0,0 +1,36 @@
+package com.example.seata.order.logging;
+
+import io.seata.core.context.RootContext;
+import io.seata.tm.api.transaction.TransactionHookAdapter;
+import io.seata.tm.api.transaction.TransactionHookManager;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 把请求中开启的全局事务XID写到响应头Seata-Xid，压测和一致性检查工具据此把数据异常对应到具体的全局事务
+ * XID通过Seata的TransactionHook在begin之后取得；请求中没有开启全局事务时注册的hook不会被Seata清理，请求结束时清理
+ */
+public class XidResponseHeaderInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "Seata-Xid";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!RootContext.inGlobalTransaction()) {
+            TransactionHookManager.registerHook(new TransactionHookAdapter() {
+                @Override
+                public void afterBegin() {
+                    response.setHeader(HEADER, RootContext.getXID());
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TransactionHookManager.clear();
+    }
+}
@@ -3,10 +3,27 @@ package com.example.seata.order.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.seata.order.entity.Order;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 /**
  * AT模式订单Mapper
  */
 @Mapper
 public interface OrderMapper extends BaseMapper<Order> {
+
+    /**
+     * 批量更新订单状态，只更新处于指定状态的订单
+     *
+     * @param ids        订单ID
+     * @param fromStatus 当前状态
+     * @param toStatus   目标状态
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE t_order SET status = #{toStatus}, update_time = NOW() WHERE status = #{fromStatus} AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int updateStatusByIds(@Param("ids") List<Long> ids, @Param("fromStatus") String fromStatus,
+                          @Param("toStatus") String toStatus);
 }
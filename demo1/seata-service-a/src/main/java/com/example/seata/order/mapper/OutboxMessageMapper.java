@@ -0,0 +1,69 @@
+package com.example.seata.order.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.seata.order.entity.OutboxMessage;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox消息Mapper
+ */
+@Mapper
+public interface OutboxMessageMapper extends BaseMapper<OutboxMessage> {
+
+    /**
+     * 按消息ID顺序查询待投递的消息
+     *
+     * @param now   当前时间，跳过还未到重试时间的消息
+     * @param limit 批次大小
+     * @return 待投递消息
+     */
+    @Select("SELECT * FROM t_outbox_message WHERE status = 'NEW' AND next_retry_time <= #{now} ORDER BY id LIMIT #{limit}")
+    List<OutboxMessage> selectPending(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 待投递消息数
+     *
+     * @return 消息数
+     */
+    @Select("SELECT COUNT(*) FROM t_outbox_message WHERE status = 'NEW'")
+    long countPending();
+
+    /**
+     * 标记消息已处理
+     *
+     * @param ids 消息ID
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE t_outbox_message SET status = 'DONE', update_time = NOW(3) WHERE status = 'NEW' AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int markDone(@Param("ids") List<Long> ids);
+
+    /**
+     * 投递失败，推迟下次投递时间
+     *
+     * @param ids           消息ID
+     * @param nextRetryTime 下次投递时间
+     * @return 影响行数
+     */
+    @Update("<script>UPDATE t_outbox_message SET attempts = attempts + 1, next_retry_time = #{nextRetryTime}, " +
+            "update_time = NOW(3) WHERE status = 'NEW' AND id IN " +
+            "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deferRetry(@Param("ids") List<Long> ids, @Param("nextRetryTime") LocalDateTime nextRetryTime);
+
+    /**
+     * 删除过期的已处理消息
+     *
+     * @param before 创建时间早于该时间的消息
+     * @param limit  每次最多删除的条数
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM t_outbox_message WHERE status = 'DONE' AND create_time < #{before} LIMIT #{limit}")
+    int deleteDone(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
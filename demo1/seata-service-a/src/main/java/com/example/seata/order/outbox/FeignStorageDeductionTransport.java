@@ -0,0 +1,32 @@
+package com.example.seata.order.outbox;
+
+import com.example.seata.order.dto.Result;
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
+import com.example.seata.order.exception.BusinessException;
+import com.example.seata.order.feign.StorageFeignClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 通过Feign调用库存服务的批量扣减接口
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "transport", havingValue = "feign", matchIfMissing = true)
+public class FeignStorageDeductionTransport implements StorageDeductionTransport {
+
+    @Resource
+    private StorageFeignClient storageFeignClient;
+
+    @Override
+    public List<StorageDeductionResultDTO> deliver(List<StorageDeductionDTO> deductions) {
+        Result<List<StorageDeductionResultDTO>> result = storageFeignClient.applyDeductions(deductions);
+        if (result.getCode() != 200 || result.getData() == null) {
+            throw new BusinessException("批量扣减库存失败：" + result.getMessage());
+        }
+        return result.getData();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.seata.order.outbox;
+
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 进程内的库存扣减通道，与库存服务的批量扣减语义一致：按消息ID去重、同一商品合并扣减、库存不足时按消息顺序部分扣减。
+ * 每个商品的初始库存为order.outbox.local-initial-stock，重启后清空
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "transport", havingValue = "local")
+public class LocalStorageDeductionTransport implements StorageDeductionTransport {
+
+    private final int initialStock;
+
+    private final Map<String, Integer> residues = new HashMap<>();
+
+    private final Map<Long, StorageDeductionResultDTO> processed = new HashMap<>();
+
+    public LocalStorageDeductionTransport(@Value("${order.outbox.local-initial-stock:100000}") int initialStock) {
+        this.initialStock = initialStock;
+    }
+
+    @Override
+    public synchronized List<StorageDeductionResultDTO> deliver(List<StorageDeductionDTO> deductions) {
+        Map<String, List<StorageDeductionDTO>> byProduct = new LinkedHashMap<>();
+        for (StorageDeductionDTO deduction : deductions) {
+            if (!processed.containsKey(deduction.getMessageId())) {
+                processed.put(deduction.getMessageId(), null);
+                byProduct.computeIfAbsent(deduction.getProductId(), id -> new ArrayList<>()).add(deduction);
+            }
+        }
+        for (Map.Entry<String, List<StorageDeductionDTO>> entry : byProduct.entrySet()) {
+            int residue = residue(entry.getKey());
+            for (StorageDeductionDTO deduction : entry.getValue()) {
+                boolean applied = deduction.getCount() <= residue;
+                if (applied) {
+                    residue -= deduction.getCount();
+                }
+                processed.put(deduction.getMessageId(),
+                        new StorageDeductionResultDTO(deduction.getMessageId(), applied, applied ? null : "库存不足"));
+            }
+            residues.put(entry.getKey(), residue);
+        }
+        List<StorageDeductionResultDTO> results = new ArrayList<>(deductions.size());
+        for (StorageDeductionDTO deduction : deductions) {
+            results.add(processed.get(deduction.getMessageId()));
+        }
+        return results;
+    }
+
+    /**
+     * 商品的剩余库存
+     *
+     * @param productId 商品ID
+     * @return 剩余库存
+     */
+    public synchronized int residue(String productId) {
+        return residues.getOrDefault(productId, initialStock);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.seata.order.outbox;
+
+import com.example.seata.order.mapper.OutboxMessageMapper;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Outbox端点
+ * GET /actuator/outbox 查看待投递消息数、投递批次、扣减成功数、补偿取消数和下单到扣减完成的延迟
+ */
+@Component
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+
+    private final OutboxRelay outboxRelay;
+
+    private final OutboxMessageMapper outboxMessageMapper;
+
+    public OutboxEndpoint(OutboxRelay outboxRelay, OutboxMessageMapper outboxMessageMapper) {
+        this.outboxRelay = outboxRelay;
+        this.outboxMessageMapper = outboxMessageMapper;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = outboxRelay.stats();
+        stats.put("pending", outboxMessageMapper.countPending());
+        return stats;
+    }
+}
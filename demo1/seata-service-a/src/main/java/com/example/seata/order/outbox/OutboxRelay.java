@@ -0,0 +1,266 @@
+package com.example.seata.order.outbox;
+
+import com.example.seata.order.admission.ProductAdmission;
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
+import com.example.seata.order.entity.OutboxMessage;
+import com.example.seata.order.mapper.OrderMapper;
+import com.example.seata.order.mapper.OutboxMessageMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox中继
+ * 单个后台线程按消息ID顺序批量读取待投递的扣减消息，整批投递给库存服务，再在一个本地事务中
+ * 把扣减成功的订单改为SUCCESS、库存不足的订单改为CANCEL（补偿），并把消息标记为已处理。
+ * 下单事务提交后立即唤醒中继，此外每隔order.outbox.poll-interval-millis检查一次，覆盖重试和唤醒丢失。
+ * 投递失败时整批按指数退避重试；多个实例同时运行中继时消息可能重复投递，库存服务按消息ID去重
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String STATUS_PENDING = "PENDING";
+
+    private static final long BASE_RETRY_DELAY_MILLIS = 100;
+
+    private static final int PURGE_BATCH = 1000;
+
+    @Value("${order.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${order.outbox.poll-interval-millis:500}")
+    private long pollIntervalMillis;
+
+    @Value("${order.outbox.max-retry-delay-millis:30000}")
+    private long maxRetryDelayMillis;
+
+    @Value("${order.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    private final OutboxMessageMapper outboxMessageMapper;
+
+    private final OrderMapper orderMapper;
+
+    private final StorageDeductionTransport transport;
+
+    private final ProductAdmission productAdmission;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Semaphore wakeUp = new Semaphore(0);
+
+    private volatile Thread worker;
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder applied = new LongAdder();
+
+    private final LongAdder compensated = new LongAdder();
+
+    private final LongAdder deliveryFailures = new LongAdder();
+
+    private final LongAdder lagMillisTotal = new LongAdder();
+
+    private final LongAccumulator lagMillisMax = new LongAccumulator(Math::max, 0);
+
+    public OutboxRelay(OutboxMessageMapper outboxMessageMapper, OrderMapper orderMapper,
+                       StorageDeductionTransport transport, ProductAdmission productAdmission,
+                       TransactionTemplate transactionTemplate) {
+        this.outboxMessageMapper = outboxMessageMapper;
+        this.orderMapper = orderMapper;
+        this.transport = transport;
+        this.productAdmission = productAdmission;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "outbox-relay");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+        log.info("Outbox中继已启动，batchSize={}，transport={}", batchSize, transport.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 下单事务提交后调用，唤醒中继立即投递
+     */
+    public void signal() {
+        if (wakeUp.availablePermits() == 0) {
+            wakeUp.release();
+        }
+    }
+
+    private void run() {
+        while (worker != null) {
+            try {
+                // 读满一批说明还有积压，继续投递
+                while (relayOnce() >= batchSize && worker != null) {
+                    wakeUp.drainPermits();
+                }
+                wakeUp.tryAcquire(pollIntervalMillis, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Outbox中继执行失败", e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMillis);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 投递一批消息
+     *
+     * @return 本批处理完成的消息数，投递失败时为0
+     */
+    public int relayOnce() {
+        List<OutboxMessage> messages = outboxMessageMapper.selectPending(LocalDateTime.now(), batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<StorageDeductionDTO> deductions = messages.stream()
+                .map(m -> new StorageDeductionDTO(m.getId(), m.getProductId(), m.getCount()))
+                .collect(Collectors.toList());
+        List<StorageDeductionResultDTO> results;
+        try {
+            results = transport.deliver(deductions);
+        } catch (Exception e) {
+            deliveryFailures.increment();
+            int attempts = messages.stream().mapToInt(m -> m.getAttempts() == null ? 0 : m.getAttempts()).max().orElse(0);
+            long delay = Math.min(maxRetryDelayMillis, BASE_RETRY_DELAY_MILLIS << Math.min(attempts, 20));
+            outboxMessageMapper.deferRetry(ids(messages), LocalDateTime.now().plus(Duration.ofMillis(delay)));
+            log.warn("Outbox中继：投递{}条扣减消息失败，{}ms后重试：{}", messages.size(), delay, e.getMessage());
+            return 0;
+        }
+
+        Map<Long, OutboxMessage> byId = new HashMap<>();
+        messages.forEach(m -> byId.put(m.getId(), m));
+        List<Long> doneIds = new ArrayList<>();
+        List<Long> appliedOrderIds = new ArrayList<>();
+        List<Long> cancelledOrderIds = new ArrayList<>();
+        Set<String> appliedProducts = new LinkedHashSet<>();
+        Map<String, String> rejectedProducts = new LinkedHashMap<>();
+        for (StorageDeductionResultDTO result : results) {
+            OutboxMessage message = result == null ? null : byId.get(result.getMessageId());
+            if (message == null) {
+                continue;
+            }
+            doneIds.add(message.getId());
+            if (Boolean.TRUE.equals(result.getApplied())) {
+                appliedOrderIds.add(message.getOrderId());
+                appliedProducts.add(message.getProductId());
+            } else {
+                cancelledOrderIds.add(message.getOrderId());
+                rejectedProducts.put(message.getProductId(), result.getMessage());
+            }
+        }
+        if (!doneIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!appliedOrderIds.isEmpty()) {
+                    orderMapper.updateStatusByIds(appliedOrderIds, STATUS_PENDING, "SUCCESS");
+                }
+                if (!cancelledOrderIds.isEmpty()) {
+                    orderMapper.updateStatusByIds(cancelledOrderIds, STATUS_PENDING, "CANCEL");
+                }
+                outboxMessageMapper.markDone(doneIds);
+            });
+        }
+        appliedProducts.forEach(productAdmission::onStorageSuccess);
+        rejectedProducts.forEach(productAdmission::onStorageFailure);
+
+        batches.increment();
+        applied.add(appliedOrderIds.size());
+        compensated.add(cancelledOrderIds.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Long id : doneIds) {
+            long lag = Duration.between(byId.get(id).getCreateTime(), now).toMillis();
+            lagMillisTotal.add(lag);
+            lagMillisMax.accumulate(lag);
+        }
+        if (!cancelledOrderIds.isEmpty()) {
+            log.warn("Outbox中继：{}个订单库存不足已取消，orderIds={}", cancelledOrderIds.size(), cancelledOrderIds);
+        }
+        return doneIds.size();
+    }
+
+    /**
+     * 每小时删除超过保留时长的已处理消息
+     */
+    @Scheduled(fixedDelay = 3600000, initialDelay = 60000)
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minusHours(retentionHours);
+        try {
+            while (outboxMessageMapper.deleteDone(before, PURGE_BATCH) >= PURGE_BATCH) {
+                log.debug("Outbox中继：继续删除过期消息");
+            }
+        } catch (Exception e) {
+            log.warn("删除过期Outbox消息失败", e);
+        }
+    }
+
+    /**
+     * 中继统计，lagMillisAvg/lagMillisMax为消息从下单到库存扣减结果落库的耗时
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long done = applied.sum() + compensated.sum();
+        stats.put("enabled", enabled);
+        stats.put("transport", transport.getClass().getSimpleName());
+        stats.put("batches", batches.sum());
+        stats.put("applied", applied.sum());
+        stats.put("compensated", compensated.sum());
+        stats.put("deliveryFailures", deliveryFailures.sum());
+        stats.put("avgBatchSize", batches.sum() == 0 ? 0 : (double) done / batches.sum());
+        stats.put("lagMillisAvg", done == 0 ? 0 : (double) lagMillisTotal.sum() / done);
+        stats.put("lagMillisMax", lagMillisMax.get());
+        return stats;
+    }
+
+    private static List<Long> ids(List<OutboxMessage> messages) {
+        return messages.stream().map(OutboxMessage::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.seata.order.outbox;
+
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
+
+import java.util.List;
+
+/**
+ * Outbox中继向库存服务投递扣减消息的通道
+ * order.outbox.transport=feign（默认）调用库存服务，local使用进程内库存，用于测试和压测中继本身
+ */
+public interface StorageDeductionTransport {
+
+    /**
+     * 投递一批扣减消息，投递失败时抛出异常，中继稍后重试整批
+     *
+     * @param deductions 扣减消息
+     * @return 库存服务返回的结果，缺少结果的消息会被重新投递
+     */
+    List<StorageDeductionResultDTO> deliver(List<StorageDeductionDTO> deductions);
+}
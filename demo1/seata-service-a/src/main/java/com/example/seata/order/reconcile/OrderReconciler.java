@@ -0,0 +1,318 @@
+package com.example.seata.order.reconcile;
+
+import com.example.seata.order.reconcile.ReconcileStore.Counters;
+import com.example.seata.order.reconcile.ReconcileStore.Mode;
+import com.example.seata.order.reconcile.ReconcileStore.OrderRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 订单与库存的增量对账
+ * 按订单ID从检查点开始，每个窗口最多读取 batch-size 个创建时间早于 settle-seconds 的订单，
+ * 把 SUCCESS 订单的数量按商品累加到 t_reconcile_expected，仍是 INIT/PENDING 的订单记为 STUCK_ORDER 并暂存到
+ * t_reconcile_open，之后每轮重新检查；累加和推进检查点在同一个本地事务中完成。
+ * 每轮最多处理 max-windows-per-run 个窗口，窗口之间暂停 pause-millis，避免对账本身压垮订单库。
+ * 窗口结束后比对本轮涉及的商品：used 必须落在 [期望值 + 检查点之后的成功订单 - 冻结数, 再加上未完成订单] 区间内，
+ * 超出区间持续 confirm-seconds 后写入一条 USED_MISMATCH，回到区间内后才会再次报告。
+ * 差异报告写入 t_reconcile_discrepancy，不做自动修复
+ */
+@Slf4j
+@Component
+public class OrderReconciler {
+
+    public static final String USED_MISMATCH = "USED_MISMATCH";
+
+    public static final String STUCK_ORDER = "STUCK_ORDER";
+
+    private static final String STATUS_SUCCESS = "SUCCESS";
+
+    private static final String STATUS_INIT = "INIT";
+
+    private static final String STATUS_PENDING = "PENDING";
+
+    @Value("${order.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.reconcile.batch-size:500}")
+    private int batchSize;
+
+    @Value("${order.reconcile.max-windows-per-run:10}")
+    private int maxWindowsPerRun;
+
+    @Value("${order.reconcile.pause-millis:200}")
+    private long pauseMillis;
+
+    @Value("${order.reconcile.settle-seconds:300}")
+    private long settleSeconds;
+
+    @Value("${order.reconcile.confirm-seconds:60}")
+    private long confirmSeconds;
+
+    private final ReconcileStore store;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 超出区间的商品 -> 首次发现的时间，只在本实例内存中保存
+     */
+    private final Map<Mode, Map<String, Suspect>> suspects = new EnumMap<>(Mode.class);
+
+    private final LongAdder runs = new LongAdder();
+
+    private final LongAdder windows = new LongAdder();
+
+    private final LongAdder orders = new LongAdder();
+
+    private final LongAdder stuckOrders = new LongAdder();
+
+    private final LongAdder mismatches = new LongAdder();
+
+    private final LongAdder lostRaces = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private volatile long lastRunMillis;
+
+    public OrderReconciler(ReconcileStore store, TransactionTemplate transactionTemplate) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        for (Mode mode : Mode.values()) {
+            suspects.put(mode, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.reconcile.interval-millis:10000}",
+            initialDelayString = "${order.reconcile.interval-millis:10000}")
+    public void schedule() {
+        if (!enabled) {
+            return;
+        }
+        for (Mode mode : Mode.values()) {
+            try {
+                reconcile(mode);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("{}模式对账失败", mode, e);
+            }
+        }
+    }
+
+    /**
+     * 对账一轮：重新检查暂存订单，处理若干窗口，再比对涉及的商品
+     *
+     * @return 本轮处理的订单数
+     */
+    public synchronized int reconcile(Mode mode) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long checkpoint = store.checkpoint(mode);
+        Set<String> touched = new LinkedHashSet<>(resolveParked(mode));
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(settleSeconds);
+        int processed = 0;
+        for (int i = 0; i < maxWindowsPerRun; i++) {
+            if (i > 0) {
+                TimeUnit.MILLISECONDS.sleep(pauseMillis);
+            }
+            List<OrderRow> rows = store.selectOrders(mode, checkpoint, batchSize);
+            Window window = Window.of(rows, settledBefore);
+            if (window.size == 0) {
+                break;
+            }
+            long expect = checkpoint;
+            Boolean advanced = transactionTemplate.execute(status -> {
+                if (!store.advance(mode, expect, window.lastOrderId)) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                store.addExpected(mode, window.deltas);
+                if (!window.stuck.isEmpty()) {
+                    store.park(mode, window.stuck);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(advanced)) {
+                // 其他实例已经处理了这个窗口，从它的检查点继续
+                lostRaces.increment();
+                checkpoint = store.checkpoint(mode);
+                continue;
+            }
+            for (OrderRow order : window.stuck) {
+                stuckOrders.increment();
+                store.insertDiscrepancy(mode, STUCK_ORDER, order.getProductId(), order.getId(),
+                        0, order.getCount(), 0, window.lastOrderId);
+                log.warn("{}模式对账：订单超过{}秒仍未完成，orderId={}，status={}", mode, settleSeconds,
+                        order.getId(), order.getStatus());
+            }
+            checkpoint = window.lastOrderId;
+            touched.addAll(window.deltas.keySet());
+            processed += window.size;
+            windows.increment();
+            orders.add(window.size);
+            if (window.size < rows.size() || rows.size() < batchSize) {
+                break;
+            }
+        }
+        compare(mode, touched, checkpoint);
+        runs.increment();
+        lastRunMillis = System.currentTimeMillis() - start;
+        return processed;
+    }
+
+    /**
+     * 暂存订单已成功的计入期望值，已取消或已回滚删除的直接移除
+     *
+     * @return 状态有变化的订单涉及的商品
+     */
+    private Set<String> resolveParked(Mode mode) {
+        List<OrderRow> resolved = new ArrayList<>();
+        for (OrderRow order : store.selectParked(mode, batchSize)) {
+            if (!isOpen(order.getStatus())) {
+                resolved.add(order);
+            }
+        }
+        if (resolved.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Map<String, Long> deltas = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] deleted = store.unpark(mode, resolved);
+            for (int i = 0; i < deleted.length; i++) {
+                // 删除不到说明其他实例已经处理过
+                if (deleted[i] == 1) {
+                    OrderRow order = resolved.get(i);
+                    long delta = STATUS_SUCCESS.equals(order.getStatus()) ? order.getCount() : 0;
+                    deltas.merge(order.getProductId(), delta, Long::sum);
+                }
+            }
+            if (!deltas.isEmpty()) {
+                store.addExpected(mode, deltas);
+            }
+        });
+        return deltas.keySet();
+    }
+
+    private void compare(Mode mode, Set<String> touched, long checkpoint) {
+        Map<String, Suspect> modeSuspects = suspects.get(mode);
+        Set<String> products = new LinkedHashSet<>(touched);
+        products.addAll(modeSuspects.keySet());
+        long now = System.currentTimeMillis();
+        for (Counters counters : store.counters(mode, products, checkpoint)) {
+            String productId = counters.getProductId();
+            long min = counters.expectedMin();
+            long max = counters.expectedMax();
+            long used = counters.getUsed();
+            if (used >= min && used <= max) {
+                modeSuspects.remove(productId);
+                continue;
+            }
+            Suspect suspect = modeSuspects.computeIfAbsent(productId, p -> new Suspect(now));
+            if (!suspect.reported && now - suspect.since >= TimeUnit.SECONDS.toMillis(confirmSeconds)) {
+                suspect.reported = true;
+                mismatches.increment();
+                store.insertDiscrepancy(mode, USED_MISMATCH, productId, null, min, max, used, checkpoint);
+                log.error("{}模式对账：库存扣减量与订单不一致，productId={}，期望used在[{}, {}]，实际used={}",
+                        mode, productId, min, max, used);
+            }
+        }
+    }
+
+    /**
+     * 删除检查点和期望值，清空可疑商品，下一轮从第一个订单重新对账，用于重置测试数据之后
+     */
+    public synchronized void reset() {
+        for (Mode mode : Mode.values()) {
+            store.reset(mode);
+            suspects.get(mode).clear();
+        }
+        log.info("对账检查点已重置");
+    }
+
+    /**
+     * 对账统计和各模式的检查点
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("runs", runs.sum());
+        stats.put("windows", windows.sum());
+        stats.put("orders", orders.sum());
+        stats.put("stuckOrders", stuckOrders.sum());
+        stats.put("mismatches", mismatches.sum());
+        stats.put("lostRaces", lostRaces.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastRunMillis", lastRunMillis);
+        Map<String, Object> modes = new LinkedHashMap<>();
+        for (Mode mode : Mode.values()) {
+            Map<String, Object> modeStats = new LinkedHashMap<>();
+            modeStats.put("suspects", new ArrayList<>(suspects.get(mode).keySet()));
+            modes.put(mode.name(), modeStats);
+        }
+        stats.put("modes", modes);
+        return stats;
+    }
+
+    private static boolean isOpen(String status) {
+        return STATUS_INIT.equals(status) || STATUS_PENDING.equals(status);
+    }
+
+    /**
+     * 一个窗口：检查点之后按ID连续、创建时间早于 settledBefore 的订单
+     */
+    static final class Window {
+
+        private int size;
+
+        private long lastOrderId;
+
+        private final Map<String, Long> deltas = new LinkedHashMap<>();
+
+        private final List<OrderRow> stuck = new ArrayList<>();
+
+        static Window of(List<OrderRow> rows, LocalDateTime settledBefore) {
+            Window window = new Window();
+            for (OrderRow row : rows) {
+                if (row.getCreateTime().isAfter(settledBefore)) {
+                    break;
+                }
+                long delta = STATUS_SUCCESS.equals(row.getStatus()) ? row.getCount() : 0;
+                window.deltas.merge(row.getProductId(), delta, Long::sum);
+                if (isOpen(row.getStatus())) {
+                    window.stuck.add(row);
+                }
+                window.lastOrderId = row.getId();
+                window.size++;
+            }
+            return window;
+        }
+    }
+
+    private static final class Suspect {
+
+        private final long since;
+
+        private boolean reported;
+
+        private Suspect(long since) {
+            this.since = since;
+        }
+    }
+}
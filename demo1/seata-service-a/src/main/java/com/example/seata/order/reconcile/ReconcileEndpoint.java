@@ -0,0 +1,40 @@
+package com.example.seata.order.reconcile;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 对账端点
+ * GET /actuator/reconcile 查看处理的窗口数、订单数、卡住的订单数、库存不一致的商品和各模式的检查点，
+ * 差异明细在 t_reconcile_discrepancy；
+ * DELETE /actuator/reconcile 重置检查点和期望值，重新初始化测试数据后使用
+ */
+@Component
+@Endpoint(id = "reconcile")
+public class ReconcileEndpoint {
+
+    private final OrderReconciler orderReconciler;
+
+    private final ReconcileStore reconcileStore;
+
+    public ReconcileEndpoint(OrderReconciler orderReconciler, ReconcileStore reconcileStore) {
+        this.orderReconciler = orderReconciler;
+        this.reconcileStore = reconcileStore;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = orderReconciler.stats();
+        stats.put("checkpoints", reconcileStore.checkpoints());
+        return stats;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        orderReconciler.reset();
+    }
+}
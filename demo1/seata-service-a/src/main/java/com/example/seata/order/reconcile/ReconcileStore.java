@@ -0,0 +1,291 @@
+package com.example.seata.order.reconcile;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 对账数据访问
+ * 对账表（t_reconcile_checkpoint、t_reconcile_expected、t_reconcile_open、t_reconcile_discrepancy）在订单库，
+ * 库存表通过 order.reconcile.storage-schema 跨库读取，要求订单库账号有库存库的只读权限
+ */
+@Component
+public class ReconcileStore {
+
+    private static final Pattern SCHEMA = Pattern.compile("[A-Za-z0-9_]+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final String storageSchema;
+
+    public ReconcileStore(JdbcTemplate jdbcTemplate,
+                          @Value("${order.reconcile.storage-schema:seata_storage}") String storageSchema) {
+        if (!SCHEMA.matcher(storageSchema).matches()) {
+            throw new IllegalArgumentException("order.reconcile.storage-schema 不合法：" + storageSchema);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.storageSchema = storageSchema;
+    }
+
+    /**
+     * 对账模式，AT模式和Outbox模式的订单都在 t_order，扣减 t_storage.used；
+     * TCC模式的订单在 t_order_tcc，Try 阶段冻结 frozen，Confirm 阶段转为 used
+     */
+    public enum Mode {
+        AT("t_order", "t_storage", false),
+        TCC("t_order_tcc", "t_storage_tcc", true);
+
+        private final String orderTable;
+
+        private final String storageTable;
+
+        private final boolean frozen;
+
+        Mode(String orderTable, String storageTable, boolean frozen) {
+            this.orderTable = orderTable;
+            this.storageTable = storageTable;
+            this.frozen = frozen;
+        }
+    }
+
+    /**
+     * 检查点之后的订单
+     */
+    public static class OrderRow {
+
+        private final long id;
+
+        private final String productId;
+
+        private final int count;
+
+        private final String status;
+
+        private final LocalDateTime createTime;
+
+        public OrderRow(long id, String productId, int count, String status, LocalDateTime createTime) {
+            this.id = id;
+            this.productId = productId;
+            this.count = count;
+            this.status = status;
+            this.createTime = createTime;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public LocalDateTime getCreateTime() {
+            return createTime;
+        }
+    }
+
+    /**
+     * 同一时刻读出的某个商品的期望值和实际计数
+     */
+    public static class Counters {
+
+        private final String productId;
+
+        private final long expectedUsed;
+
+        private final long tailSuccess;
+
+        private final long tailOpen;
+
+        private final long parked;
+
+        private final long used;
+
+        private final long frozen;
+
+        public Counters(String productId, long expectedUsed, long tailSuccess, long tailOpen, long parked,
+                        long used, long frozen) {
+            this.productId = productId;
+            this.expectedUsed = expectedUsed;
+            this.tailSuccess = tailSuccess;
+            this.tailOpen = tailOpen;
+            this.parked = parked;
+            this.used = used;
+            this.frozen = frozen;
+        }
+
+        public String getProductId() {
+            return productId;
+        }
+
+        /**
+         * used 的下限：已确认成功的订单全部扣减，TCC模式下其中最多 frozen 件还没有 Confirm
+         */
+        public long expectedMin() {
+            return expectedUsed + tailSuccess - frozen;
+        }
+
+        /**
+         * used 的上限：未完成的订单也已经扣减
+         */
+        public long expectedMax() {
+            return expectedUsed + tailSuccess + tailOpen + parked;
+        }
+
+        public long getUsed() {
+            return used;
+        }
+    }
+
+    /**
+     * @return 检查点，不存在时创建
+     */
+    public long checkpoint(Mode mode) {
+        jdbcTemplate.update("INSERT IGNORE INTO t_reconcile_checkpoint (mode, last_order_id, update_time) VALUES (?, 0, ?)",
+                mode.name(), now());
+        Long id = jdbcTemplate.queryForObject("SELECT last_order_id FROM t_reconcile_checkpoint WHERE mode = ?",
+                Long.class, mode.name());
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * @return 模式 -> 检查点
+     */
+    public Map<String, Long> checkpoints() {
+        Map<String, Long> checkpoints = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT mode, last_order_id FROM t_reconcile_checkpoint ORDER BY mode",
+                (RowCallbackHandler) rs -> checkpoints.put(rs.getString(1), rs.getLong(2)));
+        return checkpoints;
+    }
+
+    /**
+     * 推进检查点，只有检查点仍是 expect 时才更新，多个实例同时对账时同一窗口只会计入一次
+     */
+    public boolean advance(Mode mode, long expect, long lastOrderId) {
+        return jdbcTemplate.update("UPDATE t_reconcile_checkpoint SET last_order_id = ?, update_time = ? "
+                + "WHERE mode = ? AND last_order_id = ?", lastOrderId, now(), mode.name(), expect) == 1;
+    }
+
+    public List<OrderRow> selectOrders(Mode mode, long afterId, int limit) {
+        return jdbcTemplate.query("SELECT id, product_id, count, status, create_time FROM " + mode.orderTable
+                        + " WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new OrderRow(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime()), afterId, limit);
+    }
+
+    /**
+     * 累加商品的期望扣减量，delta 为0时也创建记录，使该商品进入比对范围
+     */
+    public void addExpected(Mode mode, Map<String, Long> deltas) {
+        Timestamp now = now();
+        jdbcTemplate.batchUpdate("INSERT INTO t_reconcile_expected (mode, product_id, expected_used, update_time) "
+                        + "VALUES (?, ?, ?, ?) ON DUPLICATE KEY UPDATE expected_used = expected_used + VALUES(expected_used), "
+                        + "update_time = VALUES(update_time)",
+                deltas.entrySet().stream()
+                        .map(e -> new Object[]{mode.name(), e.getKey(), e.getValue(), now})
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * 暂存越过检查点时仍未完成的订单，之后每轮重新检查其状态
+     */
+    public void park(Mode mode, List<OrderRow> orders) {
+        Timestamp now = now();
+        jdbcTemplate.batchUpdate("INSERT IGNORE INTO t_reconcile_open (mode, order_id, product_id, count, create_time) "
+                        + "VALUES (?, ?, ?, ?, ?)",
+                orders.stream()
+                        .map(o -> new Object[]{mode.name(), o.getId(), o.getProductId(), o.getCount(), now})
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * @return 暂存的订单及其当前状态，订单已被删除（AT模式回滚）时状态为 null
+     */
+    public List<OrderRow> selectParked(Mode mode, int limit) {
+        return jdbcTemplate.query("SELECT p.order_id, p.product_id, p.count, o.status, p.create_time "
+                        + "FROM t_reconcile_open p LEFT JOIN " + mode.orderTable + " o ON o.id = p.order_id "
+                        + "WHERE p.mode = ? ORDER BY p.order_id LIMIT ?",
+                (rs, rowNum) -> new OrderRow(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getString(4),
+                        rs.getTimestamp(5).toLocalDateTime()), mode.name(), limit);
+    }
+
+    /**
+     * 逐条删除，不依赖驱动批量执行时返回的行数
+     *
+     * @return 每个订单删除的行数
+     */
+    public int[] unpark(Mode mode, List<OrderRow> orders) {
+        int[] deleted = new int[orders.size()];
+        for (int i = 0; i < deleted.length; i++) {
+            deleted[i] = jdbcTemplate.update("DELETE FROM t_reconcile_open WHERE mode = ? AND order_id = ?",
+                    mode.name(), orders.get(i).getId());
+        }
+        return deleted;
+    }
+
+    /**
+     * 一条语句读出期望值、检查点之后的订单和库存计数，InnoDB 一致性读保证它们来自同一时刻
+     */
+    public List<Counters> counters(Mode mode, Collection<String> productIds, long checkpoint) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String in = productIds.stream().map(p -> "?").collect(Collectors.joining(", "));
+        String sql = "SELECT e.product_id, e.expected_used, "
+                + "(SELECT COALESCE(SUM(o.count), 0) FROM " + mode.orderTable
+                + " o WHERE o.product_id = e.product_id AND o.id > ? AND o.status = 'SUCCESS'), "
+                + "(SELECT COALESCE(SUM(o.count), 0) FROM " + mode.orderTable
+                + " o WHERE o.product_id = e.product_id AND o.id > ? AND o.status IN ('INIT', 'PENDING')), "
+                + "(SELECT COALESCE(SUM(p.count), 0) FROM t_reconcile_open p WHERE p.mode = e.mode AND p.product_id = e.product_id), "
+                + "COALESCE(s.used, 0), " + (mode.frozen ? "COALESCE(s.frozen, 0)" : "0")
+                + " FROM t_reconcile_expected e LEFT JOIN " + storageSchema + "." + mode.storageTable
+                + " s ON s.product_id = e.product_id WHERE e.mode = ? AND e.product_id IN (" + in + ")";
+        List<Object> args = new ArrayList<>();
+        args.add(checkpoint);
+        args.add(checkpoint);
+        args.add(mode.name());
+        args.addAll(productIds);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new Counters(rs.getString(1), rs.getLong(2), rs.getLong(3),
+                rs.getLong(4), rs.getLong(5), rs.getLong(6), rs.getLong(7)), args.toArray());
+    }
+
+    public void insertDiscrepancy(Mode mode, String kind, String productId, Long orderId, long expectedMin,
+                                  long expectedMax, long observed, long checkpoint) {
+        jdbcTemplate.update("INSERT INTO t_reconcile_discrepancy (mode, kind, product_id, order_id, expected_min, "
+                        + "expected_max, observed, checkpoint_order_id, detected_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                mode.name(), kind, productId, orderId, expectedMin, expectedMax, observed, checkpoint, now());
+    }
+
+    /**
+     * 删除检查点、期望值和暂存订单，下一轮从第一个订单重新对账；差异报告保留
+     */
+    public void reset(Mode mode) {
+        jdbcTemplate.update("DELETE FROM t_reconcile_checkpoint WHERE mode = ?", mode.name());
+        jdbcTemplate.update("DELETE FROM t_reconcile_expected WHERE mode = ?", mode.name());
+        jdbcTemplate.update("DELETE FROM t_reconcile_open WHERE mode = ?", mode.name());
+    }
+
+    private static Timestamp now() {
+        return new Timestamp(System.currentTimeMillis());
+    }
+}
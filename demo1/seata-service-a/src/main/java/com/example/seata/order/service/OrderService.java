@@ -1,5 +1,6 @@
 package com.example.seata.order.service;
 
+import com.example.seata.order.admission.ProductAdmission;
 import com.example.seata.order.dto.OrderDTO;
 import com.example.seata.order.dto.Result;
 import com.example.seata.order.dto.StorageDTO;
@@ -7,6 +8,7 @@ import com.example.seata.order.entity.Order;
 import com.example.seata.order.exception.BusinessException;
 import com.example.seata.order.feign.StorageFeignClient;
 import com.example.seata.order.mapper.OrderMapper;
+import io.seata.core.context.RootContext;
 import io.seata.spring.annotation.GlobalTransactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -33,6 +35,9 @@ public class OrderService {
     @Resource
     private OrderTCCService orderTCCService;
 
+    @Resource
+    private ProductAdmission productAdmission;
+
     /**
      * 创建订单（AT模式 - 正常提交场景）
      *
@@ -41,8 +46,6 @@ public class OrderService {
      */
     @GlobalTransactional(name = "create-order-at", rollbackFor = Exception.class)
     public Long createOrder(OrderDTO orderDTO) {
-        log.info("订单服务：开始创建订单（AT模式），订单信息={}", orderDTO);
-
         // 1. 创建订单记录
         Order order = new Order();
         order.setUserId(orderDTO.getUserId());
@@ -57,25 +60,26 @@ public class OrderService {
         if (result <= 0) {
             throw new BusinessException("创建订单失败");
         }
-        log.info("订单服务：订单创建成功，订单ID={}", order.getId());
 
         // 2. 调用库存服务扣减库存
-        log.info("订单服务：开始调用库存服务扣减库存");
         StorageDTO storageDTO = new StorageDTO(orderDTO.getProductId(), orderDTO.getCount());
         Result<Void> storageResult = storageFeignClient.reduce(storageDTO);
 
         if (storageResult.getCode() != 200) {
-            log.error("订单服务：扣减库存失败，{}", storageResult.getMessage());
+            productAdmission.onStorageFailure(orderDTO.getProductId(), storageResult.getMessage());
+            log.warn("订单服务：扣减库存失败，xid={}, productId={}, {}",
+                    RootContext.getXID(), orderDTO.getProductId(), storageResult.getMessage());
             throw new BusinessException("扣减库存失败：" + storageResult.getMessage());
         }
-        log.info("订单服务：扣减库存成功");
+        productAdmission.onStorageSuccess(orderDTO.getProductId());
 
         // 3. 更新订单状态为成功
         order.setStatus("SUCCESS");
         order.setUpdateTime(LocalDateTime.now());
         orderMapper.updateById(order);
 
-        log.info("订单服务：订单创建完成（AT模式），订单ID={}", order.getId());
+        log.info("订单服务：订单创建完成（AT模式），xid={}, orderId={}, productId={}, count={}",
+                RootContext.getXID(), order.getId(), orderDTO.getProductId(), orderDTO.getCount());
         return order.getId();
     }
 
@@ -112,9 +116,11 @@ public class OrderService {
         Result<Void> storageResult = storageFeignClient.reduce(storageDTO);
 
         if (storageResult.getCode() != 200) {
+            productAdmission.onStorageFailure(orderDTO.getProductId(), storageResult.getMessage());
             log.error("订单服务：扣减库存失败，{}", storageResult.getMessage());
             throw new BusinessException("扣减库存失败：" + storageResult.getMessage());
         }
+        productAdmission.onStorageSuccess(orderDTO.getProductId());
         log.info("订单服务：扣减库存成功");
 
         // 3. 模拟异常，触发回滚
@@ -151,9 +157,11 @@ public class OrderService {
         Result<Void> storageResult = storageFeignClient.reduceTcc(storageDTO);
 
         if (storageResult.getCode() != 200) {
+            productAdmission.onStorageFailure(orderDTO.getProductId(), storageResult.getMessage());
             log.error("订单服务：TCC-Try冻结库存失败，{}", storageResult.getMessage());
             throw new BusinessException("TCC-Try冻结库存失败：" + storageResult.getMessage());
         }
+        productAdmission.onStorageSuccess(orderDTO.getProductId());
         log.info("订单服务：TCC-Try冻结库存成功");
 
         // Try阶段全部成功，Seata会自动调用Confirm方法
@@ -191,9 +199,11 @@ public class OrderService {
         Result<Void> storageResult = storageFeignClient.reduceTcc(storageDTO);
 
         if (storageResult.getCode() != 200) {
+            productAdmission.onStorageFailure(orderDTO.getProductId(), storageResult.getMessage());
             log.error("订单服务：TCC-Try冻结库存失败，{}", storageResult.getMessage());
             throw new BusinessException("TCC-Try冻结库存失败：" + storageResult.getMessage());
         }
+        productAdmission.onStorageSuccess(orderDTO.getProductId());
         log.info("订单服务：TCC-Try冻结库存成功");
 
         // 3. 模拟异常，触发TCC回滚
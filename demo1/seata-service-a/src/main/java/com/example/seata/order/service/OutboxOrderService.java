@@ -0,0 +1,79 @@
+package com.example.seata.order.service;
+
+import com.example.seata.order.dto.OrderDTO;
+import com.example.seata.order.entity.Order;
+import com.example.seata.order.entity.OutboxMessage;
+import com.example.seata.order.exception.BusinessException;
+import com.example.seata.order.mapper.OrderMapper;
+import com.example.seata.order.mapper.OutboxMessageMapper;
+import com.example.seata.order.outbox.OutboxRelay;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox模式订单服务
+ * 不开启全局事务：订单（状态PENDING）和库存扣减消息在同一个本地事务中写入订单库，
+ * 由OutboxRelay异步批量投递给库存服务，扣减成功后订单改为SUCCESS，库存不足时改为CANCEL
+ */
+@Slf4j
+@Service
+public class OutboxOrderService {
+
+    @Resource
+    private OrderMapper orderMapper;
+
+    @Resource
+    private OutboxMessageMapper outboxMessageMapper;
+
+    @Resource
+    private OutboxRelay outboxRelay;
+
+    /**
+     * 创建订单（Outbox模式）
+     *
+     * @param orderDTO 订单DTO
+     * @return 订单ID，此时库存尚未扣减
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Long createOrder(OrderDTO orderDTO) {
+        LocalDateTime now = LocalDateTime.now();
+        Order order = new Order();
+        order.setUserId(orderDTO.getUserId());
+        order.setProductId(orderDTO.getProductId());
+        order.setCount(orderDTO.getCount());
+        order.setAmount(orderDTO.getAmount());
+        order.setStatus("PENDING");
+        order.setCreateTime(now);
+        order.setUpdateTime(now);
+        if (orderMapper.insert(order) <= 0) {
+            throw new BusinessException("创建订单失败");
+        }
+
+        OutboxMessage message = new OutboxMessage();
+        message.setOrderId(order.getId());
+        message.setProductId(orderDTO.getProductId());
+        message.setCount(orderDTO.getCount());
+        message.setStatus("NEW");
+        message.setAttempts(0);
+        message.setNextRetryTime(now);
+        message.setCreateTime(now);
+        message.setUpdateTime(now);
+        outboxMessageMapper.insert(message);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.signal();
+            }
+        });
+        log.info("订单服务：订单已受理（Outbox模式），orderId={}, messageId={}, productId={}, count={}",
+                order.getId(), message.getId(), orderDTO.getProductId(), orderDTO.getCount());
+        return order.getId();
+    }
+}
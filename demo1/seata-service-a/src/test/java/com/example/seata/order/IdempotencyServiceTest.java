@@ -0,0 +1,178 @@
+package com.example.seata.order;
+
+import com.example.seata.order.dto.OrderDTO;
+import com.example.seata.order.dto.Result;
+import com.example.seata.order.idempotency.IdempotencyService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 下单幂等键测试
+ * 测试目标：验证相同 key 的重试和并发请求只执行一次，失败结果不缓存，相同 key 的请求体不同时返回 422，数据库用 mock 代替
+ */
+public class IdempotencyServiceTest {
+
+    private static final TypeReference<Result<Long>> TYPE = new TypeReference<Result<Long>>() {};
+
+    private static final OrderDTO ORDER = order(1);
+
+    private JdbcTemplate jdbcTemplate;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        idempotencyService = new IdempotencyService(jdbcTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "enabled", true);
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 100);
+        ReflectionTestUtils.setField(idempotencyService, "cacheTtlSeconds", 600L);
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMillis", 5000L);
+        ReflectionTestUtils.setField(idempotencyService, "leaseSeconds", 120L);
+    }
+
+    @Test
+    public void testRetryReturnsCachedResult() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            Result<Long> result = idempotencyService.execute("create-at", "K1", ORDER, TYPE,
+                    () -> Result.success("订单创建成功", (long) calls.incrementAndGet()));
+            assertEquals(1L, result.getData());
+        }
+        assertEquals(1, calls.get());
+
+        Map<String, Object> stats = idempotencyService.stats();
+        assertEquals(1L, stats.get("executed"));
+        assertEquals(2L, stats.get("cacheHits"));
+    }
+
+    @Test
+    public void testFailureIsNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("create-at", "K1", ORDER, TYPE, () -> {
+            calls.incrementAndGet();
+            return Result.fail("库存不足");
+        });
+        Result<Long> retry = idempotencyService.execute("create-at", "K1", ORDER, TYPE,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(200, retry.getCode());
+        assertEquals(2, calls.get());
+        // 失败后删除执行中记录，允许重试
+        verify(jdbcTemplate).update(startsWith("DELETE FROM t_idempotency_record"), eq("create-at"), eq("K1"), eq(1));
+    }
+
+    @Test
+    public void testConcurrentDuplicateWaitsForFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Result<Long>> first = executor.submit(() -> idempotencyService.execute("create-at", "K1", ORDER, TYPE, () -> {
+                started.countDown();
+                await(release);
+                return Result.success((long) calls.incrementAndGet());
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Result<Long>> second = executor.submit(() -> idempotencyService.execute("create-at", "K1", ORDER, TYPE,
+                    () -> Result.success((long) calls.incrementAndGet())));
+            // 等第二个请求进入等待后再放行第一个
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).getData());
+            assertEquals(1L, second.get(5, TimeUnit.SECONDS).getData());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWithoutKeyAlwaysExecutes() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("create-at", null, ORDER, TYPE, () -> Result.success((long) calls.incrementAndGet()));
+        idempotencyService.execute("create-at", null, ORDER, TYPE, () -> Result.success((long) calls.incrementAndGet()));
+        assertEquals(2, calls.get());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    public void testDifferentBodyWithSameKeyIsRejected() {
+        AtomicInteger calls = new AtomicInteger();
+        idempotencyService.execute("create-at", "K1", ORDER, TYPE, () -> Result.success((long) calls.incrementAndGet()));
+
+        // 本地缓存命中但请求体不同
+        Result<Long> reused = idempotencyService.execute("create-at", "K1", order(2), TYPE,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(IdempotencyService.MISMATCH_CODE, reused.getCode());
+        assertNull(reused.getData());
+        assertEquals(1, calls.get());
+        assertEquals(1L, idempotencyService.stats().get("mismatches"));
+    }
+
+    @Test
+    public void testDifferentBodyAgainstStoredRecordIsRejected() throws Exception {
+        // 其他实例已用同一个 key、不同的请求体完成下单
+        doThrow(new DuplicateKeyException("duplicate")).when(jdbcTemplate)
+                .update(startsWith("INSERT INTO t_idempotency_record"), any(), any(), any(), any(), any(), any());
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt(1)).thenReturn(2);
+        when(rs.getString(2)).thenReturn("{\"code\":200,\"message\":\"订单创建成功\",\"data\":7}");
+        when(rs.getTimestamp(3)).thenReturn(new Timestamp(System.currentTimeMillis()));
+        when(rs.getString(4)).thenReturn("0000000000000000000000000000000000000000000000000000000000000000");
+        when(jdbcTemplate.query(startsWith("SELECT status"), any(RowMapper.class), eq("create-at"), eq("K1")))
+                .thenAnswer(invocation -> {
+                    RowMapper<?> mapper = invocation.getArgument(1);
+                    return Collections.singletonList(mapper.mapRow(rs, 0));
+                });
+        AtomicInteger calls = new AtomicInteger();
+
+        Result<Long> reused = idempotencyService.execute("create-at", "K1", ORDER, TYPE,
+                () -> Result.success((long) calls.incrementAndGet()));
+
+        assertEquals(IdempotencyService.MISMATCH_CODE, reused.getCode());
+        assertEquals(0, calls.get());
+    }
+
+    private static OrderDTO order(int count) {
+        OrderDTO order = new OrderDTO();
+        order.setUserId("U001");
+        order.setProductId("P001");
+        order.setCount(count);
+        order.setAmount(new BigDecimal("10.00").multiply(BigDecimal.valueOf(count)));
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.seata.order;
+
+import com.example.seata.order.dto.OrderDTO;
+import com.example.seata.order.outbox.OutboxRelay;
+import com.example.seata.order.service.OrderService;
+import com.example.seata.order.service.OutboxOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.annotation.Resource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 事务模式对比测试
+ * 测试目标：相同并发下对比AT、TCC和Outbox三种下单方式的吞吐量和延迟，并验证Outbox模式最终库存一致。
+ * Outbox模式分别统计接口响应延迟和下单到库存扣减完成的端到端延迟。需要启动Seata Server和库存服务
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ModeComparisonIntegrationTest {
+
+    private static final String BENCH_PRODUCT = "PBENCH";
+
+    private static final int ORDERS = 300;
+
+    private static final int THREADS = 16;
+
+    private static final List<String> REPORT = Collections.synchronizedList(new ArrayList<>());
+
+    @Resource
+    private OrderService orderService;
+
+    @Resource
+    private OutboxOrderService outboxOrderService;
+
+    @Resource
+    private OutboxRelay outboxRelay;
+
+    @Resource
+    private JdbcTemplate jdbcTemplate;
+
+    // 库存数据库的JdbcTemplate
+    private JdbcTemplate storageJdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        org.springframework.jdbc.datasource.DriverManagerDataSource storageDataSource =
+            new org.springframework.jdbc.datasource.DriverManagerDataSource();
+        storageDataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        storageDataSource.setUrl("jdbc:mysql://localhost:3306/seata_storage?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai&useSSL=false");
+        storageDataSource.setUsername("root");
+        storageDataSource.setPassword("root123");
+        storageJdbcTemplate = new JdbcTemplate(storageDataSource);
+
+        // 压测商品库存足够所有模式使用，每个场景前重置
+        storageJdbcTemplate.update("INSERT INTO t_storage (product_id, total, used, residue) VALUES (?, 100000, 0, 100000) "
+                + "ON DUPLICATE KEY UPDATE total = 100000, used = 0, residue = 100000", BENCH_PRODUCT);
+        storageJdbcTemplate.update("INSERT INTO t_storage_tcc (product_id, total, used, frozen, residue) VALUES (?, 100000, 0, 0, 100000) "
+                + "ON DUPLICATE KEY UPDATE total = 100000, used = 0, frozen = 0, residue = 100000", BENCH_PRODUCT);
+    }
+
+    @AfterAll
+    public static void printReport() {
+        log.info("========================================");
+        log.info("事务模式对比（{}个订单，{}个并发）", ORDERS, THREADS);
+        REPORT.forEach(log::info);
+        log.info("========================================");
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(1)
+    @DisplayName("AT模式吞吐量和延迟")
+    public void testATMode() throws Exception {
+        long[] latencies = run("AT", dto -> orderService.createOrder(dto));
+        assertEquals(ORDERS, storageJdbcTemplate.queryForObject(
+                "SELECT used FROM t_storage WHERE product_id = ?", Integer.class, BENCH_PRODUCT));
+        assertEquals(ORDERS, latencies.length);
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(2)
+    @DisplayName("TCC模式吞吐量和延迟")
+    public void testTCCMode() throws Exception {
+        long[] latencies = run("TCC", dto -> orderService.createOrderTCC(dto));
+        assertEquals(ORDERS, latencies.length);
+    }
+
+    @Test
+    @org.junit.jupiter.api.Order(3)
+    @DisplayName("Outbox模式吞吐量、延迟和最终一致性")
+    public void testOutboxMode() throws Exception {
+        long start = System.nanoTime();
+        run("Outbox（接口响应）", dto -> outboxOrderService.createOrder(dto));
+
+        // 等待中继把所有订单的库存扣减完成
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+        Integer pending;
+        do {
+            TimeUnit.MILLISECONDS.sleep(20);
+            pending = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM t_order WHERE product_id = ? AND status = 'PENDING'", Integer.class, BENCH_PRODUCT);
+        } while (pending > 0 && System.currentTimeMillis() < deadline);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(0, pending, "中继未在60秒内处理完所有消息");
+
+        Map<String, Object> stats = outboxRelay.stats();
+        REPORT.add(String.format("%-18s 全部扣减完成耗时=%dms 吞吐=%.1f/s 端到端延迟avg=%.1fms max=%dms 平均批次=%.1f",
+                "Outbox（端到端）", elapsedMillis, ORDERS * 1000.0 / elapsedMillis,
+                ((Number) stats.get("lagMillisAvg")).doubleValue(), stats.get("lagMillisMax"),
+                ((Number) stats.get("avgBatchSize")).doubleValue()));
+
+        // 库存服务按消息去重，扣减总量与成功订单数量一致
+        Integer used = storageJdbcTemplate.queryForObject(
+                "SELECT used FROM t_storage WHERE product_id = ?", Integer.class, BENCH_PRODUCT);
+        assertEquals(ORDERS, used);
+    }
+
+    private long[] run(String mode, Function<OrderDTO, ?> action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> futures = new ArrayList<>(ORDERS);
+        long start = System.nanoTime();
+        for (int i = 0; i < ORDERS; i++) {
+            OrderDTO dto = new OrderDTO();
+            dto.setUserId("UBENCH");
+            dto.setProductId(BENCH_PRODUCT);
+            dto.setCount(1);
+            dto.setAmount(new BigDecimal("10.00"));
+            futures.add(executor.submit(() -> {
+                long s = System.nanoTime();
+                action.apply(dto);
+                return System.nanoTime() - s;
+            }));
+        }
+        long[] latencies = new long[ORDERS];
+        for (int i = 0; i < ORDERS; i++) {
+            latencies[i] = futures.get(i).get(120, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        REPORT.add(String.format("%-18s 吞吐=%.1f/s p50=%.1fms p99=%.1fms max=%.1fms", mode,
+                ORDERS * 1e9 / elapsed, millis(latencies[ORDERS / 2]), millis(latencies[ORDERS * 99 / 100]),
+                millis(latencies[ORDERS - 1])));
+        return latencies;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.seata.order;
+
+import com.example.seata.order.reconcile.OrderReconciler;
+import com.example.seata.order.reconcile.ReconcileStore;
+import com.example.seata.order.reconcile.ReconcileStore.Counters;
+import com.example.seata.order.reconcile.ReconcileStore.Mode;
+import com.example.seata.order.reconcile.ReconcileStore.OrderRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 增量对账测试
+ * 测试目标：验证窗口只包含已过静默期的订单、期望值和检查点一起提交、卡住的订单被暂存和报告、
+ * 库存扣减量持续超出期望区间才报告，不依赖数据库
+ */
+public class OrderReconcilerTest {
+
+    private ReconcileStore store;
+
+    private OrderReconciler reconciler;
+
+    @BeforeEach
+    public void setUp() {
+        store = mock(ReconcileStore.class);
+        when(store.advance(any(), anyLong(), anyLong())).thenReturn(true);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        reconciler = new OrderReconciler(store, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(reconciler, "enabled", true);
+        ReflectionTestUtils.setField(reconciler, "batchSize", 3);
+        ReflectionTestUtils.setField(reconciler, "maxWindowsPerRun", 5);
+        ReflectionTestUtils.setField(reconciler, "pauseMillis", 0L);
+        ReflectionTestUtils.setField(reconciler, "settleSeconds", 300L);
+        ReflectionTestUtils.setField(reconciler, "confirmSeconds", 0L);
+    }
+
+    @Test
+    public void testWindowStopsAtUnsettledOrder() throws InterruptedException {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(10);
+        when(store.selectOrders(Mode.AT, 0L, 3)).thenReturn(Arrays.asList(
+                order(1L, "P001", 2, "SUCCESS", old), order(2L, "P001", 3, "SUCCESS", old),
+                order(3L, "P003", 1, "SUCCESS", LocalDateTime.now())));
+
+        assertEquals(2, reconciler.reconcile(Mode.AT));
+
+        verify(store).advance(Mode.AT, 0L, 2L);
+        verify(store).addExpected(Mode.AT, Collections.singletonMap("P001", 5L));
+        verify(store, times(1)).selectOrders(any(), anyLong(), anyInt());
+        verify(store).counters(eq(Mode.AT), eq(Collections.singleton("P001")), eq(2L));
+    }
+
+    @Test
+    public void testFullWindowsContinueFromCheckpoint() throws InterruptedException {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(10);
+        when(store.selectOrders(Mode.TCC, 0L, 3)).thenReturn(Arrays.asList(
+                order(1L, "P002", 1, "SUCCESS", old), order(2L, "P002", 1, "CANCEL", old),
+                order(3L, "P004", 1, "SUCCESS", old)));
+        when(store.selectOrders(Mode.TCC, 3L, 3)).thenReturn(Collections.singletonList(
+                order(4L, "P002", 2, "SUCCESS", old)));
+
+        assertEquals(4, reconciler.reconcile(Mode.TCC));
+
+        Map<String, Long> first = new LinkedHashMap<>();
+        first.put("P002", 1L);
+        first.put("P004", 1L);
+        verify(store).addExpected(Mode.TCC, first);
+        verify(store).addExpected(Mode.TCC, Collections.singletonMap("P002", 2L));
+        verify(store).advance(Mode.TCC, 3L, 4L);
+        assertEquals(2L, reconciler.stats().get("windows"));
+    }
+
+    @Test
+    public void testStuckOrderParkedAndReported() throws InterruptedException {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(10);
+        OrderRow stuck = order(1L, "P001", 4, "INIT", old);
+        when(store.selectOrders(Mode.AT, 0L, 3)).thenReturn(Collections.singletonList(stuck));
+
+        reconciler.reconcile(Mode.AT);
+
+        verify(store).addExpected(Mode.AT, Collections.singletonMap("P001", 0L));
+        verify(store).park(Mode.AT, Collections.singletonList(stuck));
+        verify(store).insertDiscrepancy(Mode.AT, OrderReconciler.STUCK_ORDER, "P001", 1L, 0, 4, 0, 1L);
+
+        // 下一轮订单已成功，计入期望值并移出暂存
+        OrderRow succeeded = order(1L, "P001", 4, "SUCCESS", old);
+        when(store.checkpoint(Mode.AT)).thenReturn(1L);
+        when(store.selectParked(Mode.AT, 3)).thenReturn(Collections.singletonList(succeeded));
+        when(store.unpark(Mode.AT, Collections.singletonList(succeeded))).thenReturn(new int[]{1});
+
+        reconciler.reconcile(Mode.AT);
+
+        verify(store).addExpected(Mode.AT, Collections.singletonMap("P001", 4L));
+    }
+
+    @Test
+    public void testLostRaceDoesNotCountWindow() throws InterruptedException {
+        LocalDateTime old = LocalDateTime.now().minusMinutes(10);
+        when(store.selectOrders(Mode.AT, 0L, 3)).thenReturn(Collections.singletonList(
+                order(1L, "P001", 1, "SUCCESS", old)));
+        when(store.advance(Mode.AT, 0L, 1L)).thenReturn(false);
+        when(store.checkpoint(Mode.AT)).thenReturn(0L, 1L);
+
+        assertEquals(0, reconciler.reconcile(Mode.AT));
+
+        verify(store, never()).addExpected(any(), anyMap());
+        assertEquals(1L, reconciler.stats().get("lostRaces"));
+    }
+
+    @Test
+    public void testMismatchReportedOncePerEpisode() throws InterruptedException {
+        // AT模式：期望10，检查点之后成功2、未完成1，used=15 超出上限13
+        List<Counters> outOfBand = Collections.singletonList(new Counters("P001", 10, 2, 1, 0, 15, 0));
+        List<Counters> inBand = Collections.singletonList(new Counters("P001", 10, 2, 1, 0, 13, 0));
+        ReflectionTestUtils.setField(reconciler, "confirmSeconds", 3600L);
+        when(store.counters(eq(Mode.AT), anyCollection(), anyLong())).thenReturn(outOfBand);
+        // 通过暂存订单把商品带入比对
+        OrderRow cancelled = order(9L, "P001", 1, "CANCEL", LocalDateTime.now());
+        when(store.selectParked(Mode.AT, 3)).thenReturn(Collections.singletonList(cancelled));
+        when(store.unpark(eq(Mode.AT), anyList())).thenReturn(new int[]{1});
+
+        reconciler.reconcile(Mode.AT);
+        assertEquals(Collections.singletonList("P001"), suspects(Mode.AT));
+        verify(store, never()).insertDiscrepancy(any(), eq(OrderReconciler.USED_MISMATCH), any(), any(),
+                anyLong(), anyLong(), anyLong(), anyLong());
+
+        // 持续超出区间后报告一次，不重复报告
+        ReflectionTestUtils.setField(reconciler, "confirmSeconds", 0L);
+        when(store.selectParked(Mode.AT, 3)).thenReturn(Collections.emptyList());
+        reconciler.reconcile(Mode.AT);
+        reconciler.reconcile(Mode.AT);
+        verify(store, times(1)).insertDiscrepancy(Mode.AT, OrderReconciler.USED_MISMATCH, "P001", null,
+                12, 13, 15, 0);
+
+        // 回到区间内后清除
+        when(store.counters(eq(Mode.AT), anyCollection(), anyLong())).thenReturn(inBand);
+        reconciler.reconcile(Mode.AT);
+        assertTrue(suspects(Mode.AT).isEmpty());
+        assertEquals(1L, reconciler.stats().get("mismatches"));
+    }
+
+    @Test
+    public void testTccBandAllowsUnconfirmedFrozen() {
+        // 订单已 SUCCESS 但库存的 Confirm 还没执行，数量仍在 frozen 中
+        Counters counters = new Counters("P002", 10, 3, 0, 0, 10, 3);
+
+        assertEquals(10, counters.expectedMin());
+        assertEquals(13, counters.expectedMax());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> suspects(Mode mode) {
+        Map<String, Object> modes = (Map<String, Object>) reconciler.stats().get("modes");
+        return (List<String>) ((Map<String, Object>) modes.get(mode.name())).get("suspects");
+    }
+
+    private static OrderRow order(long id, String productId, int count, String status, LocalDateTime createTime) {
+        return new OrderRow(id, productId, count, status, createTime);
+    }
+}
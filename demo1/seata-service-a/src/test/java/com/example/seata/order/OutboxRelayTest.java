@@ -0,0 +1,127 @@
+package com.example.seata.order;
+
+import com.example.seata.order.admission.ProductAdmission;
+import com.example.seata.order.dto.StorageDeductionDTO;
+import com.example.seata.order.dto.StorageDeductionResultDTO;
+import com.example.seata.order.entity.OutboxMessage;
+import com.example.seata.order.mapper.OrderMapper;
+import com.example.seata.order.mapper.OutboxMessageMapper;
+import com.example.seata.order.outbox.LocalStorageDeductionTransport;
+import com.example.seata.order.outbox.OutboxRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox中继测试
+ * 测试目标：使用进程内库存通道，验证批量扣减、库存不足时取消订单、重复投递不重复扣减，不依赖数据库和库存服务
+ */
+public class OutboxRelayTest {
+
+    private OutboxMessageMapper outboxMessageMapper;
+
+    private OrderMapper orderMapper;
+
+    private LocalStorageDeductionTransport transport;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setUp() {
+        outboxMessageMapper = mock(OutboxMessageMapper.class);
+        orderMapper = mock(OrderMapper.class);
+        transport = new LocalStorageDeductionTransport(10);
+        ProductAdmission productAdmission = new ProductAdmission();
+        ReflectionTestUtils.setField(productAdmission, "soldOutTtlMillis", 60000L);
+        outboxRelay = new OutboxRelay(outboxMessageMapper, orderMapper, transport, productAdmission,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(outboxRelay, "enabled", true);
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(outboxRelay, "maxRetryDelayMillis", 30000L);
+    }
+
+    @Test
+    public void testBatchAppliedAndShortStockCompensated() {
+        when(outboxMessageMapper.selectPending(any(), anyInt())).thenReturn(Arrays.asList(
+                message(1L, 101L, 4), message(2L, 102L, 4), message(3L, 103L, 4)));
+
+        assertEquals(3, outboxRelay.relayOnce());
+
+        verify(orderMapper).updateStatusByIds(Arrays.asList(101L, 102L), "PENDING", "SUCCESS");
+        verify(orderMapper).updateStatusByIds(Collections.singletonList(103L), "PENDING", "CANCEL");
+        verify(outboxMessageMapper).markDone(Arrays.asList(1L, 2L, 3L));
+        assertEquals(2, transport.residue("P001"));
+
+        Map<String, Object> stats = outboxRelay.stats();
+        assertEquals(1L, stats.get("batches"));
+        assertEquals(2L, stats.get("applied"));
+        assertEquals(1L, stats.get("compensated"));
+    }
+
+    @Test
+    public void testRedeliveryIsIdempotent() {
+        List<OutboxMessage> messages = Collections.singletonList(message(1L, 101L, 4));
+        when(outboxMessageMapper.selectPending(any(), anyInt())).thenReturn(messages);
+
+        // 模拟标记已处理前宕机，同一条消息被再次投递
+        outboxRelay.relayOnce();
+        outboxRelay.relayOnce();
+
+        assertEquals(6, transport.residue("P001"));
+        verify(orderMapper, times(2)).updateStatusByIds(Collections.singletonList(101L), "PENDING", "SUCCESS");
+    }
+
+    @Test
+    public void testDeliveryFailureDefersRetry() {
+        OutboxRelay failing = new OutboxRelay(outboxMessageMapper, orderMapper, deductions -> {
+            throw new IllegalStateException("库存服务不可用");
+        }, new ProductAdmission(), new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(failing, "batchSize", 100);
+        ReflectionTestUtils.setField(failing, "maxRetryDelayMillis", 30000L);
+        when(outboxMessageMapper.selectPending(any(), anyInt()))
+                .thenReturn(Collections.singletonList(message(1L, 101L, 4)));
+
+        assertEquals(0, failing.relayOnce());
+
+        verify(outboxMessageMapper).deferRetry(eq(Collections.singletonList(1L)), any(LocalDateTime.class));
+        verify(orderMapper, never()).updateStatusByIds(anyList(), anyString(), anyString());
+        assertEquals(1L, failing.stats().get("deliveryFailures"));
+    }
+
+    @Test
+    public void testLocalTransportMergesPerProduct() {
+        List<StorageDeductionDTO> deductions = Arrays.asList(
+                new StorageDeductionDTO(1L, "P001", 6), new StorageDeductionDTO(2L, "P002", 6),
+                new StorageDeductionDTO(3L, "P001", 6));
+
+        assertEquals(Arrays.asList(true, true, false), transport.deliver(deductions).stream()
+                .map(StorageDeductionResultDTO::getApplied).collect(Collectors.toList()));
+        assertEquals(4, transport.residue("P001"));
+        assertEquals(4, transport.residue("P002"));
+    }
+
+    private static OutboxMessage message(Long id, Long orderId, int count) {
+        OutboxMessage message = new OutboxMessage();
+        message.setId(id);
+        message.setOrderId(orderId);
+        message.setProductId("P001");
+        message.setCount(count);
+        message.setStatus("NEW");
+        message.setAttempts(0);
+        message.setCreateTime(LocalDateTime.now());
+        return message;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.seata.order;
+
+import com.example.seata.order.admission.AdmissionRejectedException;
+import com.example.seata.order.admission.ProductAdmission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 下单准入控制测试
+ * 测试目标：验证售罄标记和商品令牌桶在开启全局事务之前拒绝请求，不依赖数据库和Seata
+ */
+public class ProductAdmissionTest {
+
+    private ProductAdmission productAdmission;
+
+    @BeforeEach
+    public void setUp() {
+        productAdmission = new ProductAdmission();
+        ReflectionTestUtils.setField(productAdmission, "enabled", true);
+        ReflectionTestUtils.setField(productAdmission, "permitsPerSecond", 1.0);
+        ReflectionTestUtils.setField(productAdmission, "burst", 3);
+        ReflectionTestUtils.setField(productAdmission, "soldOutTtlMillis", 60000L);
+        ReflectionTestUtils.setField(productAdmission, "maxTrackedProducts", 2);
+    }
+
+    @Test
+    public void testRateLimitPerProduct() {
+        for (int i = 0; i < 3; i++) {
+            productAdmission.admit("P001");
+        }
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> productAdmission.admit("P001"));
+        assertEquals(AdmissionRejectedException.CODE, e.getCode());
+
+        // 其他商品有独立的令牌桶
+        productAdmission.admit("P002");
+
+        Map<String, Object> stats = productAdmission.stats();
+        assertEquals(4L, stats.get("admitted"));
+        assertEquals(1L, stats.get("rejectedRateLimited"));
+    }
+
+    @Test
+    public void testTrackedProductsBounded() throws InterruptedException {
+        productAdmission.admit("P001");
+        productAdmission.admit("P002");
+
+        // 令牌桶已达上限且都在使用中，新的商品ID直接限流
+        assertThrows(AdmissionRejectedException.class, () -> productAdmission.admit("P003"));
+        assertEquals(2, productAdmission.stats().get("trackedProducts"));
+
+        // 令牌补满的桶被清理，腾出位置
+        ReflectionTestUtils.setField(productAdmission, "maxTrackedProducts", 3);
+        ReflectionTestUtils.setField(productAdmission, "permitsPerSecond", 1000.0);
+        productAdmission.admit("P003");
+        Thread.sleep(10);
+        productAdmission.admit("P004");
+        assertEquals(3, productAdmission.stats().get("trackedProducts"));
+        assertEquals(1L, productAdmission.stats().get("rejectedRateLimited"));
+    }
+
+    @Test
+    public void testSoldOutRejectedUntilStorageSucceeds() {
+        productAdmission.onStorageFailure("P001", "扣减库存失败：库存不足");
+        assertThrows(AdmissionRejectedException.class, () -> productAdmission.admit("P001"));
+        assertEquals(1L, productAdmission.stats().get("rejectedSoldOut"));
+
+        // 其他失败原因不设置售罄标记
+        productAdmission.onStorageFailure("P002", "商品不存在");
+        productAdmission.admit("P002");
+
+        productAdmission.onStorageSuccess("P001");
+        productAdmission.admit("P001");
+    }
+}
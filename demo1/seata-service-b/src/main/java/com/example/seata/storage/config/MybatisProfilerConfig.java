@@ -0,0 +1,30 @@
+package com.example.seata.storage.config;
+
+import com.example.seata.storage.profiler.StatementProfiler;
+import com.example.seata.storage.profiler.StatementProfilerEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatis语句统计配置类
+ * mybatis-plus-boot-starter会把容器中的Interceptor注册为插件
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "mybatis.profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MybatisProfilerConfig {
+
+    @Bean
+    public StatementProfiler statementProfiler(MeterRegistry meterRegistry,
+                                               @Value("${mybatis.profiler.slow-threshold-millis:50}") long slowThresholdMillis,
+                                               @Value("${mybatis.profiler.sample-rate:0.05}") double sampleRate) {
+        return new StatementProfiler(meterRegistry, slowThresholdMillis, sampleRate);
+    }
+
+    @Bean
+    public StatementProfilerEndpoint statementProfilerEndpoint(StatementProfiler statementProfiler) {
+        return new StatementProfilerEndpoint(statementProfiler);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.seata.storage.config;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.example.seata.storage.replica.ReadOnly;
+import com.example.seata.storage.replica.ReadOnlyInterceptor;
+import com.example.seata.storage.replica.ReplicaEndpoint;
+import com.example.seata.storage.replica.ReplicaLagMonitor;
+import com.example.seata.storage.replica.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置类
+ * 主数据源换成 ReplicaRoutingDataSource，druid-spring-boot-starter 不再创建连接池，Seata会代理这个数据源，写入始终落在主库。
+ * 主库使用 spring.datasource，各从库除url以外的连接池参数也取自 spring.datasource 和 spring.datasource.druid
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "storage.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean(name = "dataSource", destroyMethod = "close")
+    public ReplicaRoutingDataSource dataSource(Environment environment,
+                                              @Value("${storage.replica.urls}") String[] urls) throws SQLException {
+        if (urls.length == 0) {
+            throw new IllegalStateException("开启读写分离时 storage.replica.urls 不能为空");
+        }
+        Binder binder = Binder.get(environment);
+        List<DruidDataSource> pools = new ArrayList<>(urls.length + 1);
+        try {
+            DruidDataSource primary = pool(binder, null, "primary");
+            pools.add(primary);
+            primary.init();
+            List<DruidDataSource> replicas = new ArrayList<>(urls.length);
+            for (int i = 0; i < urls.length; i++) {
+                DruidDataSource replica = pool(binder, urls[i], "replica-" + i);
+                pools.add(replica);
+                replicas.add(replica);
+                replica.init();
+            }
+            log.info("读写分离已开启，从库数={}", urls.length);
+            return new ReplicaRoutingDataSource(primary, replicas);
+        } catch (SQLException | RuntimeException e) {
+            pools.forEach(DruidDataSource::close);
+            throw e;
+        }
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource dataSource,
+                                               @Value("${storage.replica.heartbeat-interval-millis:200}") long intervalMillis) {
+        return new ReplicaLagMonitor(dataSource.getPrimary(), dataSource.getReplicas(), intervalMillis);
+    }
+
+    @Bean
+    public ReadOnlyInterceptor readOnlyInterceptor(ReplicaLagMonitor replicaLagMonitor,
+                                                   @Value("${storage.replica.max-staleness-millis:1000}") long maxStalenessMillis,
+                                                   @Value("${storage.replica.heartbeat-interval-millis:200}") long intervalMillis,
+                                                   ObjectProvider<PlatformTransactionManager> transactionManager) {
+        // 测得的延迟至少是一个心跳间隔，上限不大于两倍间隔时从库几乎不会被选中
+        if (maxStalenessMillis <= intervalMillis * 2) {
+            throw new IllegalStateException("storage.replica.max-staleness-millis 必须大于两倍的 heartbeat-interval-millis");
+        }
+        return new ReadOnlyInterceptor(replicaLagMonitor, maxStalenessMillis, transactionManager.getIfUnique());
+    }
+
+    /**
+     * 代理标注了 @ReadOnly 的Mapper方法，拦截器及其依赖的数据源在第一次调用时才获取
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readOnlyAdvisor(ObjectProvider<ReadOnlyInterceptor> readOnlyInterceptor) {
+        MethodInterceptor advice = invocation -> readOnlyInterceptor.getObject().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, ReadOnly.class, true), advice);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public ReplicaEndpoint replicaEndpoint(ReadOnlyInterceptor readOnlyInterceptor) {
+        return new ReplicaEndpoint(readOnlyInterceptor);
+    }
+
+    private static DruidDataSource pool(Binder binder, String url, String name) {
+        DruidDataSource pool = new DruidDataSource();
+        binder.bind("spring.datasource", Bindable.ofInstance(pool));
+        binder.bind("spring.datasource.druid", Bindable.ofInstance(pool));
+        if (url != null) {
+            pool.setUrl(url);
+        }
+        pool.setName(name);
+        return pool;
+    }
+}
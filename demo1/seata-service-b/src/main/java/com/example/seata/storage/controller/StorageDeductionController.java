@@ -0,0 +1,43 @@
+package com.example.seata.storage.controller;
+
+import com.example.seata.storage.dto.Result;
+import com.example.seata.storage.dto.StorageDeductionDTO;
+import com.example.seata.storage.dto.StorageDeductionResultDTO;
+import com.example.seata.storage.service.StorageDeductionService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * Outbox模式库存控制器
+ */
+@Slf4j
+@Api(tags = "Outbox模式库存服务")
+@RestController
+@RequestMapping("/storage/outbox")
+public class StorageDeductionController {
+
+    @Resource
+    private StorageDeductionService storageDeductionService;
+
+    /**
+     * 批量扣减库存（Outbox模式）
+     */
+    @ApiOperation(value = "批量扣减库存（Outbox模式）", notes = "按消息ID幂等，库存不足的消息返回applied=false")
+    @PostMapping("/deductions")
+    public Result<List<StorageDeductionResultDTO>> apply(@RequestBody List<StorageDeductionDTO> deductions) {
+        try {
+            return Result.success(storageDeductionService.apply(deductions));
+        } catch (Exception e) {
+            log.error("批量扣减库存失败，消息数={}", deductions.size(), e);
+            return Result.fail(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.seata.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Outbox库存扣减消息DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageDeductionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 订单服务outbox消息ID，用于去重
+     */
+    private Long messageId;
+
+    /**
+     * 商品ID
+     */
+    private String productId;
+
+    /**
+     * 扣减数量
+     */
+    private Integer count;
+}
@@ -0,0 +1,33 @@
+package com.example.seata.storage.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Outbox库存扣减结果DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageDeductionResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 订单服务outbox消息ID
+     */
+    private Long messageId;
+
+    /**
+     * 是否扣减成功，false表示库存不足或商品不存在，订单服务需要取消订单
+     */
+    private Boolean applied;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
@@ -0,0 +1,50 @@
+package com.example.seata.storage.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox库存扣减记录，message_id为主键保证同一条消息只扣减一次
+ */
+@Data
+@TableName("t_storage_deduction")
+public class StorageDeduction implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 订单服务outbox消息ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Long messageId;
+
+    /**
+     * 商品ID
+     */
+    private String productId;
+
+    /**
+     * 扣减数量
+     */
+    private Integer count;
+
+    /**
+     * 是否扣减成功
+     */
+    private Boolean applied;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
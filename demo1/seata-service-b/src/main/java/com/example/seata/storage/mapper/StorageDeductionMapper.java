@@ -0,0 +1,40 @@
+package com.example.seata.storage.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.seata.storage.entity.StorageDeduction;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * Outbox库存扣减记录Mapper
+ */
+@Mapper
+public interface StorageDeductionMapper extends BaseMapper<StorageDeduction> {
+
+    /**
+     * 查询已处理过的消息
+     *
+     * @param messageIds 消息ID
+     * @return 扣减记录
+     */
+    @Select("<script>SELECT message_id, product_id, count, applied, message, create_time FROM t_storage_deduction " +
+            "WHERE message_id IN <foreach collection='messageIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    List<StorageDeduction> selectByMessageIds(@Param("messageIds") List<Long> messageIds);
+
+    /**
+     * 批量插入扣减记录，消息ID重复时抛出DuplicateKeyException，整批回滚
+     *
+     * @param records 扣减记录
+     * @return 影响行数
+     */
+    @Insert("<script>INSERT INTO t_storage_deduction (message_id, product_id, count, applied, message, create_time) VALUES " +
+            "<foreach collection='records' item='r' separator=','>" +
+            "(#{r.messageId}, #{r.productId}, #{r.count}, #{r.applied}, #{r.message}, #{r.createTime})" +
+            "</foreach></script>")
+    int insertBatch(@Param("records") List<StorageDeduction> records);
+}
@@ -2,8 +2,10 @@ package com.example.seata.storage.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.seata.storage.entity.Storage;
+import com.example.seata.storage.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 /**
@@ -12,6 +14,17 @@ import org.apache.ibatis.annotations.Update;
 @Mapper
 public interface StorageMapper extends BaseMapper<Storage> {
 
+    /**
+     * 扣减前查询库存信息，扣减语句带 residue >= count 条件兜底，开启读写分离时读从库
+     *
+     * @param productId 商品ID
+     * @return 库存信息，商品不存在时为null
+     */
+    @ReadOnly(readYourWrites = false)
+    @Select("SELECT id, product_id, total, used, residue, create_time, update_time FROM t_storage " +
+            "WHERE product_id = #{productId}")
+    Storage selectByProductId(@Param("productId") String productId);
+
     /**
      * 扣减库存
      *
@@ -22,4 +35,13 @@ public interface StorageMapper extends BaseMapper<Storage> {
     @Update("UPDATE t_storage SET used = used + #{count}, residue = residue - #{count} " +
             "WHERE product_id = #{productId} AND residue >= #{count}")
     int reduce(@Param("productId") String productId, @Param("count") Integer count);
+
+    /**
+     * 查询剩余库存并锁定库存行
+     *
+     * @param productId 商品ID
+     * @return 剩余库存，商品不存在时为null
+     */
+    @Select("SELECT residue FROM t_storage WHERE product_id = #{productId} FOR UPDATE")
+    Integer selectResidueForUpdate(@Param("productId") String productId);
 }
@@ -0,0 +1,224 @@
+package com.example.seata.storage.profiler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * MyBatis语句统计插件
+ * 按Mapper方法把耗时、影响/返回行数和失败次数记录到Micrometer（mybatis.statement、mybatis.statement.rows、
+ * mybatis.statement.errors），替代逐条打印SQL的StdOutImpl；每个Mapper方法的指标只注册一次。
+ * 慢执行按采样率记录一次参数样本，GET /actuator/mybatis 按p99、总耗时等排序查看最慢的语句
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class StatementProfiler implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowNanos;
+
+    private final double sampleRate;
+
+    private final Map<String, Stats> statements = new ConcurrentHashMap<>();
+
+    /**
+     * @param slowThresholdMillis 超过该耗时的执行才可能记录参数样本
+     * @param sampleRate          慢执行记录参数的比例，比当前样本更慢的执行总是记录
+     */
+    public StatementProfiler(MeterRegistry meterRegistry, long slowThresholdMillis, double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        Object result = null;
+        boolean error = true;
+        try {
+            result = invocation.proceed();
+            error = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Stats stats = statements.computeIfAbsent(ms.getId(), id -> new Stats(id, ms.getSqlCommandType().name()));
+            stats.record(elapsed, rows(result), error);
+            if (elapsed >= slowNanos && (stats.slowerThanSample(elapsed)
+                    || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+                stats.sample(elapsed, describe(invocation.getArgs()[1]));
+                log.debug("慢SQL: {} 耗时 {}ms", ms.getId(), elapsed / 1_000_000.0);
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return -1;
+    }
+
+    /**
+     * 多参数时是ParamMap，param1、param2是重复的别名，不输出
+     */
+    private static String describe(Object parameter) {
+        String text;
+        if (parameter instanceof Map) {
+            text = ((Map<?, ?>) parameter).entrySet().stream()
+                    .filter(e -> !String.valueOf(e.getKey()).matches("param\\d+"))
+                    .map(e -> e.getKey() + "=" + e.getValue())
+                    .collect(Collectors.joining(", ", "{", "}"));
+        } else {
+            text = String.valueOf(parameter);
+        }
+        return text.length() <= 256 ? text : text.substring(0, 256) + "...";
+    }
+
+    /**
+     * @param sort p99（默认）、total、max、count、errors
+     */
+    public List<Map<String, Object>> top(int limit, String sort) {
+        Comparator<Map<String, Object>> comparator;
+        if ("total".equals(sort)) {
+            comparator = Comparator.comparingDouble(s -> (Double) s.get("totalMs"));
+        } else if ("max".equals(sort)) {
+            comparator = Comparator.comparingDouble(s -> (Double) s.get("maxMs"));
+        } else if ("count".equals(sort)) {
+            comparator = Comparator.comparingLong(s -> (Long) s.get("count"));
+        } else if ("errors".equals(sort)) {
+            comparator = Comparator.comparingLong(s -> (Long) s.get("errors"));
+        } else {
+            // MeterRegistry未开启客户端分位数时没有p99
+            comparator = Comparator.comparingDouble(s -> (Double) s.getOrDefault("p99Ms", 0.0));
+        }
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        for (Stats stats : statements.values()) {
+            snapshot.add(stats.describe());
+        }
+        snapshot.sort(comparator.reversed());
+        return snapshot.stream().limit(Math.max(0, limit)).collect(Collectors.toList());
+    }
+
+    /**
+     * 清空统计，同时从MeterRegistry中移除对应的指标
+     */
+    public void reset() {
+        for (String id : new ArrayList<>(statements.keySet())) {
+            Stats stats = statements.remove(id);
+            if (stats != null) {
+                meterRegistry.remove(stats.timer);
+                meterRegistry.remove(stats.rows);
+                meterRegistry.remove(stats.errors);
+            }
+        }
+    }
+
+    /**
+     * 单个Mapper方法的指标，创建时注册一次，之后每次执行只做记录
+     */
+    private class Stats {
+
+        private final String id;
+        private final String type;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final Counter errors;
+        private volatile Map<String, Object> slowSample;
+
+        Stats(String id, String type) {
+            this.id = id;
+            this.type = type;
+            this.timer = Timer.builder("mybatis.statement")
+                    .tag("statement", id)
+                    .tag("type", type)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rows = DistributionSummary.builder("mybatis.statement.rows")
+                    .tag("statement", id)
+                    .tag("type", type)
+                    .register(meterRegistry);
+            this.errors = Counter.builder("mybatis.statement.errors")
+                    .tag("statement", id)
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+
+        void record(long nanos, long rowCount, boolean error) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            if (error) {
+                errors.increment();
+            } else if (rowCount >= 0) {
+                rows.record(rowCount);
+            }
+        }
+
+        boolean slowerThanSample(long nanos) {
+            Map<String, Object> sample = slowSample;
+            return sample == null || nanos / 1_000_000.0 > (Double) sample.get("elapsedMs");
+        }
+
+        void sample(long nanos, String parameters) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("elapsedMs", nanos / 1_000_000.0);
+            sample.put("parameters", parameters);
+            sample.put("timestamp", System.currentTimeMillis());
+            slowSample = sample;
+        }
+
+        Map<String, Object> describe() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("statement", id);
+            result.put("type", type);
+            result.put("count", timer.count());
+            result.put("errors", (long) errors.count());
+            result.put("rows", (long) rows.totalAmount());
+            result.put("totalMs", timer.totalTime(TimeUnit.MILLISECONDS));
+            result.put("meanMs", timer.mean(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                result.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        percentile.value(TimeUnit.MILLISECONDS));
+            }
+            result.put("maxMs", timer.max(TimeUnit.MILLISECONDS));
+            if (slowSample != null) {
+                result.put("slowSample", slowSample);
+            }
+            return result;
+        }
+    }
+}
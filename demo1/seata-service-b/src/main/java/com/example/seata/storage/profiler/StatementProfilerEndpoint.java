@@ -0,0 +1,33 @@
+package com.example.seata.storage.profiler;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MyBatis语句统计端点
+ * GET /actuator/mybatis?limit=10&sort=p99 查看最慢的语句，DELETE /actuator/mybatis 清空统计
+ */
+@Endpoint(id = "mybatis")
+public class StatementProfilerEndpoint {
+
+    private final StatementProfiler profiler;
+
+    public StatementProfilerEndpoint(StatementProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> top(@Nullable Integer limit, @Nullable String sort) {
+        return profiler.top(limit == null ? 10 : limit, sort);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.seata.storage.replica;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注在只读的Mapper方法上，开启 storage.replica 后这条查询可以读复制延迟不超过上限的从库
+ * 处在全局事务或本地事务中时默认读主库，所有从库延迟都过大时也读主库
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnly {
+
+    /**
+     * 允许读到的最大复制延迟（毫秒），不大于0时使用 storage.replica.max-staleness-millis
+     */
+    long maxStalenessMillis() default 0;
+
+    /**
+     * 为false表示这次读只是扣减前的预检查，扣减语句自带库存条件，不要求读到本事务之前的写入，
+     * 事务中执行时挂起本地事务，用单独的从库连接读取，读完恢复
+     */
+    boolean readYourWrites() default true;
+}
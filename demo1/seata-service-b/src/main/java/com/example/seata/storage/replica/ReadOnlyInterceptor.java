@@ -0,0 +1,124 @@
+package com.example.seata.storage.replica;
+
+import io.seata.core.context.RootContext;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 为 @ReadOnly 方法选择数据源，依次判断：
+ * 处在Seata全局事务中 -> 主库（之前的分支已在主库提交，从库不一定复制到了）；
+ * 处在Spring本地事务中 -> 主库（连接已经绑定在事务上）；
+ * 没有延迟不超过上限的从库 -> 主库；否则读选中的从库。
+ * readYourWrites=false 的查询跳过前两项判断，事务中执行时先挂起本地事务，读完再恢复
+ */
+public class ReadOnlyInterceptor implements MethodInterceptor {
+
+    private static final TransactionDefinition NOT_SUPPORTED =
+            new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+    private final ReplicaLagMonitor monitor;
+
+    private final long maxStalenessMillis;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final LongAdder replicaReads = new LongAdder();
+
+    private final LongAdder globalTxFallbacks = new LongAdder();
+
+    private final LongAdder localTxFallbacks = new LongAdder();
+
+    private final LongAdder lagFallbacks = new LongAdder();
+
+    /**
+     * @param transactionManager 挂起本地事务用，为null时事务中的查询都读主库
+     */
+    public ReadOnlyInterceptor(ReplicaLagMonitor monitor, long maxStalenessMillis,
+                               PlatformTransactionManager transactionManager) {
+        this.monitor = monitor;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ReadOnly readOnly = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), ReadOnly.class);
+        if (readOnly == null || ReplicaRoutingDataSource.current() != null) {
+            return invocation.proceed();
+        }
+        // 事务同步开启时MyBatis会把SqlSession和连接留给后面的语句，同步也没开启才算不在事务中
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isActualTransactionActive();
+        if (readOnly.readYourWrites()) {
+            if (RootContext.inGlobalTransaction()) {
+                globalTxFallbacks.increment();
+                return invocation.proceed();
+            }
+            if (inTransaction) {
+                localTxFallbacks.increment();
+                return invocation.proceed();
+            }
+        } else if (inTransaction && transactionManager == null) {
+            localTxFallbacks.increment();
+            return invocation.proceed();
+        }
+        long maxStaleness = readOnly.maxStalenessMillis() > 0 ? readOnly.maxStalenessMillis() : maxStalenessMillis;
+        int replica = monitor.pick(maxStaleness);
+        if (replica < 0) {
+            lagFallbacks.increment();
+            return invocation.proceed();
+        }
+        replicaReads.increment();
+        Integer previous = ReplicaRoutingDataSource.bind(replica);
+        try {
+            return inTransaction ? proceedSuspended(invocation) : invocation.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+
+    /**
+     * 挂起当前事务及其同步，查询在新的同步范围内取从库连接，结束时连接随同步释放，外层事务的连接随后恢复
+     */
+    private Object proceedSuspended(MethodInvocation invocation) throws Throwable {
+        TransactionStatus status = transactionManager.getTransaction(NOT_SUPPORTED);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
+    /**
+     * 各去向的次数和各从库当前的延迟
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("replicaReads", replicaReads.sum());
+        stats.put("globalTxFallbacks", globalTxFallbacks.sum());
+        stats.put("localTxFallbacks", localTxFallbacks.sum());
+        stats.put("lagFallbacks", lagFallbacks.sum());
+        stats.put("maxStalenessMillis", maxStalenessMillis);
+        Map<String, Object> staleness = new LinkedHashMap<>();
+        for (int i = 0; i < monitor.replicaCount(); i++) {
+            long millis = monitor.staleness(i);
+            staleness.put(String.valueOf(i), millis == Long.MAX_VALUE ? null : millis);
+        }
+        stats.put("stalenessMillis", staleness);
+        return stats;
+    }
+}
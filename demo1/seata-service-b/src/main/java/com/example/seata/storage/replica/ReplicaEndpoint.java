@@ -0,0 +1,25 @@
+package com.example.seata.storage.replica;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * 读写分离端点
+ * GET /actuator/replica 查看读从库、回到主库的次数和各从库当前的复制延迟
+ */
+@Endpoint(id = "replica")
+public class ReplicaEndpoint {
+
+    private final ReadOnlyInterceptor interceptor;
+
+    public ReplicaEndpoint(ReadOnlyInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return interceptor.stats();
+    }
+}
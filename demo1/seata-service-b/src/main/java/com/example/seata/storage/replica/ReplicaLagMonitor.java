@@ -0,0 +1,135 @@
+package com.example.seata.storage.replica;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 用心跳表测量从库的复制延迟
+ * 每个实例在主库的 t_replica_heartbeat 中维护自己的一行，每隔 interval 写入当前时间，再从各从库读回：
+ * 从库上读到的心跳时间之前的写入都已复制过去，所以此刻从库的数据最多落后 now - 心跳时间。
+ * 写入和比较用的都是本实例的时钟，不受实例间时钟偏差影响；写入失败、读取失败或监控线程停顿时这个值只会变大，读请求随之回到主库
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final JdbcTemplate primary;
+
+    private final List<JdbcTemplate> replicas = new ArrayList<>();
+
+    private final long intervalMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 各从库上读到的本实例最新心跳时间，0表示还没有读到
+     */
+    private final AtomicLongArray appliedBeats;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, List<? extends DataSource> replicas, long intervalMillis) {
+        int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(intervalMillis));
+        this.primary = jdbcTemplate(primary, timeoutSeconds);
+        for (DataSource replica : replicas) {
+            this.replicas.add(jdbcTemplate(replica, timeoutSeconds));
+        }
+        this.intervalMillis = intervalMillis;
+        this.appliedBeats = new AtomicLongArray(replicas.size());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        try {
+            primary.update("DELETE FROM t_replica_heartbeat WHERE beat_millis < ?",
+                    System.currentTimeMillis() - RETENTION_MILLIS);
+        } catch (DataAccessException e) {
+            log.warn("删除过期的从库心跳失败", e);
+        }
+        scheduler.scheduleWithFixedDelay(this::beat, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE t_replica_heartbeat SET beat_millis = ? WHERE instance_id = ?", now, instanceId) == 0) {
+                primary.update("INSERT INTO t_replica_heartbeat (instance_id, beat_millis) VALUES (?, ?)", instanceId, now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("写入主库心跳失败", e);
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            try {
+                // 这一行还没有复制到从库时为0
+                List<Long> beats = replicas.get(i).queryForList(
+                        "SELECT beat_millis FROM t_replica_heartbeat WHERE instance_id = ?", Long.class, instanceId);
+                appliedBeats.set(i, beats.isEmpty() ? 0 : beats.get(0));
+            } catch (DataAccessException e) {
+                appliedBeats.set(i, 0);
+                log.warn("读取从库{}的心跳失败", i, e);
+            }
+        }
+    }
+
+    /**
+     * @return 从库的数据最多落后的毫秒数，还没有读到心跳时为 Long.MAX_VALUE
+     */
+    public long staleness(int replica) {
+        long beat = appliedBeats.get(replica);
+        return beat == 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - beat);
+    }
+
+    /**
+     * 从上次选中的下一个从库开始轮询，返回第一个延迟不超过上限的从库
+     *
+     * @return 从库编号，都不满足时为-1
+     */
+    public int pick(long maxStalenessMillis) {
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int replica = (start + i) % count;
+            if (staleness(replica) <= maxStalenessMillis) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            primary.update("DELETE FROM t_replica_heartbeat WHERE instance_id = ?", instanceId);
+        } catch (DataAccessException e) {
+            log.debug("删除本实例心跳失败", e);
+        }
+    }
+
+    private static JdbcTemplate jdbcTemplate(DataSource dataSource, int timeoutSeconds) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(timeoutSeconds);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.seata.storage.replica;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源
+ * 只有 @ReadOnly 方法执行期间当前线程绑定了从库编号，此时取出的连接来自该从库，其余连接都来自主库；
+ * Spring事务中已绑定的连接不受影响，所以事务内的语句始终使用主库
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final DruidDataSource primary;
+
+    private final List<DruidDataSource> replicas;
+
+    public ReplicaRoutingDataSource(DruidDataSource primary, List<DruidDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    public DruidDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DruidDataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void close() {
+        replicas.forEach(DruidDataSource::close);
+        primary.close();
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer bind(int replica) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(replica);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
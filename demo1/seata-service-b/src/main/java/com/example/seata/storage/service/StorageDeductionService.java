@@ -0,0 +1,129 @@
+package com.example.seata.storage.service;
+
+import com.example.seata.storage.dto.StorageDeductionDTO;
+import com.example.seata.storage.dto.StorageDeductionResultDTO;
+import com.example.seata.storage.entity.StorageDeduction;
+import com.example.seata.storage.exception.BusinessException;
+import com.example.seata.storage.mapper.StorageDeductionMapper;
+import com.example.seata.storage.mapper.StorageMapper;
+import io.seata.spring.annotation.GlobalLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox模式库存服务
+ * 批量处理订单服务outbox中继投递的扣减消息，不参与全局事务：
+ * 1. 按消息ID去重，已处理的消息直接返回上次的结果
+ * 2. 同一商品的消息合并为一次扣减；库存不足时锁定库存行，按消息顺序扣减到库存用完，其余消息返回失败由订单服务补偿
+ * 3. 扣减记录与库存在同一个本地事务中提交，并发重复投递时主键冲突使整批回滚，中继重试后命中去重
+ * 4. t_storage 同时被AT模式的全局事务修改，本地事务加 @GlobalLock，加锁读和提交前都检查全局锁，不会覆盖未决全局事务的修改
+ */
+@Slf4j
+@Service
+public class StorageDeductionService {
+
+    public static final String SOLD_OUT_MESSAGE = "库存不足";
+
+    @Resource
+    private StorageMapper storageMapper;
+
+    @Resource
+    private StorageDeductionMapper storageDeductionMapper;
+
+    /**
+     * 批量扣减库存
+     *
+     * @param deductions 扣减消息
+     * @return 每条消息的扣减结果，顺序与请求一致
+     */
+    @GlobalLock
+    @Transactional(rollbackFor = Exception.class)
+    public List<StorageDeductionResultDTO> apply(List<StorageDeductionDTO> deductions) {
+        if (deductions == null || deductions.isEmpty()) {
+            throw new BusinessException("扣减消息不能为空");
+        }
+        List<Long> messageIds = deductions.stream().map(StorageDeductionDTO::getMessageId).collect(Collectors.toList());
+        Map<Long, StorageDeductionResultDTO> results = new LinkedHashMap<>();
+        for (StorageDeduction processed : storageDeductionMapper.selectByMessageIds(messageIds)) {
+            results.put(processed.getMessageId(),
+                    new StorageDeductionResultDTO(processed.getMessageId(), processed.getApplied(), processed.getMessage()));
+        }
+        int duplicates = results.size();
+
+        Map<String, List<StorageDeductionDTO>> byProduct = new LinkedHashMap<>();
+        Set<Long> pending = new HashSet<>();
+        for (StorageDeductionDTO deduction : deductions) {
+            if (!results.containsKey(deduction.getMessageId()) && pending.add(deduction.getMessageId())) {
+                byProduct.computeIfAbsent(deduction.getProductId(), id -> new ArrayList<>()).add(deduction);
+            }
+        }
+
+        List<StorageDeduction> records = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<String, List<StorageDeductionDTO>> entry : byProduct.entrySet()) {
+            List<StorageDeductionDTO> productDeductions = entry.getValue();
+            List<StorageDeductionResultDTO> productResults = reduce(entry.getKey(), productDeductions);
+            for (int i = 0; i < productDeductions.size(); i++) {
+                StorageDeductionDTO deduction = productDeductions.get(i);
+                StorageDeductionResultDTO result = productResults.get(i);
+                results.put(result.getMessageId(), result);
+                StorageDeduction record = new StorageDeduction();
+                record.setMessageId(deduction.getMessageId());
+                record.setProductId(deduction.getProductId());
+                record.setCount(deduction.getCount());
+                record.setApplied(result.getApplied());
+                record.setMessage(result.getMessage());
+                record.setCreateTime(now);
+                records.add(record);
+            }
+        }
+        if (!records.isEmpty()) {
+            storageDeductionMapper.insertBatch(records);
+        }
+        log.info("库存服务：批量扣减完成，消息数={}，重复消息={}，商品数={}", deductions.size(), duplicates, byProduct.size());
+        return messageIds.stream().distinct().map(results::get).collect(Collectors.toList());
+    }
+
+    /**
+     * 同一商品的消息先尝试合并扣减，库存不足时按消息顺序部分扣减
+     */
+    private List<StorageDeductionResultDTO> reduce(String productId, List<StorageDeductionDTO> deductions) {
+        int total = deductions.stream().mapToInt(StorageDeductionDTO::getCount).sum();
+        List<StorageDeductionResultDTO> results = new ArrayList<>(deductions.size());
+        if (storageMapper.reduce(productId, total) > 0) {
+            deductions.forEach(d -> results.add(new StorageDeductionResultDTO(d.getMessageId(), true, null)));
+            return results;
+        }
+
+        Integer residue = storageMapper.selectResidueForUpdate(productId);
+        if (residue == null) {
+            deductions.forEach(d -> results.add(new StorageDeductionResultDTO(d.getMessageId(), false, "商品不存在")));
+            return results;
+        }
+        int accepted = 0;
+        for (StorageDeductionDTO deduction : deductions) {
+            if (accepted + deduction.getCount() <= residue) {
+                accepted += deduction.getCount();
+                results.add(new StorageDeductionResultDTO(deduction.getMessageId(), true, null));
+            } else {
+                results.add(new StorageDeductionResultDTO(deduction.getMessageId(), false, SOLD_OUT_MESSAGE));
+            }
+        }
+        if (accepted > 0) {
+            storageMapper.reduce(productId, accepted);
+        }
+        log.warn("库存服务：库存不足，商品ID={}，剩余库存={}，需要扣减={}，实际扣减={}", productId, residue, total, accepted);
+        return results;
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.seata.storage.service;
 
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.example.seata.storage.entity.Storage;
 import com.example.seata.storage.exception.BusinessException;
 import com.example.seata.storage.mapper.StorageMapper;
@@ -30,10 +29,8 @@ public class StorageService {
     public void reduce(String productId, Integer count) {
         log.info("库存服务：开始扣减库存，商品ID={}，扣减数量={}", productId, count);
 
-        // 查询库存信息
-        Storage storage = storageMapper.selectOne(
-                new LambdaQueryWrapper<Storage>().eq(Storage::getProductId, productId)
-        );
+        // 查询库存信息，开启读写分离时读从库
+        Storage storage = storageMapper.selectByProductId(productId);
 
         if (storage == null) {
             log.error("库存服务：商品不存在，商品ID={}", productId);
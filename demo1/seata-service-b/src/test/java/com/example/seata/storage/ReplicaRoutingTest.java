@@ -0,0 +1,224 @@
+package com.example.seata.storage;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.example.seata.storage.replica.ReadOnly;
+import com.example.seata.storage.replica.ReadOnlyInterceptor;
+import com.example.seata.storage.replica.ReplicaLagMonitor;
+import com.example.seata.storage.replica.ReplicaRoutingDataSource;
+import io.seata.core.context.RootContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 读写分离测试
+ * 测试目标：用两个H2内存库模拟主库和从库，后台线程按人为设定的延迟把主库的心跳和库存复制到从库，
+ * 验证从库足够新时读从库、延迟超过上限或处在事务中时回到主库、预检查在事务中也读从库且不影响事务本身，不依赖MySQL
+ */
+public class ReplicaRoutingTest {
+
+    private static final long HEARTBEAT_MILLIS = 20;
+
+    private static final long MAX_STALENESS_MILLIS = 300;
+
+    private static volatile long lagMillis;
+
+    private static DruidDataSource primary;
+
+    private static DruidDataSource replica;
+
+    private static ReplicaRoutingDataSource routing;
+
+    private static ScheduledExecutorService replication;
+
+    private static ReplicaLagMonitor monitor;
+
+    private static ReadOnlyInterceptor interceptor;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static TransactionTemplate transactionTemplate;
+
+    private static Lookups lookups;
+
+    public interface Lookups {
+
+        @ReadOnly
+        String role();
+
+        @ReadOnly(readYourWrites = false)
+        Integer residue();
+    }
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        primary = pool("primary");
+        replica = pool("replica");
+        routing = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica));
+        routing.afterPropertiesSet();
+
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        // 单线程按快照顺序应用，延迟缩短时跳过比已应用快照更早的快照，和真实复制一样不会倒退
+        replication = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong snapshots = new AtomicLong();
+        AtomicLong applied = new AtomicLong();
+        replication.scheduleWithFixedDelay(() -> {
+            List<Map<String, Object>> beats = primaryJdbc.queryForList(
+                    "SELECT instance_id, beat_millis FROM t_replica_heartbeat");
+            Integer residue = primaryJdbc.queryForObject("SELECT residue FROM t_storage WHERE product_id = 'P001'",
+                    Integer.class);
+            long snapshot = snapshots.incrementAndGet();
+            replication.schedule(() -> {
+                if (snapshot < applied.get()) {
+                    return;
+                }
+                applied.set(snapshot);
+                for (Map<String, Object> beat : beats) {
+                    replicaJdbc.update("MERGE INTO t_replica_heartbeat KEY (instance_id) VALUES (?, ?)",
+                            beat.get("instance_id"), beat.get("beat_millis"));
+                }
+                replicaJdbc.update("UPDATE t_storage SET residue = ? WHERE product_id = 'P001'", residue);
+            }, lagMillis, TimeUnit.MILLISECONDS);
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        monitor = new ReplicaLagMonitor(primary, routing.getReplicas(), HEARTBEAT_MILLIS);
+        monitor.start();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        interceptor = new ReadOnlyInterceptor(monitor, MAX_STALENESS_MILLIS, transactionManager);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate = new JdbcTemplate(routing);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Lookups() {
+            @Override
+            public String role() {
+                return jdbcTemplate.queryForObject("SELECT name FROM t_role", String.class);
+            }
+
+            @Override
+            public Integer residue() {
+                return jdbcTemplate.queryForObject("SELECT residue FROM t_storage WHERE product_id = 'P001'",
+                        Integer.class);
+            }
+        });
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, ReadOnly.class, true), interceptor));
+        lookups = (Lookups) proxyFactory.getProxy();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        monitor.close();
+        replication.shutdownNow();
+        routing.close();
+    }
+
+    @BeforeEach
+    public void resetLag() throws InterruptedException {
+        lagMillis = 0;
+        jdbcTemplate.update("UPDATE t_storage SET residue = 100 WHERE product_id = 'P001'");
+        awaitTrue(() -> monitor.staleness(0) < MAX_STALENESS_MILLIS / 2
+                && Integer.valueOf(100).equals(new JdbcTemplate(replica).queryForObject(
+                "SELECT residue FROM t_storage WHERE product_id = 'P001'", Integer.class)));
+    }
+
+    @Test
+    public void testFreshReplicaServesReads() {
+        assertEquals("replica", lookups.role());
+    }
+
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() throws InterruptedException {
+        long before = lagFallbacks();
+        lagMillis = 1000;
+        awaitTrue(() -> monitor.staleness(0) > MAX_STALENESS_MILLIS);
+
+        assertEquals("primary", lookups.role());
+        assertEquals(before + 1, lagFallbacks());
+
+        // 延迟恢复后重新读从库
+        lagMillis = 0;
+        awaitTrue(() -> monitor.staleness(0) < MAX_STALENESS_MILLIS / 2);
+        assertEquals("replica", lookups.role());
+    }
+
+    @Test
+    public void testTransactionReadsPrimary() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("primary", lookups.role());
+            jdbcTemplate.update("UPDATE t_storage SET residue = residue - 1 WHERE product_id = 'P001'");
+            // 预检查读从库，看不到本事务未提交的扣减
+            assertEquals(100, lookups.residue());
+            // 挂起后恢复的仍是原来的事务连接
+            assertEquals(99, jdbcTemplate.queryForObject("SELECT residue FROM t_storage WHERE product_id = 'P001'",
+                    Integer.class));
+        });
+        assertEquals(99, new JdbcTemplate(primary).queryForObject(
+                "SELECT residue FROM t_storage WHERE product_id = 'P001'", Integer.class));
+    }
+
+    @Test
+    public void testGlobalTransactionReadsPrimary() {
+        RootContext.bind("127.0.0.1:8091:1");
+        try {
+            assertEquals("primary", lookups.role());
+            assertEquals(100, lookups.residue());
+        } finally {
+            RootContext.unbind();
+        }
+        assertEquals(1L, ((Number) interceptor.stats().get("globalTxFallbacks")).longValue());
+    }
+
+    @Test
+    public void testUnknownStalenessBeforeFirstHeartbeat() {
+        ReplicaLagMonitor notStarted = new ReplicaLagMonitor(primary, routing.getReplicas(), HEARTBEAT_MILLIS);
+
+        assertEquals(Long.MAX_VALUE, notStarted.staleness(0));
+        assertEquals(-1, notStarted.pick(MAX_STALENESS_MILLIS));
+    }
+
+    private static long lagFallbacks() {
+        return ((Number) interceptor.stats().get("lagFallbacks")).longValue();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            TimeUnit.MILLISECONDS.sleep(HEARTBEAT_MILLIS);
+        }
+    }
+
+    private static DruidDataSource pool(String role) throws SQLException {
+        DruidDataSource pool = new DruidDataSource();
+        pool.setUrl("jdbc:h2:mem:replica_test_" + role + ";DB_CLOSE_DELAY=-1");
+        pool.setName(role);
+        pool.init();
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE t_role (name VARCHAR(16))");
+        jdbc.update("INSERT INTO t_role VALUES (?)", role);
+        jdbc.execute("CREATE TABLE t_storage (product_id VARCHAR(50) PRIMARY KEY, residue INT NOT NULL)");
+        jdbc.update("INSERT INTO t_storage VALUES ('P001', 100)");
+        jdbc.execute("CREATE TABLE t_replica_heartbeat (instance_id VARCHAR(64) PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        return pool;
+    }
+}
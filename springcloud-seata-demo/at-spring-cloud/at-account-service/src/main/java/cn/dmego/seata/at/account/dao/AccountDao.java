@@ -1,6 +1,7 @@
 package cn.dmego.seata.at.account.dao;
 
 
+import cn.dmego.seata.common.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -19,11 +20,12 @@ import org.springframework.stereotype.Repository;
 public interface AccountDao {
 
     /**
-     * 获取账户余额
+     * 获取账户余额，用于扣减前的检查。检查结果决定是否扣减，全局事务中读主库，不在事务中时开启读写分离可以读从库
      *
      * @param userId 用户 ID
      * @return 账户余额
      */
+    @ReadOnly
     @Select("SELECT balance FROM account WHERE id = #{userId}")
     Integer getBalance(@Param("userId") Long userId);
 
@@ -1,9 +1,13 @@
 package cn.dmego.seata.at.business.proxy;
 
 import cn.dmego.seata.common.dto.ProductDTO;
+import cn.dmego.seata.common.feign.Hedged;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductService
  *
@@ -18,7 +22,12 @@ public interface ProductService {
     @PostMapping("/reduce-stock")
     boolean reduceStock (@RequestBody ProductDTO productDTO);
 
+    @Hedged
     @GetMapping("/getPrice")
     Integer getPrice(@RequestParam("productId") Long productId);
 
+    @Hedged
+    @GetMapping("/getPrices")
+    Map<Long, Integer> getPrices(@RequestParam("productIds") List<Long> productIds);
+
 }
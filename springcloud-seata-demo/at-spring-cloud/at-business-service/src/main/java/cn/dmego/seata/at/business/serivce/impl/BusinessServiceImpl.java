@@ -7,6 +7,7 @@ import cn.dmego.seata.at.business.serivce.BusinessService;
 import cn.dmego.seata.common.dto.BusinessDTO;
 import cn.dmego.seata.common.dto.OrderDTO;
 import cn.dmego.seata.common.dto.ProductDTO;
+import cn.dmego.seata.common.feign.DownstreamGuard;
 import cn.dmego.seata.common.util.IDUtils;
 import io.seata.core.context.RootContext;
 import io.seata.spring.annotation.GlobalTransactional;
@@ -35,6 +36,7 @@ public class BusinessServiceImpl implements BusinessService {
 
     @Override
     @GlobalTransactional
+    @DownstreamGuard({"at-product-service", "at-order-service"})
     public String handleBusiness(BusinessDTO businessDTO) {
 
         logger.info("[handleBusiness] 开始下单");
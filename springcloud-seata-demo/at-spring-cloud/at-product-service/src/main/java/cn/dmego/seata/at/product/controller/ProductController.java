@@ -8,6 +8,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductController
  *
@@ -29,6 +32,11 @@ public class ProductController {
         return productService.getPriceById(productId);
     }
 
+    @GetMapping("/getPrices")
+    public Map<Long, Integer> getPrices(@RequestParam("productIds") List<Long> productIds){
+        return productService.getPricesByIds(productIds);
+    }
+
     @PostMapping("/reduce-stock")
     public boolean reduceStock(@RequestBody ProductDTO productDTO) throws Exception {
         logger.info("[reduceStock] 收到减少库存请求, 商品:{}, 数量:{}", productDTO.getProductId(), productDTO.getCount());
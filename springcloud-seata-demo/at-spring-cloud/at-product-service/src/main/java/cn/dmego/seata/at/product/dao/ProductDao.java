@@ -1,12 +1,17 @@
 package cn.dmego.seata.at.product.dao;
 
 
+import cn.dmego.seata.common.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductDao
  *
@@ -24,15 +29,27 @@ public interface ProductDao {
      * @param productId 商品ID
      * @return 商品单价
      */
+    @ReadOnly
     @Select("SELECT price FROM product where id = #{productId}")
     Integer selectPriceById(@Param("productId") Long productId);
 
     /**
-     * 获取库存
+     * 根据商品 ID 批量查询单价
+     * @param productIds 商品ID
+     * @return 每行包含 id、price
+     */
+    @ReadOnly
+    @Select("<script>SELECT id, price FROM product WHERE id IN "
+        + "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<Map<String, Object>> selectPricesByIds(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * 获取库存，用于扣减前的检查。检查结果决定是否扣减，全局事务中读主库，不在事务中时开启读写分离可以读从库
      *
      * @param productId 商品编号
      * @return 库存
      */
+    @ReadOnly
     @Select("SELECT stock FROM product WHERE id = #{productId}")
     Integer getStock(@Param("productId") Long productId);
 
@@ -1,5 +1,8 @@
 package cn.dmego.seata.at.product.service;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductService
  *
@@ -19,4 +22,12 @@ public interface ProductService {
     boolean reduceStock(Long productId, Integer count) throws Exception;
 
     Integer getPriceById(Long productId);
+
+    /**
+     * 批量查询单价
+     *
+     * @param productIds 商品 ID
+     * @return 商品 ID -> 单价，不存在的商品单价为 null
+     */
+    Map<Long, Integer> getPricesByIds(List<Long> productIds);
 }
@@ -1,15 +1,22 @@
 package cn.dmego.seata.at.product.service.impl;
 
-
 import cn.dmego.seata.at.product.dao.ProductDao;
 import cn.dmego.seata.at.product.service.ProductService;
+import cn.dmego.seata.common.batch.BatchingLoader;
 import io.seata.core.context.RootContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductServiceImpl
  *
@@ -25,6 +32,22 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductDao productDao;
 
+    @Value("${product.price-loader.window-micros:500}")
+    private long priceLoaderWindowMicros;
+
+    @Value("${product.price-loader.max-batch-size:100}")
+    private int priceLoaderMaxBatchSize;
+
+    /**
+     * 单价查询合并：同一商品的并发查询共用一次查询，不同商品在合并窗口内合并成一次 IN 查询
+     */
+    private BatchingLoader<Long, Integer> priceLoader;
+
+    @PostConstruct
+    public void initPriceLoader() {
+        priceLoader = new BatchingLoader<>(this::selectPrices, priceLoaderWindowMicros, priceLoaderMaxBatchSize);
+    }
+
     @Override
     @Transactional // 开启新事物
     public boolean reduceStock(Long productId, Integer count) throws Exception {
@@ -48,7 +71,21 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public Integer getPriceById(Long productId) {
-        return productDao.selectPriceById(productId);
+        return priceLoader.load(productId);
+    }
+
+    @Override
+    public Map<Long, Integer> getPricesByIds(List<Long> productIds) {
+        return priceLoader.loadAll(productIds);
+    }
+
+    private Map<Long, Integer> selectPrices(Collection<Long> productIds) {
+        Map<Long, Integer> prices = new HashMap<>();
+        for (Map<String, Object> row : productDao.selectPricesByIds(productIds)) {
+            Object price = row.get("price");
+            prices.put(((Number) row.get("id")).longValue(), price == null ? null : ((Number) price).intValue());
+        }
+        return prices;
     }
 
     private void checkStock(Long productId, Integer count) throws Exception {
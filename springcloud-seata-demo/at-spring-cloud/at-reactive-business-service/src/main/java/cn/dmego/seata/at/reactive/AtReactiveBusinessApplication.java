@@ -0,0 +1,20 @@
+package cn.dmego.seata.at.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+
+/**
+ * @className: AtReactiveBusinessApplication
+ *
+ * @description: at-business-service 的 WebFlux 版本，下单接口与 BusinessDTO 保持一致
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@SpringBootApplication(exclude= {DataSourceAutoConfiguration.class})
+public class AtReactiveBusinessApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(AtReactiveBusinessApplication.class, args);
+    }
+}
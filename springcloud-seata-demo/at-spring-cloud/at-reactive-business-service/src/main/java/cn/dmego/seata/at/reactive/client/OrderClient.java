@@ -0,0 +1,30 @@
+package cn.dmego.seata.at.reactive.client;
+
+import cn.dmego.seata.common.dto.OrderDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: OrderClient
+ *
+ * @description: at-order-service 服务的响应式客户端，接口与 at-business-service 中的 Feign 客户端一致
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@Component
+public class OrderClient {
+
+    private final WebClient webClient;
+
+    public OrderClient(WebClient.Builder loadBalancedWebClientBuilder) {
+        this.webClient = loadBalancedWebClientBuilder.baseUrl("http://at-order-service/order").build();
+    }
+
+    public Mono<Boolean> createOrder(OrderDTO orderDTO) {
+        return webClient.post().uri("/create-order")
+            .bodyValue(orderDTO)
+            .retrieve()
+            .bodyToMono(Boolean.class);
+    }
+}
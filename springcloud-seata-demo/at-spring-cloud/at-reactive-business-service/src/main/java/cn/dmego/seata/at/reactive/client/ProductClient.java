@@ -0,0 +1,36 @@
+package cn.dmego.seata.at.reactive.client;
+
+import cn.dmego.seata.common.dto.ProductDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: ProductClient
+ *
+ * @description: at-product-service 服务的响应式客户端，接口与 at-business-service 中的 Feign 客户端一致
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@Component
+public class ProductClient {
+
+    private final WebClient webClient;
+
+    public ProductClient(WebClient.Builder loadBalancedWebClientBuilder) {
+        this.webClient = loadBalancedWebClientBuilder.baseUrl("http://at-product-service/product").build();
+    }
+
+    public Mono<Boolean> reduceStock(ProductDTO productDTO) {
+        return webClient.post().uri("/reduce-stock")
+            .bodyValue(productDTO)
+            .retrieve()
+            .bodyToMono(Boolean.class);
+    }
+
+    public Mono<Integer> getPrice(Long productId) {
+        return webClient.get().uri(uri -> uri.path("/getPrice").queryParam("productId", productId).build())
+            .retrieve()
+            .bodyToMono(Integer.class);
+    }
+}
@@ -0,0 +1,53 @@
+package cn.dmego.seata.at.reactive.config;
+
+import cn.dmego.seata.at.reactive.context.SeataReactorContext;
+import cn.dmego.seata.common.deadline.Deadline;
+import cn.dmego.seata.common.deadline.DeadlineExceededException;
+import io.seata.core.context.RootContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: WebClientConfig
+ *
+ * @description: 带负载均衡的 WebClient，请求发出前从 Reactor Context 中取出 XID 和截止时间写入请求头，
+ *               下游仍是 Spring MVC 服务，按 Feign 调用时相同的请求头加入全局事务
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@Configuration
+public class WebClientConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder().filter(transactionPropagation());
+    }
+
+    private static ExchangeFilterFunction transactionPropagation() {
+        return (request, next) -> Mono.deferContextual(context -> {
+            String xid = SeataReactorContext.xid(context);
+            Deadline deadline = SeataReactorContext.deadline(context);
+            if (xid == null && deadline == null) {
+                return next.exchange(request);
+            }
+            ClientRequest.Builder builder = ClientRequest.from(request);
+            if (xid != null) {
+                builder.header(RootContext.KEY_XID, xid);
+            }
+            if (deadline != null) {
+                long remaining = deadline.remainingMillis();
+                if (remaining <= 0) {
+                    return Mono.error(new DeadlineExceededException("调用 " + request.url().getHost()));
+                }
+                builder.header(Deadline.HEADER, String.valueOf(remaining));
+            }
+            return next.exchange(builder.build());
+        });
+    }
+}
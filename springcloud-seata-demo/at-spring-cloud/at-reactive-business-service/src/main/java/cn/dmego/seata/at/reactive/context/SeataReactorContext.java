@@ -0,0 +1,43 @@
+package cn.dmego.seata.at.reactive.context;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * @className: SeataReactorContext
+ *
+ * @description: 全局事务上下文保存在 Reactor Context 中，而不是 RootContext 的 ThreadLocal：
+ *               响应式链路的各个阶段可能在不同线程上执行，同一个线程也会交替处理多个请求，ThreadLocal 无法对应到具体的事务
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+public final class SeataReactorContext {
+
+    private static final String XID = SeataReactorContext.class.getName() + ".XID";
+
+    private static final String DEADLINE = SeataReactorContext.class.getName() + ".DEADLINE";
+
+    private SeataReactorContext() {
+    }
+
+    public static Context with(Context context, String xid, Deadline deadline) {
+        return context.put(XID, xid).put(DEADLINE, deadline);
+    }
+
+    /**
+     * @return 当前订阅链路上的 XID，不在全局事务中时为空
+     */
+    public static Mono<String> xid() {
+        return Mono.deferContextual(context -> Mono.justOrEmpty(xid(context)));
+    }
+
+    public static String xid(ContextView context) {
+        return context.getOrDefault(XID, null);
+    }
+
+    public static Deadline deadline(ContextView context) {
+        return context.getOrDefault(DEADLINE, null);
+    }
+}
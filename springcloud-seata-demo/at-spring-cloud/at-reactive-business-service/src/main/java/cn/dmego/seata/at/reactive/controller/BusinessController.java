@@ -0,0 +1,29 @@
+package cn.dmego.seata.at.reactive.controller;
+
+import cn.dmego.seata.at.reactive.service.ReactiveBusinessService;
+import cn.dmego.seata.common.dto.BusinessDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: BusinessController
+ *
+ * @description: 与 at-business-service 相同的 /at/buy 接口
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@RestController
+@RequestMapping("/at")
+public class BusinessController {
+
+    @Autowired
+    ReactiveBusinessService businessService;
+
+    @RequestMapping("/buy")
+    public Mono<String> handleBusiness(@RequestBody BusinessDTO businessDTO) {
+        return businessService.handleBusiness(businessDTO);
+    }
+}
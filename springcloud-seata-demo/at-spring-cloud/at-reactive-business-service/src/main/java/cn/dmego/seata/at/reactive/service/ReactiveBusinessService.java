@@ -0,0 +1,16 @@
+package cn.dmego.seata.at.reactive.service;
+
+import cn.dmego.seata.common.dto.BusinessDTO;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: ReactiveBusinessService
+ *
+ * @description: ReactiveBusinessService
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+public interface ReactiveBusinessService {
+
+    Mono<String> handleBusiness(BusinessDTO businessDTO);
+}
@@ -0,0 +1,74 @@
+package cn.dmego.seata.at.reactive.service.impl;
+
+import cn.dmego.seata.at.reactive.client.OrderClient;
+import cn.dmego.seata.at.reactive.client.ProductClient;
+import cn.dmego.seata.at.reactive.service.ReactiveBusinessService;
+import cn.dmego.seata.at.reactive.transaction.ReactiveGlobalTransactionTemplate;
+import cn.dmego.seata.common.dto.BusinessDTO;
+import cn.dmego.seata.common.dto.OrderDTO;
+import cn.dmego.seata.common.dto.ProductDTO;
+import cn.dmego.seata.common.util.IDUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * @className: ReactiveBusinessServiceImpl
+ *
+ * @description: 与 at-business-service 相同的下单流程：扣减库存 → 查询单价 → 创建订单，
+ *               等待下游响应期间不占用任何线程
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@Service
+public class ReactiveBusinessServiceImpl implements ReactiveBusinessService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Autowired
+    ReactiveGlobalTransactionTemplate transactionTemplate;
+
+    @Autowired
+    ProductClient productClient;
+
+    @Autowired
+    OrderClient orderClient;
+
+    @Override
+    public Mono<String> handleBusiness(BusinessDTO businessDTO) {
+        return transactionTemplate.execute("handleBusiness(BusinessDTO)", xid -> {
+            logger.info("[handleBusiness] 开始下单, 当前 XID: {}", xid);
+
+            // 扣减库存
+            return productClient.reduceStock(new ProductDTO(businessDTO.getProductId(), businessDTO.getCount()))
+                .flatMap(reduceStock -> {
+                    if (!reduceStock) {
+                        return Mono.error(new RuntimeException("下单失败"));
+                    }
+                    // 查询 商品单价
+                    return productClient.getPrice(businessDTO.getProductId());
+                })
+                .flatMap(price -> {
+                    // 生成订单 ID
+                    Long orderId = IDUtils.nextId();
+                    OrderDTO orderDTO = new OrderDTO();
+                    orderDTO.setId(orderId);
+                    orderDTO.setUserId(businessDTO.getUserId());
+                    orderDTO.setProductId(businessDTO.getProductId());
+                    orderDTO.setCount(businessDTO.getCount());
+                    orderDTO.setPayAmount(price * businessDTO.getCount());
+                    // 创建订单
+                    return orderClient.createOrder(orderDTO)
+                        .flatMap(createOrder -> {
+                            if (!createOrder) {
+                                return Mono.error(new RuntimeException("下单失败"));
+                            }
+                            logger.info("[handleBusiness] 下单成功, 订单Id: " + orderId);
+                            return Mono.just("Place Order Success");
+                        });
+                });
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package cn.dmego.seata.at.reactive.transaction;
+
+import cn.dmego.seata.at.reactive.context.SeataReactorContext;
+import cn.dmego.seata.common.deadline.Deadline;
+import cn.dmego.seata.common.deadline.DeadlineExceededException;
+import io.seata.core.context.RootContext;
+import io.seata.core.exception.TransactionException;
+import io.seata.tm.api.GlobalTransaction;
+import io.seata.tm.api.GlobalTransactionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * @className: ReactiveGlobalTransactionTemplate
+ *
+ * @description: @GlobalTransactional 的响应式版本：
+ *               1. 向 TC 开启 / 提交 / 回滚全局事务是阻塞的 RPC，放在 boundedElastic 线程上执行，
+ *                  开启后立刻解除 RootContext 的线程绑定，XID 只通过 Reactor Context 向下传递；
+ *               2. 业务链路超过事务超时时间时取消在途的下游调用并回滚，截止时间与阻塞版本一样随请求头传给下游；
+ *               3. 业务链路出错或被取消时回滚，回滚失败只记录日志，由 TC 按超时回滚兜底。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+@Component
+public class ReactiveGlobalTransactionTemplate {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    @Value("${seata.client.tm.default-global-transaction-timeout:60000}")
+    private int defaultTimeoutMillis;
+
+    public <T> Mono<T> execute(String name, Function<String, Mono<T>> business) {
+        return execute(name, defaultTimeoutMillis, business);
+    }
+
+    public <T> Mono<T> execute(String name, int timeoutMillis, Function<String, Mono<T>> business) {
+        return Mono.usingWhen(
+            Mono.fromCallable(() -> begin(name, timeoutMillis)).subscribeOn(Schedulers.boundedElastic()),
+            tx -> {
+                Deadline deadline = Deadline.after(timeoutMillis);
+                return business.apply(tx.getXid())
+                    .timeout(Duration.ofMillis(timeoutMillis))
+                    .onErrorMap(TimeoutException.class, e -> new DeadlineExceededException("全局事务 " + name))
+                    .contextWrite(context -> SeataReactorContext.with(context, tx.getXid(), deadline));
+            },
+            tx -> blocking(tx::commit),
+            (tx, error) -> blocking(() -> rollback(tx, error)),
+            tx -> blocking(() -> rollback(tx, null)));
+    }
+
+    private GlobalTransaction begin(String name, int timeoutMillis) throws TransactionException {
+        GlobalTransaction tx = GlobalTransactionContext.createNew();
+        try {
+            tx.begin(timeoutMillis, name);
+        } finally {
+            // begin() 会把 XID 绑定到当前的 boundedElastic 线程，这个线程随后会执行其它请求
+            RootContext.unbind();
+        }
+        logger.info("[execute] 开启全局事务 {}: {}", name, tx.getXid());
+        return tx;
+    }
+
+    private void rollback(GlobalTransaction tx, Throwable error) {
+        try {
+            tx.rollback();
+            logger.info("[execute] 全局事务 {} 已回滚, 原因: {}", tx.getXid(),
+                error == null ? "请求被取消" : error.toString());
+        } catch (TransactionException e) {
+            logger.error("[execute] 全局事务 {} 回滚失败, 等待 TC 超时回滚", tx.getXid(), e);
+        }
+    }
+
+    private static Mono<Void> blocking(TransactionAction action) {
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                action.run();
+            } catch (TransactionException e) {
+                throw new IllegalStateException(e);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @FunctionalInterface
+    private interface TransactionAction {
+
+        void run() throws TransactionException;
+    }
+}
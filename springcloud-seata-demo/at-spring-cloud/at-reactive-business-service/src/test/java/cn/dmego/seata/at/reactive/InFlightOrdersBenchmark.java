@@ -0,0 +1,133 @@
+package cn.dmego.seata.at.reactive;
+
+import cn.dmego.seata.common.dto.BusinessDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: InFlightOrdersBenchmark
+ *
+ * @description: 对比阻塞的 at-business-service 与 at-reactive-business-service 每 GB 堆内存能承载的在途订单数。
+ *               对每个目标依次保持 64 / 256 / 1024 / 4096 个并发下单请求 DURATION 时长，期间从目标的
+ *               /actuator/metrics 采样堆内存和线程数的峰值，输出吞吐、延迟、错误数和 在途订单数 / 峰值堆 GB。
+ *
+ *               运行前先启动 Seata TC 和 at-product / at-order / at-account 服务，目标服务需要暴露 metrics 端点，
+ *               at-business-service 启动时加上 --management.endpoints.web.exposure.include=health,metrics。
+ *               参数为目标地址列表，默认 http://localhost:8080 http://localhost:8084。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:40
+ **/
+public class InFlightOrdersBenchmark {
+
+    private static final int[] CONCURRENCY = {64, 256, 1024, 4096};
+
+    private static final Duration DURATION = Duration.ofSeconds(30);
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(500);
+
+    public static void main(String[] args) {
+        List<String> targets = args.length > 0 ? Arrays.asList(args)
+            : Arrays.asList("http://localhost:8080", "http://localhost:8084");
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+            .maxConnections(CONCURRENCY[CONCURRENCY.length - 1] + 16)
+            .pendingAcquireMaxCount(-1)
+            .build();
+        WebClient client = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+            .build();
+
+        System.out.printf("%-24s %8s %10s %9s %9s %8s %10s %8s %12s%n", "target", "inflight", "orders/s",
+            "p50 ms", "p99 ms", "errors", "heap MB", "threads", "inflight/GB");
+        for (String target : targets) {
+            for (int concurrency : CONCURRENCY) {
+                run(client, target, concurrency);
+            }
+        }
+        connections.dispose();
+    }
+
+    private static void run(WebClient client, String target, int concurrency) {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong errors = new AtomicLong();
+        AtomicLong maxHeap = new AtomicLong();
+        AtomicLong maxThreads = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        Disposable sampler = Flux.interval(SAMPLE_INTERVAL)
+            .flatMap(i -> Mono.zip(metric(client, target, "jvm.memory.used?tag=area:heap"),
+                metric(client, target, "jvm.threads.live")))
+            .subscribe(sample -> {
+                maxHeap.accumulateAndGet(sample.getT1(), Math::max);
+                maxThreads.accumulateAndGet(sample.getT2(), Math::max);
+            });
+
+        long start = System.nanoTime();
+        Flux.range(0, concurrency)
+            .flatMap(worker -> Flux.defer(() -> order(client, target, worker, latencies, errors))
+                .repeat(running::get), concurrency)
+            .take(DURATION)
+            .doFinally(signal -> running.set(false))
+            .blockLast(DURATION.plusMinutes(1));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.dispose();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long heapMb = maxHeap.get() >> 20;
+        double perGb = heapMb == 0 ? 0 : concurrency * 1024.0 / heapMb;
+        System.out.printf("%-24s %8d %10.1f %9.1f %9.1f %8d %10d %8d %12.0f%n", target, concurrency,
+            sorted.size() / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get(), heapMb,
+            maxThreads.get(), perGb);
+    }
+
+    private static Mono<Void> order(WebClient client, String target, int worker, List<Long> latencies,
+                                    AtomicLong errors) {
+        BusinessDTO businessDTO = new BusinessDTO();
+        businessDTO.setUserId(1L + worker % 10);
+        businessDTO.setProductId(1L);
+        businessDTO.setCount(1);
+        long begin = System.nanoTime();
+        return client.post().uri(target + "/at/buy")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(businessDTO)
+            .retrieve()
+            .bodyToMono(String.class)
+            .doOnSuccess(result -> latencies.add(System.nanoTime() - begin))
+            .onErrorResume(e -> {
+                errors.incrementAndGet();
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private static Mono<Long> metric(WebClient client, String target, String name) {
+        return client.get().uri(target + "/actuator/metrics/" + name)
+            .retrieve()
+            .bodyToMono(JsonNode.class)
+            .map(node -> node.path("measurements").path(0).path("value").asLong())
+            .onErrorReturn(0L);
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
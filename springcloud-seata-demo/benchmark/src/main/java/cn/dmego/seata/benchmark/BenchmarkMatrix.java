@@ -0,0 +1,253 @@
+package cn.dmego.seata.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: BenchmarkMatrix
+ *
+ * @description: AT / TCC / Saga 下单流程的对比压测。各模式的 business-service 都使用 8080 端口，每次运行一个模式：
+ *               启动该模式的全部服务后运行 BenchmarkMatrix --flavor=at，依次跑完所有负载组合，结果追加到报告文件，
+ *               再切换到下一个模式。每次运行结束时打印报告文件中所有模式的结果，同一负载下的模式相邻。
+ *               所有模式连接同一个 MySQL 和同一个 Seata Server，每个单元格开始前重置库存和余额，
+ *               预热后统计吞吐、延迟分位、每单 SQL 语句数和每单行锁等待时间。
+ *               demo1 下单接口有准入控制，压测时以 --order.admission.enabled=false 启动 demo1 订单服务。
+ *               参数（--name=value）：flavor（at / tcc / saga / demo1-at / demo1-tcc）、url、threads（默认 16）、
+ *               seconds（每个单元格的统计时长，默认 30）、warmup（默认 5）、skews（默认 uniform,hot-sku）、
+ *               rollbacks（强制回滚比例，默认 0,0.1）、products（默认 100）、users（默认 1000）、hot-ratio（默认 0.9）、
+ *               jdbc、db-user、db-password、report（默认 benchmark-matrix.csv）
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+public class BenchmarkMatrix {
+
+    /**
+     * AT 二阶段提交异步删除 undo_log，统计结束后等待这段时间再取计数器，把二阶段的语句算进本单元格
+     */
+    private static final long SETTLE_MILLIS = 2000;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        Flavor flavor = Flavor.of(require(options, "flavor"));
+        String baseUrl = options.getOrDefault("url", flavor.defaultBaseUrl());
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        long seconds = Long.parseLong(options.getOrDefault("seconds", "30"));
+        long warmup = Long.parseLong(options.getOrDefault("warmup", "5"));
+        int products = Integer.parseInt(options.getOrDefault("products", "100"));
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        double hotRatio = Double.parseDouble(options.getOrDefault("hot-ratio", "0.9"));
+        String jdbcUrl = options.getOrDefault("jdbc",
+            "jdbc:mysql://127.0.0.1:3306/?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai");
+        MatrixReport report = new MatrixReport(Paths.get(options.getOrDefault("report", "benchmark-matrix.csv")));
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+            options.getOrDefault("db-user", "root"), options.getOrDefault("db-password", "root123"))) {
+            for (String skew : options.getOrDefault("skews", "uniform,hot-sku").split(",")) {
+                for (String rollback : options.getOrDefault("rollbacks", "0,0.1").split(",")) {
+                    Workload workload = new Workload(Workload.Skew.of(skew.trim()), Double.parseDouble(rollback.trim()),
+                        products, users, hotRatio);
+                    CellResult result = runCell(flavor, baseUrl, workload, threads, warmup, seconds, connection);
+                    report.append(result);
+                    System.out.printf("[benchmark] %s %s rollback=%.0f%% 完成: %.1f tx/s, p99 %.1f ms%n", flavor.label(),
+                        skew, workload.getRollbackRatio() * 100, result.throughput(), result.p99);
+                }
+            }
+        }
+        System.out.println();
+        report.print(System.out);
+    }
+
+    private static CellResult runCell(Flavor flavor, String baseUrl, Workload workload, int threads, long warmupSeconds,
+                                      long seconds, Connection connection) throws Exception {
+        flavor.reset(connection, workload);
+        drive(flavor, baseUrl, workload, threads, TimeUnit.SECONDS.toMillis(warmupSeconds));
+        Thread.sleep(SETTLE_MILLIS);
+
+        MysqlCounters before = MysqlCounters.snapshot(connection);
+        long start = System.nanoTime();
+        List<Worker> workers = drive(flavor, baseUrl, workload, threads, TimeUnit.SECONDS.toMillis(seconds));
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        Thread.sleep(SETTLE_MILLIS);
+        MysqlCounters after = MysqlCounters.snapshot(connection);
+
+        CellResult result = new CellResult();
+        result.flavor = flavor.label();
+        result.skew = workload.getSkew().label();
+        result.rollbackRatio = workload.getRollbackRatio();
+        result.threads = threads;
+        result.seconds = elapsed;
+        long[] latencies = new long[0];
+        for (Worker worker : workers) {
+            result.committed += worker.committed;
+            result.aborted += worker.aborted;
+            result.unexpectedAborts += worker.unexpectedAborts;
+            result.errors += worker.errors;
+            int offset = latencies.length;
+            latencies = Arrays.copyOf(latencies, offset + worker.count);
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+        }
+        Arrays.sort(latencies);
+        result.p50 = percentile(latencies, 0.50);
+        result.p95 = percentile(latencies, 0.95);
+        result.p99 = percentile(latencies, 0.99);
+        result.max = latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6;
+        result.statements = after.statementsSince(before);
+        result.lockWaitMillis = after.lockWaitMillisSince(before);
+        result.lockWaits = after.lockWaitsSince(before);
+        return result;
+    }
+
+    private static List<Worker> drive(Flavor flavor, String baseUrl, Workload workload, int threads, long millis)
+        throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long end = System.currentTimeMillis() + millis;
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(flavor, baseUrl, workload, end);
+            workers.add(worker);
+            futures.add(executor.submit(worker));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        return workers;
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final Flavor flavor;
+
+        private final String baseUrl;
+
+        private final Workload workload;
+
+        private final long end;
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long committed;
+
+        private long aborted;
+
+        private long unexpectedAborts;
+
+        private long errors;
+
+        private Worker(Flavor flavor, String baseUrl, Workload workload, long end) {
+            this.flavor = flavor;
+            this.baseUrl = baseUrl;
+            this.workload = workload;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            Random random = ThreadLocalRandom.current();
+            while (System.currentTimeMillis() < end) {
+                boolean rollback = workload.nextRollback(random);
+                String body = flavor.body(workload, workload.nextProduct(random), workload.nextUser(random), rollback);
+                long begin = System.nanoTime();
+                Flavor.Outcome outcome;
+                try {
+                    outcome = post(baseUrl + flavor.path(rollback), body);
+                } catch (IOException e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - begin;
+                if (outcome == Flavor.Outcome.COMMITTED) {
+                    committed++;
+                } else {
+                    aborted++;
+                    if (!rollback) {
+                        unexpectedAborts++;
+                    }
+                }
+            }
+        }
+
+        private Flavor.Outcome post(String url, String json) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(120000);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream os = connection.getOutputStream()) {
+                os.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+            int status = connection.getResponseCode();
+            InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            return flavor.classify(status, read(stream));
+        }
+    }
+
+    static String read(InputStream stream) throws IOException {
+        if (stream == null) {
+            return "";
+        }
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("参数格式为 --name=value: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+
+    static String require(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("缺少参数 --" + name);
+        }
+        return value;
+    }
+}
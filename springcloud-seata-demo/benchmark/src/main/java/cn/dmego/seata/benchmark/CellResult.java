@@ -0,0 +1,96 @@
+package cn.dmego.seata.benchmark;
+
+import java.util.Locale;
+
+/**
+ * @className: CellResult
+ *
+ * @description: 压测矩阵中一个单元格（模式 × 商品分布 × 回滚比例）的结果，以 CSV 行的形式追加到报告文件，
+ *               分别运行各个模式后合并成一张报告
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+final class CellResult {
+
+    static final String CSV_HEADER = "flavor,skew,rollback,threads,seconds,committed,aborted,unexpected_aborts,errors,"
+        + "p50_ms,p95_ms,p99_ms,max_ms,statements,lock_wait_ms,lock_waits";
+
+    String flavor;
+
+    String skew;
+
+    double rollbackRatio;
+
+    int threads;
+
+    double seconds;
+
+    long committed;
+
+    long aborted;
+
+    /**
+     * 没有要求回滚却失败的请求，热点商品下主要是全局锁冲突和行锁等待超时
+     */
+    long unexpectedAborts;
+
+    long errors;
+
+    double p50;
+
+    double p95;
+
+    double p99;
+
+    double max;
+
+    long statements;
+
+    long lockWaitMillis;
+
+    long lockWaits;
+
+    long completed() {
+        return committed + aborted;
+    }
+
+    double throughput() {
+        return seconds == 0 ? 0 : completed() / seconds;
+    }
+
+    double statementsPerOrder() {
+        return completed() == 0 ? 0 : (double) statements / completed();
+    }
+
+    double lockWaitMillisPerOrder() {
+        return completed() == 0 ? 0 : (double) lockWaitMillis / completed();
+    }
+
+    String toCsv() {
+        return String.format(Locale.ROOT, "%s,%s,%.2f,%d,%.1f,%d,%d,%d,%d,%.2f,%.2f,%.2f,%.2f,%d,%d,%d",
+            flavor, skew, rollbackRatio, threads, seconds, committed, aborted, unexpectedAborts, errors,
+            p50, p95, p99, max, statements, lockWaitMillis, lockWaits);
+    }
+
+    static CellResult fromCsv(String line) {
+        String[] f = line.split(",");
+        CellResult r = new CellResult();
+        r.flavor = f[0];
+        r.skew = f[1];
+        r.rollbackRatio = Double.parseDouble(f[2]);
+        r.threads = Integer.parseInt(f[3]);
+        r.seconds = Double.parseDouble(f[4]);
+        r.committed = Long.parseLong(f[5]);
+        r.aborted = Long.parseLong(f[6]);
+        r.unexpectedAborts = Long.parseLong(f[7]);
+        r.errors = Long.parseLong(f[8]);
+        r.p50 = Double.parseDouble(f[9]);
+        r.p95 = Double.parseDouble(f[10]);
+        r.p99 = Double.parseDouble(f[11]);
+        r.max = Double.parseDouble(f[12]);
+        r.statements = Long.parseLong(f[13]);
+        r.lockWaitMillis = Long.parseLong(f[14]);
+        r.lockWaits = Long.parseLong(f[15]);
+        return r;
+    }
+}
@@ -0,0 +1,218 @@
+package cn.dmego.seata.benchmark;
+
+import cn.dmego.seata.benchmark.stress.InvariantChecker;
+import cn.dmego.seata.benchmark.stress.PendingXids;
+import cn.dmego.seata.benchmark.stress.Scenario;
+import cn.dmego.seata.benchmark.stress.StressRequest;
+import cn.dmego.seata.benchmark.stress.Violation;
+import cn.dmego.seata.benchmark.stress.XidLedger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: ConsistencyStress
+ *
+ * @description: 一致性压测：并发发送大量下单 / 转账请求，按比例注入会触发全局回滚的业务故障和客户端超时，
+ *               压测过程中定期检查数据不变量，结束后等待所有二阶段完成再检查一遍。
+ *               发现违反时列出涉及这条数据的请求的 XID（服务在响应头 Seata-Xid 中返回），结束时列出
+ *               undo_log / tcc_fence_log 中仍未完成二阶段的 XID。有违反或注入故障的请求被提交时以退出码 1 结束。
+ *               参数（--name=value）：target（at / tcc / saga / demo1-at / demo1-tcc / tcc-transfer）、url、
+ *               threads（默认 64）、requests（默认 5000）、failure-rate（注入业务故障的比例，默认 0.2）、
+ *               timeout-rate（客户端超时的比例，默认 0.02）、timeout-millis（默认 100）、products（默认 10）、
+ *               users（用户数 / 转账账户数，默认 50）、check-millis（默认 500）、confirmations（默认 3）、
+ *               settle-millis（默认 5000）、quiesce-seconds（默认 60）、jdbc、db-user、db-password
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class ConsistencyStress {
+
+    private static final String XID_HEADER = "Seata-Xid";
+
+    private static final String CLIENT_TIMEOUT = "client-timeout";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = BenchmarkMatrix.parse(args);
+        Scenario scenario = Scenario.of(BenchmarkMatrix.require(options, "target"),
+            Integer.parseInt(options.getOrDefault("products", "10")),
+            Integer.parseInt(options.getOrDefault("users", "50")));
+        String baseUrl = options.getOrDefault("url", scenario.defaultBaseUrl());
+        int threads = Integer.parseInt(options.getOrDefault("threads", "64"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "5000"));
+        double failureRate = Double.parseDouble(options.getOrDefault("failure-rate", "0.2"));
+        double timeoutRate = Double.parseDouble(options.getOrDefault("timeout-rate", "0.02"));
+        int timeoutMillis = Integer.parseInt(options.getOrDefault("timeout-millis", "100"));
+        long checkMillis = Long.parseLong(options.getOrDefault("check-millis", "500"));
+        int confirmations = Integer.parseInt(options.getOrDefault("confirmations", "3"));
+        long settleMillis = Long.parseLong(options.getOrDefault("settle-millis", "5000"));
+        long quiesceSeconds = Long.parseLong(options.getOrDefault("quiesce-seconds", "60"));
+        String jdbcUrl = options.getOrDefault("jdbc",
+            "jdbc:mysql://127.0.0.1:3306/?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=Asia/Shanghai");
+        String dbUser = options.getOrDefault("db-user", "root");
+        String dbPassword = options.getOrDefault("db-password", "root123");
+
+        XidLedger ledger = new XidLedger();
+        InvariantChecker checker = new InvariantChecker(scenario.invariants(), ledger, confirmations, settleMillis,
+            System.out);
+        Driver driver = new Driver(scenario, baseUrl, ledger, failureRate, timeoutRate, timeoutMillis);
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, dbUser, dbPassword)) {
+            // 一条检查语句中的多个表读自同一个快照
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            scenario.reset(connection);
+            Timestamp since = new Timestamp(System.currentTimeMillis() - 1000);
+            System.out.printf("[stress] %s %s: %d 个请求，%d 线程，业务故障 %.0f%%，客户端超时 %.0f%%%n", scenario.label(),
+                baseUrl, requests, threads, failureRate * 100, timeoutRate * 100);
+
+            ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    checker.checkUnderLoad(connection);
+                } catch (SQLException e) {
+                    System.out.println("[stress] 检查不变量失败: " + e);
+                }
+            }, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+            long start = System.nanoTime();
+            driver.run(threads, requests);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            scheduler.shutdown();
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            System.out.printf("[stress] 压测完成: %.1f 秒，提交 %d，回滚 %d（其中未注入故障 %d），结果未知 %d%n", elapsed,
+                driver.committed.sum(), driver.aborted.sum(), driver.unexpectedAborts.sum(), driver.unknown.sum());
+
+            checker.checkQuiescent(connection, TimeUnit.SECONDS.toMillis(quiesceSeconds));
+            Map<String, String> pending = PendingXids.query(connection, scenario.schemas(), since);
+            for (Map.Entry<String, String> entry : pending.entrySet()) {
+                XidLedger.Entry known = ledger.find(entry.getKey());
+                System.out.printf("[stress] 未完成二阶段: %s 在 %s%s%n", entry.getKey(), entry.getValue(),
+                    known == null ? "" : "，" + InvariantChecker.describe(known));
+            }
+
+            List<Violation> violations = checker.getViolations();
+            System.out.printf("[stress] 检查 %d 轮，不变量违反 %d 条，注入故障却提交的请求 %d 个，未完成二阶段的 XID %d 个%n",
+                checker.getChecks(), violations.size(), driver.faultCommitted.sum(), pending.size());
+            if (!violations.isEmpty() || driver.faultCommitted.sum() > 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static final class Driver {
+
+        private final Scenario scenario;
+
+        private final String baseUrl;
+
+        private final XidLedger ledger;
+
+        private final double failureRate;
+
+        private final double timeoutRate;
+
+        private final int timeoutMillis;
+
+        private final LongAdder committed = new LongAdder();
+
+        private final LongAdder aborted = new LongAdder();
+
+        private final LongAdder unexpectedAborts = new LongAdder();
+
+        private final LongAdder unknown = new LongAdder();
+
+        private final LongAdder faultCommitted = new LongAdder();
+
+        private Driver(Scenario scenario, String baseUrl, XidLedger ledger, double failureRate, double timeoutRate,
+                       int timeoutMillis) {
+            this.scenario = scenario;
+            this.baseUrl = baseUrl;
+            this.ledger = ledger;
+            this.failureRate = failureRate;
+            this.timeoutRate = timeoutRate;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        private void run(int threads, int requests) throws Exception {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            AtomicInteger remaining = new AtomicInteger(requests);
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    Random random = ThreadLocalRandom.current();
+                    while (remaining.getAndDecrement() > 0) {
+                        send(random);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+        }
+
+        private void send(Random random) {
+            double roll = random.nextDouble();
+            String fault = null;
+            if (roll < timeoutRate) {
+                fault = CLIENT_TIMEOUT;
+            } else if (roll < timeoutRate + failureRate) {
+                List<String> faults = scenario.faults();
+                fault = faults.get(random.nextInt(faults.size()));
+            }
+            StressRequest request = scenario.next(random, fault);
+            XidLedger.Entry entry = ledger.begin(request);
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + request.getPath()).openConnection();
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setConnectTimeout(5000);
+                // 客户端超时：请求已经发出，服务端的全局事务继续执行，客户端不知道结果
+                connection.setReadTimeout(CLIENT_TIMEOUT.equals(fault) ? timeoutMillis : 120000);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream os = connection.getOutputStream()) {
+                    os.write(request.getBody().getBytes(StandardCharsets.UTF_8));
+                }
+                int status = connection.getResponseCode();
+                InputStream stream = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                String body = BenchmarkMatrix.read(stream);
+                boolean ok = scenario.committed(status, body);
+                ledger.end(entry, ok ? XidLedger.Outcome.COMMITTED : XidLedger.Outcome.ABORTED,
+                    connection.getHeaderField(XID_HEADER));
+                if (ok) {
+                    committed.increment();
+                    if (fault != null && !CLIENT_TIMEOUT.equals(fault)) {
+                        faultCommitted.increment();
+                        System.out.println("[stress] 注入故障的请求被提交: " + InvariantChecker.describe(entry));
+                    }
+                } else {
+                    aborted.increment();
+                    if (fault == null) {
+                        unexpectedAborts.increment();
+                    }
+                }
+            } catch (IOException e) {
+                // 超时后不能再读响应头，HttpURLConnection 会重新发送请求
+                ledger.end(entry, XidLedger.Outcome.UNKNOWN, null);
+                unknown.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package cn.dmego.seata.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * @className: Flavor
+ *
+ * @description: 参与对比的下单实现。at / tcc / saga 是本仓库三套 business-service 的 /buy 接口，共用 seata_account、
+ *               seata_order、seata_storage 三个库，强制回滚的请求使用余额为 0 的用户，在扣减余额的分支失败后触发全局回滚；
+ *               demo1-at / demo1-tcc 是 demo1 订单服务的下单接口，强制回滚的请求调用对应的 -rollback 接口
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+public enum Flavor {
+
+    AT("at", "http://127.0.0.1:8080", "/at/buy", false),
+    TCC("tcc", "http://127.0.0.1:8080", "/tcc/buy", false),
+    SAGA("saga", "http://127.0.0.1:8080", "/saga/buy", false),
+    DEMO1_AT("demo1-at", "http://127.0.0.1:8081", "/order/create-at", true),
+    DEMO1_TCC("demo1-tcc", "http://127.0.0.1:8081", "/order/create-tcc", true);
+
+    /**
+     * 压测前把库存和余额设置得足够大，正常请求不会因为数据耗尽而失败
+     */
+    private static final long PLENTY = 1_000_000_000L;
+
+    public enum Outcome {
+        COMMITTED,
+        ABORTED,
+        ERROR
+    }
+
+    private final String label;
+
+    private final String defaultBaseUrl;
+
+    private final String path;
+
+    private final boolean demo1;
+
+    Flavor(String label, String defaultBaseUrl, String path, boolean demo1) {
+        this.label = label;
+        this.defaultBaseUrl = defaultBaseUrl;
+        this.path = path;
+        this.demo1 = demo1;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public String defaultBaseUrl() {
+        return defaultBaseUrl;
+    }
+
+    public static Flavor of(String label) {
+        for (Flavor flavor : values()) {
+            if (flavor.label.equalsIgnoreCase(label)) {
+                return flavor;
+            }
+        }
+        throw new IllegalArgumentException("未知的模式: " + label + "，可选 at / tcc / saga / demo1-at / demo1-tcc");
+    }
+
+    public String path(boolean rollback) {
+        return demo1 && rollback ? path + "-rollback" : path;
+    }
+
+    public String body(Workload workload, int product, int user, boolean rollback) {
+        if (demo1) {
+            return "{\"userId\":\"U" + user + "\",\"productId\":\"PB" + product + "\",\"count\":1,\"amount\":10.00}";
+        }
+        int userId = rollback ? poorUser(workload) : user;
+        return "{\"userId\":" + userId + ",\"productId\":" + product + ",\"count\":1}";
+    }
+
+    public Outcome classify(int status, String body) {
+        if (demo1) {
+            // demo1 的接口失败时同样返回 HTTP 200，结果码在响应体里
+            return status == 200 && body.replace(" ", "").contains("\"code\":200") ? Outcome.COMMITTED : Outcome.ABORTED;
+        }
+        // at / tcc 返回 Place Order Success，saga 返回状态机实例状态，SU 为成功；失败时业务异常返回 HTTP 500
+        return status == 200 && ("Place Order Success".equals(body) || "SU".equals(body))
+            ? Outcome.COMMITTED : Outcome.ABORTED;
+    }
+
+    /**
+     * 重置本模式用到的库存和余额
+     */
+    public void reset(Connection connection, Workload workload) throws SQLException {
+        if (demo1) {
+            String sql = this == DEMO1_AT
+                ? "INSERT INTO seata_storage.t_storage (product_id, total, used, residue) VALUES (?, ?, 0, ?) "
+                    + "ON DUPLICATE KEY UPDATE total = VALUES(total), used = 0, residue = VALUES(residue)"
+                : "INSERT INTO seata_storage.t_storage_tcc (product_id, total, used, frozen, residue) VALUES (?, ?, 0, 0, ?) "
+                    + "ON DUPLICATE KEY UPDATE total = VALUES(total), used = 0, frozen = 0, residue = VALUES(residue)";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (int product = 1; product <= workload.getProducts(); product++) {
+                    statement.setString(1, "PB" + product);
+                    statement.setLong(2, PLENTY);
+                    statement.setLong(3, PLENTY);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO seata_storage.product (id, price, stock, frozen) VALUES (?, 5, ?, 0) "
+                + "ON DUPLICATE KEY UPDATE stock = VALUES(stock), frozen = 0")) {
+            for (int product = 1; product <= workload.getProducts(); product++) {
+                statement.setInt(1, product);
+                statement.setLong(2, PLENTY);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO seata_account.account (id, balance, frozen) VALUES (?, ?, 0) "
+                + "ON DUPLICATE KEY UPDATE balance = VALUES(balance), frozen = 0")) {
+            for (int user = 1; user <= workload.getUsers() + 1; user++) {
+                statement.setInt(1, user);
+                statement.setLong(2, user == poorUser(workload) ? 0 : PLENTY);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static int poorUser(Workload workload) {
+        return workload.getUsers() + 1;
+    }
+}
@@ -0,0 +1,71 @@
+package cn.dmego.seata.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * @className: MatrixReport
+ *
+ * @description: 报告文件的读写。同一个单元格（模式、商品分布、回滚比例、并发数）重复运行时以最后一次为准，
+ *               输出时按负载分组，同一负载下的各个模式相邻，便于直接对比
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+final class MatrixReport {
+
+    private final Path file;
+
+    MatrixReport(Path file) {
+        this.file = file;
+    }
+
+    void append(CellResult result) throws IOException {
+        if (!Files.exists(file)) {
+            Files.write(file, Collections.singletonList(CellResult.CSV_HEADER), StandardCharsets.UTF_8);
+        }
+        Files.write(file, Collections.singletonList(result.toCsv()), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    void print(PrintStream out) throws IOException {
+        Map<String, CellResult> latest = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("flavor,")) {
+                continue;
+            }
+            CellResult r = CellResult.fromCsv(line);
+            latest.put(r.flavor + '|' + r.skew + '|' + r.rollbackRatio + '|' + r.threads, r);
+        }
+        List<CellResult> rows = new ArrayList<>(latest.values());
+        rows.sort(Comparator.<CellResult, String>comparing(r -> r.skew)
+            .thenComparingDouble(r -> r.rollbackRatio)
+            .thenComparingInt(r -> r.threads)
+            .thenComparing(r -> r.flavor));
+
+        out.printf("%-10s %-8s %8s %7s %9s %9s %9s %8s %8s %8s %8s %9s %11s %10s%n", "flavor", "skew", "rollback",
+            "threads", "tx/s", "committed", "aborted", "unexp", "errors", "p50 ms", "p95 ms", "p99 ms", "stmts/order",
+            "lockms/ord");
+        String group = null;
+        for (CellResult r : rows) {
+            String current = r.skew + r.rollbackRatio + r.threads;
+            if (group != null && !group.equals(current)) {
+                out.println();
+            }
+            group = current;
+            out.println(String.format(Locale.ROOT,
+                "%-10s %-8s %7.0f%% %7d %9.1f %9d %9d %8d %8d %8.1f %8.1f %9.1f %11.1f %10.2f",
+                r.flavor, r.skew, r.rollbackRatio * 100, r.threads, r.throughput(), r.committed, r.aborted,
+                r.unexpectedAborts, r.errors, r.p50, r.p95, r.p99, r.statementsPerOrder(), r.lockWaitMillisPerOrder()));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package cn.dmego.seata.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @className: MysqlCounters
+ *
+ * @description: MySQL 全局状态计数器快照。语句数取 Com_select / insert / update / delete，行锁等待取
+ *               Innodb_row_lock_time（毫秒）和 Innodb_row_lock_waits。计数是整个实例的，
+ *               Seata Server 使用 db 存储模式时 global_table / branch_table / lock_table 的读写也计算在内
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+final class MysqlCounters {
+
+    private static final String[] STATEMENTS = {"Com_select", "Com_insert", "Com_update", "Com_delete"};
+
+    private final Map<String, Long> values;
+
+    private MysqlCounters(Map<String, Long> values) {
+        this.values = values;
+    }
+
+    static MysqlCounters snapshot(Connection connection) throws SQLException {
+        Map<String, Long> values = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW GLOBAL STATUS WHERE Variable_name IN ('Com_select', "
+                 + "'Com_insert', 'Com_update', 'Com_delete', 'Innodb_row_lock_time', 'Innodb_row_lock_waits')")) {
+            while (rs.next()) {
+                values.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        return new MysqlCounters(values);
+    }
+
+    long statementsSince(MysqlCounters before) {
+        long total = 0;
+        for (String name : STATEMENTS) {
+            total += delta(before, name);
+        }
+        return total;
+    }
+
+    long lockWaitMillisSince(MysqlCounters before) {
+        return delta(before, "Innodb_row_lock_time");
+    }
+
+    long lockWaitsSince(MysqlCounters before) {
+        return delta(before, "Innodb_row_lock_waits");
+    }
+
+    private long delta(MysqlCounters before, String name) {
+        return values.getOrDefault(name, 0L) - before.values.getOrDefault(name, 0L);
+    }
+}
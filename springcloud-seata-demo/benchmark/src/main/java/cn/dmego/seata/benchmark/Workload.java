@@ -0,0 +1,93 @@
+package cn.dmego.seata.benchmark;
+
+import java.util.Random;
+
+/**
+ * @className: Workload
+ *
+ * @description: 压测负载：商品分布（uniform 在所有商品中均匀选择，hot-sku 按 hotRatio 集中到 1 号商品）和强制回滚比例。
+ *               所有模式使用相同的负载参数，回滚请求由 Flavor 转换成各自会触发全局回滚的请求
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:40
+ **/
+public final class Workload {
+
+    public enum Skew {
+        UNIFORM("uniform"),
+        HOT_SKU("hot-sku");
+
+        private final String label;
+
+        Skew(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public static Skew of(String label) {
+            for (Skew skew : values()) {
+                if (skew.label.equalsIgnoreCase(label)) {
+                    return skew;
+                }
+            }
+            throw new IllegalArgumentException("未知的商品分布: " + label + "，可选 uniform / hot-sku");
+        }
+    }
+
+    private final Skew skew;
+
+    private final double rollbackRatio;
+
+    private final int products;
+
+    private final int users;
+
+    private final double hotRatio;
+
+    public Workload(Skew skew, double rollbackRatio, int products, int users, double hotRatio) {
+        this.skew = skew;
+        this.rollbackRatio = rollbackRatio;
+        this.products = products;
+        this.users = users;
+        this.hotRatio = hotRatio;
+    }
+
+    /**
+     * @return 商品编号，从 1 开始
+     */
+    public int nextProduct(Random random) {
+        if (skew == Skew.HOT_SKU && random.nextDouble() < hotRatio) {
+            return 1;
+        }
+        return 1 + random.nextInt(products);
+    }
+
+    /**
+     * @return 用户编号，从 1 开始
+     */
+    public int nextUser(Random random) {
+        return 1 + random.nextInt(users);
+    }
+
+    public boolean nextRollback(Random random) {
+        return rollbackRatio > 0 && random.nextDouble() < rollbackRatio;
+    }
+
+    public Skew getSkew() {
+        return skew;
+    }
+
+    public double getRollbackRatio() {
+        return rollbackRatio;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+}
@@ -0,0 +1,126 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @className: Demo1Scenario
+ *
+ * @description: demo1 订单服务的 AT（t_order / t_storage）和 TCC（t_order_tcc / t_storage_tcc）下单接口，商品编号 PS1 起。
+ *               注入的故障：rollback（调用 -rollback 接口，扣减库存后抛异常）、oversell（购买数量超过库存）。
+ *               订单状态 SUCCESS 为已提交，AT 回滚删除订单，TCC 取消改为 CANCEL，INIT 是未完成的订单
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class Demo1Scenario implements Scenario {
+
+    private static final String PRODUCT_PREFIX = "PS";
+
+    private static final int STOCK = 1_000_000;
+
+    private final boolean tcc;
+
+    private final int products;
+
+    Demo1Scenario(boolean tcc, int products) {
+        this.tcc = tcc;
+        this.products = products;
+    }
+
+    @Override
+    public String label() {
+        return tcc ? "demo1-tcc" : "demo1-at";
+    }
+
+    @Override
+    public String defaultBaseUrl() {
+        return "http://127.0.0.1:8081";
+    }
+
+    @Override
+    public List<String> faults() {
+        return Arrays.asList("rollback", "oversell");
+    }
+
+    @Override
+    public StressRequest next(Random random, String fault) {
+        String product = PRODUCT_PREFIX + (1 + random.nextInt(products));
+        int count = "oversell".equals(fault) ? STOCK + 1 : 1 + random.nextInt(3);
+        String path = (tcc ? "/order/create-tcc" : "/order/create-at") + ("rollback".equals(fault) ? "-rollback" : "");
+        return new StressRequest(path,
+            "{\"userId\":\"SU" + random.nextInt(1000) + "\",\"productId\":\"" + product + "\",\"count\":" + count
+                + ",\"amount\":10.00}",
+            fault, "product:" + product);
+    }
+
+    @Override
+    public boolean committed(int status, String body) {
+        // demo1 的接口失败时同样返回 HTTP 200，结果码在响应体里
+        return status == 200 && body.replace(" ", "").contains("\"code\":200");
+    }
+
+    @Override
+    public void reset(Connection connection) throws SQLException {
+        String sql = tcc
+            ? "INSERT INTO seata_storage.t_storage_tcc (product_id, total, used, frozen, residue) VALUES (?, ?, 0, 0, ?) "
+                + "ON DUPLICATE KEY UPDATE total = VALUES(total), used = 0, frozen = 0, residue = VALUES(residue)"
+            : "INSERT INTO seata_storage.t_storage (product_id, total, used, residue) VALUES (?, ?, 0, ?) "
+                + "ON DUPLICATE KEY UPDATE total = VALUES(total), used = 0, residue = VALUES(residue)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int product = 1; product <= products; product++) {
+                statement.setString(1, PRODUCT_PREFIX + product);
+                statement.setInt(2, STOCK);
+                statement.setInt(3, STOCK);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "DELETE FROM seata_order." + orderTable() + " WHERE product_id LIKE '" + PRODUCT_PREFIX + "%'")) {
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public List<Invariant> invariants() {
+        String storage = "seata_storage." + (tcc ? "t_storage_tcc" : "t_storage");
+        String orders = "seata_order." + orderTable();
+        String mine = " LIKE '" + PRODUCT_PREFIX + "%'";
+        String sum = tcc ? "used + frozen + residue" : "used + residue";
+        String detail = tcc
+            ? "CONCAT('total=', total, ' used=', used, ' frozen=', frozen, ' residue=', residue)"
+            : "CONCAT('total=', total, ' used=', used, ' residue=', residue)";
+        Invariant rowInvariant = new Invariant(storage.substring(storage.indexOf('.') + 1) + ": total = " + sum,
+            Invariant.Kind.STRICT,
+            "SELECT CONCAT('product:', product_id), " + detail + " FROM " + storage + " WHERE product_id" + mine
+                + " AND (total <> " + sum + " OR used < 0 OR residue < 0" + (tcc ? " OR frozen < 0" : "") + ")");
+        Invariant usedMatchesOrders = new Invariant("used = 已提交订单数量", Invariant.Kind.EVENTUAL,
+            "SELECT CONCAT('product:', s.product_id), CONCAT('used=', s.used, ' ordered=', IFNULL(o.total, 0)) "
+                + "FROM " + storage + " s LEFT JOIN (SELECT product_id, SUM(count) total FROM " + orders
+                + " WHERE status = 'SUCCESS' AND product_id" + mine + " GROUP BY product_id) o "
+                + "ON o.product_id = s.product_id WHERE s.product_id" + mine + " AND s.used <> IFNULL(o.total, 0)");
+        Invariant noInitOrders = new Invariant("没有停留在 INIT 的订单", Invariant.Kind.QUIESCENT,
+            "SELECT CONCAT('product:', product_id), CONCAT('order=', id, ' user=', user_id) FROM " + orders
+                + " WHERE status = 'INIT' AND product_id" + mine);
+        if (!tcc) {
+            return Arrays.asList(rowInvariant, usedMatchesOrders, noInitOrders);
+        }
+        return Arrays.asList(rowInvariant, usedMatchesOrders, noInitOrders,
+            new Invariant("t_storage_tcc.frozen = 0", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('product:', product_id), CONCAT('frozen=', frozen) FROM " + storage
+                    + " WHERE product_id" + mine + " AND frozen <> 0"));
+    }
+
+    @Override
+    public List<String> schemas() {
+        return Arrays.asList("seata_order", "seata_storage");
+    }
+
+    private String orderTable() {
+        return tcc ? "t_order_tcc" : "t_order";
+    }
+}
@@ -0,0 +1,67 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @className: Invariant
+ *
+ * @description: 一条数据不变量，用一个查询表示：查询返回的每一行是一条违反，第一列是数据标识（与请求涉及的数据标识相同），
+ *               第二列是当时的取值。一个查询内的多个库的表读自同一个一致性快照（单条语句共用 read view），
+ *               所以只涉及已提交本地事务的约束可以在压测过程中检查
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public final class Invariant {
+
+    public enum Kind {
+        /**
+         * 任何时刻都成立，例如单行上的 total = used + frozen + residue，压测中第一次发现就报告
+         */
+        STRICT,
+        /**
+         * 跨分支的约束，全局事务进行中会暂时不成立，例如订单数量与已扣减库存相等。
+         * 连续多次检查都不成立、且这条数据最近没有请求时才报告
+         */
+        EVENTUAL,
+        /**
+         * 只在压测结束、所有二阶段完成后成立，例如冻结库存归零
+         */
+        QUIESCENT
+    }
+
+    private final String name;
+
+    private final Kind kind;
+
+    private final String sql;
+
+    public Invariant(String name, Kind kind, String sql) {
+        this.name = name;
+        this.kind = kind;
+        this.sql = sql;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<Violation> check(Connection connection) throws SQLException {
+        List<Violation> violations = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) {
+                violations.add(new Violation(this, rs.getString(1), rs.getString(2)));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,143 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @className: InvariantChecker
+ *
+ * @description: 压测过程中定期检查不变量：STRICT 第一次发现就报告；EVENTUAL 连续 confirmations 次检查都不成立，
+ *               且这条数据上已经 settleMillis 没有请求时才报告，避免把进行中的全局事务当成违反。
+ *               压测结束后反复检查全部不变量直到都成立或超时，超时时仍不成立的全部报告。
+ *               每条违反附带涉及这条数据的最近请求的 XID，同一条违反只报告一次
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class InvariantChecker {
+
+    private static final int SUSPECTS = 8;
+
+    private static final long QUIESCE_POLL_MILLIS = 1000;
+
+    private final List<Invariant> invariants;
+
+    private final XidLedger ledger;
+
+    private final int confirmations;
+
+    private final long settleMillis;
+
+    private final PrintStream out;
+
+    private final Map<String, Integer> streaks = new HashMap<>();
+
+    private final Set<String> reported = new HashSet<>();
+
+    private final List<Violation> violations = new ArrayList<>();
+
+    private long checks;
+
+    public InvariantChecker(List<Invariant> invariants, XidLedger ledger, int confirmations, long settleMillis,
+                            PrintStream out) {
+        this.invariants = invariants;
+        this.ledger = ledger;
+        this.confirmations = confirmations;
+        this.settleMillis = settleMillis;
+        this.out = out;
+    }
+
+    /**
+     * 压测过程中的一轮检查，不检查 QUIESCENT
+     */
+    public synchronized void checkUnderLoad(Connection connection) throws SQLException {
+        checks++;
+        for (Invariant invariant : invariants) {
+            if (invariant.getKind() == Invariant.Kind.QUIESCENT) {
+                continue;
+            }
+            Set<String> seen = new HashSet<>();
+            for (Violation violation : invariant.check(connection)) {
+                String id = violation.id();
+                seen.add(id);
+                if (reported.contains(id)) {
+                    continue;
+                }
+                if (invariant.getKind() == Invariant.Kind.STRICT) {
+                    report(violation, "压测中");
+                    continue;
+                }
+                int streak = streaks.merge(id, 1, Integer::sum);
+                if (streak >= confirmations && ledger.idle(violation.getKey(), settleMillis)) {
+                    report(violation, "压测中，连续 " + streak + " 次检查");
+                }
+            }
+            streaks.keySet().removeIf(id -> id.startsWith(invariant.getName() + '|') && !seen.contains(id));
+        }
+    }
+
+    /**
+     * 压测结束后等待所有二阶段完成，超时时报告仍不成立的不变量
+     */
+    public synchronized void checkQuiescent(Connection connection, long timeoutMillis) throws SQLException,
+        InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        List<Violation> remaining;
+        do {
+            checks++;
+            remaining = new ArrayList<>();
+            for (Invariant invariant : invariants) {
+                remaining.addAll(invariant.check(connection));
+            }
+            if (remaining.isEmpty()) {
+                return;
+            }
+            Thread.sleep(QUIESCE_POLL_MILLIS);
+        } while (System.currentTimeMillis() < deadline);
+        for (Violation violation : remaining) {
+            if (!reported.contains(violation.id())) {
+                report(violation, "压测结束 " + timeoutMillis / 1000 + " 秒后");
+            }
+        }
+    }
+
+    public synchronized List<Violation> getViolations() {
+        return new ArrayList<>(violations);
+    }
+
+    public synchronized long getChecks() {
+        return checks;
+    }
+
+    private void report(Violation violation, String when) {
+        reported.add(violation.id());
+        violations.add(violation);
+        out.printf("[stress] 不变量违反（%s）: %s  %s  %s%n", when, violation.getInvariant().getName(),
+            violation.getKey(), violation.getDetail());
+        List<XidLedger.Entry> suspects = ledger.suspects(violation.getKey(), SUSPECTS);
+        if (suspects.isEmpty()) {
+            out.println("           没有涉及这条数据的请求记录");
+        }
+        for (XidLedger.Entry entry : suspects) {
+            out.println("           " + describe(entry));
+        }
+    }
+
+    public static String describe(XidLedger.Entry entry) {
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss.SSS");
+        String outcome = entry.getOutcome() == null ? "IN_FLIGHT" : entry.getOutcome().name();
+        String elapsed = entry.getOutcome() == null ? "" : "+" + (entry.getEndMillis() - entry.getStartMillis()) + "ms";
+        return String.format("xid=%s %s fault=%s %s%s %s %s", entry.getXid(), outcome,
+            entry.getRequest().getFault() == null ? "-" : entry.getRequest().getFault(),
+            format.format(new Date(entry.getStartMillis())), elapsed, entry.getRequest().getPath(),
+            entry.getRequest().getBody());
+    }
+}
@@ -0,0 +1,66 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @className: PendingXids
+ *
+ * @description: 参与全局事务的库中还没有完成二阶段的分支：undo_log 中的记录（AT 二阶段提交会删除、回滚会执行后删除）
+ *               和 tcc_fence_log 中状态为 1（已 Try）的记录。压测结束后仍然存在的 XID 是二阶段失败或还在重试的全局事务
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public final class PendingXids {
+
+    private static final int TRIED = 1;
+
+    private PendingXids() {
+    }
+
+    /**
+     * @param since 只查找压测开始之后的记录，之前残留的记录与本次压测无关
+     * @return XID → 所在的库和表
+     */
+    public static Map<String, String> query(Connection connection, List<String> schemas, Timestamp since) throws SQLException {
+        Map<String, String> pending = new TreeMap<>();
+        for (String[] table : tables(connection, schemas)) {
+            String sql = "undo_log".equals(table[1])
+                ? "SELECT DISTINCT xid FROM " + table[0] + ".undo_log WHERE log_created >= ?"
+                : "SELECT DISTINCT xid FROM " + table[0] + ".tcc_fence_log WHERE status = " + TRIED + " AND gmt_create >= ?";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setTimestamp(1, since);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        pending.merge(rs.getString(1), table[0] + "." + table[1], (a, b) -> a + ", " + b);
+                    }
+                }
+            }
+        }
+        return pending;
+    }
+
+    private static List<String[]> tables(Connection connection, List<String> schemas) throws SQLException {
+        List<String[]> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT table_schema, table_name FROM information_schema.tables "
+                + "WHERE table_name IN ('undo_log', 'tcc_fence_log') AND table_schema = ?")) {
+            for (String schema : schemas) {
+                statement.setString(1, schema);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        tables.add(new String[]{rs.getString(1), rs.getString(2)});
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+}
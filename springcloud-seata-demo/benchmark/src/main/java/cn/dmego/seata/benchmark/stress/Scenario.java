@@ -0,0 +1,60 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @className: Scenario
+ *
+ * @description: 压测对象：怎样重置数据、怎样生成请求（包括注入故障的请求）、检查哪些不变量。
+ *               每个场景只使用自己的一段商品 / 用户 / 账户，重置时不影响其他数据
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public interface Scenario {
+
+    String label();
+
+    String defaultBaseUrl();
+
+    /**
+     * 本场景可以注入的业务故障，每一种都应当让全局事务回滚
+     */
+    List<String> faults();
+
+    /**
+     * @param fault faults() 中的一种；null 或其他值（如客户端超时）生成正常请求
+     */
+    StressRequest next(Random random, String fault);
+
+    boolean committed(int status, String body);
+
+    void reset(Connection connection) throws SQLException;
+
+    List<Invariant> invariants();
+
+    /**
+     * 参与全局事务的库，压测结束后在其中查找 undo_log 和 tcc_fence_log 中未完成二阶段的 XID
+     */
+    List<String> schemas();
+
+    static Scenario of(String label, int products, int users) {
+        switch (label.toLowerCase()) {
+            case "at":
+            case "tcc":
+            case "saga":
+                return new ShopScenario(label.toLowerCase(), products, users);
+            case "demo1-at":
+                return new Demo1Scenario(false, products);
+            case "demo1-tcc":
+                return new Demo1Scenario(true, products);
+            case "tcc-transfer":
+                return new TransferScenario(users);
+            default:
+                throw new IllegalArgumentException("未知的压测对象: " + label
+                    + "，可选 at / tcc / saga / demo1-at / demo1-tcc / tcc-transfer");
+        }
+    }
+}
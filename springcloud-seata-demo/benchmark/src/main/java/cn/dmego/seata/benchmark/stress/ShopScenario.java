@@ -0,0 +1,141 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @className: ShopScenario
+ *
+ * @description: at / tcc / saga 三套 business-service 的 /buy 下单流程，商品编号从 9001、用户编号从 900001 开始。
+ *               注入的故障：poor-user（余额为 0 的 900000 号用户，扣减余额失败）、oversell（购买数量超过库存）。
+ *               订单状态 1 为已创建：AT 回滚删除订单，TCC 取消和 Saga 补偿把状态改为 -1，TCC 的 0 是 Try 之后未完成的订单
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class ShopScenario implements Scenario {
+
+    private static final int PRODUCT_BASE = 9000;
+
+    private static final int USER_BASE = 900000;
+
+    private static final int PRICE = 5;
+
+    private static final int STOCK = 1_000_000;
+
+    private static final int BALANCE = 100_000_000;
+
+    private final String mode;
+
+    private final int products;
+
+    private final int users;
+
+    ShopScenario(String mode, int products, int users) {
+        this.mode = mode;
+        this.products = products;
+        this.users = users;
+    }
+
+    @Override
+    public String label() {
+        return mode;
+    }
+
+    @Override
+    public String defaultBaseUrl() {
+        return "http://127.0.0.1:8080";
+    }
+
+    @Override
+    public List<String> faults() {
+        return Arrays.asList("poor-user", "oversell");
+    }
+
+    @Override
+    public StressRequest next(Random random, String fault) {
+        int product = PRODUCT_BASE + 1 + random.nextInt(products);
+        int user = "poor-user".equals(fault) ? USER_BASE : USER_BASE + 1 + random.nextInt(users);
+        int count = "oversell".equals(fault) ? STOCK + 1 : 1 + random.nextInt(3);
+        return new StressRequest("/" + mode + "/buy",
+            "{\"userId\":" + user + ",\"productId\":" + product + ",\"count\":" + count + "}",
+            fault, "product:" + product, "user:" + user);
+    }
+
+    @Override
+    public boolean committed(int status, String body) {
+        return status == 200 && ("Place Order Success".equals(body) || "SU".equals(body));
+    }
+
+    @Override
+    public void reset(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO seata_storage.product (id, price, stock, frozen) VALUES (?, ?, ?, 0) "
+                + "ON DUPLICATE KEY UPDATE price = VALUES(price), stock = VALUES(stock), frozen = 0")) {
+            for (int product = PRODUCT_BASE + 1; product <= PRODUCT_BASE + products; product++) {
+                statement.setInt(1, product);
+                statement.setInt(2, PRICE);
+                statement.setInt(3, STOCK);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO seata_account.account (id, balance, frozen) VALUES (?, ?, 0) "
+                + "ON DUPLICATE KEY UPDATE balance = VALUES(balance), frozen = 0")) {
+            for (int user = USER_BASE; user <= USER_BASE + users; user++) {
+                statement.setInt(1, user);
+                statement.setInt(2, user == USER_BASE ? 0 : BALANCE);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "DELETE FROM seata_order.orders WHERE user_id BETWEEN ? AND ?")) {
+            statement.setInt(1, USER_BASE);
+            statement.setInt(2, USER_BASE + users);
+            statement.executeUpdate();
+        }
+    }
+
+    @Override
+    public List<Invariant> invariants() {
+        String productRange = " BETWEEN " + (PRODUCT_BASE + 1) + " AND " + (PRODUCT_BASE + products);
+        String userRange = " BETWEEN " + USER_BASE + " AND " + (USER_BASE + users);
+        return Arrays.asList(
+            new Invariant("product: 0 <= frozen <= stock", Invariant.Kind.STRICT,
+                "SELECT CONCAT('product:', id), CONCAT('stock=', stock, ' frozen=', frozen) FROM seata_storage.product "
+                    + "WHERE id" + productRange + " AND (stock < 0 OR frozen < 0 OR frozen > stock)"),
+            new Invariant("account: 0 <= frozen <= balance", Invariant.Kind.STRICT,
+                "SELECT CONCAT('user:', id), CONCAT('balance=', balance, ' frozen=', frozen) FROM seata_account.account "
+                    + "WHERE id" + userRange + " AND (balance < 0 OR frozen < 0 OR frozen > balance)"),
+            new Invariant("stock + 已创建订单数量 = 初始库存", Invariant.Kind.EVENTUAL,
+                "SELECT CONCAT('product:', p.id), CONCAT('stock=', p.stock, ' ordered=', IFNULL(o.total, 0)) "
+                    + "FROM seata_storage.product p LEFT JOIN (SELECT product_id, SUM(count) total FROM seata_order.orders "
+                    + "WHERE status = 1 AND user_id" + userRange + " GROUP BY product_id) o ON o.product_id = p.id "
+                    + "WHERE p.id" + productRange + " AND p.stock + IFNULL(o.total, 0) <> " + STOCK),
+            new Invariant("balance + 已创建订单金额 = 初始余额", Invariant.Kind.EVENTUAL,
+                "SELECT CONCAT('user:', a.id), CONCAT('balance=', a.balance, ' paid=', IFNULL(o.total, 0)) "
+                    + "FROM seata_account.account a LEFT JOIN (SELECT user_id, SUM(pay_amount) total FROM seata_order.orders "
+                    + "WHERE status = 1 GROUP BY user_id) o ON o.user_id = a.id "
+                    + "WHERE a.id" + userRange + " AND a.balance + IFNULL(o.total, 0) <> IF(a.id = " + USER_BASE + ", 0, "
+                    + BALANCE + ")"),
+            new Invariant("product.frozen = 0", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('product:', id), CONCAT('frozen=', frozen) FROM seata_storage.product "
+                    + "WHERE id" + productRange + " AND frozen <> 0"),
+            new Invariant("account.frozen = 0", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('user:', id), CONCAT('frozen=', frozen) FROM seata_account.account "
+                    + "WHERE id" + userRange + " AND frozen <> 0"),
+            new Invariant("没有停留在创建中的订单", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('product:', product_id), CONCAT('order=', id, ' user=', user_id) FROM seata_order.orders "
+                    + "WHERE status = 0 AND user_id" + userRange));
+    }
+
+    @Override
+    public List<String> schemas() {
+        return Arrays.asList("seata_order", "seata_storage", "seata_account");
+    }
+}
@@ -0,0 +1,46 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @className: StressRequest
+ *
+ * @description: 一次下单 / 转账请求：接口路径、请求体、涉及的数据标识（与不变量查询返回的标识相同），
+ *               以及注入的故障（null 表示正常请求，应当提交）
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public final class StressRequest {
+
+    private final String path;
+
+    private final String body;
+
+    private final List<String> keys;
+
+    private final String fault;
+
+    public StressRequest(String path, String body, String fault, String... keys) {
+        this.path = path;
+        this.body = body;
+        this.fault = fault;
+        this.keys = Arrays.asList(keys);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public String getFault() {
+        return fault;
+    }
+}
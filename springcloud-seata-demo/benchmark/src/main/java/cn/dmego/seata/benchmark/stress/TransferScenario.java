@@ -0,0 +1,115 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @className: TransferScenario
+ *
+ * @description: tcc-transfer 的 /tcc、/tcc2 转账，转出库 tcc_test_out 和转入库 tcc_test_in 中各建 S1 起的账户。
+ *               注入的故障：overdraft（金额超过余额，转出方 Try 失败）、unknown-payee（收款账户不存在，转入方 Try 失败）。
+ *               资金守恒：转出方 Confirm 先于转入方时，差额还在转入方的 incoming 中；转入方 Confirm 先于转出方时，
+ *               差额还在转出方的 freezed 中，所以任何时刻 T - Σincoming <= Σbalance <= T + Σfreezed，
+ *               所有二阶段完成后 Σbalance = T
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class TransferScenario implements Scenario {
+
+    private static final String ACCOUNT_PREFIX = "S";
+
+    private static final long BALANCE = 10_000;
+
+    private final int accounts;
+
+    TransferScenario(int accounts) {
+        this.accounts = accounts;
+    }
+
+    @Override
+    public String label() {
+        return "tcc-transfer";
+    }
+
+    @Override
+    public String defaultBaseUrl() {
+        return "http://127.0.0.1:8082";
+    }
+
+    @Override
+    public List<String> faults() {
+        return Arrays.asList("overdraft", "unknown-payee");
+    }
+
+    @Override
+    public StressRequest next(Random random, String fault) {
+        String out = ACCOUNT_PREFIX + (1 + random.nextInt(accounts));
+        String in = "unknown-payee".equals(fault) ? "X404" : ACCOUNT_PREFIX + (1 + random.nextInt(accounts));
+        long amount = "overdraft".equals(fault) ? BALANCE * accounts * 2 : 1 + random.nextInt(100);
+        return new StressRequest(random.nextBoolean() ? "/tcc" : "/tcc2",
+            "{\"outId\":\"" + out + "\",\"inId\":\"" + in + "\",\"amount\":\"" + amount + "\"}",
+            fault, "out:" + out, "in:" + in);
+    }
+
+    @Override
+    public boolean committed(int status, String body) {
+        return status == 200 && "request succ!".equals(body);
+    }
+
+    @Override
+    public void reset(Connection connection) throws SQLException {
+        for (String schema : schemas()) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + schema + ".account WHERE id LIKE '" + ACCOUNT_PREFIX + "%'")) {
+                statement.executeUpdate();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO " + schema + ".account (id, balance, freezed, incoming) VALUES (?, ?, 0, 0)")) {
+                for (int account = 1; account <= accounts; account++) {
+                    statement.setString(1, ACCOUNT_PREFIX + account);
+                    statement.setLong(2, BALANCE);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+
+    @Override
+    public List<Invariant> invariants() {
+        String mine = " WHERE id LIKE '" + ACCOUNT_PREFIX + "%'";
+        long total = BALANCE * accounts * 2;
+        String sums = "FROM (SELECT SUM(balance) balance, SUM(freezed) freezed FROM tcc_test_out.account" + mine + ") o, "
+            + "(SELECT SUM(balance) balance, SUM(incoming) incoming FROM tcc_test_in.account" + mine + ") i ";
+        String detail = "CONCAT('Σbalance=', o.balance + i.balance, ' Σfreezed=', o.freezed, ' Σincoming=', i.incoming, "
+            + "' T=" + total + "')";
+        return Arrays.asList(
+            new Invariant("转出账户: 0 <= freezed <= balance", Invariant.Kind.STRICT,
+                "SELECT CONCAT('out:', id), CONCAT('balance=', balance, ' freezed=', freezed) FROM tcc_test_out.account"
+                    + mine + " AND (freezed < 0 OR balance < freezed)"),
+            new Invariant("转入账户: balance >= 0, incoming >= 0", Invariant.Kind.STRICT,
+                "SELECT CONCAT('in:', id), CONCAT('balance=', balance, ' incoming=', incoming) FROM tcc_test_in.account"
+                    + mine + " AND (balance < 0 OR incoming < 0)"),
+            new Invariant("资金守恒: T - Σincoming <= Σbalance <= T + Σfreezed", Invariant.Kind.STRICT,
+                "SELECT 'global', " + detail + " " + sums
+                    + "WHERE o.balance + i.balance < " + total + " - i.incoming "
+                    + "OR o.balance + i.balance > " + total + " + o.freezed"),
+            new Invariant("资金守恒: Σbalance = T", Invariant.Kind.QUIESCENT,
+                "SELECT 'global', " + detail + " " + sums + "WHERE o.balance + i.balance <> " + total),
+            new Invariant("转出账户 freezed = 0", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('out:', id), CONCAT('freezed=', freezed) FROM tcc_test_out.account" + mine
+                    + " AND freezed <> 0"),
+            new Invariant("转入账户 incoming = 0", Invariant.Kind.QUIESCENT,
+                "SELECT CONCAT('in:', id), CONCAT('incoming=', incoming) FROM tcc_test_in.account" + mine
+                    + " AND incoming <> 0"));
+    }
+
+    @Override
+    public List<String> schemas() {
+        return Arrays.asList("tcc_test_out", "tcc_test_in");
+    }
+}
@@ -0,0 +1,42 @@
+package cn.dmego.seata.benchmark.stress;
+
+/**
+ * @className: Violation
+ *
+ * @description: 一条不变量违反：不变量名称、出问题的数据（如 product:9003、out:S7、global）和当时的取值
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public final class Violation {
+
+    private final Invariant invariant;
+
+    private final String key;
+
+    private final String detail;
+
+    Violation(Invariant invariant, String key, String detail) {
+        this.invariant = invariant;
+        this.key = key;
+        this.detail = detail;
+    }
+
+    public Invariant getInvariant() {
+        return invariant;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * 同一个不变量在同一条数据上的违反只报告一次
+     */
+    String id() {
+        return invariant.getName() + '|' + key;
+    }
+}
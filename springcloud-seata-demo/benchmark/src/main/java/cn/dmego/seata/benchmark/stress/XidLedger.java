@@ -0,0 +1,177 @@
+package cn.dmego.seata.benchmark.stress;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @className: XidLedger
+ *
+ * @description: 按数据标识记录最近的请求：XID（响应头 Seata-Xid）、注入的故障、结果和起止时间，
+ *               发现不变量违反时列出涉及这条数据的可疑全局事务。每条数据只保留最近 64 个请求
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+public class XidLedger {
+
+    private static final int KEEP_PER_KEY = 64;
+
+    public enum Outcome {
+        COMMITTED,
+        ABORTED,
+        /**
+         * 客户端超时或连接异常，不知道全局事务的结果
+         */
+        UNKNOWN
+    }
+
+    public static final class Entry {
+
+        private final StressRequest request;
+
+        private final long startMillis;
+
+        private volatile long endMillis;
+
+        private volatile String xid;
+
+        private volatile Outcome outcome;
+
+        private Entry(StressRequest request, long startMillis) {
+            this.request = request;
+            this.startMillis = startMillis;
+        }
+
+        public StressRequest getRequest() {
+            return request;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getEndMillis() {
+            return endMillis;
+        }
+
+        public String getXid() {
+            return xid;
+        }
+
+        /**
+         * @return null 表示请求还没有结束
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+    }
+
+    private final Map<String, Deque<Entry>> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> lastEnd = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> byXid = new ConcurrentHashMap<>();
+
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+
+    private volatile long lastEndMillis;
+
+    public Entry begin(StressRequest request) {
+        Entry entry = new Entry(request, System.currentTimeMillis());
+        totalInFlight.incrementAndGet();
+        for (String key : request.getKeys()) {
+            inFlight.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            Deque<Entry> recent = entries.computeIfAbsent(key, k -> new ArrayDeque<>());
+            synchronized (recent) {
+                if (recent.size() == KEEP_PER_KEY) {
+                    recent.removeFirst();
+                }
+                recent.addLast(entry);
+            }
+        }
+        return entry;
+    }
+
+    public void end(Entry entry, Outcome outcome, String xid) {
+        long now = System.currentTimeMillis();
+        entry.xid = xid;
+        entry.endMillis = now;
+        entry.outcome = outcome;
+        if (xid != null) {
+            byXid.put(xid, entry);
+        }
+        for (String key : entry.request.getKeys()) {
+            lastEnd.put(key, now);
+            inFlight.get(key).decrementAndGet();
+        }
+        lastEndMillis = now;
+        totalInFlight.decrementAndGet();
+    }
+
+    /**
+     * 这条数据上没有进行中的请求，且最近一个请求结束超过 settleMillis，二阶段应当已经完成。
+     * global 表示整个场景的数据
+     */
+    public boolean idle(String key, long settleMillis) {
+        long now = System.currentTimeMillis();
+        if ("global".equals(key)) {
+            return totalInFlight.get() == 0 && now - lastEndMillis >= settleMillis;
+        }
+        AtomicInteger running = inFlight.get(key);
+        Long end = lastEnd.get(key);
+        return (running == null || running.get() == 0) && (end == null || now - end >= settleMillis);
+    }
+
+    /**
+     * 涉及这条数据的最近请求，进行中、结果未知、回滚的排在前面，global 时只列出非提交的请求
+     */
+    public List<Entry> suspects(String key, int limit) {
+        List<Entry> candidates = new ArrayList<>();
+        if ("global".equals(key)) {
+            for (Deque<Entry> recent : entries.values()) {
+                synchronized (recent) {
+                    for (Entry entry : recent) {
+                        if (entry.outcome != Outcome.COMMITTED && !candidates.contains(entry)) {
+                            candidates.add(entry);
+                        }
+                    }
+                }
+            }
+        } else {
+            Deque<Entry> recent = entries.get(key);
+            if (recent != null) {
+                synchronized (recent) {
+                    candidates.addAll(recent);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingInt(XidLedger::rank).thenComparing(Entry::getStartMillis,
+            Comparator.reverseOrder()));
+        return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+    }
+
+    public Entry find(String xid) {
+        return byXid.get(xid);
+    }
+
+    private static int rank(Entry entry) {
+        if (entry.outcome == null) {
+            return 0;
+        }
+        switch (entry.outcome) {
+            case UNKNOWN:
+                return 1;
+            case ABORTED:
+                return 2;
+            default:
+                return 3;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package cn.dmego.seata.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: MatrixReportTest
+ *
+ * @description: 报告文件测试：CSV 行往返、每订单指标的计算、同一单元格重复运行以最后一次为准、
+ *               同一负载下的各个模式相邻输出；负载的商品分布和回滚比例
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 15:00
+ **/
+public class MatrixReportTest {
+
+    @Test
+    public void testCsvRoundTrip() {
+        CellResult result = cell("at", "hot-sku", 0.1, 900, 100, 12.5);
+        result.unexpectedAborts = 7;
+        result.errors = 2;
+        result.p50 = 3.25;
+        result.p95 = 9.5;
+        result.p99 = 20.75;
+        result.max = 101.0;
+        result.lockWaits = 4;
+
+        CellResult decoded = CellResult.fromCsv(result.toCsv());
+
+        assertEquals(result.toCsv(), decoded.toCsv());
+        assertEquals(CellResult.CSV_HEADER.split(",").length, result.toCsv().split(",").length);
+        assertEquals(100.0, decoded.throughput(), 1e-9);
+        assertEquals(6.0, decoded.statementsPerOrder(), 1e-9);
+        assertEquals(12.5, decoded.lockWaitMillisPerOrder(), 1e-9);
+    }
+
+    @Test
+    public void testEmptyCellHasZeroRates() {
+        CellResult empty = new CellResult();
+
+        assertEquals(0.0, empty.throughput(), 0);
+        assertEquals(0.0, empty.statementsPerOrder(), 0);
+        assertEquals(0.0, empty.lockWaitMillisPerOrder(), 0);
+    }
+
+    @Test
+    public void testLatestRunWinsAndFlavorsAreAdjacent() throws Exception {
+        Path file = Files.createTempFile("matrix", ".csv");
+        Files.delete(file);
+        try {
+            MatrixReport report = new MatrixReport(file);
+            report.append(cell("tcc", "uniform", 0, 500, 0, 0));
+            report.append(cell("at", "hot-sku", 0, 100, 0, 0));
+            report.append(cell("saga", "uniform", 0, 700, 0, 0));
+            report.append(cell("at", "uniform", 0, 300, 0, 0));
+            // 重新运行 tcc / uniform
+            report.append(cell("tcc", "uniform", 0, 600, 0, 0));
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(CellResult.CSV_HEADER, lines.get(0));
+            assertEquals(6, lines.size());
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            report.print(new PrintStream(bytes, true, "UTF-8"));
+            List<String> rows = Arrays.stream(new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\\R"))
+                .skip(1)
+                .collect(Collectors.toList());
+
+            // hot-sku 一组，空行，uniform 一组内按模式排序
+            assertEquals(5, rows.size());
+            assertTrue(rows.get(0).startsWith("at ") && rows.get(0).contains("hot-sku"));
+            assertTrue(rows.get(1).isEmpty());
+            assertTrue(rows.get(2).startsWith("at ") && rows.get(2).contains("uniform"));
+            assertTrue(rows.get(3).startsWith("saga "));
+            assertTrue(rows.get(4).startsWith("tcc ") && rows.get(4).contains(" 600 "));
+            assertFalse(rows.get(4).contains(" 500 "));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testWorkloadDistribution() {
+        Random random = new Random(1);
+        Workload hot = new Workload(Workload.Skew.HOT_SKU, 0.2, 100, 10, 0.9);
+        Workload uniform = new Workload(Workload.Skew.UNIFORM, 0, 100, 10, 0.9);
+        int samples = 20_000;
+        int hotHits = 0;
+        int rollbacks = 0;
+        for (int i = 0; i < samples; i++) {
+            int product = hot.nextProduct(random);
+            assertTrue(product >= 1 && product <= 100);
+            if (product == 1) {
+                hotHits++;
+            }
+            if (hot.nextRollback(random)) {
+                rollbacks++;
+            }
+            int user = hot.nextUser(random);
+            assertTrue(user >= 1 && user <= 10);
+            assertFalse(uniform.nextRollback(random));
+        }
+        assertTrue(hotHits > samples * 0.88 && hotHits < samples * 0.93, "热点商品占比: " + hotHits);
+        assertTrue(rollbacks > samples * 0.18 && rollbacks < samples * 0.22, "回滚比例: " + rollbacks);
+
+        assertEquals(Workload.Skew.HOT_SKU, Workload.Skew.of("HOT-SKU"));
+        assertThrows(IllegalArgumentException.class, () -> Workload.Skew.of("zipf"));
+    }
+
+    private static CellResult cell(String flavor, String skew, double rollback, long committed, long aborted,
+                                   double lockWaitPerOrder) {
+        CellResult r = new CellResult();
+        r.flavor = flavor;
+        r.skew = skew;
+        r.rollbackRatio = rollback;
+        r.threads = 16;
+        r.seconds = 10;
+        r.committed = committed;
+        r.aborted = aborted;
+        r.statements = (committed + aborted) * 6;
+        r.lockWaitMillis = (long) ((committed + aborted) * lockWaitPerOrder);
+        return r;
+    }
+}
@@ -0,0 +1,243 @@
+package cn.dmego.seata.common.batch;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * @className: BatchingLoader
+ *
+ * @description: 请求合并工具：
+ *               1. 相同 key 正在查询时，后来的请求直接等待同一个结果（single-flight）；
+ *               2. 不同 key 在 windowMicros 微秒的窗口内合并成一次批量查询，窗口内第一个请求的线程负责等待窗口结束并执行查询，
+ *                  攒够 maxBatchSize 个 key 时由当时的请求线程立即执行，不需要额外的调度线程；
+ *                  没有其它请求在途时不打开窗口，第一个请求立即查询，低并发时不增加延迟。
+ *               结果不做缓存，查询结束后新的请求会重新查询。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:10
+ **/
+public class BatchingLoader<K, V> {
+
+    private final Function<Collection<K>, Map<K, V>> batchLoader;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong loadCount = new AtomicLong();
+
+    private final AtomicLong queryCount = new AtomicLong();
+
+    /**
+     * 正在 load 中的请求数（包括等待结果的），大于 1 时才值得等待窗口
+     */
+    private final AtomicInteger active = new AtomicInteger();
+
+    private Batch current;
+
+    /**
+     * @param batchLoader 批量查询，返回结果中没有的 key 视为 null
+     * @param windowMicros 合并窗口（微秒），0 表示不等待，只合并已经在排队的请求
+     * @param maxBatchSize 单次批量查询的最大 key 数
+     */
+    public BatchingLoader(Function<Collection<K>, Map<K, V>> batchLoader, long windowMicros, int maxBatchSize) {
+        this.batchLoader = batchLoader;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * 查询单个 key，与同一窗口内的其它请求合并查询
+     */
+    public V load(K key) {
+        Objects.requireNonNull(key, "key 不能为 null");
+        loadCount.incrementAndGet();
+        active.incrementAndGet();
+        try {
+            CompletableFuture<V> future = inFlight.get(key);
+            if (future == null) {
+                CompletableFuture<V> created = new CompletableFuture<>();
+                future = inFlight.putIfAbsent(key, created);
+                if (future == null) {
+                    future = created;
+                    enqueue(key, created);
+                }
+            }
+            return join(future);
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * 批量查询，正在查询中的 key 等待已有结果，其余 key 立即按 maxBatchSize 分批查询，不等待窗口。
+     * null key 被跳过，结果中没有对应的条目
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (key == null || futures.containsKey(key)) {
+                continue;
+            }
+            loadCount.incrementAndGet();
+            CompletableFuture<V> created = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                owned.put(key, created);
+                futures.put(key, created);
+            } else {
+                futures.put(key, existing);
+            }
+        }
+        Map<K, CompletableFuture<V>> chunk = new LinkedHashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() >= maxBatchSize) {
+                query(chunk);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            query(chunk);
+        }
+        Map<K, V> result = new LinkedHashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+            result.put(entry.getKey(), join(entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * @return 收到的单个 key 查询次数
+     */
+    public long getLoadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * @return 实际执行的批量查询次数
+     */
+    public long getQueryCount() {
+        return queryCount.get();
+    }
+
+    private void enqueue(K key, CompletableFuture<V> future) {
+        Batch batch;
+        boolean leader = false;
+        boolean full = false;
+        synchronized (this) {
+            if (current == null) {
+                current = new Batch(Thread.currentThread());
+                leader = true;
+            }
+            batch = current;
+            batch.futures.put(key, future);
+            if (batch.futures.size() >= maxBatchSize) {
+                current = null;
+                full = true;
+            }
+        }
+        if (full) {
+            batch.dispatch();
+            // 攒满的批次已经查询，让还在等待窗口的首个请求线程直接去等结果
+            if (batch.leader != Thread.currentThread()) {
+                LockSupport.unpark(batch.leader);
+            }
+            return;
+        }
+        if (leader) {
+            // 只有自己在途时立即查询；parkNanos 可能提前返回，窗口按截止时间计算
+            if (windowNanos > 0 && active.get() > 1) {
+                long deadline = System.nanoTime() + windowNanos;
+                long remaining = windowNanos;
+                while (remaining > 0 && !batch.dispatched.get()) {
+                    LockSupport.parkNanos(remaining);
+                    remaining = deadline - System.nanoTime();
+                }
+            }
+            synchronized (this) {
+                if (current == batch) {
+                    current = null;
+                }
+            }
+            batch.dispatch();
+        }
+    }
+
+    private void query(Map<K, CompletableFuture<V>> futures) {
+        queryCount.incrementAndGet();
+        try {
+            Map<K, V> values = batchLoader.apply(Collections.unmodifiableSet(futures.keySet()));
+            for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+                entry.getValue().complete(values == null ? null : values.get(entry.getKey()));
+            }
+        } catch (Throwable e) {
+            for (CompletableFuture<V> future : futures.values()) {
+                future.completeExceptionally(e);
+            }
+        } finally {
+            for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+                inFlight.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("批量查询等待被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * 一个合并窗口内的请求，窗口结束或攒满后只执行一次
+     */
+    private final class Batch {
+
+        private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+
+        private final Thread leader;
+
+        Batch(Thread leader) {
+            this.leader = leader;
+        }
+
+        void dispatch() {
+            if (!dispatched.compareAndSet(false, true)) {
+                return;
+            }
+            Map<K, CompletableFuture<V>> snapshot;
+            synchronized (BatchingLoader.this) {
+                snapshot = new LinkedHashMap<>(futures);
+            }
+            query(snapshot);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package cn.dmego.seata.common.codec;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * @className: BinaryAcceptInterceptor
+ *
+ * @description: 没有显式声明 Accept 的 Feign 请求同时接受二进制和 JSON，不支持二进制的下游按 JSON 返回
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryAcceptInterceptor implements RequestInterceptor {
+
+    public static final String ACCEPT = BinaryCodec.MEDIA_TYPE + ", application/json;q=0.9, */*;q=0.8";
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (!template.headers().containsKey("Accept")) {
+            template.header("Accept", ACCEPT);
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package cn.dmego.seata.common.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @className: BinaryCodec
+ *
+ * @description: 服务间调用的紧凑二进制编码，只支持字段固定的小 DTO：
+ *               Boolean / Integer / Long / String（及对应基本类型），只包含这些类型字段的 POJO，
+ *               以及元素为上述类型的 List / Map。不支持的类型由调用方退回 JSON。
+ *
+ *               编码规则：每个值先写 1 字节是否为 null（基本类型与包装类型编码相同，两端声明不一致也能互通）；整数使用 zigzag varint；字符串为 varint 长度 + UTF-8；
+ *               POJO 先写 4 字节字段布局指纹，再按字段名顺序写各字段，两端 DTO 字段不一致时解码直接失败。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryCodec {
+
+    public static final String MEDIA_TYPE = "application/x-dmego-binary";
+
+    private static final byte NULL = 0;
+
+    private static final byte PRESENT = 1;
+
+    /**
+     * 集合初始容量上限，元素个数由报文声明，不按它一次性分配
+     */
+    private static final int MAX_INITIAL_CAPACITY = 256;
+
+    private final Map<Class<?>, ClassSchema> schemas = new ConcurrentHashMap<>();
+
+    private final Map<Type, Boolean> supported = new ConcurrentHashMap<>();
+
+    /**
+     * @return 该类型能否使用二进制编码
+     */
+    public boolean supports(Type type) {
+        if (type == null) {
+            return false;
+        }
+        Boolean result = supported.get(type);
+        if (result == null) {
+            result = checkSupports(type, 0);
+            supported.put(type, result);
+        }
+        return result;
+    }
+
+    public byte[] encode(Object value, Type type) {
+        Output out = new Output();
+        write(out, value, type);
+        return out.toByteArray();
+    }
+
+    public Object decode(byte[] bytes, Type type) {
+        Input in = new Input(bytes);
+        Object value = read(in, type);
+        if (in.position != bytes.length) {
+            throw new IllegalArgumentException("二进制报文长度不匹配: " + type.getTypeName());
+        }
+        return value;
+    }
+
+    private boolean checkSupports(Type type, int depth) {
+        if (depth > 2) {
+            return false;
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (raw == List.class || raw == Collection.class) {
+                return checkSupports(arguments[0], depth + 1);
+            }
+            if (raw == Map.class) {
+                return isScalar(arguments[0]) && checkSupports(arguments[1], depth + 1);
+            }
+            return false;
+        }
+        if (!(type instanceof Class)) {
+            return false;
+        }
+        Class<?> clazz = (Class<?>) type;
+        if (isScalar(clazz)) {
+            return true;
+        }
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.isInterface() || clazz.isEnum()
+            || Modifier.isAbstract(clazz.getModifiers()) || clazz.getName().startsWith("java.")) {
+            return false;
+        }
+        try {
+            ClassSchema schema = schema(clazz);
+            for (Field field : schema.fields) {
+                if (!isScalar(field.getType())) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static boolean isScalar(Type type) {
+        return type == Boolean.class || type == boolean.class || type == Integer.class || type == int.class
+            || type == Long.class || type == long.class || type == String.class;
+    }
+
+    private static Type boxed(Type type) {
+        if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        }
+        return type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void write(Output out, Object value, Type declaredType) {
+        Type type = boxed(declaredType);
+        if (value == null) {
+            out.write(NULL);
+            return;
+        }
+        out.write(PRESENT);
+        if (type == Boolean.class) {
+            out.write((Boolean) value ? 1 : 0);
+        } else if (type == Integer.class) {
+            out.writeVarLong((Integer) value);
+        } else if (type == Long.class) {
+            out.writeVarLong((Long) value);
+        } else if (type == String.class) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            out.writeVarLong(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (parameterized.getRawType() == Map.class) {
+                Map<Object, Object> map = (Map<Object, Object>) value;
+                out.writeVarLong(map.size());
+                for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                    write(out, entry.getKey(), arguments[0]);
+                    write(out, entry.getValue(), arguments[1]);
+                }
+            } else {
+                Collection<Object> collection = (Collection<Object>) value;
+                out.writeVarLong(collection.size());
+                for (Object element : collection) {
+                    write(out, element, arguments[0]);
+                }
+            }
+        } else {
+            ClassSchema schema = schema((Class<?>) type);
+            out.writeFixedInt(schema.fingerprint);
+            try {
+                for (Field field : schema.fields) {
+                    write(out, field.get(value), field.getType());
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private Object read(Input in, Type declaredType) {
+        Type type = boxed(declaredType);
+        if (in.read() == NULL) {
+            return null;
+        }
+        if (type == Boolean.class) {
+            return in.read() != 0;
+        } else if (type == Integer.class) {
+            return (int) in.readVarLong();
+        } else if (type == Long.class) {
+            return in.readVarLong();
+        } else if (type == String.class) {
+            int length = in.readLength(1);
+            return new String(in.readBytes(length), StandardCharsets.UTF_8);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (parameterized.getRawType() == Map.class) {
+                // 每个键值对至少占 2 字节（键和值的 null 标记）
+                int size = in.readLength(2);
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, Math.min(size, MAX_INITIAL_CAPACITY) * 2));
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in, arguments[0]), read(in, arguments[1]));
+                }
+                return map;
+            }
+            int size = in.readLength(1);
+            List<Object> list = new ArrayList<>(Math.min(size, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < size; i++) {
+                list.add(read(in, arguments[0]));
+            }
+            return list;
+        }
+        ClassSchema schema = schema((Class<?>) type);
+        int fingerprint = in.readFixedInt();
+        if (fingerprint != schema.fingerprint) {
+            throw new IllegalArgumentException("二进制报文字段布局与本地 " + schema.type.getName() + " 不一致");
+        }
+        try {
+            Object instance = schema.constructor.newInstance();
+            for (Field field : schema.fields) {
+                field.set(instance, read(in, field.getType()));
+            }
+            return instance;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ClassSchema schema(Class<?> type) {
+        return schemas.computeIfAbsent(type, ClassSchema::new);
+    }
+
+    /**
+     * POJO 的字段布局：非 static / transient 字段（含父类）按字段名排序
+     */
+    private static final class ClassSchema {
+
+        private final Class<?> type;
+
+        private final Constructor<?> constructor;
+
+        private final Field[] fields;
+
+        private final int fingerprint;
+
+        ClassSchema(Class<?> type) {
+            this.type = type;
+            try {
+                this.constructor = type.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " 没有无参构造方法", e);
+            }
+            List<Field> list = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    list.add(field);
+                }
+            }
+            list.sort(Comparator.comparing(Field::getName));
+            this.fields = list.toArray(new Field[0]);
+            StringBuilder layout = new StringBuilder();
+            for (Field field : fields) {
+                // 按包装类型计算，基本类型与包装类型的字段编码相同
+                layout.append(field.getName()).append(':').append(boxed(field.getType()).getTypeName()).append(';');
+            }
+            this.fingerprint = layout.toString().hashCode();
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(64);
+        }
+
+        void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            write((int) zigzag);
+        }
+
+        void writeFixedInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        Input(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int read() {
+            if (position >= bytes.length) {
+                throw new IllegalArgumentException("二进制报文不完整");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        byte[] readBytes(int length) {
+            if (length < 0 || position + length > bytes.length) {
+                throw new IllegalArgumentException("二进制报文不完整");
+            }
+            byte[] result = Arrays.copyOfRange(bytes, position, position + length);
+            position += length;
+            return result;
+        }
+
+        /**
+         * 读取长度或元素个数，超过剩余字节数能容纳的个数时报文一定不完整，直接失败而不是按声明的大小分配
+         */
+        int readLength(int minBytesPerItem) {
+            long length = readVarLong();
+            if (length < 0 || length > (bytes.length - position) / minBytesPerItem) {
+                throw new IllegalArgumentException("二进制报文不完整");
+            }
+            return (int) length;
+        }
+
+        long readVarLong() {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = read();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new IllegalArgumentException("varint 过长");
+        }
+
+        int readFixedInt() {
+            return (read() << 24) | (read() << 16) | (read() << 8) | read();
+        }
+    }
+}
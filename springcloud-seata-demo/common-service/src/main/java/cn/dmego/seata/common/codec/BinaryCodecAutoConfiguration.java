@@ -0,0 +1,93 @@
+package cn.dmego.seata.common.codec;
+
+import feign.Feign;
+import feign.RequestInterceptor;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import feign.form.spring.SpringFormEncoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * @className: BinaryCodecAutoConfiguration
+ *
+ * @description: 服务间调用的二进制编码，dmego.codec.binary.enabled=false 整体关闭。
+ *               Feign 客户端的编解码器在默认的 Spring 编解码器外包一层，按 Content-Type 协商，任一端不支持时退回 JSON；
+ *               真正使用二进制需要两端分别开启：服务端 dmego.codec.binary.server.enabled=true 注册
+ *               {@link BinaryHttpMessageConverter}，客户端 dmego.codec.binary.client.enabled=true 在 Accept 中声明二进制。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "dmego.codec.binary", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryCodecAutoConfiguration {
+
+    @Bean
+    public BinaryCodec binaryCodec() {
+        return new BinaryCodec();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(prefix = "dmego.codec.binary.server", name = "enabled", havingValue = "true")
+    static class BinaryMvcConfiguration implements WebMvcConfigurer {
+
+        private final BinaryCodec codec;
+
+        BinaryMvcConfiguration(BinaryCodec codec) {
+            this.codec = codec;
+        }
+
+        /**
+         * 放在最后，Accept 没有明确要求二进制时优先选中 JSON 转换器
+         */
+        @Override
+        public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+            converters.add(new BinaryHttpMessageConverter(codec));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({Feign.class, SpringDecoder.class})
+    static class BinaryFeignConfiguration {
+
+        @Bean
+        public BinaryCodecNegotiation binaryCodecNegotiation() {
+            return new BinaryCodecNegotiation();
+        }
+
+        @Bean
+        public Encoder binaryFeignEncoder(ObjectFactory<HttpMessageConverters> messageConverters, BinaryCodec codec,
+                                          BinaryCodecNegotiation negotiation) {
+            // 与 FeignClientsConfiguration 的默认编码器一致，保留表单编码
+            return new BinaryFeignEncoder(new SpringEncoder(new SpringFormEncoder(), messageConverters), codec,
+                negotiation);
+        }
+
+        @Bean
+        public Decoder binaryFeignDecoder(ObjectFactory<HttpMessageConverters> messageConverters, BinaryCodec codec,
+                                          BinaryCodecNegotiation negotiation) {
+            Decoder json = new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(messageConverters)));
+            return new BinaryFeignDecoder(json, codec, negotiation);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "dmego.codec.binary.client", name = "enabled", havingValue = "true")
+        public RequestInterceptor binaryAcceptInterceptor() {
+            return new BinaryAcceptInterceptor();
+        }
+    }
+}
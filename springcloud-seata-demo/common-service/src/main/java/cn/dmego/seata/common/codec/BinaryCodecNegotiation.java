@@ -0,0 +1,33 @@
+package cn.dmego.seata.common.codec;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @className: BinaryCodecNegotiation
+ *
+ * @description: 记录哪些下游服务支持二进制编码。开启客户端后 Feign 请求在 Accept 中同时声明二进制和 JSON，
+ *               下游返回二进制响应后才开始用二进制发送请求体；下游对可编码的类型返回 JSON 时说明已不支持，退回 JSON。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryCodecNegotiation {
+
+    private final Set<String> binaryTargets = ConcurrentHashMap.newKeySet();
+
+    public boolean acceptsBinary(String target) {
+        return target != null && binaryTargets.contains(target);
+    }
+
+    public void markBinary(String target) {
+        if (target != null) {
+            binaryTargets.add(target);
+        }
+    }
+
+    public void markJsonOnly(String target) {
+        if (target != null) {
+            binaryTargets.remove(target);
+        }
+    }
+}
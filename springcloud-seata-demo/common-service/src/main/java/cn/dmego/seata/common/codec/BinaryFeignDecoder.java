@@ -0,0 +1,76 @@
+package cn.dmego.seata.common.codec;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * @className: BinaryFeignDecoder
+ *
+ * @description: 按响应的 Content-Type 选择解码方式：二进制响应直接解码并记录该下游支持二进制，其余交给原 JSON 解码器
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryFeignDecoder implements Decoder {
+
+    private final Decoder delegate;
+
+    private final BinaryCodec codec;
+
+    private final BinaryCodecNegotiation negotiation;
+
+    public BinaryFeignDecoder(Decoder delegate, BinaryCodec codec, BinaryCodecNegotiation negotiation) {
+        this.delegate = delegate;
+        this.codec = codec;
+        this.negotiation = negotiation;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        String target = target(response);
+        if (!isBinary(response) || response.body() == null) {
+            if (response.status() < 300 && response.body() != null && codec.supports(type)) {
+                negotiation.markJsonOnly(target);
+            }
+            return delegate.decode(response, type);
+        }
+        byte[] bytes = Util.toByteArray(response.body().asInputStream());
+        try {
+            Object value = codec.decode(bytes, type);
+            negotiation.markBinary(target);
+            return value;
+        } catch (RuntimeException e) {
+            throw new DecodeException(response.status(), "二进制报文解析失败: " + e.getMessage(), response.request(), e);
+        }
+    }
+
+    private static boolean isBinary(Response response) {
+        Collection<String> contentTypes = response.headers().get("Content-Type");
+        if (contentTypes == null) {
+            contentTypes = response.headers().get("content-type");
+        }
+        if (contentTypes == null) {
+            return false;
+        }
+        for (String contentType : contentTypes) {
+            if (contentType.startsWith(BinaryCodec.MEDIA_TYPE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String target(Response response) {
+        Request request = response.request();
+        if (request == null || request.requestTemplate() == null || request.requestTemplate().feignTarget() == null) {
+            return null;
+        }
+        return request.requestTemplate().feignTarget().name();
+    }
+}
@@ -0,0 +1,41 @@
+package cn.dmego.seata.common.codec;
+
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.lang.reflect.Type;
+
+/**
+ * @className: BinaryFeignEncoder
+ *
+ * @description: 下游已确认支持二进制、且请求体类型可编码时使用二进制发送请求体，否则交给原 JSON 编码器
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryFeignEncoder implements Encoder {
+
+    private final Encoder delegate;
+
+    private final BinaryCodec codec;
+
+    private final BinaryCodecNegotiation negotiation;
+
+    public BinaryFeignEncoder(Encoder delegate, BinaryCodec codec, BinaryCodecNegotiation negotiation) {
+        this.delegate = delegate;
+        this.codec = codec;
+        this.negotiation = negotiation;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) throws EncodeException {
+        String target = template.feignTarget() == null ? null : template.feignTarget().name();
+        if (!negotiation.acceptsBinary(target) || !codec.supports(bodyType)) {
+            delegate.encode(object, bodyType, template);
+            return;
+        }
+        template.removeHeader("Content-Type");
+        template.header("Content-Type", BinaryCodec.MEDIA_TYPE);
+        template.body(codec.encode(object, bodyType), null);
+    }
+}
@@ -0,0 +1,68 @@
+package cn.dmego.seata.common.codec;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * @className: BinaryHttpMessageConverter
+ *
+ * @description: Spring MVC 端的二进制消息转换器，只处理 Content-Type / Accept 为 {@link BinaryCodec#MEDIA_TYPE} 的请求。
+ *               注册在 JSON 转换器之后，Accept 为 * / * 或未声明二进制的调用方仍然拿到 JSON。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType BINARY = MediaType.valueOf(BinaryCodec.MEDIA_TYPE);
+
+    private final BinaryCodec codec;
+
+    public BinaryHttpMessageConverter(BinaryCodec codec) {
+        super(BINARY);
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return codec.supports(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return codec.supports(type) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return codec.supports(type != null ? type : clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        byte[] bytes = StreamUtils.copyToByteArray(inputMessage.getBody());
+        try {
+            return codec.decode(bytes, type);
+        } catch (RuntimeException e) {
+            throw new HttpMessageNotReadableException("二进制报文解析失败: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes = codec.encode(value, type != null ? type : value.getClass());
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
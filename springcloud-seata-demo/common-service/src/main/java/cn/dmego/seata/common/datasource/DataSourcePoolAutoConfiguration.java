@@ -0,0 +1,93 @@
+package cn.dmego.seata.common.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+/**
+ * @className: DataSourcePoolAutoConfiguration
+ *
+ * @description: 所有服务共用的 Druid 连接池，配置了 spring.datasource.url 且容器中没有其他 DataSource 时生效，
+ *               dmego.datasource.enabled=false 关闭。连接池参数直接从 spring.datasource 绑定到 DruidDataSource，
+ *               写法与原来的 DruidDBConfig 相同（initialSize、maxActive、filters、connectionProperties 等）。
+ *               排在 Boot 和 druid-spring-boot-starter 的 DataSource 自动配置之前，druid 的监控页面等配置照常生效
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:40
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(DruidDataSource.class)
+@ConditionalOnProperty(prefix = "dmego.datasource", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureBefore(value = DataSourceAutoConfiguration.class,
+    name = "com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceAutoConfigure")
+@EnableConfigurationProperties(DataSourcePoolProperties.class)
+public class DataSourcePoolAutoConfiguration {
+
+    static final String POOL_NAME = "dataSource";
+
+    @Bean
+    public SqlTimingFilter sqlTimingFilter(DataSourcePoolProperties properties) {
+        return new SqlTimingFilter(properties.getSlowSqlMillis());
+    }
+
+    /**
+     * Seata 的 TCC fence 在没有名为 seataTCCFenceDataSource 的 bean 时使用这个主数据源
+     */
+    @Bean(name = POOL_NAME, initMethod = "init", destroyMethod = "close")
+    @ConfigurationProperties(prefix = "spring.datasource")
+    @ConditionalOnProperty(prefix = "spring.datasource", name = "url")
+    @ConditionalOnMissingBean(DataSource.class)
+    public DruidDataSource dataSource(SqlTimingFilter sqlTimingFilter) {
+        DruidDataSource dataSource = new DruidDataSource();
+        dataSource.setProxyFilters(Collections.singletonList(sqlTimingFilter));
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnBean(name = POOL_NAME, value = DruidDataSource.class)
+    @ConditionalOnProperty(prefix = "dmego.datasource.resize", name = "enabled", havingValue = "true")
+    public PoolResizer poolResizer(DruidDataSource dataSource, DataSourcePoolProperties properties) {
+        return new PoolResizer(target(dataSource), properties.getResize());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class DataSourcePoolMetricsConfiguration {
+
+        /**
+         * 与 Feign 连接池指标一样，所有单例创建完成后再绑定
+         */
+        @Bean
+        public SmartInitializingSingleton dataSourcePoolMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                      ObjectProvider<DruidDataSource> dataSource,
+                                                                      ObjectProvider<PoolResizer> poolResizer,
+                                                                      SqlTimingFilter sqlTimingFilter) {
+            return () -> meterRegistry.ifAvailable(registry -> dataSource.ifUnique(pool -> {
+                new DataSourcePoolMetrics(target(pool), POOL_NAME, poolResizer.getIfAvailable()).bindTo(registry);
+                sqlTimingFilter.bind(registry, POOL_NAME);
+            }));
+        }
+    }
+
+    /**
+     * Seata 自动代理数据源时容器中的 bean 是 CGLIB 代理，指标和扩缩容直接作用在原始连接池上
+     */
+    static DruidDataSource target(DruidDataSource dataSource) {
+        Object target = AopProxyUtils.getSingletonTarget(dataSource);
+        return target instanceof DruidDataSource ? (DruidDataSource) target : dataSource;
+    }
+}
@@ -0,0 +1,67 @@
+package cn.dmego.seata.common.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * @className: DataSourcePoolMetrics
+ *
+ * @description: 连接池指标，tag pool 为 DataSource 的 bean 名称：
+ *               db.pool.connections(state=active|idle)、db.pool.max（当前 maxActive，动态扩缩容后随之变化）、
+ *               db.pool.pending（等待连接的线程数）、db.pool.wait.count / db.pool.wait.time（因池中无空闲连接而等待的次数和累计时长）、
+ *               db.pool.wait.average（上一个扩缩容周期的平均等待毫秒数，开启扩缩容时才有）、
+ *               db.pool.pstmt.cache(result=hit|miss)、db.pool.pstmt.hit.ratio（PreparedStatement 缓存命中率）
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:40
+ **/
+public class DataSourcePoolMetrics implements MeterBinder {
+
+    private final DruidDataSource dataSource;
+
+    private final String pool;
+
+    private final PoolResizer resizer;
+
+    public DataSourcePoolMetrics(DruidDataSource dataSource, String pool, PoolResizer resizer) {
+        this.dataSource = dataSource;
+        this.pool = pool;
+        this.resizer = resizer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("pool", pool);
+        Gauge.builder("db.pool.connections", dataSource, DruidDataSource::getActiveCount)
+            .tags(tags).tag("state", "active").register(registry);
+        Gauge.builder("db.pool.connections", dataSource, DruidDataSource::getPoolingCount)
+            .tags(tags).tag("state", "idle").register(registry);
+        Gauge.builder("db.pool.max", dataSource, DruidDataSource::getMaxActive)
+            .tags(tags).register(registry);
+        Gauge.builder("db.pool.pending", dataSource, DruidDataSource::getWaitThreadCount)
+            .tags(tags).register(registry);
+        FunctionCounter.builder("db.pool.wait.count", dataSource, DruidDataSource::getNotEmptyWaitCount)
+            .tags(tags).register(registry);
+        FunctionCounter.builder("db.pool.wait.time", dataSource, ds -> ds.getNotEmptyWaitNanos() / 1e9)
+            .tags(tags).baseUnit("seconds").register(registry);
+        if (resizer != null) {
+            Gauge.builder("db.pool.wait.average", resizer, PoolResizer::getLastAverageWaitMillis)
+                .tags(tags).baseUnit("milliseconds").register(registry);
+        }
+        FunctionCounter.builder("db.pool.pstmt.cache", dataSource, DruidDataSource::getCachedPreparedStatementHitCount)
+            .tags(tags).tag("result", "hit").register(registry);
+        FunctionCounter.builder("db.pool.pstmt.cache", dataSource, DruidDataSource::getCachedPreparedStatementMissCount)
+            .tags(tags).tag("result", "miss").register(registry);
+        Gauge.builder("db.pool.pstmt.hit.ratio", dataSource, DataSourcePoolMetrics::hitRatio)
+            .tags(tags).register(registry);
+    }
+
+    private static double hitRatio(DruidDataSource dataSource) {
+        long hit = dataSource.getCachedPreparedStatementHitCount();
+        long total = hit + dataSource.getCachedPreparedStatementMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+}
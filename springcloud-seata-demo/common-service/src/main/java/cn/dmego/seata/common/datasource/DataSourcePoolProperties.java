@@ -0,0 +1,139 @@
+package cn.dmego.seata.common.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @className: DataSourcePoolProperties
+ *
+ * @description: 共享连接池配置，前缀 dmego.datasource。连接池本身的参数（url、maxActive、maxWait、filters 等）
+ *               仍写在 spring.datasource 下，这里只有监控和动态扩缩容的配置
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:40
+ **/
+@ConfigurationProperties(prefix = "dmego.datasource")
+public class DataSourcePoolProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 执行时间超过该值的 SQL 计入 db.sql.slow
+     */
+    private long slowSqlMillis = 1000;
+
+    private Resize resize = new Resize();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowSqlMillis() {
+        return slowSqlMillis;
+    }
+
+    public void setSlowSqlMillis(long slowSqlMillis) {
+        this.slowSqlMillis = slowSqlMillis;
+    }
+
+    public Resize getResize() {
+        return resize;
+    }
+
+    public void setResize(Resize resize) {
+        this.resize = resize;
+    }
+
+    /**
+     * 按获取连接的等待时间调整 maxActive，默认关闭
+     */
+    public static class Resize {
+
+        private boolean enabled = false;
+
+        /**
+         * maxActive 的下限，0 表示启动时配置的 spring.datasource.maxActive，不会低于 minIdle
+         */
+        private int minActive = 0;
+
+        /**
+         * maxActive 的上限，0 表示启动时配置的 2 倍。所有实例的上限之和不要超过数据库的 max_connections
+         */
+        private int maxActive = 0;
+
+        /**
+         * 一个周期内获取连接的平均等待时间达到该值时扩容
+         */
+        private long targetWaitMillis = 5;
+
+        /**
+         * 每次扩容或缩容调整的连接数
+         */
+        private int step = 8;
+
+        private int intervalSeconds = 10;
+
+        /**
+         * 连续多少个周期没有等待且峰值活跃连接数低于 maxActive - step 时缩容一次
+         */
+        private int shrinkAfterIntervals = 6;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinActive() {
+            return minActive;
+        }
+
+        public void setMinActive(int minActive) {
+            this.minActive = minActive;
+        }
+
+        public int getMaxActive() {
+            return maxActive;
+        }
+
+        public void setMaxActive(int maxActive) {
+            this.maxActive = maxActive;
+        }
+
+        public long getTargetWaitMillis() {
+            return targetWaitMillis;
+        }
+
+        public void setTargetWaitMillis(long targetWaitMillis) {
+            this.targetWaitMillis = targetWaitMillis;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public void setStep(int step) {
+            this.step = step;
+        }
+
+        public int getIntervalSeconds() {
+            return intervalSeconds;
+        }
+
+        public void setIntervalSeconds(int intervalSeconds) {
+            this.intervalSeconds = intervalSeconds;
+        }
+
+        public int getShrinkAfterIntervals() {
+            return shrinkAfterIntervals;
+        }
+
+        public void setShrinkAfterIntervals(int shrinkAfterIntervals) {
+            this.shrinkAfterIntervals = shrinkAfterIntervals;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package cn.dmego.seata.common.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: PoolResizer
+ *
+ * @description: 按获取连接的等待时间动态调整 Druid 的 maxActive：
+ *               1. 每 500ms 采样一次活跃连接数，取周期内的峰值；
+ *               2. 每个周期结束时计算这一周期内获取连接的平均等待时间，达到 targetWaitMillis 时 maxActive 增加 step，不超过上限；
+ *               3. 连续 shrinkAfterIntervals 个周期没有等待、且峰值比 maxActive 少 step 以上时，maxActive 减少 step，不低于下限。
+ *               Druid 支持运行时修改 maxActive，缩容时多出的空闲连接由 Druid 的回收线程按 minEvictableIdleTimeMillis 关闭
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:40
+ **/
+public class PoolResizer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PoolResizer.class);
+
+    private static final long SAMPLE_MILLIS = 500;
+
+    private final DruidDataSource dataSource;
+
+    private final DataSourcePoolProperties.Resize config;
+
+    private final int floor;
+
+    private final int ceiling;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final int samplesPerInterval;
+
+    private int samples;
+
+    private int peakActive;
+
+    private int quietIntervals;
+
+    private long lastWaitCount;
+
+    private long lastWaitNanos;
+
+    private volatile double lastAverageWaitMillis;
+
+    public PoolResizer(DruidDataSource dataSource, DataSourcePoolProperties.Resize config) {
+        this.dataSource = dataSource;
+        this.config = config;
+        int configured = dataSource.getMaxActive();
+        this.floor = Math.max(dataSource.getMinIdle(), config.getMinActive() > 0 ? config.getMinActive() : configured);
+        this.ceiling = Math.max(floor, config.getMaxActive() > 0 ? config.getMaxActive() : configured * 2);
+        this.samplesPerInterval = (int) Math.max(1,
+            TimeUnit.SECONDS.toMillis(config.getIntervalSeconds()) / SAMPLE_MILLIS);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "datasource-resizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        lastWaitCount = dataSource.getNotEmptyWaitCount();
+        lastWaitNanos = dataSource.getNotEmptyWaitNanos();
+        scheduler.scheduleWithFixedDelay(this::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        LOGGER.info("[datasource] 开启连接池动态扩缩容, maxActive 范围 [{}, {}], 目标等待时间 {}ms", floor, ceiling,
+            config.getTargetWaitMillis());
+    }
+
+    private void sample() {
+        try {
+            peakActive = Math.max(peakActive, dataSource.getActiveCount());
+            if (++samples >= samplesPerInterval) {
+                evaluate();
+                samples = 0;
+                peakActive = 0;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("[datasource] 连接池扩缩容失败", e);
+        }
+    }
+
+    private void evaluate() {
+        long waitCount = dataSource.getNotEmptyWaitCount();
+        long waitNanos = dataSource.getNotEmptyWaitNanos();
+        long waits = waitCount - lastWaitCount;
+        double averageWaitMillis = waits <= 0 ? 0 : (waitNanos - lastWaitNanos) / 1e6 / waits;
+        lastWaitCount = waitCount;
+        lastWaitNanos = waitNanos;
+        lastAverageWaitMillis = averageWaitMillis;
+
+        int current = dataSource.getMaxActive();
+        if (waits > 0 && averageWaitMillis >= config.getTargetWaitMillis()) {
+            quietIntervals = 0;
+            if (current < ceiling) {
+                resize(current, Math.min(ceiling, current + config.getStep()), averageWaitMillis);
+            }
+            return;
+        }
+        if (waits > 0 || peakActive > current - config.getStep()) {
+            quietIntervals = 0;
+            return;
+        }
+        if (++quietIntervals >= config.getShrinkAfterIntervals() && current > floor) {
+            quietIntervals = 0;
+            resize(current, Math.max(floor, current - config.getStep()), averageWaitMillis);
+        }
+    }
+
+    private void resize(int from, int to, double averageWaitMillis) {
+        dataSource.setMaxActive(to);
+        LOGGER.info("[datasource] maxActive {} -> {}, 平均等待 {}ms, 周期内峰值活跃连接 {}", from, to,
+            String.format("%.1f", averageWaitMillis), peakActive);
+    }
+
+    /**
+     * @return 上一个周期获取连接的平均等待时间（毫秒）
+     */
+    public double getLastAverageWaitMillis() {
+        return lastAverageWaitMillis;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
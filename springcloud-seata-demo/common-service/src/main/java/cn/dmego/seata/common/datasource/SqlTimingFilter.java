@@ -0,0 +1,145 @@
+package cn.dmego.seata.common.datasource;
+
+import com.alibaba.druid.filter.FilterEventAdapter;
+import com.alibaba.druid.proxy.jdbc.ResultSetProxy;
+import com.alibaba.druid.proxy.jdbc.StatementProxy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: SqlTimingFilter
+ *
+ * @description: 记录每条 SQL 的执行时间：db.sql.duration（带直方图，tag type 为 select / insert / update / delete / batch / other），
+ *               超过 slowSqlMillis 的同时计入 db.sql.slow。不按 SQL 文本打 tag，避免指标数量随 SQL 增长，
+ *               具体是哪条 SQL 慢仍看 Druid 的 StatFilter 和慢 SQL 日志。
+ *               连接池先于 MeterRegistry 创建，绑定之前执行的 SQL 不记录
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:40
+ **/
+public class SqlTimingFilter extends FilterEventAdapter {
+
+    private static final String START_ATTRIBUTE = "dmego.sql.start";
+
+    private static final Duration[] SLO = {
+        Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(50),
+        Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    private final long slowSqlNanos;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> slowCounters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    private volatile String pool = "dataSource";
+
+    public SqlTimingFilter(long slowSqlMillis) {
+        this.slowSqlNanos = TimeUnit.MILLISECONDS.toNanos(slowSqlMillis);
+    }
+
+    void bind(MeterRegistry registry, String pool) {
+        this.pool = pool;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void statementExecuteBefore(StatementProxy statement, String sql) {
+        start(statement);
+    }
+
+    @Override
+    protected void statementExecuteAfter(StatementProxy statement, String sql, boolean result) {
+        record(statement, type(sql));
+    }
+
+    @Override
+    protected void statementExecuteQueryBefore(StatementProxy statement, String sql) {
+        start(statement);
+    }
+
+    @Override
+    protected void statementExecuteQueryAfter(StatementProxy statement, String sql, ResultSetProxy resultSet) {
+        record(statement, "select");
+    }
+
+    @Override
+    protected void statementExecuteUpdateBefore(StatementProxy statement, String sql) {
+        start(statement);
+    }
+
+    @Override
+    protected void statementExecuteUpdateAfter(StatementProxy statement, String sql, int updateCount) {
+        record(statement, type(sql));
+    }
+
+    @Override
+    protected void statementExecuteBatchBefore(StatementProxy statement) {
+        start(statement);
+    }
+
+    @Override
+    protected void statementExecuteBatchAfter(StatementProxy statement, int[] result) {
+        record(statement, "batch");
+    }
+
+    @Override
+    protected void statement_executeErrorAfter(StatementProxy statement, String sql, Throwable error) {
+        record(statement, type(sql));
+    }
+
+    private void start(StatementProxy statement) {
+        if (registry != null) {
+            statement.putAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    private void record(StatementProxy statement, String type) {
+        MeterRegistry current = registry;
+        Object start = statement.getAttributes().remove(START_ATTRIBUTE);
+        if (current == null || start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - (Long) start;
+        timers.computeIfAbsent(type, key -> Timer.builder("db.sql.duration")
+            .tag("pool", pool).tag("type", key)
+            .serviceLevelObjectives(SLO)
+            .register(current))
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed >= slowSqlNanos) {
+            slowCounters.computeIfAbsent(type, key -> Counter.builder("db.sql.slow")
+                .tag("pool", pool).tag("type", key)
+                .register(current))
+                .increment();
+        }
+    }
+
+    static String type(String sql) {
+        if (sql == null) {
+            return "other";
+        }
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        switch (keyword) {
+            case "select":
+            case "insert":
+            case "update":
+            case "delete":
+                return keyword;
+            default:
+                return "other";
+        }
+    }
+}
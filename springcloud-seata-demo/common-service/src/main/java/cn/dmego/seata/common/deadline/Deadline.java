@@ -0,0 +1,99 @@
+package cn.dmego.seata.common.deadline;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: Deadline
+ *
+ * @description: 一次调用链的截止时间，绑定在当前线程上：
+ *               1. 全局事务入口按事务超时开始计时，嵌套时取更早的截止时间；
+ *               2. 经 Feign 调用时以剩余毫秒数放在请求头 {@link #HEADER} 中传给下游，下游按收到请求的时刻还原，
+ *                  使用相对时长而不是绝对时间，两端时钟不一致也不受影响；
+ *               3. 剩余时间用于截断 HTTP 读超时和 JDBC 查询超时，已经超时的调用不再发出。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public final class Deadline {
+
+    public static final String HEADER = "X-Deadline-Remaining";
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expireAtNanos;
+
+    private Deadline(long expireAtNanos) {
+        this.expireAtNanos = expireAtNanos;
+    }
+
+    public static Deadline after(long timeoutMillis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis)));
+    }
+
+    /**
+     * @return 当前线程的截止时间，没有时返回 null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 绑定截止时间，当前线程已有更早的截止时间时保留原来的
+     *
+     * @return 绑定前的截止时间，用于 {@link #restore(Deadline)}
+     */
+    public static Deadline bindIfEarlier(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        if (previous == null || deadline.expireAtNanos - previous.expireAtNanos < 0) {
+            CURRENT.set(deadline);
+        }
+        return previous;
+    }
+
+    public static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 当前线程已有截止时间且已超时时抛出 {@link DeadlineExceededException}
+     */
+    public static void check(String action) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new DeadlineExceededException(action);
+        }
+    }
+
+    /**
+     * 按剩余时间设置语句的查询超时（向上取整到秒），只会缩短已有的超时。
+     * MySQL 驱动在查询超时后发送 KILL QUERY，等待行锁的语句同样会被中断，因此也限制了 innodb 的锁等待时长。
+     */
+    public static void applyQueryTimeout(Statement statement) throws SQLException {
+        Deadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("执行 SQL");
+        }
+        int seconds = (int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000);
+        int current = statement.getQueryTimeout();
+        if (current == 0 || seconds < current) {
+            statement.setQueryTimeout(seconds);
+        }
+    }
+
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(expireAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expireAtNanos - System.nanoTime() <= 0;
+    }
+}
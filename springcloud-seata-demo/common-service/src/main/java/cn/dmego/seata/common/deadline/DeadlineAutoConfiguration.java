@@ -0,0 +1,122 @@
+package cn.dmego.seata.common.deadline;
+
+import feign.RequestInterceptor;
+import io.seata.spring.annotation.GlobalTransactional;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * @className: DeadlineAutoConfiguration
+ *
+ * @description: 调用链截止时间的传递，默认开启，dmego.deadline.enabled=false 关闭：
+ *               @GlobalTransactional 入口开始计时 → Feign 请求头 → 服务端还原并检查 → 截断 HTTP 读超时和 JDBC 查询超时
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "dmego.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(DataSourceAutoConfiguration.class)
+@AutoConfigureBefore(JdbcTemplateAutoConfiguration.class)
+public class DeadlineAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(GlobalTransactional.class)
+    static class GlobalTransactionDeadlineConfiguration {
+
+        /**
+         * 排在 Seata 的全局事务拦截器之前，向 TC 注册全局事务的耗时也计入截止时间
+         */
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static Advisor globalTransactionDeadlineAdvisor(Environment environment) {
+            long defaultTimeout = environment.getProperty("seata.client.tm.default-global-transaction-timeout",
+                Long.class, 60000L);
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, GlobalTransactional.class, true),
+                new GlobalTransactionDeadlineInterceptor(defaultTimeout));
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return advisor;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class DeadlineFeignConfiguration {
+
+        @Bean
+        public RequestInterceptor deadlineFeignInterceptor() {
+            return new DeadlineFeignInterceptor();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class DeadlineMvcConfiguration implements WebMvcConfigurer {
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new DeadlineHandlerInterceptor()).order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Interceptor.class)
+    static class DeadlineMybatisConfiguration {
+
+        /**
+         * mybatis-spring-boot-starter 会把容器中的 Interceptor 注册为插件
+         */
+        @Bean
+        public DeadlineStatementInterceptor deadlineStatementInterceptor() {
+            return new DeadlineStatementInterceptor();
+        }
+    }
+
+    /**
+     * 替换 Boot 默认创建的 JdbcTemplate，spring.jdbc.template.* 配置照常生效
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(JdbcTemplate.class)
+    @ConditionalOnSingleCandidate(DataSource.class)
+    @EnableConfigurationProperties(JdbcProperties.class)
+    static class DeadlineJdbcConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(JdbcOperations.class)
+        public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+            JdbcTemplate jdbcTemplate = new DeadlineJdbcTemplate(dataSource);
+            JdbcProperties.Template template = properties.getTemplate();
+            jdbcTemplate.setFetchSize(template.getFetchSize());
+            jdbcTemplate.setMaxRows(template.getMaxRows());
+            if (template.getQueryTimeout() != null) {
+                jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+            }
+            return jdbcTemplate;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package cn.dmego.seata.common.deadline;
+
+/**
+ * @className: DeadlineExceededException
+ *
+ * @description: 调用链已超过截止时间，后续的远程调用和 SQL 不再执行，全局事务按异常回滚
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String action) {
+        super("已超过调用截止时间，放弃" + action);
+    }
+}
@@ -0,0 +1,27 @@
+package cn.dmego.seata.common.deadline;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * @className: DeadlineFeignInterceptor
+ *
+ * @description: 把当前线程的剩余时间写入请求头传给下游，已经超时的请求在发出前直接失败
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public class DeadlineFeignInterceptor implements RequestInterceptor {
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return;
+        }
+        long remaining = deadline.remainingMillis();
+        if (remaining <= 0) {
+            throw new DeadlineExceededException("调用 " + template.feignTarget().name());
+        }
+        template.header(Deadline.HEADER, String.valueOf(remaining));
+    }
+}
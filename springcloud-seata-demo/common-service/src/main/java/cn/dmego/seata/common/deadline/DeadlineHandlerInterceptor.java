@@ -0,0 +1,58 @@
+package cn.dmego.seata.common.deadline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @className: DeadlineHandlerInterceptor
+ *
+ * @description: 服务端按请求头还原截止时间，在执行业务前检查：调用方已经放弃等待的请求直接返回 504，不再做任何工作
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public class DeadlineHandlerInterceptor implements HandlerInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeadlineHandlerInterceptor.class);
+
+    private static final String BOUND = DeadlineHandlerInterceptor.class.getName() + ".BOUND";
+
+    private static final String PREVIOUS = DeadlineHandlerInterceptor.class.getName() + ".PREVIOUS";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(Deadline.HEADER);
+        if (header == null || header.isEmpty()) {
+            return true;
+        }
+        long remaining;
+        try {
+            remaining = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn("忽略无法解析的 {} 请求头: {}", Deadline.HEADER, header);
+            return true;
+        }
+        if (remaining <= 0) {
+            LOGGER.warn("请求 {} 已超过调用方的截止时间，直接拒绝", request.getRequestURI());
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            return false;
+        }
+        request.setAttribute(PREVIOUS, Deadline.bindIfEarlier(Deadline.after(remaining)));
+        request.setAttribute(BOUND, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(BOUND) != null) {
+            Deadline.restore((Deadline) request.getAttribute(PREVIOUS));
+            request.removeAttribute(BOUND);
+            request.removeAttribute(PREVIOUS);
+        }
+    }
+}
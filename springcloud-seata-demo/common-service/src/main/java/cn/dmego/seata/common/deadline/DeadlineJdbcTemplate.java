@@ -0,0 +1,27 @@
+package cn.dmego.seata.common.deadline;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * @className: DeadlineJdbcTemplate
+ *
+ * @description: 直接使用 JdbcTemplate 的 DAO 同样按调用链的剩余时间缩短查询超时
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public class DeadlineJdbcTemplate extends JdbcTemplate {
+
+    public DeadlineJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        super.applyStatementSettings(stmt);
+        Deadline.applyQueryTimeout(stmt);
+    }
+}
@@ -0,0 +1,31 @@
+package cn.dmego.seata.common.deadline;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * @className: DeadlineStatementInterceptor
+ *
+ * @description: MyBatis 插件：语句创建后按调用链的剩余时间缩短查询超时，已经超时时不再执行 SQL
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class DeadlineStatementInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Deadline.check("执行 SQL");
+        Object statement = invocation.proceed();
+        if (statement instanceof Statement) {
+            Deadline.applyQueryTimeout((Statement) statement);
+        }
+        return statement;
+    }
+}
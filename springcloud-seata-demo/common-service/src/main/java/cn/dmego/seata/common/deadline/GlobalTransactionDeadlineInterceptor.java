@@ -0,0 +1,49 @@
+package cn.dmego.seata.common.deadline;
+
+import io.seata.spring.annotation.GlobalTransactional;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @className: GlobalTransactionDeadlineInterceptor
+ *
+ * @description: 在 @GlobalTransactional 方法入口开始计时，截止时间取注解的 timeoutMills，
+ *               注解使用默认值时取 Seata 配置的默认全局事务超时，与 TC 判定事务超时的时长一致
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:10
+ **/
+public class GlobalTransactionDeadlineInterceptor implements MethodInterceptor {
+
+    /**
+     * 与 GlobalTransactional#timeoutMills 的默认值相同
+     */
+    private static final int ANNOTATION_DEFAULT_TIMEOUT = 60000;
+
+    private final long defaultTimeoutMillis;
+
+    public GlobalTransactionDeadlineInterceptor(long defaultTimeoutMillis) {
+        this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        GlobalTransactional annotation = AnnotatedElementUtils.findMergedAnnotation(method, GlobalTransactional.class);
+        if (annotation == null) {
+            return invocation.proceed();
+        }
+        long timeout = annotation.timeoutMills() == ANNOTATION_DEFAULT_TIMEOUT
+            ? defaultTimeoutMillis : annotation.timeoutMills();
+        Deadline previous = Deadline.bindIfEarlier(Deadline.after(timeout));
+        try {
+            return invocation.proceed();
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package cn.dmego.seata.common.fault;
+
+/**
+ * @className: FaultInjectedException
+ *
+ * @description: 故障注入规则产生的失败。使用运行时异常，Feign 客户端方法上注入时不会被包装成 RetryableException
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+public class FaultInjectedException extends RuntimeException {
+
+    public FaultInjectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,101 @@
+package cn.dmego.seata.common.fault;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @className: FaultInjectionAutoConfiguration
+ *
+ * @description: Feign 客户端和 DAO 的故障注入（延迟分布、失败比例、挂起），用于观察下游变慢或部分失败时的重试、补偿和线程池饱和。
+ *               默认关闭，dmego.fault.enabled=true 开启，运行中通过 actuator 的 faults 端点修改规则。
+ *               拦截的对象：@FeignClient 接口、@Mapper 接口、@Repository 以及类名以 Dao 结尾的 bean
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "dmego.fault", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(FaultInjectionProperties.class)
+public class FaultInjectionAutoConfiguration {
+
+    private static final String[] TARGET_ANNOTATIONS = {
+        "org.springframework.cloud.openfeign.FeignClient",
+        "org.apache.ibatis.annotations.Mapper",
+        "org.springframework.stereotype.Repository"
+    };
+
+    @Bean
+    public FaultInjector faultInjector(FaultInjectionProperties properties) {
+        return new FaultInjector(properties);
+    }
+
+    /**
+     * 排在最后，紧挨着真实调用，截止时间、熔断等拦截器看到的是注入后的耗时和异常
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor faultInjectionAdvisor(ObjectProvider<FaultInjector> faultInjector) {
+        ComposablePointcut pointcut = new ComposablePointcut((ClassFilter) FaultInjectionAutoConfiguration::isTarget,
+            new StaticMethodMatcher() {
+                @Override
+                public boolean matches(Method method, Class<?> targetClass) {
+                    return !ReflectionUtils.isObjectMethod(method);
+                }
+            });
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new FaultInjectionInterceptor(faultInjector));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static boolean isTarget(Class<?> type) {
+        if (type.getSimpleName().endsWith("Dao")) {
+            return true;
+        }
+        MergedAnnotations annotations = MergedAnnotations.from(type, MergedAnnotations.SearchStrategy.TYPE_HIERARCHY);
+        for (String annotation : TARGET_ANNOTATIONS) {
+            if (annotations.isPresent(annotation)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class FaultMetricsConfiguration {
+
+        @Bean
+        public SmartInitializingSingleton faultMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                             FaultInjector faultInjector) {
+            return () -> meterRegistry.ifAvailable(registry -> faultInjector.setMetrics(new FaultMetrics(registry)));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class FaultInjectionEndpointConfiguration {
+
+        @Bean
+        public FaultInjectionEndpoint faultInjectionEndpoint(FaultInjector faultInjector) {
+            return new FaultInjectionEndpoint(faultInjector);
+        }
+    }
+}
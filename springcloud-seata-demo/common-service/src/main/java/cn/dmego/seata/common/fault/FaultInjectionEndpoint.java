@@ -0,0 +1,75 @@
+package cn.dmego.seata.common.fault;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @className: FaultInjectionEndpoint
+ *
+ * @description: actuator 端点 /actuator/faults，需要加入 management.endpoints.web.exposure.include。
+ *               GET /actuator/faults 查看规则和命中次数；
+ *               POST /actuator/faults/{target}，请求体 {"latency":"exp:100","latencyRate":1,"errorRate":0.1,"errorAfter":false,
+ *               "hangRate":0,"hangMillis":600000,"durationSeconds":300} 新增或替换规则，省略的字段取默认值；
+ *               DELETE /actuator/faults/{target} 删除一条规则，DELETE /actuator/faults 删除全部规则
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+@Endpoint(id = "faults")
+public class FaultInjectionEndpoint {
+
+    private final FaultInjector injector;
+
+    public FaultInjectionEndpoint(FaultInjector injector) {
+        this.injector = injector;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> rules() {
+        return injector.rules().stream().map(FaultRule::describe).collect(Collectors.toList());
+    }
+
+    @WriteOperation
+    public Map<String, Object> put(@Selector String target, @Nullable String latency, @Nullable Double latencyRate,
+                                   @Nullable Double errorRate, @Nullable Boolean errorAfter, @Nullable Double hangRate,
+                                   @Nullable Long hangMillis, @Nullable Long durationSeconds) {
+        FaultInjectionProperties.Rule spec = new FaultInjectionProperties.Rule();
+        spec.setLatency(latency);
+        if (latencyRate != null) {
+            spec.setLatencyRate(latencyRate);
+        }
+        if (errorRate != null) {
+            spec.setErrorRate(errorRate);
+        }
+        if (errorAfter != null) {
+            spec.setErrorAfter(errorAfter);
+        }
+        if (hangRate != null) {
+            spec.setHangRate(hangRate);
+        }
+        if (hangMillis != null) {
+            spec.setHangMillis(hangMillis);
+        }
+        if (durationSeconds != null) {
+            spec.setDurationSeconds(durationSeconds);
+        }
+        return injector.put(target, spec).describe();
+    }
+
+    @DeleteOperation
+    public boolean remove(@Selector String target) {
+        return injector.remove(target);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        injector.clear();
+    }
+}
@@ -0,0 +1,55 @@
+package cn.dmego.seata.common.fault;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * @className: FaultInjectionInterceptor
+ *
+ * @description: Feign 客户端和 DAO 方法上的故障注入。目标名取 接口或类的简单名.方法名：
+ *               Feign 客户端和 MyBatis Mapper 是 JDK 代理，取声明方法的接口名，例如 InAccountService.inTry、AccountDao.reduceBalance
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+public class FaultInjectionInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<FaultInjector> injectorProvider;
+
+    private volatile FaultInjector injector;
+
+    /**
+     * Advisor 在其他 bean 之前创建，FaultInjector 在第一次调用时才获取
+     */
+    public FaultInjectionInterceptor(ObjectProvider<FaultInjector> injectorProvider) {
+        this.injectorProvider = injectorProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        FaultInjector injector = this.injector;
+        if (injector == null) {
+            injector = injectorProvider.getObject();
+            this.injector = injector;
+        }
+        if (injector.isEmpty()) {
+            return invocation.proceed();
+        }
+        Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+        String type = targetClass == null || Proxy.isProxyClass(targetClass)
+            ? invocation.getMethod().getDeclaringClass().getSimpleName() : targetClass.getSimpleName();
+        String method = invocation.getMethod().getName();
+        FaultRule rule = injector.find(type, method);
+        if (rule == null) {
+            return invocation.proceed();
+        }
+        String target = type + "." + method;
+        injector.before(rule, target);
+        Object result = invocation.proceed();
+        injector.after(rule, target);
+        return result;
+    }
+}
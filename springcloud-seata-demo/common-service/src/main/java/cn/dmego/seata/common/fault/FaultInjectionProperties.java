@@ -0,0 +1,132 @@
+package cn.dmego.seata.common.fault;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @className: FaultInjectionProperties
+ *
+ * @description: 故障注入配置，前缀 dmego.fault。默认关闭，开启后 Feign 客户端和 DAO 的方法都会经过故障注入拦截器，
+ *               启动时的规则在 rules 中配置（key 含点号，写作 "[InAccountService.inTry]"），运行中通过 actuator 的 faults 端点修改
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+@ConfigurationProperties(prefix = "dmego.fault")
+public class FaultInjectionProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 目标（接口或类的简单名.方法名，方法名为 * 时匹配所有方法）→ 规则
+     */
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static class Rule {
+
+        /**
+         * 延迟分布：200（固定）、50-300（均匀）、exp:100（指数分布，均值）、lognormal:50:1.0（对数正态，中位数和 sigma），单位毫秒
+         */
+        private String latency;
+
+        /**
+         * 加延迟的调用比例
+         */
+        private double latencyRate = 1;
+
+        /**
+         * 失败的调用比例
+         */
+        private double errorRate;
+
+        /**
+         * 在真实调用之后才抛出异常：对方已经执行成功而调用方认为失败，例如 Try 已提交但响应超时
+         */
+        private boolean errorAfter;
+
+        /**
+         * 挂起的调用比例，挂起 hangMillis 或直到调用链截止时间
+         */
+        private double hangRate;
+
+        private long hangMillis = 600_000;
+
+        /**
+         * 规则的有效时长，到期自动删除，0 为不过期
+         */
+        private long durationSeconds;
+
+        public String getLatency() {
+            return latency;
+        }
+
+        public void setLatency(String latency) {
+            this.latency = latency;
+        }
+
+        public double getLatencyRate() {
+            return latencyRate;
+        }
+
+        public void setLatencyRate(double latencyRate) {
+            this.latencyRate = latencyRate;
+        }
+
+        public double getErrorRate() {
+            return errorRate;
+        }
+
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+
+        public boolean isErrorAfter() {
+            return errorAfter;
+        }
+
+        public void setErrorAfter(boolean errorAfter) {
+            this.errorAfter = errorAfter;
+        }
+
+        public double getHangRate() {
+            return hangRate;
+        }
+
+        public void setHangRate(double hangRate) {
+            this.hangRate = hangRate;
+        }
+
+        public long getHangMillis() {
+            return hangMillis;
+        }
+
+        public void setHangMillis(long hangMillis) {
+            this.hangMillis = hangMillis;
+        }
+
+        public long getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public void setDurationSeconds(long durationSeconds) {
+            this.durationSeconds = durationSeconds;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package cn.dmego.seata.common.fault;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import cn.dmego.seata.common.deadline.DeadlineExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @className: FaultInjector
+ *
+ * @description: 当前生效的故障注入规则，目标为 类名.方法名，没有精确匹配时查找 类名.*。
+ *               延迟和挂起在真实调用之前执行，不超过调用链的截止时间（到期抛出 DeadlineExceededException，与真实的超时一致）；
+ *               失败默认在真实调用之前抛出，errorAfter 时在真实调用成功之后抛出。没有规则时只有一次 Map 判空的开销
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+public class FaultInjector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FaultInjector.class);
+
+    private final Map<String, FaultRule> rules = new ConcurrentHashMap<>();
+
+    private volatile FaultMetrics metrics;
+
+    public FaultInjector(FaultInjectionProperties properties) {
+        properties.getRules().forEach(this::put);
+    }
+
+    void setMetrics(FaultMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public FaultRule put(String target, FaultInjectionProperties.Rule spec) {
+        FaultRule rule = FaultRule.of(target, spec);
+        rules.put(target, rule);
+        LOGGER.warn("[fault] 规则生效: {}", rule.describe());
+        return rule;
+    }
+
+    public boolean remove(String target) {
+        boolean removed = rules.remove(target) != null;
+        if (removed) {
+            LOGGER.warn("[fault] 规则删除: {}", target);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        rules.clear();
+        LOGGER.warn("[fault] 全部规则删除");
+    }
+
+    public List<FaultRule> rules() {
+        expire();
+        return new ArrayList<>(rules.values());
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * @return 匹配的规则，没有时返回 null
+     */
+    FaultRule find(String type, String method) {
+        FaultRule rule = rules.get(type + "." + method);
+        if (rule == null) {
+            rule = rules.get(type + ".*");
+        }
+        if (rule != null && rule.isExpired(System.currentTimeMillis())) {
+            rules.remove(rule.getTarget(), rule);
+            LOGGER.warn("[fault] 规则到期: {}", rule.getTarget());
+            return null;
+        }
+        return rule;
+    }
+
+    /**
+     * 真实调用之前：挂起、延迟、失败
+     */
+    void before(FaultRule rule, String target) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        rule.calls.increment();
+        long hang = rule.nextHangMillis(random);
+        if (hang > 0) {
+            rule.hung.increment();
+            record(rule, "hang");
+            sleep(hang, target);
+        }
+        long latency = rule.nextLatencyMillis(random);
+        if (latency > 0) {
+            rule.delayed.increment();
+            record(rule, "latency");
+            sleep(latency, target);
+        }
+        if (!rule.isErrorAfter() && rule.nextError(random)) {
+            fail(rule, target);
+        }
+    }
+
+    /**
+     * 真实调用成功之后：errorAfter 时按比例失败
+     */
+    void after(FaultRule rule, String target) {
+        if (rule.isErrorAfter() && rule.nextError(ThreadLocalRandom.current())) {
+            fail(rule, target);
+        }
+    }
+
+    private void fail(FaultRule rule, String target) {
+        rule.failed.increment();
+        record(rule, "error");
+        throw new FaultInjectedException("故障注入: " + target + " 失败");
+    }
+
+    private static void sleep(long millis, String target) throws InterruptedException {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.remainingMillis() < millis) {
+            Thread.sleep(Math.max(0, deadline.remainingMillis()));
+            throw new DeadlineExceededException("调用 " + target);
+        }
+        Thread.sleep(millis);
+    }
+
+    private void record(FaultRule rule, String type) {
+        FaultMetrics current = metrics;
+        if (current != null) {
+            current.record(rule.getTarget(), type);
+        }
+    }
+
+    private void expire() {
+        long now = System.currentTimeMillis();
+        rules.values().removeIf(rule -> rule.isExpired(now));
+    }
+}
@@ -0,0 +1,33 @@
+package cn.dmego.seata.common.fault;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @className: FaultMetrics
+ *
+ * @description: 故障注入指标 fault.injected（tag target、type=latency|hang|error），与 feign / mybatis 指标放在一起看注入的效果
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+public class FaultMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public FaultMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void record(String target, String type) {
+        counters.computeIfAbsent(target + "#" + type, key -> Counter.builder("fault.injected")
+            .tag("target", target)
+            .tag("type", type)
+            .register(registry))
+            .increment();
+    }
+}
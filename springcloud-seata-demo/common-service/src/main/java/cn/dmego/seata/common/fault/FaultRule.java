@@ -0,0 +1,182 @@
+package cn.dmego.seata.common.fault;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: FaultRule
+ *
+ * @description: 一个目标上生效的故障注入规则，创建后不再修改，修改规则时整体替换。同时记录命中次数
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:10
+ **/
+public final class FaultRule {
+
+    private final String target;
+
+    private final FaultInjectionProperties.Rule spec;
+
+    private final Latency latency;
+
+    private final long expiresAtMillis;
+
+    final LongAdder calls = new LongAdder();
+
+    final LongAdder delayed = new LongAdder();
+
+    final LongAdder hung = new LongAdder();
+
+    final LongAdder failed = new LongAdder();
+
+    private FaultRule(String target, FaultInjectionProperties.Rule spec, Latency latency, long expiresAtMillis) {
+        this.target = target;
+        this.spec = spec;
+        this.latency = latency;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    static FaultRule of(String target, FaultInjectionProperties.Rule spec) {
+        if (target == null || target.lastIndexOf('.') <= 0 || target.endsWith(".")) {
+            throw new IllegalArgumentException("故障注入目标的格式为 类名.方法名 或 类名.*: " + target);
+        }
+        checkRate("latencyRate", spec.getLatencyRate());
+        checkRate("errorRate", spec.getErrorRate());
+        checkRate("hangRate", spec.getHangRate());
+        Latency latency = spec.getLatency() == null || spec.getLatency().isEmpty() ? null : Latency.parse(spec.getLatency());
+        long expiresAt = spec.getDurationSeconds() > 0
+            ? System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(spec.getDurationSeconds()) : 0;
+        return new FaultRule(target, spec, latency, expiresAt);
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " 应在 [0, 1] 之间: " + rate);
+        }
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    boolean isExpired(long now) {
+        return expiresAtMillis > 0 && now >= expiresAtMillis;
+    }
+
+    /**
+     * @return 本次调用挂起的毫秒数，0 表示不挂起
+     */
+    long nextHangMillis(ThreadLocalRandom random) {
+        return spec.getHangRate() > 0 && random.nextDouble() < spec.getHangRate() ? spec.getHangMillis() : 0;
+    }
+
+    /**
+     * @return 本次调用增加的延迟毫秒数
+     */
+    long nextLatencyMillis(ThreadLocalRandom random) {
+        if (latency == null || random.nextDouble() >= spec.getLatencyRate()) {
+            return 0;
+        }
+        return latency.next(random);
+    }
+
+    boolean nextError(ThreadLocalRandom random) {
+        return spec.getErrorRate() > 0 && random.nextDouble() < spec.getErrorRate();
+    }
+
+    boolean isErrorAfter() {
+        return spec.isErrorAfter();
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("target", target);
+        description.put("latency", spec.getLatency());
+        description.put("latencyRate", spec.getLatencyRate());
+        description.put("errorRate", spec.getErrorRate());
+        description.put("errorAfter", spec.isErrorAfter());
+        description.put("hangRate", spec.getHangRate());
+        description.put("hangMillis", spec.getHangMillis());
+        description.put("expiresInSeconds", expiresAtMillis == 0
+            ? null : Math.max(0, TimeUnit.MILLISECONDS.toSeconds(expiresAtMillis - System.currentTimeMillis())));
+        description.put("calls", calls.sum());
+        description.put("delayed", delayed.sum());
+        description.put("hung", hung.sum());
+        description.put("failed", failed.sum());
+        return description;
+    }
+
+    /**
+     * 延迟分布
+     */
+    static final class Latency {
+
+        private enum Kind {
+            FIXED,
+            UNIFORM,
+            EXPONENTIAL,
+            LOGNORMAL
+        }
+
+        private final Kind kind;
+
+        private final double a;
+
+        private final double b;
+
+        private Latency(Kind kind, double a, double b) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+        }
+
+        static Latency parse(String text) {
+            String value = text.trim();
+            try {
+                if (value.startsWith("exp:")) {
+                    return new Latency(Kind.EXPONENTIAL, positive(value.substring(4)), 0);
+                }
+                if (value.startsWith("lognormal:")) {
+                    String[] parts = value.substring(10).split(":");
+                    return new Latency(Kind.LOGNORMAL, Math.log(positive(parts[0])),
+                        parts.length > 1 ? positive(parts[1]) : 1.0);
+                }
+                int dash = value.indexOf('-');
+                if (dash > 0) {
+                    double min = positive(value.substring(0, dash));
+                    double max = positive(value.substring(dash + 1));
+                    if (max < min) {
+                        throw new IllegalArgumentException();
+                    }
+                    return new Latency(Kind.UNIFORM, min, max);
+                }
+                return new Latency(Kind.FIXED, positive(value), 0);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("延迟分布的格式为 200、50-300、exp:100 或 lognormal:50:1.0: " + text);
+            }
+        }
+
+        private static double positive(String text) {
+            double value = Double.parseDouble(text.trim());
+            if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IllegalArgumentException();
+            }
+            return value;
+        }
+
+        long next(ThreadLocalRandom random) {
+            switch (kind) {
+                case UNIFORM:
+                    return Math.round(a + (b - a) * random.nextDouble());
+                case EXPONENTIAL:
+                    return Math.round(-a * Math.log(1 - random.nextDouble()));
+                case LOGNORMAL:
+                    return Math.round(Math.exp(a + b * random.nextGaussian()));
+                default:
+                    return Math.round(a);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package cn.dmego.seata.common.feign;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: CircuitBreaker
+ *
+ * @description: 单个下游的熔断器，按最近 windowSize 次调用的结果计算失败率：
+ *               1. CLOSED：调用数达到 minimumCalls 且失败率达到阈值时打开；
+ *               2. OPEN：openMillis 内的调用直接失败，不占用连接和在途配额；
+ *               3. HALF_OPEN：放行 halfOpenCalls 次探测调用，全部成功则关闭，任一失败重新打开。
+ *               状态变化只发生在调用结束时，相比一次 HTTP 调用的耗时，这里的同步开销可以忽略。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:40
+ **/
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureRateThreshold;
+
+    private final int minimumCalls;
+
+    private final long openNanos;
+
+    private final int halfOpenCalls;
+
+    /**
+     * 环形窗口，true 表示失败
+     */
+    private final boolean[] outcomes;
+
+    private final AtomicLong notPermitted = new AtomicLong();
+
+    private volatile State state = State.CLOSED;
+
+    private int position;
+
+    private int recorded;
+
+    private int failures;
+
+    private long openedAt;
+
+    private int probesIssued;
+
+    private int probesSucceeded;
+
+    public CircuitBreaker(int failureRateThreshold, int minimumCalls, int windowSize, long openMillis,
+                          int halfOpenCalls) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), outcomes.length);
+        this.openNanos = openMillis * 1_000_000L;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * 申请一次调用，返回 true 后必须以 onSuccess / onFailure / onIgnored 之一结束
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                notPermitted.incrementAndGet();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesIssued = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesIssued >= halfOpenCalls) {
+                notPermitted.incrementAndGet();
+                return false;
+            }
+            probesIssued++;
+        }
+        return true;
+    }
+
+    /**
+     * 不申请调用，只判断当前是否会放行，用于在全局事务开始前预先检查
+     */
+    public boolean isCallPermitted() {
+        State current = state;
+        if (current == State.OPEN) {
+            synchronized (this) {
+                return System.nanoTime() - openedAt >= openNanos;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenCalls) {
+                reset();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+            && failures * 100 >= failureRateThreshold * recorded) {
+            open();
+        }
+    }
+
+    /**
+     * 调用没有真正发出（例如在途配额耗尽），不计入结果，半开状态下归还探测名额
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && probesIssued > 0) {
+            probesIssued--;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getNotPermittedCount() {
+        return notPermitted.get();
+    }
+
+    private void record(boolean failure) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
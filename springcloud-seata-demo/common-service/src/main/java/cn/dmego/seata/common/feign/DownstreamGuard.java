@@ -0,0 +1,26 @@
+package cn.dmego.seata.common.feign;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @className: DownstreamGuard
+ *
+ * @description: 声明方法依赖的下游（FeignClient 的 name）。与 @GlobalTransactional 一起使用时，
+ *               任一下游已熔断就在全局事务开始前直接失败，不再注册全局事务、执行 Try 后再回滚
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:40
+ **/
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DownstreamGuard {
+
+    /**
+     * @return 依赖的下游名称
+     */
+    String[] value();
+}
@@ -0,0 +1,46 @@
+package cn.dmego.seata.common.feign;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @className: DownstreamGuardInterceptor
+ *
+ * @description: 检查 {@link DownstreamGuard} 声明的下游，任一下游熔断时抛出 {@link DownstreamUnavailableException}
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:40
+ **/
+public class DownstreamGuardInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<PooledOkHttpClient> pooledOkHttpClient;
+
+    public DownstreamGuardInterceptor(ObjectProvider<PooledOkHttpClient> pooledOkHttpClient) {
+        this.pooledOkHttpClient = pooledOkHttpClient;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        PooledOkHttpClient client = pooledOkHttpClient.getIfAvailable();
+        if (client != null) {
+            Class<?> targetClass = invocation.getThis() == null ? null : AopUtils.getTargetClass(invocation.getThis());
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            DownstreamGuard guard = AnnotatedElementUtils.findMergedAnnotation(method, DownstreamGuard.class);
+            if (guard == null && targetClass != null) {
+                guard = AnnotatedElementUtils.findMergedAnnotation(targetClass, DownstreamGuard.class);
+            }
+            if (guard != null) {
+                for (String downstream : guard.value()) {
+                    if (!client.isAvailable(downstream)) {
+                        throw new DownstreamUnavailableException(downstream);
+                    }
+                }
+            }
+        }
+        return invocation.proceed();
+    }
+}
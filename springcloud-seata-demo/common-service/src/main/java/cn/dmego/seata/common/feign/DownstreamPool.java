@@ -0,0 +1,142 @@
+package cn.dmego.seata.common.feign;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import feign.Request;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Collections;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: DownstreamPool
+ *
+ * @description: 单个下游独享的连接池、在途请求配额（信号量隔离）和熔断器，Dispatcher、线程池等其余资源与基础 OkHttpClient 共享
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+public class DownstreamPool {
+
+    private final String name;
+
+    private final FeignTransportProperties.Pool config;
+
+    private final ConnectionPool connectionPool;
+
+    private final OkHttpClient client;
+
+    private final Semaphore permits;
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final CircuitBreaker circuitBreaker;
+
+    public DownstreamPool(String name, FeignTransportProperties.Pool config, OkHttpClient base) {
+        this.name = name;
+        this.config = config;
+        this.connectionPool = new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveSeconds(),
+            TimeUnit.SECONDS);
+        OkHttpClient.Builder builder = base.newBuilder()
+            .connectionPool(connectionPool)
+            .connectTimeout(config.getMaxConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(config.getMaxReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+            .callTimeout(config.getCallTimeoutMillis(), TimeUnit.MILLISECONDS);
+        if (Boolean.TRUE.equals(config.getHttp2PriorKnowledge())) {
+            // h2c 多路复用：同一个下游的并发请求共用一条连接
+            builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        this.client = builder.build();
+        this.permits = new Semaphore(config.getMaxConcurrentRequests());
+        this.circuitBreaker = Boolean.TRUE.equals(config.getBreakerEnabled())
+            ? new CircuitBreaker(config.getBreakerFailureRateThreshold(), config.getBreakerMinimumCalls(),
+                config.getBreakerWindowSize(), config.getBreakerOpenMillis(), config.getBreakerHalfOpenCalls())
+            : null;
+    }
+
+    boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * 不等待地申请配额，用于对冲请求，拿不到配额时不发出对冲，也不计入拒绝次数
+     */
+    boolean tryAcquireNow() {
+        return permits.tryAcquire();
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    /**
+     * 超时与客户端上的配置不同时为这次请求 newBuilder() 一个客户端，连接池和 Dispatcher 仍然共享；
+     * 有截止时间时，整个调用的时长也不超过剩余时间
+     */
+    Call newCall(Request request, Request.Options options, Deadline deadline) {
+        OkHttpClient scoped = client;
+        if (client.connectTimeoutMillis() != options.connectTimeoutMillis()
+            || client.readTimeoutMillis() != options.readTimeoutMillis()
+            || client.followRedirects() != options.isFollowRedirects()) {
+            scoped = client.newBuilder()
+                .connectTimeout(options.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(options.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(options.isFollowRedirects())
+                .build();
+        }
+        Call call = scoped.newCall(OkHttpExchange.toOkHttpRequest(request));
+        if (deadline != null) {
+            long remaining = Math.max(1, deadline.remainingMillis());
+            if (remaining < config.getCallTimeoutMillis()) {
+                call.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+            }
+        }
+        return call;
+    }
+
+    FeignTransportProperties.Pool config() {
+        return config;
+    }
+
+    /**
+     * @return 熔断器，未开启熔断时为 null
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getInFlight() {
+        return config.getMaxConcurrentRequests() - permits.availablePermits();
+    }
+
+    public int getMaxConcurrentRequests() {
+        return config.getMaxConcurrentRequests();
+    }
+
+    public int getConnectionCount() {
+        return connectionPool.connectionCount();
+    }
+
+    public int getIdleConnectionCount() {
+        return connectionPool.idleConnectionCount();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    void close() {
+        connectionPool.evictAll();
+    }
+}
@@ -0,0 +1,17 @@
+package cn.dmego.seata.common.feign;
+
+import java.io.IOException;
+
+/**
+ * @className: DownstreamSaturatedException
+ *
+ * @description: 下游在途请求数已达上限，在等待超时后快速失败，避免调用方线程全部堵在同一个慢下游上
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+public class DownstreamSaturatedException extends IOException {
+
+    public DownstreamSaturatedException(String downstream, int maxConcurrentRequests) {
+        super("下游 " + downstream + " 在途请求已达上限 " + maxConcurrentRequests);
+    }
+}
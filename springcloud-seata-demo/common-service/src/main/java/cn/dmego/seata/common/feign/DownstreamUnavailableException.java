@@ -0,0 +1,16 @@
+package cn.dmego.seata.common.feign;
+
+/**
+ * @className: DownstreamUnavailableException
+ *
+ * @description: 下游的熔断器处于打开状态，调用不再发出。
+ *               使用运行时异常，Feign 不会包装成 RetryableException，全局事务开始前的检查也直接抛出同一个异常
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 19:40
+ **/
+public class DownstreamUnavailableException extends RuntimeException {
+
+    public DownstreamUnavailableException(String downstream) {
+        super("下游 " + downstream + " 已熔断，快速失败");
+    }
+}
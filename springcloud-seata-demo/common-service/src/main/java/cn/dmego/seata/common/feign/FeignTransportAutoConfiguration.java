@@ -0,0 +1,113 @@
+package cn.dmego.seata.common.feign;
+
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.OkHttpClient;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.FeignLoadBalancerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * @className: FeignTransportAutoConfiguration
+ *
+ * @description: 所有 Feign 客户端统一使用 {@link PooledOkHttpClient}，默认开启，dmego.feign.transport.enabled=false 关闭。
+ *               有负载均衡时外面包一层 FeignBlockingLoadBalancerClient，指定了 url 的 FeignClient 会直接使用内层 Client。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({Client.class, OkHttpClient.class})
+@ConditionalOnProperty(prefix = "dmego.feign.transport", name = "enabled", havingValue = "true", matchIfMissing = true)
+@AutoConfigureAfter(name = "org.springframework.cloud.loadbalancer.config.BlockingLoadBalancerClientAutoConfiguration")
+@AutoConfigureBefore({FeignAutoConfiguration.class, FeignLoadBalancerAutoConfiguration.class})
+@EnableConfigurationProperties(FeignTransportProperties.class)
+public class FeignTransportAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PooledOkHttpClient pooledOkHttpClient(FeignTransportProperties properties,
+                                                 ObjectProvider<OkHttpClient> okHttpClient,
+                                                 ObjectProvider<RequestHedging> requestHedging) {
+        return new PooledOkHttpClient(okHttpClient.getIfAvailable(OkHttpClient::new), properties,
+            requestHedging.getIfAvailable());
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "dmego.feign.transport.hedge", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+    public RequestHedging requestHedging(FeignTransportProperties properties) {
+        return new RequestHedging(properties.getHedge());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({FeignBlockingLoadBalancerClient.class, LoadBalancerClientFactory.class})
+    @ConditionalOnBean({LoadBalancerClient.class, LoadBalancerClientFactory.class})
+    static class LoadBalancedTransportConfiguration {
+
+        /**
+         * PooledOkHttpClient 本身也是 Client，这里标记为 Primary，FeignClient 取到的是带负载均衡的这一个
+         */
+        @Bean
+        @Primary
+        public Client feignClient(PooledOkHttpClient pooledOkHttpClient, LoadBalancerClient loadBalancerClient,
+                                  LoadBalancerProperties loadBalancerProperties,
+                                  LoadBalancerClientFactory loadBalancerClientFactory) {
+            return new FeignBlockingLoadBalancerClient(pooledOkHttpClient, loadBalancerClient, loadBalancerProperties,
+                loadBalancerClientFactory);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class DownstreamGuardConfiguration {
+
+        /**
+         * 排在截止时间之后、Seata 的全局事务拦截器之前，熔断时不向 TC 注册全局事务
+         */
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static Advisor downstreamGuardAdvisor(ObjectProvider<PooledOkHttpClient> pooledOkHttpClient) {
+            ComposablePointcut pointcut = new ComposablePointcut(
+                AnnotationMatchingPointcut.forClassAnnotation(DownstreamGuard.class))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(DownstreamGuard.class));
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+                new DownstreamGuardInterceptor(pooledOkHttpClient));
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+            return advisor;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class TransportMetricsConfiguration {
+
+        /**
+         * 所有单例创建完成后再绑定，MeterRegistry 由 actuator 的自动配置创建，这里不依赖自动配置的先后顺序
+         */
+        @Bean
+        public SmartInitializingSingleton feignTransportMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                      PooledOkHttpClient pooledOkHttpClient) {
+            return () -> meterRegistry.ifAvailable(
+                registry -> pooledOkHttpClient.setMetrics(new FeignTransportMetrics(registry)));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package cn.dmego.seata.common.feign;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @className: FeignTransportMetrics
+ *
+ * @description: 下游连接池指标，tag downstream 为 FeignClient 的 name：
+ *               feign.pool.connections(state=total|idle)、feign.pool.inflight、feign.pool.utilization（在途 / 配额）、
+ *               feign.pool.rejected（配额耗尽快速失败的次数）、feign.breaker.state（0 关闭 / 1 半开 / 2 打开）、
+ *               feign.breaker.rejected（熔断快速失败的次数）。下游连接池在第一次调用时创建，指标随之注册。
+ *               对冲请求（不分下游）：feign.hedge.sent、feign.hedge.wins（对冲请求先返回的次数）、feign.hedge.budget.exhausted。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+public class FeignTransportMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    public FeignTransportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void bind(DownstreamPool pool) {
+        if (!registered.add(pool.getName())) {
+            return;
+        }
+        Tags tags = Tags.of("downstream", pool.getName());
+        Gauge.builder("feign.pool.connections", pool, DownstreamPool::getConnectionCount)
+            .tags(tags).tag("state", "total").register(registry);
+        Gauge.builder("feign.pool.connections", pool, DownstreamPool::getIdleConnectionCount)
+            .tags(tags).tag("state", "idle").register(registry);
+        Gauge.builder("feign.pool.inflight", pool, DownstreamPool::getInFlight)
+            .tags(tags).register(registry);
+        Gauge.builder("feign.pool.utilization", pool, p -> (double) p.getInFlight() / p.getMaxConcurrentRequests())
+            .tags(tags).register(registry);
+        FunctionCounter.builder("feign.pool.rejected", pool, DownstreamPool::getRejectedCount)
+            .tags(tags).register(registry);
+        CircuitBreaker breaker = pool.getCircuitBreaker();
+        if (breaker != null) {
+            Gauge.builder("feign.breaker.state", breaker, b -> b.getState().ordinal())
+                .tags(tags).register(registry);
+            FunctionCounter.builder("feign.breaker.rejected", breaker, CircuitBreaker::getNotPermittedCount)
+                .tags(tags).register(registry);
+        }
+    }
+
+    void bind(RequestHedging hedging) {
+        if (!registered.add(RequestHedging.class.getName())) {
+            return;
+        }
+        FunctionCounter.builder("feign.hedge.sent", hedging, RequestHedging::getHedgeCount).register(registry);
+        FunctionCounter.builder("feign.hedge.wins", hedging, RequestHedging::getHedgeWinCount).register(registry);
+        FunctionCounter.builder("feign.hedge.budget.exhausted", hedging, RequestHedging::getBudgetExhaustedCount)
+            .register(registry);
+    }
+}
@@ -0,0 +1,386 @@
+package cn.dmego.seata.common.feign;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @className: FeignTransportProperties
+ *
+ * @description: Feign 传输层配置，前缀 dmego.feign.transport。default 为所有下游的默认值，
+ *               downstreams 按 FeignClient 的 name 覆盖其中的部分配置
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+@ConfigurationProperties(prefix = "dmego.feign.transport")
+public class FeignTransportProperties {
+
+    private boolean enabled = true;
+
+    private Pool defaults = Pool.defaults();
+
+    private Map<String, Pool> downstreams = new LinkedHashMap<>();
+
+    private Hedge hedge = new Hedge();
+
+    /**
+     * @return 下游 name 的最终配置，未配置的项取 default
+     */
+    public Pool resolve(String downstream) {
+        Pool pool = downstreams.get(downstream);
+        return pool == null ? defaults : pool.mergeWith(defaults);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Pool getDefault() {
+        return defaults;
+    }
+
+    public void setDefault(Pool defaults) {
+        this.defaults = defaults.mergeWith(Pool.defaults());
+    }
+
+    public Map<String, Pool> getDownstreams() {
+        return downstreams;
+    }
+
+    public void setDownstreams(Map<String, Pool> downstreams) {
+        this.downstreams = downstreams;
+    }
+
+    public Hedge getHedge() {
+        return hedge;
+    }
+
+    public void setHedge(Hedge hedge) {
+        this.hedge = hedge;
+    }
+
+    /**
+     * 对冲请求配置，只对标注了 {@link Hedged} 的 GET 方法生效
+     */
+    public static class Hedge {
+
+        private boolean enabled = true;
+
+        /**
+         * 对冲延迟取最近 windowSize 次调用耗时的 quantile 分位数，样本少于 minSamples 时不对冲
+         */
+        private double quantile = 0.95;
+
+        private int windowSize = 512;
+
+        private int minSamples = 50;
+
+        private long minDelayMillis = 5;
+
+        /**
+         * 全局对冲预算：最近 budgetWindowSeconds 秒内对冲数不超过
+         * budgetMinPerSecond * budgetWindowSeconds + budgetRatio * 可对冲的请求数
+         */
+        private double budgetRatio = 0.05;
+
+        private int budgetMinPerSecond = 1;
+
+        private int budgetWindowSeconds = 10;
+
+        /**
+         * 发出对冲请求的线程数上限，线程用满时不再对冲
+         */
+        private int maxThreads = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getQuantile() {
+            return quantile;
+        }
+
+        public void setQuantile(double quantile) {
+            this.quantile = quantile;
+        }
+
+        public int getWindowSize() {
+            return windowSize;
+        }
+
+        public void setWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+        }
+
+        public int getMinSamples() {
+            return minSamples;
+        }
+
+        public void setMinSamples(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        public long getMinDelayMillis() {
+            return minDelayMillis;
+        }
+
+        public void setMinDelayMillis(long minDelayMillis) {
+            this.minDelayMillis = minDelayMillis;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetMinPerSecond() {
+            return budgetMinPerSecond;
+        }
+
+        public void setBudgetMinPerSecond(int budgetMinPerSecond) {
+            this.budgetMinPerSecond = budgetMinPerSecond;
+        }
+
+        public int getBudgetWindowSeconds() {
+            return budgetWindowSeconds;
+        }
+
+        public void setBudgetWindowSeconds(int budgetWindowSeconds) {
+            this.budgetWindowSeconds = budgetWindowSeconds;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+    }
+
+    /**
+     * 单个下游的连接池配置
+     */
+    public static class Pool {
+
+        /**
+         * 连接池最多保留的空闲连接数
+         */
+        private Integer maxIdleConnections;
+
+        /**
+         * 空闲连接保留时长(秒)
+         */
+        private Integer keepAliveSeconds;
+
+        /**
+         * 同时在途的请求数上限，超过时等待 acquireTimeoutMillis 后快速失败
+         */
+        private Integer maxConcurrentRequests;
+
+        private Long acquireTimeoutMillis;
+
+        /**
+         * 连接 / 读超时上限，feign.client.config 中配置的更大值会被截断
+         */
+        private Long maxConnectTimeoutMillis;
+
+        private Long maxReadTimeoutMillis;
+
+        /**
+         * 一次调用（连接 + 写 + 读）的总时长上限
+         */
+        private Long callTimeoutMillis;
+
+        /**
+         * 明文 HTTP/2（h2c prior knowledge），下游需开启 server.http2.enabled
+         */
+        private Boolean http2PriorKnowledge;
+
+        /**
+         * 熔断：最近 breakerWindowSize 次调用中失败率达到 breakerFailureRateThreshold（百分比）时打开，
+         * 调用数不足 breakerMinimumCalls 时不判断；打开 breakerOpenMillis 后放行 breakerHalfOpenCalls 次探测调用
+         */
+        private Boolean breakerEnabled;
+
+        private Integer breakerFailureRateThreshold;
+
+        private Integer breakerMinimumCalls;
+
+        private Integer breakerWindowSize;
+
+        private Long breakerOpenMillis;
+
+        private Integer breakerHalfOpenCalls;
+
+        static Pool defaults() {
+            Pool pool = new Pool();
+            pool.maxIdleConnections = 32;
+            pool.keepAliveSeconds = 300;
+            pool.maxConcurrentRequests = 64;
+            pool.acquireTimeoutMillis = 100L;
+            pool.maxConnectTimeoutMillis = 2000L;
+            pool.maxReadTimeoutMillis = 10000L;
+            pool.callTimeoutMillis = 15000L;
+            pool.http2PriorKnowledge = false;
+            pool.breakerEnabled = true;
+            pool.breakerFailureRateThreshold = 50;
+            pool.breakerMinimumCalls = 20;
+            pool.breakerWindowSize = 50;
+            pool.breakerOpenMillis = 5000L;
+            pool.breakerHalfOpenCalls = 3;
+            return pool;
+        }
+
+        Pool mergeWith(Pool defaults) {
+            Pool pool = new Pool();
+            pool.maxIdleConnections = maxIdleConnections != null ? maxIdleConnections : defaults.maxIdleConnections;
+            pool.keepAliveSeconds = keepAliveSeconds != null ? keepAliveSeconds : defaults.keepAliveSeconds;
+            pool.maxConcurrentRequests = maxConcurrentRequests != null ? maxConcurrentRequests
+                : defaults.maxConcurrentRequests;
+            pool.acquireTimeoutMillis = acquireTimeoutMillis != null ? acquireTimeoutMillis
+                : defaults.acquireTimeoutMillis;
+            pool.maxConnectTimeoutMillis = maxConnectTimeoutMillis != null ? maxConnectTimeoutMillis
+                : defaults.maxConnectTimeoutMillis;
+            pool.maxReadTimeoutMillis = maxReadTimeoutMillis != null ? maxReadTimeoutMillis
+                : defaults.maxReadTimeoutMillis;
+            pool.callTimeoutMillis = callTimeoutMillis != null ? callTimeoutMillis : defaults.callTimeoutMillis;
+            pool.http2PriorKnowledge = http2PriorKnowledge != null ? http2PriorKnowledge
+                : defaults.http2PriorKnowledge;
+            pool.breakerEnabled = breakerEnabled != null ? breakerEnabled : defaults.breakerEnabled;
+            pool.breakerFailureRateThreshold = breakerFailureRateThreshold != null ? breakerFailureRateThreshold
+                : defaults.breakerFailureRateThreshold;
+            pool.breakerMinimumCalls = breakerMinimumCalls != null ? breakerMinimumCalls
+                : defaults.breakerMinimumCalls;
+            pool.breakerWindowSize = breakerWindowSize != null ? breakerWindowSize : defaults.breakerWindowSize;
+            pool.breakerOpenMillis = breakerOpenMillis != null ? breakerOpenMillis : defaults.breakerOpenMillis;
+            pool.breakerHalfOpenCalls = breakerHalfOpenCalls != null ? breakerHalfOpenCalls
+                : defaults.breakerHalfOpenCalls;
+            return pool;
+        }
+
+        public Integer getMaxIdleConnections() {
+            return maxIdleConnections;
+        }
+
+        public void setMaxIdleConnections(Integer maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+        }
+
+        public Integer getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(Integer keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public Integer getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(Integer maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public Long getAcquireTimeoutMillis() {
+            return acquireTimeoutMillis;
+        }
+
+        public void setAcquireTimeoutMillis(Long acquireTimeoutMillis) {
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+        }
+
+        public Long getMaxConnectTimeoutMillis() {
+            return maxConnectTimeoutMillis;
+        }
+
+        public void setMaxConnectTimeoutMillis(Long maxConnectTimeoutMillis) {
+            this.maxConnectTimeoutMillis = maxConnectTimeoutMillis;
+        }
+
+        public Long getMaxReadTimeoutMillis() {
+            return maxReadTimeoutMillis;
+        }
+
+        public void setMaxReadTimeoutMillis(Long maxReadTimeoutMillis) {
+            this.maxReadTimeoutMillis = maxReadTimeoutMillis;
+        }
+
+        public Long getCallTimeoutMillis() {
+            return callTimeoutMillis;
+        }
+
+        public void setCallTimeoutMillis(Long callTimeoutMillis) {
+            this.callTimeoutMillis = callTimeoutMillis;
+        }
+
+        public Boolean getHttp2PriorKnowledge() {
+            return http2PriorKnowledge;
+        }
+
+        public void setHttp2PriorKnowledge(Boolean http2PriorKnowledge) {
+            this.http2PriorKnowledge = http2PriorKnowledge;
+        }
+
+        public Boolean getBreakerEnabled() {
+            return breakerEnabled;
+        }
+
+        public void setBreakerEnabled(Boolean breakerEnabled) {
+            this.breakerEnabled = breakerEnabled;
+        }
+
+        public Integer getBreakerFailureRateThreshold() {
+            return breakerFailureRateThreshold;
+        }
+
+        public void setBreakerFailureRateThreshold(Integer breakerFailureRateThreshold) {
+            this.breakerFailureRateThreshold = breakerFailureRateThreshold;
+        }
+
+        public Integer getBreakerMinimumCalls() {
+            return breakerMinimumCalls;
+        }
+
+        public void setBreakerMinimumCalls(Integer breakerMinimumCalls) {
+            this.breakerMinimumCalls = breakerMinimumCalls;
+        }
+
+        public Integer getBreakerWindowSize() {
+            return breakerWindowSize;
+        }
+
+        public void setBreakerWindowSize(Integer breakerWindowSize) {
+            this.breakerWindowSize = breakerWindowSize;
+        }
+
+        public Long getBreakerOpenMillis() {
+            return breakerOpenMillis;
+        }
+
+        public void setBreakerOpenMillis(Long breakerOpenMillis) {
+            this.breakerOpenMillis = breakerOpenMillis;
+        }
+
+        public Integer getBreakerHalfOpenCalls() {
+            return breakerHalfOpenCalls;
+        }
+
+        public void setBreakerHalfOpenCalls(Integer breakerHalfOpenCalls) {
+            this.breakerHalfOpenCalls = breakerHalfOpenCalls;
+        }
+    }
+}
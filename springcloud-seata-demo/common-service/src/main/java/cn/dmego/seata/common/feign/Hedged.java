@@ -0,0 +1,22 @@
+package cn.dmego.seata.common.feign;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @className: Hedged
+ *
+ * @description: 标注在 Feign 接口的幂等只读方法上，调用超过最近耗时的分位数仍未返回时再发出一个相同的请求，
+ *               先返回的结果生效，另一个请求被取消。只对 GET 请求生效，写请求和带 BusinessActionContext 的 TCC 调用
+ *               即使标注了也不会对冲
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:10
+ **/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Hedged {
+}
@@ -0,0 +1,60 @@
+package cn.dmego.seata.common.feign;
+
+import java.util.Arrays;
+
+/**
+ * @className: LatencyTracker
+ *
+ * @description: 单个 Feign 方法最近若干次调用的耗时，用于估计对冲延迟。
+ *               分位数每记录 refreshInterval 次才重新排序计算一次，读取时只是一次 volatile 读
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:10
+ **/
+class LatencyTracker {
+
+    private static final int REFRESH_INTERVAL = 32;
+
+    private final long[] samples;
+
+    private final double quantile;
+
+    private final int minSamples;
+
+    private int position;
+
+    private int count;
+
+    private int sinceRefresh;
+
+    /**
+     * 样本不足时为 -1
+     */
+    private volatile long quantileMicros = -1;
+
+    LatencyTracker(int windowSize, double quantile, int minSamples) {
+        this.samples = new long[Math.max(REFRESH_INTERVAL, windowSize)];
+        this.quantile = quantile;
+        this.minSamples = Math.min(Math.max(1, minSamples), samples.length);
+    }
+
+    synchronized void record(long micros) {
+        samples[position] = micros;
+        position = (position + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (++sinceRefresh >= REFRESH_INTERVAL && count >= minSamples) {
+            sinceRefresh = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            quantileMicros = sorted[(int) Math.min(count - 1, Math.ceil(quantile * count) - 1)];
+        }
+    }
+
+    /**
+     * @return 分位数耗时（微秒），样本不足时返回 -1
+     */
+    long quantileMicros() {
+        return quantileMicros;
+    }
+}
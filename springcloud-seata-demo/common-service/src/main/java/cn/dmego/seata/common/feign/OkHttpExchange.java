@@ -0,0 +1,170 @@
+package cn.dmego.seata.common.feign;
+
+import feign.Request.HttpMethod;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @className: OkHttpExchange
+ *
+ * @description: Feign 请求 / 响应与 OkHttp 之间的转换，与 feign-okhttp 的转换规则一致。
+ *               直接持有 OkHttp 的 Call，对冲请求的落后一方可以真正取消，调用总时长也能按截止时间单独设置
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:10
+ **/
+final class OkHttpExchange {
+
+    private OkHttpExchange() {
+    }
+
+    static Request toOkHttpRequest(feign.Request input) {
+        Request.Builder builder = new Request.Builder().url(input.url());
+        MediaType mediaType = null;
+        boolean hasAccept = false;
+        for (Map.Entry<String, Collection<String>> header : input.headers().entrySet()) {
+            String field = header.getKey();
+            if ("Accept".equalsIgnoreCase(field)) {
+                hasAccept = true;
+            }
+            for (String value : header.getValue()) {
+                builder.addHeader(field, value);
+                if ("Content-Type".equalsIgnoreCase(field)) {
+                    mediaType = MediaType.parse(value);
+                }
+            }
+        }
+        if (!hasAccept) {
+            builder.addHeader("Accept", "*/*");
+        }
+        byte[] body = input.body();
+        HttpMethod method = input.httpMethod();
+        if (method == HttpMethod.POST || method == HttpMethod.PUT || method == HttpMethod.PATCH) {
+            // Content-Type 由 RequestBody 提供，避免重复
+            builder.removeHeader("Content-Type");
+            if (body == null) {
+                body = new byte[0];
+            }
+        }
+        builder.method(method.name(), body == null ? null : RequestBody.create(mediaType, body));
+        return builder.build();
+    }
+
+    static feign.Response toFeignResponse(Response response, feign.Request request) {
+        return feign.Response.builder()
+            .status(response.code())
+            .reason(response.message())
+            .request(request)
+            .headers(toMap(response))
+            .body(toBody(response.body()))
+            .build();
+    }
+
+    /**
+     * 响应体第一次关闭时执行 onClose，Feign 解码完成后会关闭响应体，返回类型为 Response 时由调用方关闭
+     */
+    static feign.Response onClose(feign.Response response, Runnable onClose) {
+        feign.Response.Body body = response.body();
+        AtomicBoolean closed = new AtomicBoolean();
+        return response.toBuilder().body(new feign.Response.Body() {
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    body.close();
+                } finally {
+                    if (closed.compareAndSet(false, true)) {
+                        onClose.run();
+                    }
+                }
+            }
+
+            @Override
+            public Integer length() {
+                return body.length();
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return body.isRepeatable();
+            }
+
+            @Override
+            public InputStream asInputStream() throws IOException {
+                return body.asInputStream();
+            }
+
+            @Override
+            @SuppressWarnings("deprecation")
+            public Reader asReader() throws IOException {
+                return body.asReader();
+            }
+
+            @Override
+            public Reader asReader(Charset charset) throws IOException {
+                return body.asReader(charset);
+            }
+        }).build();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Collection<String>> toMap(Response response) {
+        return (Map) response.headers().toMultimap();
+    }
+
+    private static feign.Response.Body toBody(ResponseBody input) {
+        if (input == null) {
+            return null;
+        }
+        if (input.contentLength() == 0) {
+            input.close();
+            return null;
+        }
+        Integer length = input.contentLength() >= 0 && input.contentLength() <= Integer.MAX_VALUE
+            ? (int) input.contentLength() : null;
+        return new feign.Response.Body() {
+
+            @Override
+            public void close() {
+                input.close();
+            }
+
+            @Override
+            public Integer length() {
+                return length;
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return false;
+            }
+
+            @Override
+            public InputStream asInputStream() {
+                return input.byteStream();
+            }
+
+            @Override
+            @SuppressWarnings("deprecation")
+            public Reader asReader() {
+                return input.charStream();
+            }
+
+            @Override
+            public Reader asReader(Charset charset) {
+                return new InputStreamReader(input.byteStream(), charset);
+            }
+        };
+    }
+}
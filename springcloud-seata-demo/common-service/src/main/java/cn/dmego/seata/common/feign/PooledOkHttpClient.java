@@ -0,0 +1,180 @@
+package cn.dmego.seata.common.feign;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import okhttp3.OkHttpClient;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: PooledOkHttpClient
+ *
+ * @description: 按下游（FeignClient 的 name）划分连接池的 Feign Client：
+ *               1. 每个下游独立的 OkHttp 连接池，可选 HTTP/2 多路复用；
+ *               2. 每个下游独立的在途请求配额（信号量隔离），慢下游占满配额后新的请求快速失败，不会拖住调用方的全部工作线程；
+ *               3. feign.client.config 中的超时被截断到传输层配置的上限，并有一次调用的总时长上限；
+ *               4. 每个下游一个熔断器，连接失败、超时和 502/503/504 计为失败，熔断期间的调用直接失败；
+ *               5. 当前线程有调用链截止时间时，连接、读和调用总时长再截断到剩余时间，等待配额期间已超时的请求不再发出；
+ *               6. 标注了 {@link Hedged} 的只读方法交给 {@link RequestHedging} 对冲；
+ *               7. 配额一直占用到响应体关闭，响应体还在读取时不会放入新的请求。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 18:30
+ **/
+public class PooledOkHttpClient implements Client, AutoCloseable {
+
+    private final OkHttpClient base;
+
+    private final FeignTransportProperties properties;
+
+    private final Map<String, DownstreamPool> pools = new ConcurrentHashMap<>();
+
+    private final RequestHedging hedging;
+
+    private volatile FeignTransportMetrics metrics;
+
+    /**
+     * @param hedging 对冲请求，为 null 时 @Hedged 不生效
+     */
+    public PooledOkHttpClient(OkHttpClient base, FeignTransportProperties properties, RequestHedging hedging) {
+        this.base = base;
+        this.properties = properties;
+        this.hedging = hedging;
+    }
+
+    public void setMetrics(FeignTransportMetrics metrics) {
+        this.metrics = metrics;
+        pools.values().forEach(metrics::bind);
+        if (hedging != null) {
+            metrics.bind(hedging);
+        }
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        DownstreamPool pool = pool(downstream(request));
+        CircuitBreaker breaker = pool.getCircuitBreaker();
+        if (breaker != null && !breaker.tryAcquire()) {
+            throw new DownstreamUnavailableException(pool.getName());
+        }
+        boolean acquired = false;
+        boolean handedOff = false;
+        boolean completed = false;
+        try {
+            acquired = pool.tryAcquire();
+            if (!acquired) {
+                throw new DownstreamSaturatedException(pool.getName(), pool.getMaxConcurrentRequests());
+            }
+            Deadline.check("调用 " + pool.getName());
+            Deadline deadline = Deadline.current();
+            Request.Options capped = cap(options, pool.config(), deadline);
+            LatencyTracker tracker = hedging == null ? null : hedging.tracker(request);
+            Response response;
+            try {
+                response = tracker != null ? hedging.execute(pool, request, capped, deadline, tracker)
+                    : OkHttpExchange.toFeignResponse(pool.newCall(request, capped, deadline).execute(), request);
+            } catch (IOException e) {
+                completed = true;
+                if (breaker != null) {
+                    breaker.onFailure();
+                }
+                throw e;
+            }
+            completed = true;
+            if (breaker != null) {
+                if (isUnhealthy(response.status())) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess();
+                }
+            }
+            if (response.body() != null) {
+                handedOff = true;
+                return OkHttpExchange.onClose(response, pool::release);
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待下游 " + pool.getName() + " 配额时被中断");
+        } finally {
+            if (acquired && !handedOff) {
+                pool.release();
+            }
+            if (breaker != null && !completed) {
+                breaker.onIgnored();
+            }
+        }
+    }
+
+    /**
+     * 只有网关类错误说明下游不可用；业务异常也会返回 500，不能计入熔断
+     */
+    private static boolean isUnhealthy(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * @return 下游当前是否可以调用，还没有调用过的下游视为可用
+     */
+    public boolean isAvailable(String downstream) {
+        DownstreamPool pool = pools.get(downstream);
+        return pool == null || pool.getCircuitBreaker() == null || pool.getCircuitBreaker().isCallPermitted();
+    }
+
+    public Collection<DownstreamPool> pools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(DownstreamPool::close);
+    }
+
+    private DownstreamPool pool(String downstream) {
+        DownstreamPool pool = pools.get(downstream);
+        if (pool == null) {
+            pool = pools.computeIfAbsent(downstream, name -> new DownstreamPool(name, properties.resolve(name), base));
+            FeignTransportMetrics current = metrics;
+            if (current != null) {
+                current.bind(pool);
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 下游名称优先取 FeignClient 的 name，经过负载均衡后的请求 URL 已是实例地址，不能用来区分下游
+     */
+    static String downstream(Request request) {
+        if (request.requestTemplate() != null && request.requestTemplate().feignTarget() != null) {
+            return request.requestTemplate().feignTarget().name();
+        }
+        URI uri = URI.create(request.url());
+        return uri.getHost() + ":" + uri.getPort();
+    }
+
+    private static Request.Options cap(Request.Options options, FeignTransportProperties.Pool config,
+                                       Deadline deadline) {
+        long connectTimeout = Math.min(options.connectTimeoutMillis(), config.getMaxConnectTimeoutMillis());
+        long readTimeout = Math.min(options.readTimeoutMillis(), config.getMaxReadTimeoutMillis());
+        if (deadline != null) {
+            // 0 在 OkHttp 中表示不限，剩余时间至少按 1 毫秒算
+            long remaining = Math.max(1, deadline.remainingMillis());
+            connectTimeout = Math.min(connectTimeout, remaining);
+            readTimeout = Math.min(readTimeout, remaining);
+        }
+        if (connectTimeout == options.connectTimeoutMillis() && readTimeout == options.readTimeoutMillis()) {
+            return options;
+        }
+        return new Request.Options(connectTimeout, TimeUnit.MILLISECONDS, readTimeout, TimeUnit.MILLISECONDS,
+            options.isFollowRedirects());
+    }
+}
@@ -0,0 +1,279 @@
+package cn.dmego.seata.common.feign;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import cn.dmego.seata.common.retry.HierarchicalTimingWheel;
+import cn.dmego.seata.common.retry.RetryBudget;
+import feign.Feign;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import okhttp3.Call;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: RequestHedging
+ *
+ * @description: 对冲请求：原请求在调用方线程上执行，超过对冲延迟仍未返回时由对冲线程发出相同的请求，
+ *               先成功的一方生效并取消另一方的 Call。对冲请求占用同一个下游的在途配额，拿不到配额、
+ *               全局预算耗尽或对冲线程用满时都不对冲，下游整体变慢时对冲不会放大负载。
+ *               对冲发生在负载均衡选定实例之后，两个请求发往同一个实例，主要削减连接、线程调度和 GC 停顿带来的长尾。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 20:10
+ **/
+public class RequestHedging implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RequestHedging.class);
+
+    private static final String BUDGET_KEY = "hedge";
+
+    private static final String TCC_ACTION_CONTEXT = "io.seata.rm.tcc.api.BusinessActionContext";
+
+    private static final int PENDING = 0;
+
+    private static final int PRIMARY = 1;
+
+    private static final int HEDGE = 2;
+
+    private final FeignTransportProperties.Hedge config;
+
+    private final RetryBudget budget;
+
+    private final ThreadPoolExecutor executor;
+
+    private final HierarchicalTimingWheel timer;
+
+    private final Map<String, Optional<LatencyTracker>> trackers = new ConcurrentHashMap<>();
+
+    private final AtomicLong hedgeCount = new AtomicLong();
+
+    private final AtomicLong hedgeWinCount = new AtomicLong();
+
+    private final AtomicLong budgetExhaustedCount = new AtomicLong();
+
+    public RequestHedging(FeignTransportProperties.Hedge config) {
+        this.config = config;
+        this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMinPerSecond(),
+            config.getBudgetWindowSeconds());
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, Math.max(1, config.getMaxThreads()), 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+                Thread thread = new Thread(r, "feign-hedge-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // 对冲线程用满时直接放弃这次对冲，不能退回到时间轮的 tick 线程上执行
+        this.timer = new HierarchicalTimingWheel("feign-hedge", 1, 512, task -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("[hedge] 对冲线程已用满, 放弃本次对冲");
+            }
+        });
+    }
+
+    /**
+     * @return 请求可以对冲时返回该方法的耗时统计，否则返回 null
+     */
+    LatencyTracker tracker(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.methodMetadata() == null || template.feignTarget() == null) {
+            return null;
+        }
+        Class<?> type = template.feignTarget().type();
+        String configKey = template.methodMetadata().configKey();
+        return trackers.computeIfAbsent(type.getName() + "." + configKey,
+            key -> Optional.ofNullable(resolve(type, configKey, request.httpMethod()))).orElse(null);
+    }
+
+    private LatencyTracker resolve(Class<?> type, String configKey, Request.HttpMethod httpMethod) {
+        for (Method method : type.getMethods()) {
+            if (!Feign.configKey(type, method).equals(configKey) || !method.isAnnotationPresent(Hedged.class)) {
+                continue;
+            }
+            if (httpMethod != Request.HttpMethod.GET || hasTccActionContext(method)) {
+                LOGGER.warn("[hedge] 只对幂等的 GET 读请求对冲, 忽略 {} 上的 @Hedged", configKey);
+                return null;
+            }
+            return new LatencyTracker(config.getWindowSize(), config.getQuantile(), config.getMinSamples());
+        }
+        return null;
+    }
+
+    private static boolean hasTccActionContext(Method method) {
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (TCC_ACTION_CONTEXT.equals(parameterType.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Response execute(DownstreamPool pool, Request request, Request.Options options, Deadline deadline,
+                     LatencyTracker tracker) throws IOException {
+        budget.recordRequest(BUDGET_KEY);
+        long start = System.nanoTime();
+        long quantileMicros = tracker.quantileMicros();
+        okhttp3.Response response;
+        if (quantileMicros < 0) {
+            // 样本不足，先按普通请求执行
+            response = pool.newCall(request, options, deadline).execute();
+        } else {
+            long delayMillis = Math.max(config.getMinDelayMillis(), (quantileMicros + 999) / 1000);
+            Exchange exchange = new Exchange(pool, request, options, deadline);
+            HierarchicalTimingWheel.Timeout timeout = timer.schedule(exchange::hedge, delayMillis);
+            try {
+                response = exchange.await();
+            } finally {
+                timeout.cancel();
+            }
+        }
+        tracker.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return OkHttpExchange.toFeignResponse(response, request);
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWinCount.get();
+    }
+
+    public long getBudgetExhaustedCount() {
+        return budgetExhaustedCount.get();
+    }
+
+    @Override
+    public void close() {
+        timer.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一次可对冲的调用，原请求和对冲请求谁先成功谁生效
+     */
+    private final class Exchange {
+
+        private final DownstreamPool pool;
+
+        private final Request request;
+
+        private final Request.Options options;
+
+        private final Deadline deadline;
+
+        private final Call primary;
+
+        private final AtomicInteger winner = new AtomicInteger(PENDING);
+
+        private final CompletableFuture<okhttp3.Response> hedgeResult = new CompletableFuture<>();
+
+        private volatile Call hedge;
+
+        private boolean primaryDone;
+
+        Exchange(DownstreamPool pool, Request request, Request.Options options, Deadline deadline) {
+            this.pool = pool;
+            this.request = request;
+            this.options = options;
+            this.deadline = deadline;
+            this.primary = pool.newCall(request, options, deadline);
+        }
+
+        /**
+         * 在对冲线程上执行
+         */
+        void hedge() {
+            Call call;
+            synchronized (this) {
+                if (primaryDone || winner.get() != PENDING || deadline != null && deadline.isExpired()) {
+                    return;
+                }
+                if (!budget.tryAcquireRetry(BUDGET_KEY)) {
+                    budgetExhaustedCount.incrementAndGet();
+                    return;
+                }
+                if (!pool.tryAcquireNow()) {
+                    return;
+                }
+                call = pool.newCall(request, options, deadline);
+                hedge = call;
+            }
+            hedgeCount.incrementAndGet();
+            try {
+                okhttp3.Response response = call.execute();
+                if (winner.compareAndSet(PENDING, HEDGE)) {
+                    hedgeWinCount.incrementAndGet();
+                    primary.cancel();
+                    hedgeResult.complete(response);
+                } else {
+                    response.close();
+                    hedgeResult.cancel(false);
+                }
+            } catch (Throwable e) {
+                hedgeResult.completeExceptionally(e);
+            } finally {
+                pool.release();
+            }
+        }
+
+        /**
+         * 在调用方线程上执行原请求，原请求失败或被取消时等待对冲请求的结果
+         */
+        okhttp3.Response await() throws IOException {
+            okhttp3.Response response = null;
+            IOException failure = null;
+            try {
+                response = primary.execute();
+            } catch (IOException e) {
+                failure = e;
+            }
+            boolean hedged;
+            synchronized (this) {
+                primaryDone = true;
+                hedged = hedge != null;
+            }
+            if (response != null) {
+                if (winner.compareAndSet(PENDING, PRIMARY)) {
+                    if (hedged) {
+                        hedge.cancel();
+                    }
+                    return response;
+                }
+                response.close();
+            } else if (!hedged) {
+                throw failure;
+            }
+            try {
+                return hedgeResult.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hedge.cancel();
+                throw new InterruptedIOException("等待对冲请求时被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (failure != null) {
+                    failure.addSuppressed(cause);
+                    throw failure;
+                }
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package cn.dmego.seata.common.idempotency;
+
+import cn.dmego.seata.common.deadline.DeadlineAutoConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcOperations;
+
+/**
+ * @className: IdempotencyAutoConfiguration
+ *
+ * @description: @Idempotent 接口的幂等键支持，需要容器中有 JdbcTemplate 和 idempotency_record 表，
+ *               dmego.idempotency.enabled=true 开启，只在声明了幂等接口的服务中配置
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({JdbcOperations.class, ObjectMapper.class})
+@ConditionalOnProperty(prefix = "dmego.idempotency", name = "enabled", havingValue = "true")
+@ConditionalOnBean(JdbcOperations.class)
+@AutoConfigureAfter({JdbcTemplateAutoConfiguration.class, DeadlineAutoConfiguration.class, JacksonAutoConfiguration.class})
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyAutoConfiguration {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(JdbcOperations jdbcOperations, IdempotencyProperties properties) {
+        return new IdempotencyStore(jdbcOperations, properties.getTableName(), properties.getLeaseSeconds());
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public IdempotencyRecordPurger idempotencyRecordPurger(IdempotencyStore store, IdempotencyProperties properties) {
+        return new IdempotencyRecordPurger(store, properties.getRetentionHours());
+    }
+
+    @Bean
+    public IdempotencyInterceptor idempotencyInterceptor(IdempotencyProperties properties, IdempotencyStore store,
+                                                         ObjectProvider<ObjectMapper> objectMapper) {
+        return new IdempotencyInterceptor(properties, store, objectMapper.getIfAvailable(ObjectMapper::new));
+    }
+
+    /**
+     * 只代理标注了 @Idempotent 的 Controller 方法。Advisor 在其他 bean 之前创建，
+     * 拦截器及其依赖的 JdbcTemplate 在第一次调用时才获取，不会让数据源提前初始化
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor idempotencyAdvisor(ObjectProvider<IdempotencyInterceptor> idempotencyInterceptor) {
+        MethodInterceptor advice = invocation -> idempotencyInterceptor.getObject().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, Idempotent.class, true), advice);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class IdempotencyMetricsConfiguration {
+
+        @Bean
+        public IdempotencyMetrics idempotencyMetrics(IdempotencyInterceptor idempotencyInterceptor) {
+            return new IdempotencyMetrics(idempotencyInterceptor);
+        }
+    }
+}
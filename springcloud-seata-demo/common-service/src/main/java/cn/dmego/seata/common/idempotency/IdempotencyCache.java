@@ -0,0 +1,73 @@
+package cn.dmego.seata.common.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: IdempotencyCache
+ *
+ * @description: 已完成请求的本地结果缓存，按访问顺序淘汰，条目过期后回到数据库查询。
+ *               只缓存成功的结果及其请求摘要，命中时不访问数据库
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+class IdempotencyCache {
+
+    private final long ttlNanos;
+
+    private final Map<String, Entry> entries;
+
+    IdempotencyCache(int maxSize, long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return 缓存的结果，未命中或已过期时返回 null
+     */
+    synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    synchronized void put(String key, String fingerprint, Object value) {
+        entries.put(key, new Entry(value, fingerprint, System.nanoTime() + ttlNanos));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static final class Entry {
+
+        private final Object value;
+
+        private final String fingerprint;
+
+        private final long expiresAt;
+
+        private Entry(Object value, String fingerprint, long expiresAt) {
+            this.value = value;
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        Object getValue() {
+            return value;
+        }
+
+        String getFingerprint() {
+            return fingerprint;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package cn.dmego.seata.common.idempotency;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: IdempotencyInterceptor
+ *
+ * @description: @Idempotent 接口的幂等处理，依次查找：
+ *               本地结果缓存 → 本实例正在执行的同 key 请求（等待其结果，不重复执行）→ 数据库幂等记录（插入成功才执行，
+ *               其他实例已完成则直接返回其结果，其他实例执行中则轮询等待）。
+ *               执行失败时删除记录并把异常交给等待中的重复请求，客户端可以用同一个 key 重试。
+ *               每一步都比较 @RequestBody 参数的 SHA-256 摘要，同一个 key 的请求体不同时返回 422，不返回其他请求的结果。
+ *               重放的响应带 Idempotent-Replayed: true 头
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+public class IdempotencyInterceptor implements MethodInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyInterceptor.class);
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final IdempotencyProperties properties;
+
+    private final IdempotencyStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private final IdempotencyCache cache;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    final LongAdder cacheHits = new LongAdder();
+
+    final LongAdder joined = new LongAdder();
+
+    final LongAdder storeHits = new LongAdder();
+
+    final LongAdder executed = new LongAdder();
+
+    final LongAdder conflicts = new LongAdder();
+
+    final LongAdder mismatches = new LongAdder();
+
+    public IdempotencyInterceptor(IdempotencyProperties properties, IdempotencyStore store, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.cache = new IdempotencyCache(properties.getCacheSize(), properties.getCacheTtlSeconds());
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return invocation.proceed();
+        }
+        ServletRequestAttributes servlet = (ServletRequestAttributes) attributes;
+        String key = servlet.getRequest().getHeader(properties.getHeaderName());
+        if (key == null || key.isEmpty()) {
+            return invocation.proceed();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                properties.getHeaderName() + " 长度不能超过 " + MAX_KEY_LENGTH);
+        }
+        Method method = invocation.getMethod();
+        String scope = scope(invocation);
+        String cacheKey = scope + '\n' + key;
+        String fingerprint = fingerprint(invocation);
+
+        IdempotencyCache.Entry cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (!fingerprint.equals(cached.getFingerprint())) {
+                throw mismatch();
+            }
+            cacheHits.increment();
+            return replayed(servlet, cached.getValue());
+        }
+
+        // 请求体不同的请求不等待本实例的执行结果，在数据库记录上判定为不一致
+        String flightKey = cacheKey + '\n' + fingerprint;
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> first = inFlight.putIfAbsent(flightKey, mine);
+        if (first != null) {
+            joined.increment();
+            return replayed(servlet, await(first));
+        }
+        try {
+            Object result = claimAndExecute(invocation, method, scope, key, fingerprint, servlet);
+            cache.put(cacheKey, fingerprint, result);
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private Object claimAndExecute(MethodInvocation invocation, Method method, String scope, String key,
+                                   String fingerprint, ServletRequestAttributes servlet) throws Throwable {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWaitTimeoutMillis());
+        IdempotencyStore.Claim claim = store.claim(scope, key, fingerprint);
+        while (claim.getState() == IdempotencyStore.State.IN_PROGRESS) {
+            if (System.nanoTime() - deadline >= 0) {
+                conflicts.increment();
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "相同 " + properties.getHeaderName() + " 的请求正在处理中");
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            IdempotencyStore.Claim polled = store.poll(scope, key, fingerprint);
+            // 记录已删除说明上一次执行失败，重新争抢执行权
+            claim = polled == null ? store.claim(scope, key, fingerprint) : polled;
+        }
+        if (claim.getState() == IdempotencyStore.State.MISMATCH) {
+            throw mismatch();
+        }
+        if (claim.getState() == IdempotencyStore.State.COMPLETED) {
+            storeHits.increment();
+            return replayed(servlet, deserialize(method, claim.getResult()));
+        }
+
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            release(scope, key);
+            throw e;
+        }
+        executed.increment();
+        try {
+            store.complete(scope, key, objectMapper.writeValueAsString(result));
+        } catch (Exception e) {
+            // 业务已执行成功，记录结果失败只影响其他实例上的重试，本实例的缓存仍然生效
+            LOGGER.warn("[idempotency] 保存 {} {} 的执行结果失败", scope, key, e);
+        }
+        return result;
+    }
+
+    private void release(String scope, String key) {
+        try {
+            store.release(scope, key);
+        } catch (Exception e) {
+            LOGGER.warn("[idempotency] 删除 {} {} 的执行中记录失败，租期过后才能重试", scope, key, e);
+        }
+    }
+
+    private Object await(CompletableFuture<Object> first) throws Throwable {
+        try {
+            return first.get(properties.getWaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "相同 " + properties.getHeaderName() + " 的请求正在处理中");
+        }
+    }
+
+    private Object deserialize(Method method, String result) throws Exception {
+        if (result == null) {
+            return null;
+        }
+        JavaType type = objectMapper.getTypeFactory().constructType(method.getGenericReturnType());
+        return objectMapper.readValue(result, type);
+    }
+
+    private ResponseStatusException mismatch() {
+        mismatches.increment();
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+            "相同 " + properties.getHeaderName() + " 的请求内容不一致");
+    }
+
+    /**
+     * @return @RequestBody 参数按 JSON 序列化后的 SHA-256 摘要，没有请求体时为空列表的摘要
+     */
+    private String fingerprint(MethodInvocation invocation) throws Exception {
+        Annotation[][] parameterAnnotations = invocation.getMethod().getParameterAnnotations();
+        Object[] arguments = invocation.getArguments();
+        List<Object> bodies = new ArrayList<>(1);
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof RequestBody) {
+                    bodies.add(arguments[i]);
+                }
+            }
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(bodies));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    int cacheSize() {
+        return cache.size();
+    }
+
+    private static Object replayed(ServletRequestAttributes servlet, Object result) {
+        HttpServletResponse response = servlet.getResponse();
+        if (response != null) {
+            response.setHeader(REPLAYED_HEADER, "true");
+        }
+        return result;
+    }
+
+    private static String scope(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() == null
+            ? invocation.getMethod().getDeclaringClass() : AopUtils.getTargetClass(invocation.getThis());
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        Idempotent annotation = AnnotatedElementUtils.findMergedAnnotation(method, Idempotent.class);
+        if (annotation != null && !annotation.value().isEmpty()) {
+            return annotation.value();
+        }
+        return targetClass.getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,52 @@
+package cn.dmego.seata.common.idempotency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: IdempotencyMetrics
+ *
+ * @description: 幂等键指标：idempotency.requests（tag result=cache_hit|joined|store_hit|executed|conflict|mismatch）、
+ *               idempotency.hit.ratio（带 key 的请求中没有重复执行的比例）、idempotency.cache.size
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+public class IdempotencyMetrics implements MeterBinder {
+
+    private final IdempotencyInterceptor interceptor;
+
+    public IdempotencyMetrics(IdempotencyInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "cache_hit", interceptor.cacheHits);
+        counter(registry, "joined", interceptor.joined);
+        counter(registry, "store_hit", interceptor.storeHits);
+        counter(registry, "executed", interceptor.executed);
+        counter(registry, "conflict", interceptor.conflicts);
+        counter(registry, "mismatch", interceptor.mismatches);
+        Gauge.builder("idempotency.hit.ratio", interceptor, IdempotencyMetrics::hitRatio)
+            .description("带幂等键的请求中直接返回已有结果的比例")
+            .register(registry);
+        Gauge.builder("idempotency.cache.size", interceptor, i -> i.cacheSize())
+            .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("idempotency.requests", adder, LongAdder::sum)
+            .tag("result", result)
+            .register(registry);
+    }
+
+    private static double hitRatio(IdempotencyInterceptor interceptor) {
+        double hits = interceptor.cacheHits.sum() + interceptor.joined.sum() + interceptor.storeHits.sum();
+        double total = hits + interceptor.executed.sum();
+        return total == 0 ? 0 : hits / total;
+    }
+}
@@ -0,0 +1,106 @@
+package cn.dmego.seata.common.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @className: IdempotencyProperties
+ *
+ * @description: 幂等键配置，前缀 dmego.idempotency
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+@ConfigurationProperties(prefix = "dmego.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = false;
+
+    private String headerName = "Idempotency-Key";
+
+    private String tableName = "idempotency_record";
+
+    /**
+     * 本地结果缓存的条数上限，超出后淘汰最久未访问的
+     */
+    private int cacheSize = 10000;
+
+    private long cacheTtlSeconds = 600;
+
+    /**
+     * 重复请求等待第一次执行完成的最长时间，超时返回 409
+     */
+    private long waitTimeoutMillis = 5000;
+
+    /**
+     * 执行中的记录超过该时长未完成视为执行方已宕机，允许重试接管，应大于全局事务超时时间
+     */
+    private long leaseSeconds = 120;
+
+    /**
+     * 数据库记录保留时长，过期记录定期删除
+     */
+    private long retentionHours = 24;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getHeaderName() {
+        return headerName;
+    }
+
+    public void setHeaderName(String headerName) {
+        this.headerName = headerName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public void setCacheTtlSeconds(long cacheTtlSeconds) {
+        this.cacheTtlSeconds = cacheTtlSeconds;
+    }
+
+    public long getWaitTimeoutMillis() {
+        return waitTimeoutMillis;
+    }
+
+    public void setWaitTimeoutMillis(long waitTimeoutMillis) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    public long getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(long leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public long getRetentionHours() {
+        return retentionHours;
+    }
+
+    public void setRetentionHours(long retentionHours) {
+        this.retentionHours = retentionHours;
+    }
+}
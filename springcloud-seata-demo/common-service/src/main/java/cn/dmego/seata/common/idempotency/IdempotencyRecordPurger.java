@@ -0,0 +1,60 @@
+package cn.dmego.seata.common.idempotency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: IdempotencyRecordPurger
+ *
+ * @description: 定期删除超过保留时长的幂等记录，每分钟一批，一批删满时立即继续
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+public class IdempotencyRecordPurger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdempotencyRecordPurger.class);
+
+    private static final long PERIOD_SECONDS = 60;
+
+    private static final int MAX_BATCHES_PER_RUN = 10;
+
+    private final IdempotencyStore store;
+
+    private final long retentionHours;
+
+    private final ScheduledExecutorService scheduler;
+
+    public IdempotencyRecordPurger(IdempotencyStore store, long retentionHours) {
+        this.store = store;
+        this.retentionHours = retentionHours;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "idempotency-purger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::purge, PERIOD_SECONDS, PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void purge() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (store.purge(retentionHours) < IdempotencyStore.PURGE_BATCH) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("[idempotency] 删除过期幂等记录失败", e);
+        }
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,175 @@
+package cn.dmego.seata.common.idempotency;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcOperations;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: IdempotencyStore
+ *
+ * @description: 幂等记录表，(scope, idem_key) 为主键，多个实例通过插入时的唯一键冲突决定由谁执行。
+ *               request_hash 为第一次请求的请求体摘要，同一个 key 的请求体不同时不返回已有结果。
+ *               表结构见各服务的建表脚本中的 idempotency_record
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+public class IdempotencyStore {
+
+    private static final int IN_PROGRESS = 1;
+
+    private static final int COMPLETED = 2;
+
+    static final int PURGE_BATCH = 1000;
+
+    public enum State {
+        /**
+         * 当前请求获得执行权
+         */
+        CLAIMED,
+        /**
+         * 已有请求执行完成，result 为其结果
+         */
+        COMPLETED,
+        /**
+         * 其他请求正在执行
+         */
+        IN_PROGRESS,
+        /**
+         * 已有请求使用了相同的 key，但请求体不同
+         */
+        MISMATCH
+    }
+
+    public static final class Claim {
+
+        private final State state;
+
+        private final String result;
+
+        private Claim(State state, String result) {
+            this.state = state;
+            this.result = result;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public String getResult() {
+            return result;
+        }
+    }
+
+    private final JdbcOperations jdbcOperations;
+
+    private final String table;
+
+    private final long leaseMillis;
+
+    public IdempotencyStore(JdbcOperations jdbcOperations, String table, long leaseSeconds) {
+        this.jdbcOperations = jdbcOperations;
+        this.table = table;
+        this.leaseMillis = TimeUnit.SECONDS.toMillis(leaseSeconds);
+    }
+
+    /**
+     * 插入执行中记录，主键冲突时按已有记录的状态返回；执行中的记录超过租期未更新时由当前请求接管
+     */
+    public Claim claim(String scope, String key, String fingerprint) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            try {
+                jdbcOperations.update("INSERT INTO " + table
+                    + " (scope, idem_key, request_hash, status, gmt_create, gmt_modified) VALUES (?, ?, ?, ?, ?, ?)",
+                    scope, key, fingerprint, IN_PROGRESS, now, now);
+                return new Claim(State.CLAIMED, null);
+            } catch (DuplicateKeyException e) {
+                Record record = find(scope, key);
+                if (record == null) {
+                    // 执行失败的记录刚被删除，重新插入
+                    continue;
+                }
+                if (!fingerprint.equals(record.fingerprint)) {
+                    return new Claim(State.MISMATCH, null);
+                }
+                if (record.status == COMPLETED) {
+                    return new Claim(State.COMPLETED, record.result);
+                }
+                if (now.getTime() - record.modified.getTime() > leaseMillis && jdbcOperations.update("UPDATE " + table
+                    + " SET gmt_modified = ? WHERE scope = ? AND idem_key = ? AND status = ? AND gmt_modified = ?",
+                    now, scope, key, IN_PROGRESS, record.modified) == 1) {
+                    return new Claim(State.CLAIMED, null);
+                }
+                return new Claim(State.IN_PROGRESS, null);
+            }
+        }
+        return new Claim(State.IN_PROGRESS, null);
+    }
+
+    /**
+     * @return 已完成的结果；仍在执行中返回 IN_PROGRESS；记录已删除（执行失败）返回 null；
+     *         记录被请求体不同的请求重新占用时返回 MISMATCH
+     */
+    public Claim poll(String scope, String key, String fingerprint) {
+        Record record = find(scope, key);
+        if (record == null) {
+            return null;
+        }
+        if (!fingerprint.equals(record.fingerprint)) {
+            return new Claim(State.MISMATCH, null);
+        }
+        return record.status == COMPLETED
+            ? new Claim(State.COMPLETED, record.result) : new Claim(State.IN_PROGRESS, null);
+    }
+
+    public void complete(String scope, String key, String result) {
+        jdbcOperations.update("UPDATE " + table
+            + " SET status = ?, result = ?, gmt_modified = ? WHERE scope = ? AND idem_key = ?",
+            COMPLETED, result, new Timestamp(System.currentTimeMillis()), scope, key);
+    }
+
+    /**
+     * 执行失败时删除记录，客户端可以用同一个 key 重试
+     */
+    public void release(String scope, String key) {
+        jdbcOperations.update("DELETE FROM " + table + " WHERE scope = ? AND idem_key = ? AND status = ?",
+            scope, key, IN_PROGRESS);
+    }
+
+    /**
+     * @return 本次删除的过期记录数，每次最多删除 1000 条
+     */
+    public int purge(long retentionHours) {
+        Timestamp before = new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours));
+        return jdbcOperations.update("DELETE FROM " + table + " WHERE gmt_create < ? LIMIT " + PURGE_BATCH, before);
+    }
+
+    private Record find(String scope, String key) {
+        List<Record> records = jdbcOperations.query("SELECT status, result, gmt_modified, request_hash FROM " + table
+                + " WHERE scope = ? AND idem_key = ?",
+            (rs, rowNum) -> new Record(rs.getInt(1), rs.getString(2), rs.getTimestamp(3), rs.getString(4)),
+            scope, key);
+        return records.isEmpty() ? null : records.get(0);
+    }
+
+    private static final class Record {
+
+        private final int status;
+
+        private final String result;
+
+        private final Timestamp modified;
+
+        private final String fingerprint;
+
+        private Record(int status, String result, Timestamp modified, String fingerprint) {
+            this.status = status;
+            this.result = result;
+            this.modified = modified;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
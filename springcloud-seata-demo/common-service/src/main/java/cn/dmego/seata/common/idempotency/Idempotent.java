@@ -0,0 +1,27 @@
+package cn.dmego.seata.common.idempotency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @className: Idempotent
+ *
+ * @description: 标注在 Controller 的写接口上，请求带 Idempotency-Key 头时同一个 key 只执行一次，
+ *               重试的请求直接返回第一次执行的结果，不会再开启一个新的全局事务。不带该请求头的请求照常执行。
+ *               返回值需要能被 Jackson 序列化和反序列化，其他实例上的重试从数据库中读取结果
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:10
+ **/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+
+    /**
+     * key 的作用域，不同接口使用相同的 key 互不影响，默认为 类名.方法名
+     */
+    String value() default "";
+}
@@ -0,0 +1,72 @@
+package cn.dmego.seata.common.logging;
+
+import io.seata.core.context.RootContext;
+import io.seata.tm.api.transaction.TransactionHookAdapter;
+import io.seata.tm.api.transaction.TransactionHookManager;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: GlobalTransactionLogInterceptor
+ *
+ * @description: 发起方的全局事务汇总日志：失败或耗时超过阈值的全局事务输出一行 WARN，不受 XID 采样影响，
+ *               未采样的事务出问题时也能从这一行拿到 XID 去查 TC 和各分支的失败日志。
+ *               XID 通过 Seata 的 TransactionHook 在 begin 之后取得，同时写到响应头 Seata-Xid
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public class GlobalTransactionLogInterceptor implements MethodInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GlobalTransactionLogInterceptor.class);
+
+    private final long slowTransactionNanos;
+
+    public GlobalTransactionLogInterceptor(long slowTransactionMillis) {
+        this.slowTransactionNanos = TimeUnit.MILLISECONDS.toNanos(slowTransactionMillis);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (RootContext.inGlobalTransaction()) {
+            // 加入已有的全局事务，由发起方输出汇总
+            return invocation.proceed();
+        }
+        XidCapture capture = new XidCapture();
+        TransactionHookManager.registerHook(capture);
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (capture.xid == null) {
+                // 没有开启全局事务（例如降级），TransactionalTemplate 不会清理注册的 hook
+                TransactionHookManager.clear();
+            }
+            if (failure != null || elapsed >= slowTransactionNanos) {
+                LOGGER.warn("[tx] global outcome={} xid={} method={}.{} elapsedMs={} error={}",
+                    failure != null ? "failed" : "slow", capture.xid,
+                    invocation.getMethod().getDeclaringClass().getSimpleName(), invocation.getMethod().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), failure == null ? null : failure.toString());
+            }
+        }
+    }
+
+    private static final class XidCapture extends TransactionHookAdapter {
+
+        private String xid;
+
+        @Override
+        public void afterBegin() {
+            xid = RootContext.getXID();
+            XidResponseHeader.set(xid);
+        }
+    }
+}
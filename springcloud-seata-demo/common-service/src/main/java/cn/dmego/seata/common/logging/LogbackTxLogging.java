@@ -0,0 +1,93 @@
+package cn.dmego.seata.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * @className: LogbackTxLogging
+ *
+ * @description: 在 Boot 初始化好的 logback 上安装 XID 采样过滤器，并把 root logger 的 appender（默认是 CONSOLE）
+ *               包装为 AsyncAppender：业务线程只把事件放入有界队列，不再同步写控制台。
+ *               不采集调用方位置信息（includeCallerData=false），队列满时按配置丢弃 INFO 及以下日志
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public class LogbackTxLogging {
+
+    private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(LogbackTxLogging.class);
+
+    private static final String ASYNC_PREFIX = "ASYNC-";
+
+    private final TxLoggingProperties properties;
+
+    public LogbackTxLogging(TxLoggingProperties properties) {
+        this.properties = properties;
+    }
+
+    public void install() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext)) {
+            return;
+        }
+        LoggerContext context = (LoggerContext) factory;
+        installSamplingFilter(context);
+        if (properties.getAsync().isEnabled()) {
+            wrapRootAppenders(context);
+        }
+        LOGGER.info("[logging] xid sample rate {}, async appender {}",
+            properties.getSampleRate(), properties.getAsync().isEnabled());
+    }
+
+    private void installSamplingFilter(LoggerContext context) {
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (XidSamplingTurboFilter.NAME.equals(filter.getName())) {
+                return;
+            }
+        }
+        XidSamplingTurboFilter filter = new XidSamplingTurboFilter();
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    /**
+     * 先挂上异步 appender 再摘掉原 appender，切换过程中不丢日志
+     */
+    private void wrapRootAppenders(LoggerContext context) {
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            appenders.add(it.next());
+        }
+        TxLoggingProperties.Async config = properties.getAsync();
+        for (Appender<ILoggingEvent> appender : appenders) {
+            if (appender instanceof AsyncAppenderBase) {
+                continue;
+            }
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName(ASYNC_PREFIX + appender.getName());
+            async.setQueueSize(config.getQueueSize());
+            if (config.getDiscardingThreshold() >= 0) {
+                async.setDiscardingThreshold(config.getDiscardingThreshold());
+            }
+            async.setNeverBlock(config.isNeverBlock());
+            async.setIncludeCallerData(false);
+            async.addAppender(appender);
+            async.start();
+            root.addAppender(async);
+            root.detachAppender(appender);
+        }
+    }
+}
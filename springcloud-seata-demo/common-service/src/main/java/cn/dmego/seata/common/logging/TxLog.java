@@ -0,0 +1,201 @@
+package cn.dmego.seata.common.logging;
+
+import io.seata.core.context.RootContext;
+import io.seata.rm.tcc.api.BusinessActionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: TxLog
+ *
+ * @description: 事务阶段的结构化日志字段。阶段期间 MDC 中带 xid、branchId、phase，日志格式见 TxLoggingEnvironmentPostProcessor：
+ *               <pre>
+ *               try (TxLog.Phase phase = TxLog.begin("productTry", actionContext)) {
+ *                   phase.field("productId", productId).field("count", count);
+ *                   ...
+ *                   phase.success();
+ *               }
+ *               </pre>
+ *               未调用 success() 或耗时超过阈值的阶段在结束时输出一行 WARN 汇总（带 field 字段），不受 XID 采样影响。
+ *               Phase 对象按线程复用，字段只在输出汇总时才格式化
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public final class TxLog {
+
+    public static final String XID = "xid";
+
+    public static final String BRANCH_ID = "branchId";
+
+    public static final String PHASE = "phase";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TxLog.class);
+
+    private static final int POOLED_DEPTH = 4;
+
+    private static final int MAX_FIELDS = 8;
+
+    private static final ThreadLocal<PhaseStack> STACK = ThreadLocal.withInitial(PhaseStack::new);
+
+    private static volatile long slowPhaseNanos = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private TxLog() {
+    }
+
+    static void setSlowPhaseMillis(long millis) {
+        slowPhaseNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    public static Phase begin(String phase, BusinessActionContext actionContext) {
+        return begin(phase, actionContext.getXid(), actionContext.getBranchId());
+    }
+
+    /**
+     * @param branchId 没有分支时传 0，例如 Saga 的正向服务
+     */
+    public static Phase begin(String phase, String xid, long branchId) {
+        PhaseStack stack = STACK.get();
+        Phase current = stack.depth < POOLED_DEPTH ? stack.pooled[stack.depth] : new Phase(stack);
+        stack.depth++;
+        current.open(phase, xid, branchId);
+        return current;
+    }
+
+    /**
+     * @return 当前线程所在事务的 XID，先取阶段上的，再取 Seata 上下文中的
+     */
+    public static String currentXid() {
+        Phase current = STACK.get().current;
+        if (current != null && current.xid != null) {
+            return current.xid;
+        }
+        return RootContext.getXID();
+    }
+
+    private static final class PhaseStack {
+
+        private final Phase[] pooled = new Phase[POOLED_DEPTH];
+
+        private int depth;
+
+        private Phase current;
+
+        private PhaseStack() {
+            for (int i = 0; i < POOLED_DEPTH; i++) {
+                pooled[i] = new Phase(this);
+            }
+        }
+    }
+
+    public static final class Phase implements AutoCloseable {
+
+        private final PhaseStack stack;
+
+        private final String[] keys = new String[MAX_FIELDS];
+
+        private final Object[] values = new Object[MAX_FIELDS];
+
+        private int fieldCount;
+
+        private String phase;
+
+        private String xid;
+
+        private long branchId;
+
+        private long startNanos;
+
+        private boolean success;
+
+        private Phase parent;
+
+        private String previousXid;
+
+        private String previousBranchId;
+
+        private String previousPhase;
+
+        private Phase(PhaseStack stack) {
+            this.stack = stack;
+        }
+
+        private void open(String phase, String xid, long branchId) {
+            this.phase = phase;
+            this.xid = xid;
+            this.branchId = branchId;
+            this.success = false;
+            this.fieldCount = 0;
+            this.parent = stack.current;
+            stack.current = this;
+            this.previousXid = MDC.get(XID);
+            this.previousBranchId = MDC.get(BRANCH_ID);
+            this.previousPhase = MDC.get(PHASE);
+            put(XID, xid);
+            put(BRANCH_ID, branchId == 0 ? null : Long.toString(branchId));
+            put(PHASE, phase);
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * 汇总中输出的字段，超过 8 个的忽略
+         */
+        public Phase field(String key, Object value) {
+            if (fieldCount < MAX_FIELDS) {
+                keys[fieldCount] = key;
+                values[fieldCount] = value;
+                fieldCount++;
+            }
+            return this;
+        }
+
+        public void success() {
+            this.success = true;
+        }
+
+        @Override
+        public void close() {
+            long elapsed = System.nanoTime() - startNanos;
+            try {
+                if (!success) {
+                    LOGGER.warn("[tx] {}", summary("failed", elapsed));
+                } else if (elapsed >= slowPhaseNanos) {
+                    LOGGER.warn("[tx] {}", summary("slow", elapsed));
+                }
+            } finally {
+                put(XID, previousXid);
+                put(BRANCH_ID, previousBranchId);
+                put(PHASE, previousPhase);
+                for (int i = 0; i < fieldCount; i++) {
+                    values[i] = null;
+                }
+                stack.current = parent;
+                parent = null;
+                stack.depth--;
+            }
+        }
+
+        private String summary(String outcome, long elapsedNanos) {
+            StringBuilder builder = new StringBuilder(128)
+                .append("phase=").append(phase)
+                .append(" outcome=").append(outcome)
+                .append(" xid=").append(xid)
+                .append(" branchId=").append(branchId)
+                .append(" elapsedMs=").append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            for (int i = 0; i < fieldCount; i++) {
+                builder.append(' ').append(keys[i]).append('=').append(values[i]);
+            }
+            return builder.toString();
+        }
+
+        private static void put(String key, String value) {
+            if (value == null) {
+                MDC.remove(key);
+            } else {
+                MDC.put(key, value);
+            }
+        }
+    }
+}
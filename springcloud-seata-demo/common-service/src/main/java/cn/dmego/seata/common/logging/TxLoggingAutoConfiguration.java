@@ -0,0 +1,65 @@
+package cn.dmego.seata.common.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import io.seata.spring.annotation.GlobalTransactional;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * @className: TxLoggingAutoConfiguration
+ *
+ * @description: 事务日志，默认开启，dmego.logging.enabled=false 关闭：
+ *               全局事务内的 INFO 日志按 XID 采样（整个事务要么全部输出要么全部不输出），控制台输出改为异步，
+ *               失败和慢的分支阶段、全局事务总是输出一行 WARN 汇总
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "dmego.logging", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(TxLoggingProperties.class)
+public class TxLoggingAutoConfiguration {
+
+    public TxLoggingAutoConfiguration(TxLoggingProperties properties) {
+        XidSampler.setRate(properties.getSampleRate());
+        TxLog.setSlowPhaseMillis(properties.getSlowPhaseMillis());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(LoggerContext.class)
+    static class LogbackTxLoggingConfiguration {
+
+        @Bean(initMethod = "install")
+        public LogbackTxLogging logbackTxLogging(TxLoggingProperties properties) {
+            return new LogbackTxLogging(properties);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(GlobalTransactional.class)
+    static class GlobalTransactionLogConfiguration {
+
+        /**
+         * 排在截止时间拦截器之后、Seata 的全局事务拦截器之前，计时包含向 TC 注册和提交 / 回滚
+         */
+        @Bean
+        @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+        public static Advisor globalTransactionLogAdvisor(Environment environment) {
+            long slowMillis = environment.getProperty("dmego.logging.slow-transaction-millis", Long.class, 2000L);
+            DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(null, GlobalTransactional.class, true),
+                new GlobalTransactionLogInterceptor(slowMillis));
+            advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+            return advisor;
+        }
+    }
+}
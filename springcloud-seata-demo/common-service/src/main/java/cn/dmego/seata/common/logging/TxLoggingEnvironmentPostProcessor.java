@@ -0,0 +1,32 @@
+package cn.dmego.seata.common.logging;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Collections;
+
+/**
+ * @className: TxLoggingEnvironmentPostProcessor
+ *
+ * @description: 在 Boot 默认日志格式的级别之后输出 MDC 中的 xid、branchId、phase，没有事务字段的日志不输出这一段。
+ *               在日志系统初始化之前执行，服务自己配置了 logging.pattern.level 时不覆盖
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public class TxLoggingEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String LEVEL_PATTERN = "%5p%replace( xid=%X{" + TxLog.XID + "} branchId=%X{" + TxLog.BRANCH_ID
+        + "} phase=%X{" + TxLog.PHASE + "}){'^ xid= branchId= phase=$', ''}";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty("dmego.logging.enabled", Boolean.class, true)
+            || environment.containsProperty("logging.pattern.level")) {
+            return;
+        }
+        environment.getPropertySources().addLast(new MapPropertySource("dmegoTxLogging",
+            Collections.singletonMap("logging.pattern.level", LEVEL_PATTERN)));
+    }
+}
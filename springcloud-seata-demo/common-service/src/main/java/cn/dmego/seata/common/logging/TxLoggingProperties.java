@@ -0,0 +1,121 @@
+package cn.dmego.seata.common.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @className: TxLoggingProperties
+ *
+ * @description: 事务日志配置，前缀 dmego.logging
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+@ConfigurationProperties(prefix = "dmego.logging")
+public class TxLoggingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 全局事务内 INFO 及以下日志的 XID 采样率，1 为全部输出
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * 超过该耗时的分支阶段（TxLog.Phase）输出 WARN 汇总
+     */
+    private long slowPhaseMillis = 500;
+
+    /**
+     * 超过该耗时的全局事务输出 WARN 汇总
+     */
+    private long slowTransactionMillis = 2000;
+
+    private final Async async = new Async();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public long getSlowPhaseMillis() {
+        return slowPhaseMillis;
+    }
+
+    public void setSlowPhaseMillis(long slowPhaseMillis) {
+        this.slowPhaseMillis = slowPhaseMillis;
+    }
+
+    public long getSlowTransactionMillis() {
+        return slowTransactionMillis;
+    }
+
+    public void setSlowTransactionMillis(long slowTransactionMillis) {
+        this.slowTransactionMillis = slowTransactionMillis;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    /**
+     * 把 root logger 上的 appender 包装为 logback AsyncAppender，业务线程只入队
+     */
+    public static class Async {
+
+        private boolean enabled = true;
+
+        private int queueSize = 8192;
+
+        /**
+         * 队列剩余容量低于该值时丢弃 INFO 及以下日志，-1 为 logback 默认的队列长度的 20%
+         */
+        private int discardingThreshold = -1;
+
+        /**
+         * 队列满时丢弃而不是阻塞业务线程
+         */
+        private boolean neverBlock = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public int getDiscardingThreshold() {
+            return discardingThreshold;
+        }
+
+        public void setDiscardingThreshold(int discardingThreshold) {
+            this.discardingThreshold = discardingThreshold;
+        }
+
+        public boolean isNeverBlock() {
+            return neverBlock;
+        }
+
+        public void setNeverBlock(boolean neverBlock) {
+            this.neverBlock = neverBlock;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package cn.dmego.seata.common.logging;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @className: XidResponseHeader
+ *
+ * @description: 发起方把本次请求开启的全局事务 XID 写到响应头 Seata-Xid，压测和一致性检查工具据此把数据异常对应到具体的全局事务。
+ *               不在 Servlet 请求线程上（或没有 spring-web）时什么都不做
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 23:50
+ **/
+final class XidResponseHeader {
+
+    static final String HEADER = "Seata-Xid";
+
+    private static final boolean SERVLET_PRESENT =
+        ClassUtils.isPresent("org.springframework.web.context.request.RequestContextHolder",
+            XidResponseHeader.class.getClassLoader())
+            && ClassUtils.isPresent("javax.servlet.http.HttpServletResponse", XidResponseHeader.class.getClassLoader());
+
+    private XidResponseHeader() {
+    }
+
+    static void set(String xid) {
+        if (SERVLET_PRESENT && xid != null) {
+            Servlet.set(xid);
+        }
+    }
+
+    /**
+     * 单独的类，没有 spring-web 时不会加载
+     */
+    private static final class Servlet {
+
+        static void set(String xid) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (!(attributes instanceof ServletRequestAttributes)) {
+                return;
+            }
+            HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+            if (response != null && !response.isCommitted()) {
+                response.setHeader(HEADER, xid);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cn.dmego.seata.common.logging;
+
+/**
+ * @className: XidSampler
+ *
+ * @description: 按 XID 决定全局事务的日志是否采样。结果只取决于 XID 的哈希（String#hashCode 的算法是固定的），
+ *               各服务配置相同的采样率时对同一个 XID 得到相同结果，一个全局事务的日志要么全部输出、要么全部不输出
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public final class XidSampler {
+
+    private static final int SCALE = 10000;
+
+    /**
+     * 未配置前全部采样
+     */
+    private static volatile int threshold = SCALE;
+
+    private XidSampler() {
+    }
+
+    static void setRate(double rate) {
+        threshold = (int) Math.round(Math.max(0, Math.min(1, rate)) * SCALE);
+    }
+
+    public static boolean isSampled(String xid) {
+        int current = threshold;
+        if (current >= SCALE) {
+            return true;
+        }
+        if (current <= 0) {
+            return false;
+        }
+        // XID 以 ip:port:递增序号 结尾，相邻 XID 的 hashCode 只差低位，混淆后再取模
+        int hash = xid.hashCode();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % SCALE < current;
+    }
+}
@@ -0,0 +1,37 @@
+package cn.dmego.seata.common.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * @className: XidSamplingTurboFilter
+ *
+ * @description: 全局事务内未被采样的 XID 的 INFO 及以下日志在 TurboFilter 阶段直接丢弃，此时还没有格式化参数、
+ *               也没有创建日志事件，被丢弃的日志不产生对象；保留下来的日志仍由 logback 逐条创建事件。
+ *               WARN、ERROR 以及事务外的日志不受影响
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:40
+ **/
+public class XidSamplingTurboFilter extends TurboFilter {
+
+    static final String NAME = "xidSampling";
+
+    public XidSamplingTurboFilter() {
+        setName(NAME);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        String xid = TxLog.currentXid();
+        if (xid == null || XidSampler.isSampled(xid)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.DENY;
+    }
+}
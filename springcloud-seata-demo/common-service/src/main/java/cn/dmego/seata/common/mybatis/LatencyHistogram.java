@@ -0,0 +1,81 @@
+package cn.dmego.seata.common.mybatis;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @className: LatencyHistogram
+ *
+ * @description: 微秒级耗时直方图，每个 2 的幂区间再均分为 4 个桶，分位数取所在桶的上界，相对误差不超过 25%。
+ *               记录只是一次数组元素的原子自增，不加锁，16µs 以下归入第一个桶，约 12 天以上归入最后一个桶
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MIN_BITS = 4;
+
+    private static final int MAX_BITS = 40;
+
+    static final int BUCKETS = 1 + (MAX_BITS - MIN_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long micros) {
+        counts.incrementAndGet(index(micros));
+    }
+
+    long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return 快照中 quantile 分位数所在桶的上界（微秒），快照为空时返回 0
+     */
+    static long percentile(long[] snapshot, double quantile) {
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(snapshot.length - 1);
+    }
+
+    static int index(long micros) {
+        if (micros < (1L << MIN_BITS)) {
+            return 0;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(micros);
+        if (msb >= MAX_BITS) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (micros >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return 1 + (msb - MIN_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index == 0) {
+            return 1L << MIN_BITS;
+        }
+        int msb = (index - 1) / SUB_BUCKETS + MIN_BITS;
+        int sub = (index - 1) % SUB_BUCKETS;
+        return (1L << msb) + ((long) (sub + 1) << (msb - SUB_BUCKET_BITS));
+    }
+}
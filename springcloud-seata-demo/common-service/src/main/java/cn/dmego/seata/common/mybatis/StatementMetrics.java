@@ -0,0 +1,58 @@
+package cn.dmego.seata.common.mybatis;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.mapping.MappedStatement;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: StatementMetrics
+ *
+ * @description: MyBatis 语句指标，tag statement 为 Mapper 类名.方法名，数量与 Mapper 方法数相同：
+ *               mybatis.statement（带直方图，tag type、outcome=success|error）、mybatis.statement.rows（影响 / 返回行数）
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+public class StatementMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> rows = new ConcurrentHashMap<>();
+
+    public StatementMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void record(MappedStatement mappedStatement, long nanos, long rowCount, boolean error) {
+        String statement = shortName(mappedStatement.getId());
+        String outcome = error ? "error" : "success";
+        timers.computeIfAbsent(mappedStatement.getId() + "#" + outcome, key -> Timer.builder("mybatis.statement")
+            .tag("statement", statement)
+            .tag("type", mappedStatement.getSqlCommandType().name())
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (rowCount >= 0) {
+            rows.computeIfAbsent(mappedStatement.getId(), key -> DistributionSummary.builder("mybatis.statement.rows")
+                .tag("statement", statement)
+                .register(registry))
+                .record(rowCount);
+        }
+    }
+
+    /**
+     * cn.dmego.seata.tcc.product.dao.ProductDao.reduceStock 取 ProductDao.reduceStock
+     */
+    static String shortName(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? id.substring(type + 1) : id;
+    }
+}
@@ -0,0 +1,166 @@
+package cn.dmego.seata.common.mybatis;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * @className: StatementProfiler
+ *
+ * @description: MyBatis 插件：按 MappedStatement（Mapper 方法）统计耗时分布、影响 / 返回行数和失败次数，不逐条打印 SQL。
+ *               拦截 Executor 的 update / query，一次调用记录一次，耗时包含参数映射、执行和结果映射。
+ *               慢执行按采样率采集参数样本，用于定位是哪些参数导致变慢。
+ *               统计通过 actuator 的 mybatis 端点查看，有 MeterRegistry 时同时记录 mybatis.statement 指标
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+@Intercepts({
+    @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class StatementProfiler implements Interceptor {
+
+    /**
+     * BatchExecutor.update 的返回值，此时还不知道影响行数
+     */
+    private static final int BATCH_UPDATE_RETURN_VALUE = Integer.MIN_VALUE + 1002;
+
+    private final StatementProfilerProperties properties;
+
+    private final long slowMicros;
+
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+    private volatile StatementMetrics metrics;
+
+    public StatementProfiler(StatementProfilerProperties properties) {
+        this.properties = properties;
+        this.slowMicros = TimeUnit.MILLISECONDS.toMicros(properties.getSlowThresholdMillis());
+    }
+
+    void setMetrics(StatementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(mappedStatement, invocation.getArgs()[1], System.nanoTime() - start, -1, true);
+            throw e;
+        }
+        record(mappedStatement, invocation.getArgs()[1], System.nanoTime() - start, rows(result), false);
+        return result;
+    }
+
+    private void record(MappedStatement mappedStatement, Object parameter, long nanos, long rows, boolean error) {
+        StatementStats stats = statements.computeIfAbsent(mappedStatement.getId(),
+            id -> new StatementStats(id, mappedStatement.getSqlCommandType().name()));
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        stats.record(micros, rows, error);
+        if (properties.isCaptureParameters() && micros >= slowMicros && (stats.isSlowerThanSample(micros)
+            || ThreadLocalRandom.current().nextDouble() < properties.getParameterSampleRate())) {
+            stats.sample(micros, describe(parameter, properties.getMaxParameterLength()));
+        }
+        StatementMetrics current = metrics;
+        if (current != null) {
+            current.record(mappedStatement, nanos, rows, error);
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Integer) {
+            int count = (Integer) result;
+            return count == BATCH_UPDATE_RETURN_VALUE ? -1 : count;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        return -1;
+    }
+
+    /**
+     * 多参数的 Mapper 方法参数是 ParamMap，其中 param1、param2 等是重复的别名，不输出
+     */
+    static String describe(Object parameter, int maxLength) {
+        String text;
+        if (parameter instanceof Map) {
+            text = ((Map<?, ?>) parameter).entrySet().stream()
+                .filter(entry -> !String.valueOf(entry.getKey()).matches("param\\d+"))
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(", ", "{", "}"));
+        } else {
+            text = String.valueOf(parameter);
+        }
+        return text.length() <= maxLength ? text : text.substring(0, maxLength) + "...";
+    }
+
+    /**
+     * @param sort p99（默认）、total、max、count、errors
+     * @return 排序后的前 limit 条语句统计
+     */
+    public List<Map<String, Object>> top(int limit, String sort) {
+        List<StatementStats> snapshot = new ArrayList<>(statements.values());
+        snapshot.sort(comparator(sort).reversed());
+        return snapshot.stream().limit(Math.max(0, limit)).map(StatementStats::describe).collect(Collectors.toList());
+    }
+
+    public Map<String, Object> statement(String id) {
+        StatementStats stats = statements.get(id);
+        if (stats == null) {
+            // 允许只写 Mapper 类名和方法名
+            stats = statements.values().stream().filter(s -> s.getId().endsWith("." + id)).findFirst().orElse(null);
+        }
+        return stats == null ? null : stats.describe();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    public int getDefaultTopN() {
+        return properties.getTopN();
+    }
+
+    private static Comparator<StatementStats> comparator(String sort) {
+        if (sort == null) {
+            return Comparator.comparingLong(StatementStats::p99Micros);
+        }
+        switch (sort) {
+            case "total":
+                return Comparator.comparingLong(StatementStats::getTotalMicros);
+            case "max":
+                return Comparator.comparingLong(StatementStats::getMaxMicros);
+            case "count":
+                return Comparator.comparingLong(StatementStats::getCount);
+            case "errors":
+                return Comparator.comparingLong(StatementStats::getErrors);
+            default:
+                return Comparator.comparingLong(StatementStats::p99Micros);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package cn.dmego.seata.common.mybatis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.plugin.Interceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @className: StatementProfilerAutoConfiguration
+ *
+ * @description: MyBatis 语句统计，dmego.mybatis.profiler.enabled=false 关闭。
+ *               mybatis-spring-boot-starter 会把容器中的 Interceptor bean 注册为插件，所有 @Mapper DAO 无需改动
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(Interceptor.class)
+@ConditionalOnProperty(prefix = "dmego.mybatis.profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(StatementProfilerProperties.class)
+public class StatementProfilerAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public StatementProfiler statementProfiler(StatementProfilerProperties properties) {
+        return new StatementProfiler(properties);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class StatementMetricsConfiguration {
+
+        @Bean
+        public SmartInitializingSingleton statementMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 StatementProfiler profiler) {
+            return () -> meterRegistry.ifAvailable(registry -> profiler.setMetrics(new StatementMetrics(registry)));
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(Endpoint.class)
+    static class StatementProfilerEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public StatementProfilerEndpoint statementProfilerEndpoint(StatementProfiler profiler) {
+            return new StatementProfilerEndpoint(profiler);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cn.dmego.seata.common.mybatis;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @className: StatementProfilerEndpoint
+ *
+ * @description: actuator 端点 /actuator/mybatis，需要加入 management.endpoints.web.exposure.include。
+ *               GET /actuator/mybatis?limit=10&sort=p99 查看最慢的语句，sort 可选 p99、total、max、count、errors；
+ *               GET /actuator/mybatis/{statement} 查看单个语句；DELETE /actuator/mybatis 清空统计
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+@Endpoint(id = "mybatis")
+public class StatementProfilerEndpoint {
+
+    private final StatementProfiler profiler;
+
+    public StatementProfilerEndpoint(StatementProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> top(@Nullable Integer limit, @Nullable String sort) {
+        return profiler.top(limit == null ? profiler.getDefaultTopN() : limit, sort);
+    }
+
+    @ReadOperation
+    public Map<String, Object> statement(@Selector String statement) {
+        return profiler.statement(statement);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
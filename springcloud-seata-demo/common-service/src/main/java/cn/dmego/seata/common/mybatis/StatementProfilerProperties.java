@@ -0,0 +1,86 @@
+package cn.dmego.seata.common.mybatis;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @className: StatementProfilerProperties
+ *
+ * @description: MyBatis 语句统计配置，前缀 dmego.mybatis.profiler
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+@ConfigurationProperties(prefix = "dmego.mybatis.profiler")
+public class StatementProfilerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 超过该耗时的执行才可能采集参数样本
+     */
+    private long slowThresholdMillis = 50;
+
+    /**
+     * 是否采集参数样本，参数中有敏感数据时关闭
+     */
+    private boolean captureParameters = true;
+
+    /**
+     * 慢执行中按该比例采集参数，比当前样本更慢的执行总是采集
+     */
+    private double parameterSampleRate = 0.05;
+
+    private int maxParameterLength = 256;
+
+    /**
+     * actuator 端点默认返回的语句数
+     */
+    private int topN = 10;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    public boolean isCaptureParameters() {
+        return captureParameters;
+    }
+
+    public void setCaptureParameters(boolean captureParameters) {
+        this.captureParameters = captureParameters;
+    }
+
+    public double getParameterSampleRate() {
+        return parameterSampleRate;
+    }
+
+    public void setParameterSampleRate(double parameterSampleRate) {
+        this.parameterSampleRate = parameterSampleRate;
+    }
+
+    public int getMaxParameterLength() {
+        return maxParameterLength;
+    }
+
+    public void setMaxParameterLength(int maxParameterLength) {
+        this.maxParameterLength = maxParameterLength;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public void setTopN(int topN) {
+        this.topN = topN;
+    }
+}
@@ -0,0 +1,141 @@
+package cn.dmego.seata.common.mybatis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: StatementStats
+ *
+ * @description: 单个 MappedStatement 的执行统计：次数、失败次数、影响 / 返回行数、耗时直方图、最大耗时，
+ *               以及一次慢执行的参数样本
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 22:10
+ **/
+class StatementStats {
+
+    private final String id;
+
+    private final String type;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private volatile Sample slowSample;
+
+    StatementStats(String id, String type) {
+        this.id = id;
+        this.type = type;
+    }
+
+    /**
+     * @param rows 影响或返回的行数，未知时为负数
+     */
+    void record(long micros, long rows, boolean error) {
+        count.increment();
+        totalMicros.add(micros);
+        histogram.record(micros);
+        if (error) {
+            errors.increment();
+        } else if (rows > 0) {
+            this.rows.add(rows);
+        }
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * 比当前样本更慢时一定替换，否则由调用方按采样率决定是否替换
+     */
+    boolean isSlowerThanSample(long micros) {
+        Sample sample = slowSample;
+        return sample == null || micros > sample.micros;
+    }
+
+    void sample(long micros, String parameters) {
+        slowSample = new Sample(micros, parameters, System.currentTimeMillis());
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * @return 对外展示的统计，耗时单位为毫秒
+     */
+    Map<String, Object> describe() {
+        long[] snapshot = histogram.snapshot();
+        long calls = count.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statement", id);
+        result.put("type", type);
+        result.put("count", calls);
+        result.put("errors", errors.sum());
+        result.put("rows", rows.sum());
+        result.put("totalMs", totalMicros.sum() / 1000.0);
+        result.put("meanMs", calls == 0 ? 0 : totalMicros.sum() / 1000.0 / calls);
+        result.put("p50Ms", LatencyHistogram.percentile(snapshot, 0.50) / 1000.0);
+        result.put("p95Ms", LatencyHistogram.percentile(snapshot, 0.95) / 1000.0);
+        result.put("p99Ms", LatencyHistogram.percentile(snapshot, 0.99) / 1000.0);
+        result.put("maxMs", maxMicros.get() / 1000.0);
+        Sample sample = slowSample;
+        if (sample != null) {
+            Map<String, Object> slow = new LinkedHashMap<>();
+            slow.put("elapsedMs", sample.micros / 1000.0);
+            slow.put("parameters", sample.parameters);
+            slow.put("timestamp", sample.timestamp);
+            result.put("slowSample", slow);
+        }
+        return result;
+    }
+
+    /**
+     * 排序用的 p99，单位微秒
+     */
+    long p99Micros() {
+        return LatencyHistogram.percentile(histogram.snapshot(), 0.99);
+    }
+
+    private static final class Sample {
+
+        private final long micros;
+
+        private final String parameters;
+
+        private final long timestamp;
+
+        private Sample(long micros, String parameters, long timestamp) {
+            this.micros = micros;
+            this.parameters = parameters;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package cn.dmego.seata.common.replica;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @className: ReadOnly
+ *
+ * @description: 标注在只读的 Mapper 方法上，开启 dmego.replica 后这条语句可以读复制延迟不超过 maxStalenessMillis 的从库。
+ *               处在全局事务或本地事务中时默认读主库，保证读到本事务之前的写入；所有从库都延迟过大时也读主库
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadOnly {
+
+    /**
+     * 允许读到的最大复制延迟（毫秒），不大于 0 时使用 dmego.replica.max-staleness
+     */
+    long maxStalenessMillis() default 0;
+
+    /**
+     * 为 false 表示这次读只是预检查，之后有带条件的 UPDATE 兜底（例如 stock >= count），不要求读到本事务之前的写入。
+     * 这样的语句在事务中也读从库：挂起当前本地事务，用单独的连接执行，结束后恢复
+     */
+    boolean readYourWrites() default true;
+}
@@ -0,0 +1,111 @@
+package cn.dmego.seata.common.replica;
+
+import io.seata.core.context.RootContext;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: ReadOnlyInterceptor
+ *
+ * @description: 为 @ReadOnly 方法选择数据源，按顺序判断：
+ *               处在 Seata 全局事务中 → 主库（之前的分支已在主库提交，从库不一定已经复制）；
+ *               处在 Spring 本地事务中 → 主库（连接已经绑定在事务上）；
+ *               没有延迟不超过上限的从库 → 主库；否则在选中的从库上执行。
+ *               readYourWrites=false 的语句跳过前两项判断，事务中执行时先挂起本地事务，读完再恢复
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+public class ReadOnlyInterceptor implements MethodInterceptor {
+
+    private static final boolean SEATA_PRESENT =
+        ClassUtils.isPresent("io.seata.core.context.RootContext", ReadOnlyInterceptor.class.getClassLoader());
+
+    private static final TransactionDefinition NOT_SUPPORTED =
+        new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
+    private final ReplicaLagMonitor monitor;
+
+    private final long maxStalenessMillis;
+
+    private final PlatformTransactionManager transactionManager;
+
+    final LongAdder replicaReads = new LongAdder();
+
+    final LongAdder globalTxFallbacks = new LongAdder();
+
+    final LongAdder localTxFallbacks = new LongAdder();
+
+    final LongAdder lagFallbacks = new LongAdder();
+
+    /**
+     * @param transactionManager 挂起本地事务用，为 null 时事务中的语句都读主库
+     */
+    public ReadOnlyInterceptor(ReplicaLagMonitor monitor, long maxStalenessMillis,
+                               PlatformTransactionManager transactionManager) {
+        this.monitor = monitor;
+        this.maxStalenessMillis = maxStalenessMillis;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ReadOnly readOnly = AnnotatedElementUtils.findMergedAnnotation(invocation.getMethod(), ReadOnly.class);
+        if (readOnly == null || ReplicaRoutingDataSource.current() != null) {
+            return invocation.proceed();
+        }
+        // MyBatis 在事务同步开启时会把 SqlSession 和连接留给后面的语句，所以只有同步也没开启才算不在事务中
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive()
+            || TransactionSynchronizationManager.isActualTransactionActive();
+        if (readOnly.readYourWrites()) {
+            if (SEATA_PRESENT && RootContext.inGlobalTransaction()) {
+                globalTxFallbacks.increment();
+                return invocation.proceed();
+            }
+            if (inTransaction) {
+                localTxFallbacks.increment();
+                return invocation.proceed();
+            }
+        } else if (inTransaction && transactionManager == null) {
+            localTxFallbacks.increment();
+            return invocation.proceed();
+        }
+        long maxStaleness = readOnly.maxStalenessMillis() > 0 ? readOnly.maxStalenessMillis() : maxStalenessMillis;
+        int replica = monitor.pick(maxStaleness);
+        if (replica < 0) {
+            lagFallbacks.increment();
+            return invocation.proceed();
+        }
+        replicaReads.increment();
+        Integer previous = ReplicaRoutingDataSource.bind(replica);
+        try {
+            return inTransaction ? proceedSuspended(invocation) : invocation.proceed();
+        } finally {
+            ReplicaRoutingDataSource.restore(previous);
+        }
+    }
+
+    /**
+     * 挂起当前事务及其同步，语句在新的同步范围内取从库连接，结束时连接随同步释放，外层事务的连接和 SqlSession 随后恢复
+     */
+    private Object proceedSuspended(MethodInvocation invocation) throws Throwable {
+        TransactionStatus status = transactionManager.getTransaction(NOT_SUPPORTED);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+}
@@ -0,0 +1,153 @@
+package cn.dmego.seata.common.replica;
+
+import cn.dmego.seata.common.datasource.DataSourcePoolAutoConfiguration;
+import cn.dmego.seata.common.datasource.DataSourcePoolMetrics;
+import cn.dmego.seata.common.datasource.SqlTimingFilter;
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @className: ReplicaAutoConfiguration
+ *
+ * @description: @ReadOnly 语句读从库，dmego.replica.enabled=true 开启。主数据源换成 ReplicaRoutingDataSource，
+ *               JdbcTemplate、事务管理器、Seata 的数据源代理和 undo_log 都使用它，写入始终落在主库。
+ *               排在共享连接池的自动配置之前，开启后不再创建单个的 Druid 连接池；不能与 dmego.sharding 同时开启
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({DruidDataSource.class, AbstractRoutingDataSource.class, PlatformTransactionManager.class})
+@ConditionalOnProperty(prefix = "dmego.replica", name = "enabled", havingValue = "true")
+@AutoConfigureBefore(value = {DataSourcePoolAutoConfiguration.class, DataSourceAutoConfiguration.class},
+    name = "com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceAutoConfigure")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaAutoConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaAutoConfiguration.class);
+
+    static final String POOL_NAME = "dataSource";
+
+    @Bean(name = POOL_NAME, destroyMethod = "close")
+    public ReplicaRoutingDataSource dataSource(ReplicaProperties properties, Environment environment,
+                                               ObjectProvider<SqlTimingFilter> sqlTimingFilter) throws SQLException {
+        List<String> urls = properties.getUrls();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("[replica] 开启读写分离时 dmego.replica.urls 不能为空");
+        }
+        if (properties.getMaxStaleness().compareTo(properties.getHeartbeatInterval().multipliedBy(2)) <= 0) {
+            throw new IllegalStateException("[replica] dmego.replica.max-staleness 必须大于两倍的 heartbeat-interval");
+        }
+        Binder binder = Binder.get(environment);
+        List<DruidDataSource> pools = new ArrayList<>(urls.size() + 1);
+        try {
+            DruidDataSource primary = pool(binder, null, POOL_NAME, sqlTimingFilter);
+            pools.add(primary);
+            primary.init();
+            List<DruidDataSource> replicas = new ArrayList<>(urls.size());
+            for (int i = 0; i < urls.size(); i++) {
+                DruidDataSource replica = pool(binder, urls.get(i), POOL_NAME + "-replica-" + i, sqlTimingFilter);
+                pools.add(replica);
+                replicas.add(replica);
+                replica.init();
+            }
+            LOGGER.info("[replica] 开启读写分离, 从库数 {}, 最大复制延迟 {}", urls.size(), properties.getMaxStaleness());
+            return new ReplicaRoutingDataSource(primary, replicas);
+        } catch (SQLException | RuntimeException e) {
+            pools.forEach(DruidDataSource::close);
+            throw e;
+        }
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource dataSource, ReplicaProperties properties) {
+        return new ReplicaLagMonitor(dataSource.getPrimary(), dataSource.getReplicas(), properties.getHeartbeatTable(),
+            properties.getHeartbeatInterval().toMillis());
+    }
+
+    @Bean
+    public ReadOnlyInterceptor readOnlyInterceptor(ReplicaLagMonitor replicaLagMonitor, ReplicaProperties properties,
+                                                   ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new ReadOnlyInterceptor(replicaLagMonitor, properties.getMaxStaleness().toMillis(),
+            transactionManager.getIfUnique());
+    }
+
+    /**
+     * 代理标注了 @ReadOnly 的 Mapper 方法。与幂等键一样，拦截器及其依赖的数据源在第一次调用时才获取
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readOnlyAdvisor(ObjectProvider<ReadOnlyInterceptor> readOnlyInterceptor) {
+        MethodInterceptor advice = invocation -> readOnlyInterceptor.getObject().invoke(invocation);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, ReadOnly.class, true), advice);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static DruidDataSource pool(Binder binder, String url, String name,
+                                        ObjectProvider<SqlTimingFilter> sqlTimingFilter) {
+        DruidDataSource pool = new DruidDataSource();
+        binder.bind("spring.datasource", Bindable.ofInstance(pool));
+        if (url != null) {
+            pool.setUrl(url);
+        }
+        pool.setName(name);
+        sqlTimingFilter.ifAvailable(filter -> pool.setProxyFilters(Collections.singletonList(filter)));
+        return pool;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ReplicaMetricsConfiguration {
+
+        @Bean
+        public ReplicaMetrics replicaMetrics(ReadOnlyInterceptor readOnlyInterceptor,
+                                             ReplicaLagMonitor replicaLagMonitor) {
+            return new ReplicaMetrics(readOnlyInterceptor, replicaLagMonitor);
+        }
+
+        /**
+         * 主库和每个从库的连接池各一组指标，tag pool 为 dataSource、dataSource-replica-从库编号
+         */
+        @Bean
+        public SmartInitializingSingleton replicaPoolMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                   ReplicaRoutingDataSource dataSource,
+                                                                   ObjectProvider<SqlTimingFilter> sqlTimingFilter) {
+            return () -> meterRegistry.ifAvailable(registry -> {
+                new DataSourcePoolMetrics(dataSource.getPrimary(), POOL_NAME, null).bindTo(registry);
+                for (DruidDataSource replica : dataSource.getReplicas()) {
+                    new DataSourcePoolMetrics(replica, replica.getName(), null).bindTo(registry);
+                }
+                sqlTimingFilter.ifAvailable(filter -> filter.bind(registry, POOL_NAME));
+            });
+        }
+    }
+}
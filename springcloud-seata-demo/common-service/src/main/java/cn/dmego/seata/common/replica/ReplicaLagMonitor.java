@@ -0,0 +1,171 @@
+package cn.dmego.seata.common.replica;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * @className: ReplicaLagMonitor
+ *
+ * @description: 用心跳表测量从库的复制延迟。每个实例在主库的心跳表中维护自己的一行，每隔 interval 写入当前时间，
+ *               再从各从库读回这一行：从库上读到的心跳时间之前的写入都已经复制过去，所以此刻从库的数据最多落后
+ *               now - 心跳时间。写入和比较用的都是本实例的时钟，不受实例之间时钟偏差的影响；
+ *               主库写入失败、从库读取失败或监控线程停顿时，这个值只会变大，读请求随之回到主库
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+public class ReplicaLagMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final Pattern TABLE = Pattern.compile("[A-Za-z0-9_]+");
+
+    /**
+     * 启动时删除超过这个时长没有更新的心跳行，它们属于已经停止的实例
+     */
+    private static final long RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private final DataSource primary;
+
+    private final List<? extends DataSource> replicas;
+
+    private final String table;
+
+    private final long intervalMillis;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * 各从库上读到的本实例最新心跳时间，0 表示还没有读到
+     */
+    private final AtomicLongArray appliedBeats;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, List<? extends DataSource> replicas, String table, long intervalMillis) {
+        if (!TABLE.matcher(table).matches()) {
+            throw new IllegalArgumentException("[replica] 心跳表名不合法: " + table);
+        }
+        this.primary = primary;
+        this.replicas = replicas;
+        this.table = table;
+        this.intervalMillis = intervalMillis;
+        this.appliedBeats = new AtomicLongArray(replicas.size());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        try {
+            int purged = update("DELETE FROM " + table + " WHERE beat_millis < ?",
+                System.currentTimeMillis() - RETENTION_MILLIS);
+            LOGGER.debug("[replica] 删除 {} 条过期心跳", purged);
+        } catch (SQLException e) {
+            LOGGER.warn("[replica] 删除过期心跳失败", e);
+        }
+        scheduler.scheduleWithFixedDelay(this::beat, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (update("UPDATE " + table + " SET beat_millis = ? WHERE instance_id = ?", now, instanceId) == 0) {
+                update("INSERT INTO " + table + " (instance_id, beat_millis) VALUES (?, ?)", instanceId, now);
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("[replica] 写入主库心跳失败", e);
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            try {
+                appliedBeats.set(i, readBeat(replicas.get(i)));
+            } catch (SQLException e) {
+                appliedBeats.set(i, 0);
+                LOGGER.warn("[replica] 读取从库 {} 的心跳失败", i, e);
+            }
+        }
+    }
+
+    /**
+     * @return 从库的数据最多落后的毫秒数，还没有读到心跳时为 Long.MAX_VALUE
+     */
+    public long staleness(int replica) {
+        long beat = appliedBeats.get(replica);
+        return beat == 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - beat);
+    }
+
+    /**
+     * 从上次选中的下一个从库开始轮询，返回第一个延迟不超过 maxStalenessMillis 的从库
+     *
+     * @return 从库编号，都不满足时为 -1
+     */
+    public int pick(long maxStalenessMillis) {
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int replica = (start + i) % count;
+            if (staleness(replica) <= maxStalenessMillis) {
+                return replica;
+            }
+        }
+        return -1;
+    }
+
+    public int replicaCount() {
+        return replicas.size();
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            update("DELETE FROM " + table + " WHERE instance_id = ?", instanceId);
+        } catch (SQLException e) {
+            LOGGER.debug("[replica] 删除本实例心跳失败", e);
+        }
+    }
+
+    private long readBeat(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                 "SELECT beat_millis FROM " + table + " WHERE instance_id = ?")) {
+            statement.setQueryTimeout(timeoutSeconds());
+            statement.setString(1, instanceId);
+            try (ResultSet rs = statement.executeQuery()) {
+                // 这一行还没有复制到从库
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    private int update(String sql, Object... args) throws SQLException {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setQueryTimeout(timeoutSeconds());
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private int timeoutSeconds() {
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(intervalMillis));
+    }
+}
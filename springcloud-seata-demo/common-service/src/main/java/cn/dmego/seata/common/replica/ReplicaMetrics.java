@@ -0,0 +1,54 @@
+package cn.dmego.seata.common.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @className: ReplicaMetrics
+ *
+ * @description: 读写分离指标：replica.reads（tag target=replica|primary，reason=ok|global_tx|local_tx|lag）、
+ *               replica.staleness（tag replica=从库编号，还没有读到心跳时为 -1）
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+public class ReplicaMetrics implements MeterBinder {
+
+    private final ReadOnlyInterceptor interceptor;
+
+    private final ReplicaLagMonitor monitor;
+
+    public ReplicaMetrics(ReadOnlyInterceptor interceptor, ReplicaLagMonitor monitor) {
+        this.interceptor = interceptor;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "replica", "ok", interceptor.replicaReads);
+        counter(registry, "primary", "global_tx", interceptor.globalTxFallbacks);
+        counter(registry, "primary", "local_tx", interceptor.localTxFallbacks);
+        counter(registry, "primary", "lag", interceptor.lagFallbacks);
+        for (int i = 0; i < monitor.replicaCount(); i++) {
+            int replica = i;
+            Gauge.builder("replica.staleness", monitor, m -> {
+                long staleness = m.staleness(replica);
+                return staleness == Long.MAX_VALUE ? -1 : staleness;
+            })
+                .tag("replica", String.valueOf(replica))
+                .baseUnit("milliseconds")
+                .description("从库的数据最多落后的时长")
+                .register(registry);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String target, String reason, LongAdder adder) {
+        FunctionCounter.builder("replica.reads", adder, LongAdder::sum)
+            .tag("target", target)
+            .tag("reason", reason)
+            .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package cn.dmego.seata.common.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @className: ReplicaProperties
+ *
+ * @description: @ReadOnly 语句读从库，前缀 dmego.replica。主库和每个从库各一个 Druid 连接池，
+ *               主库使用 spring.datasource，从库除 url 以外的连接池参数也都取自 spring.datasource
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+@ConfigurationProperties(prefix = "dmego.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 各从库的 JDBC URL，顺序即从库编号，从库上要有心跳表（由主库复制过去）
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * @ReadOnly 没有指定时允许读到的最大复制延迟，必须大于两倍的心跳间隔
+     */
+    private Duration maxStaleness = Duration.ofSeconds(1);
+
+    /**
+     * 写入和读取心跳的间隔，测得的延迟至少是这个间隔
+     */
+    private Duration heartbeatInterval = Duration.ofMillis(200);
+
+    /**
+     * 心跳表，见 zsql 中的 replica_heartbeat
+     */
+    private String heartbeatTable = "replica_heartbeat";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public Duration getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    public void setMaxStaleness(Duration maxStaleness) {
+        this.maxStaleness = maxStaleness;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public String getHeartbeatTable() {
+        return heartbeatTable;
+    }
+
+    public void setHeartbeatTable(String heartbeatTable) {
+        this.heartbeatTable = heartbeatTable;
+    }
+}
@@ -0,0 +1,77 @@
+package cn.dmego.seata.common.replica;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @className: ReplicaRoutingDataSource
+ *
+ * @description: 读写分离的主数据源。当前线程绑定了从库编号时（只在 @ReadOnly 方法执行期间）从该从库取连接，其余语句都落在主库。
+ *               连接在取出时决定去向，Spring 事务中已绑定的连接不受影响，所以事务内的语句始终使用主库
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final DruidDataSource primary;
+
+    private final List<DruidDataSource> replicas;
+
+    public ReplicaRoutingDataSource(DruidDataSource primary, List<DruidDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    public DruidDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<DruidDataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void close() {
+        replicas.forEach(DruidDataSource::close);
+        primary.close();
+    }
+
+    /**
+     * @return 当前线程绑定的从库编号，没有绑定时为 null
+     */
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static Integer bind(int replica) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(replica);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cn.dmego.seata.common.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @className: DecorrelatedJitterBackoff
+ *
+ * @description: 去相关抖动退避：next = min(cap, random(base, previous * multiplier))。
+ *               每次等待时长都依赖上一次的随机结果，同一时刻失败的大量重试会被打散，不会按固定节拍集中重放。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public class DecorrelatedJitterBackoff {
+
+    /**
+     * 乘数下限，过小时随机区间太窄，起不到打散的作用
+     */
+    private static final double MIN_MULTIPLIER = 1.5;
+
+    private final long baseMillis;
+
+    private final long capMillis;
+
+    private final double multiplier;
+
+    /**
+     * @param baseMillis 最小等待时长，对应状态机 Retry 的 IntervalSeconds
+     * @param capMillis 最大等待时长
+     * @param backoffRate 对应状态机 Retry 的 BackoffRate，作为随机区间上界的增长倍率
+     */
+    public DecorrelatedJitterBackoff(long baseMillis, long capMillis, double backoffRate) {
+        this.baseMillis = Math.max(1, baseMillis);
+        this.capMillis = Math.max(this.baseMillis, capMillis);
+        this.multiplier = Math.max(MIN_MULTIPLIER, backoffRate);
+    }
+
+    /**
+     * @param previousMillis 上一次的等待时长，第一次重试传 0
+     * @return 本次等待时长
+     */
+    public long next(long previousMillis) {
+        long previous = Math.max(baseMillis, previousMillis);
+        long upper = (long) Math.min((double) capMillis, previous * multiplier);
+        if (upper <= baseMillis) {
+            return baseMillis;
+        }
+        return Math.min(capMillis, ThreadLocalRandom.current().nextLong(baseMillis, upper + 1));
+    }
+}
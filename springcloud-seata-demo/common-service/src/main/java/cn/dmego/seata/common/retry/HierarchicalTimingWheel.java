@@ -0,0 +1,290 @@
+package cn.dmego.seata.common.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * @className: HierarchicalTimingWheel
+ *
+ * @description: 分层时间轮。只有非空的槽会进入 DelayQueue，单个 tick 线程推进时钟，
+ *               到期任务交给 taskExecutor 执行；超出当前层范围的任务放到上一层，随时钟推进逐层降级。
+ *               大量延迟任务不需要各自占用一个 sleep 的线程。taskExecutor 拒绝到期任务时交给任务的 onRejected，
+ *               不在 tick 线程上执行，避免一个慢任务拖住所有定时任务。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HierarchicalTimingWheel.class);
+
+    private final Executor taskExecutor;
+
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Level root;
+
+    private final Thread ticker;
+
+    private volatile boolean running = true;
+
+    public HierarchicalTimingWheel(String name, long tickMillis, int wheelSize, Executor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+        this.root = new Level(tickMillis, wheelSize, now());
+        this.ticker = new Thread(this::run, name + "-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * 延迟 delayMillis 后执行 task，到期时 taskExecutor 拒绝执行则丢弃并记录错误日志
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        return schedule(task, delayMillis,
+            e -> LOGGER.error("[schedule] 到期任务被拒绝执行, 已丢弃: {}", task, e));
+    }
+
+    /**
+     * 延迟 delayMillis 后执行 task
+     *
+     * @param onRejected 到期时 taskExecutor 拒绝执行的回调，可能在 tick 线程或调用方线程上执行
+     */
+    public Timeout schedule(Runnable task, long delayMillis, Consumer<RejectedExecutionException> onRejected) {
+        Entry entry = new Entry(task, onRejected, now() + Math.max(0, delayMillis));
+        pending.incrementAndGet();
+        lock.readLock().lock();
+        try {
+            addOrRun(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return entry;
+    }
+
+    /**
+     * @return 尚未执行的任务数
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        ticker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Bucket bucket = delayQueue.poll(200, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        root.advanceClock(bucket.getExpiration());
+                        for (Entry entry : bucket.flush()) {
+                            addOrRun(entry);
+                        }
+                        bucket = delayQueue.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                LOGGER.error("[run] 时间轮推进失败", e);
+            }
+        }
+    }
+
+    private void addOrRun(Entry entry) {
+        if (entry.cancelled) {
+            return;
+        }
+        if (!root.add(entry)) {
+            // 已到期
+            if (entry.claim()) {
+                pending.decrementAndGet();
+                try {
+                    taskExecutor.execute(entry.task);
+                } catch (RejectedExecutionException e) {
+                    entry.onRejected.accept(e);
+                }
+            }
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * 可取消的定时任务句柄
+     */
+    public interface Timeout {
+
+        /**
+         * @return 任务还没执行且取消成功时返回 true
+         */
+        boolean cancel();
+    }
+
+    private final class Entry implements Timeout {
+
+        private final Runnable task;
+
+        private final Consumer<RejectedExecutionException> onRejected;
+
+        private final long expiration;
+
+        private final AtomicInteger state = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        Entry(Runnable task, Consumer<RejectedExecutionException> onRejected, long expiration) {
+            this.task = task;
+            this.onRejected = onRejected;
+            this.expiration = expiration;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(0, 1);
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(0, 2)) {
+                cancelled = true;
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final class Level {
+
+        private final long tickMillis;
+
+        private final int wheelSize;
+
+        private final long interval;
+
+        private final Bucket[] buckets;
+
+        private long currentTime;
+
+        private volatile Level overflow;
+
+        Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.wheelSize = wheelSize;
+            this.interval = tickMillis * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMillis - (startMillis % tickMillis);
+        }
+
+        /**
+         * @return false 表示任务已到期，需要立即执行
+         */
+        boolean add(Entry entry) {
+            long expiration = entry.expiration;
+            if (expiration < currentTime + tickMillis) {
+                return false;
+            }
+            if (expiration < currentTime + interval) {
+                long virtualId = expiration / tickMillis;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMillis)) {
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(entry);
+        }
+
+        void advanceClock(long timeMillis) {
+            if (timeMillis >= currentTime + tickMillis) {
+                currentTime = timeMillis - (timeMillis % tickMillis);
+                Level level = overflow;
+                if (level != null) {
+                    level.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Level overflow() {
+            Level level = overflow;
+            if (level == null) {
+                synchronized (this) {
+                    level = overflow;
+                    if (level == null) {
+                        level = new Level(interval, wheelSize, currentTime);
+                        overflow = level;
+                    }
+                }
+            }
+            return level;
+        }
+    }
+
+    private static final class Bucket implements Delayed {
+
+        private final AtomicLong expiration = new AtomicLong(-1L);
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        synchronized void add(Entry entry) {
+            entries.add(entry);
+        }
+
+        synchronized List<Entry> flush() {
+            List<Entry> flushed = new ArrayList<>(entries);
+            entries.clear();
+            expiration.set(-1L);
+            return flushed;
+        }
+
+        boolean setExpiration(long expirationMillis) {
+            return expiration.getAndSet(expirationMillis) != expirationMillis;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - now(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+}
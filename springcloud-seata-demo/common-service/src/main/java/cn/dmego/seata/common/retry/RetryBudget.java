@@ -0,0 +1,119 @@
+package cn.dmego.seata.common.retry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @className: RetryBudget
+ *
+ * @description: 按下游服务统计的全局重试预算。在最近 windowSeconds 秒内，某个下游的重试次数不超过
+ *               minRetriesPerSecond * windowSeconds + ratio * 首次请求数。下游故障时大部分请求都会失败，
+ *               重试量被限制在正常流量的一个比例内，不会把刚恢复的服务再次压垮。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public class RetryBudget {
+
+    private final double ratio;
+
+    private final int minRetriesPerSecond;
+
+    private final int windowSeconds;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RetryBudget(double ratio, int minRetriesPerSecond, int windowSeconds) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * 记录一次首次调用
+     */
+    public void recordRequest(String downstream) {
+        window(downstream).add(0, 1);
+    }
+
+    /**
+     * 申请一次重试
+     *
+     * @return 预算不足时返回 false
+     */
+    public boolean tryAcquireRetry(String downstream) {
+        Window window = window(downstream);
+        synchronized (window) {
+            long[] sums = window.sums();
+            double allowed = (double) minRetriesPerSecond * windowSeconds + ratio * sums[0];
+            if (sums[1] + 1 > allowed) {
+                return false;
+            }
+            window.add(1, 1);
+            return true;
+        }
+    }
+
+    private Window window(String downstream) {
+        return windows.computeIfAbsent(downstream, k -> new Window(windowSeconds));
+    }
+
+    /**
+     * 按秒分桶的滑动窗口，下标 0 记首次请求数，下标 1 记重试数。
+     * 每个桶是一个 long：高 32 位为桶所属的秒（相对窗口创建时间），低 32 位为计数，
+     * 跨秒时用一次 CAS 同时换掉秒和计数，并发的累加不会被重置覆盖
+     */
+    private static final class Window {
+
+        private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+        private final int size;
+
+        private final long startSecond;
+
+        private final AtomicLongArray requests;
+
+        private final AtomicLongArray retries;
+
+        Window(int size) {
+            this.size = size;
+            this.startSecond = currentSecond();
+            this.requests = new AtomicLongArray(size);
+            this.retries = new AtomicLongArray(size);
+        }
+
+        void add(int kind, long delta) {
+            long second = currentSecond() - startSecond;
+            int index = (int) (second % size);
+            AtomicLongArray buckets = kind == 0 ? requests : retries;
+            while (true) {
+                long bucket = buckets.get(index);
+                long updated = (bucket >>> 32) == second ? bucket + delta : (second << 32) | delta;
+                if (buckets.compareAndSet(index, bucket, updated)) {
+                    return;
+                }
+            }
+        }
+
+        long[] sums() {
+            long second = currentSecond() - startSecond;
+            return new long[] {sum(requests, second), sum(retries, second)};
+        }
+
+        private long sum(AtomicLongArray buckets, long second) {
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                long bucket = buckets.get(i);
+                if (second - (bucket >>> 32) < size) {
+                    sum += bucket & COUNT_MASK;
+                }
+            }
+            return sum;
+        }
+
+        private static long currentSecond() {
+            return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package cn.dmego.seata.common.retry;
+
+/**
+ * @className: RetryListener
+ *
+ * @description: 重试事件回调，用于对接指标系统
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public interface RetryListener {
+
+    RetryListener NONE = new RetryListener() {
+    };
+
+    /**
+     * 已安排一次重试
+     */
+    default void onRetryScheduled(String downstream, int attempt, long delayMillis) {
+    }
+
+    /**
+     * 因为重试预算耗尽放弃重试
+     */
+    default void onBudgetExhausted(String downstream) {
+    }
+
+    /**
+     * 达到最大重试次数或异常不可重试，最终失败
+     */
+    default void onGiveUp(String downstream, int attempts, Throwable cause) {
+    }
+}
@@ -0,0 +1,33 @@
+package cn.dmego.seata.common.retry;
+
+/**
+ * @className: RetryPolicy
+ *
+ * @description: 一组重试配置：最大重试次数 + 退避策略。同一次调用可以按异常类型匹配到不同的 RetryPolicy，
+ *               每个 RetryPolicy 单独计数
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public class RetryPolicy {
+
+    private final int maxRetries;
+
+    private final DecorrelatedJitterBackoff backoff;
+
+    /**
+     * @param maxRetries 最大重试次数，不含第一次调用
+     * @param backoff 退避策略
+     */
+    public RetryPolicy(int maxRetries, DecorrelatedJitterBackoff backoff) {
+        this.maxRetries = maxRetries;
+        this.backoff = backoff;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public DecorrelatedJitterBackoff getBackoff() {
+        return backoff;
+    }
+}
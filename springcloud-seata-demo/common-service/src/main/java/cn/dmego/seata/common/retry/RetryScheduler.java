@@ -0,0 +1,138 @@
+package cn.dmego.seata.common.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * @className: RetryScheduler
+ *
+ * @description: 基于时间轮的重试调度器。第一次调用在调用方线程执行，失败后按去相关抖动算出等待时长，
+ *               把下一次调用挂到时间轮上，到期后在 attemptExecutor 上执行，等待期间不占用任何线程；
+ *               每次重试前先向 {@link RetryBudget} 申请额度，额度不足或重试线程池拒绝执行时直接以最后一次的异常结束。
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 16:20
+ **/
+public class RetryScheduler implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryScheduler.class);
+
+    private final HierarchicalTimingWheel timingWheel;
+
+    private final RetryBudget retryBudget;
+
+    private final RetryListener listener;
+
+    public RetryScheduler(String name, long tickMillis, int wheelSize, Executor attemptExecutor,
+                          RetryBudget retryBudget, RetryListener listener) {
+        this.timingWheel = new HierarchicalTimingWheel(name, tickMillis, wheelSize, attemptExecutor);
+        this.retryBudget = retryBudget;
+        this.listener = listener == null ? RetryListener.NONE : listener;
+    }
+
+    /**
+     * @param downstream 下游服务名称，用于重试预算和指标
+     * @param call 实际调用
+     * @param policy 固定使用的重试配置
+     * @return 最终结果，失败时以最后一次调用的异常结束
+     */
+    public <T> CompletableFuture<T> execute(String downstream, Callable<T> call, RetryPolicy policy) {
+        return execute(downstream, call, e -> policy);
+    }
+
+    /**
+     * @param downstream 下游服务名称，用于重试预算和指标
+     * @param call 实际调用
+     * @param policySelector 按异常选择重试配置，返回 null 表示该异常不重试
+     * @return 最终结果，失败时以最后一次调用的异常结束
+     */
+    public <T> CompletableFuture<T> execute(String downstream, Callable<T> call,
+                                            Function<Throwable, RetryPolicy> policySelector) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        retryBudget.recordRequest(downstream);
+        new Attempt<>(downstream, call, policySelector, result).run();
+        return result;
+    }
+
+    public int pendingRetries() {
+        return timingWheel.size();
+    }
+
+    @Override
+    public void close() {
+        timingWheel.close();
+    }
+
+    private final class Attempt<T> implements Runnable {
+
+        private final String downstream;
+
+        private final Callable<T> call;
+
+        private final Function<Throwable, RetryPolicy> policySelector;
+
+        private final CompletableFuture<T> result;
+
+        /**
+         * 每个重试配置的 {已重试次数, 上一次等待时长}。同一时刻只有一次调用在执行，不需要同步
+         */
+        private final Map<RetryPolicy, long[]> progress = new IdentityHashMap<>();
+
+        private int attempts;
+
+        Attempt(String downstream, Callable<T> call, Function<Throwable, RetryPolicy> policySelector,
+                CompletableFuture<T> result) {
+            this.downstream = downstream;
+            this.call = call;
+            this.policySelector = policySelector;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            attempts++;
+            try {
+                result.complete(call.call());
+            } catch (Throwable e) {
+                onFailure(e);
+            }
+        }
+
+        private void onFailure(Throwable e) {
+            RetryPolicy policy = policySelector.apply(e);
+            long[] state = policy == null ? null : progress.computeIfAbsent(policy, p -> new long[2]);
+            if (state == null || state[0] >= policy.getMaxRetries()) {
+                listener.onGiveUp(downstream, attempts, e);
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!retryBudget.tryAcquireRetry(downstream)) {
+                LOGGER.warn("[onFailure] 下游 {} 的重试预算已耗尽, 放弃重试: {}", downstream, e.toString());
+                listener.onBudgetExhausted(downstream);
+                result.completeExceptionally(e);
+                return;
+            }
+            state[0]++;
+            state[1] = policy.getBackoff().next(state[1]);
+            listener.onRetryScheduled(downstream, attempts, state[1]);
+            try {
+                timingWheel.schedule(this, state[1], rejected -> {
+                    e.addSuppressed(rejected);
+                    result.completeExceptionally(e);
+                });
+            } catch (RuntimeException scheduleError) {
+                e.addSuppressed(scheduleError);
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
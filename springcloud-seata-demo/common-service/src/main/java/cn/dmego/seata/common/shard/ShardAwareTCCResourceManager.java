@@ -0,0 +1,119 @@
+package cn.dmego.seata.common.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.seata.common.Constants;
+import io.seata.common.loader.LoadLevel;
+import io.seata.core.exception.TransactionException;
+import io.seata.core.model.BranchStatus;
+import io.seata.core.model.BranchType;
+import io.seata.rm.tcc.TCCFenceHandler;
+import io.seata.rm.tcc.TCCResourceManager;
+import io.seata.rm.tcc.store.db.TCCFenceStoreDataBaseDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * @className: ShardAwareTCCResourceManager
+ *
+ * @description: 二阶段提交 / 回滚之前按 action 上下文中的分片键绑定分片，TCCFenceHandler 的 fence 事务和
+ *               Confirm / Cancel 中的业务 SQL 都落在 Try 所在的分片。order 大于 Seata 自带的 TCCResourceManager，
+ *               通过 SPI 替换它；未开启分片或 action 没有配置分片键时与原来完全相同
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+@LoadLevel(name = "ShardAwareTCC", order = 100)
+public class ShardAwareTCCResourceManager extends TCCResourceManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardAwareTCCResourceManager.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public BranchStatus branchCommit(BranchType branchType, String xid, long branchId, String resourceId,
+                                     String applicationData) throws TransactionException {
+        int shard = shardOf(resourceId, xid, branchId, applicationData);
+        if (shard < 0) {
+            return super.branchCommit(branchType, xid, branchId, resourceId, applicationData);
+        }
+        Integer previous = Shards.bind(shard);
+        try {
+            return super.branchCommit(branchType, xid, branchId, resourceId, applicationData);
+        } finally {
+            Shards.restore(previous);
+        }
+    }
+
+    @Override
+    public BranchStatus branchRollback(BranchType branchType, String xid, long branchId, String resourceId,
+                                       String applicationData) throws TransactionException {
+        int shard = shardOf(resourceId, xid, branchId, applicationData);
+        if (shard < 0) {
+            return super.branchRollback(branchType, xid, branchId, resourceId, applicationData);
+        }
+        Integer previous = Shards.bind(shard);
+        try {
+            return super.branchRollback(branchType, xid, branchId, resourceId, applicationData);
+        } finally {
+            Shards.restore(previous);
+        }
+    }
+
+    /**
+     * @return 分片编号，不需要路由时为 -1。配置了分片键但上下文中没有时（分片键未声明为 action 上下文参数的旧分支），
+     *         按 fence 记录所在的分片处理；所有分片上都没有 fence 记录时为 -1，与未分片时一样使用 0 号分片
+     */
+    static int shardOf(String resourceId, String xid, long branchId, String applicationData) {
+        if (Shards.count() == 1) {
+            return -1;
+        }
+        String key = Shards.actionKey(resourceId);
+        if (key == null) {
+            return -1;
+        }
+        String value = null;
+        if (applicationData != null && !applicationData.isEmpty()) {
+            try {
+                JsonNode node = MAPPER.readTree(applicationData).path(Constants.TCC_ACTION_CONTEXT).get(key);
+                value = node == null || node.isNull() ? null : node.asText();
+            } catch (IOException e) {
+                LOGGER.warn("[shard] 无法解析 {} 的 action 上下文, 按 fence 记录查找分片", resourceId, e);
+            }
+        }
+        if (value != null) {
+            return Shards.shardOf(value);
+        }
+        int shard = fenceShard(xid, branchId);
+        LOGGER.warn("[shard] {} 的 action 上下文中没有分片键 {}, xid {} branchId {} 的 fence 记录在分片 {}",
+            resourceId, key, xid, branchId, shard);
+        return shard;
+    }
+
+    /**
+     * 逐个分片查找分支的 fence 记录，查询失败时抛出异常由 TC 重试二阶段
+     */
+    private static int fenceShard(String xid, long branchId) {
+        DataSource dataSource = TCCFenceHandler.getDataSource();
+        if (dataSource == null) {
+            return -1;
+        }
+        for (int shard = 0; shard < Shards.count(); shard++) {
+            boolean found = Shards.on(shard, () -> {
+                try (Connection connection = dataSource.getConnection()) {
+                    return TCCFenceStoreDataBaseDAO.getInstance().queryTCCFenceDO(connection, xid, branchId) != null;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("[shard] 查询 fence 记录失败, xid " + xid, e);
+                }
+            });
+            if (found) {
+                return shard;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,46 @@
+package cn.dmego.seata.common.shard;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @className: ShardRoutingDataSource
+ *
+ * @description: 按 Shards 绑定的分片选择连接池，没有绑定分片的语句（fence 表检查、幂等记录等）落在 0 号分片。
+ *               Spring 的事务和 JdbcTemplate 以这个 DataSource 为 key 绑定连接，同一个事务内的语句始终使用事务开始时的分片
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DruidDataSource> shards;
+
+    public ShardRoutingDataSource(List<DruidDataSource> shards) {
+        this.shards = Collections.unmodifiableList(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.current();
+    }
+
+    public List<DruidDataSource> getShards() {
+        return shards;
+    }
+
+    public void close() {
+        shards.forEach(DruidDataSource::close);
+    }
+}
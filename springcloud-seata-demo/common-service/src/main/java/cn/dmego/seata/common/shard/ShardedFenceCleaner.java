@@ -0,0 +1,55 @@
+package cn.dmego.seata.common.shard;
+
+import io.seata.rm.tcc.TCCFenceHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @className: ShardedFenceCleaner
+ *
+ * @description: Seata 自带的 fence 清理任务不绑定分片，只会清理 0 号分片，这里按周期逐个分片删除过期的 tcc_fence_log
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+public class ShardedFenceCleaner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedFenceCleaner.class);
+
+    private final long periodMillis;
+
+    private final ScheduledExecutorService scheduler;
+
+    public ShardedFenceCleaner(long periodMillis) {
+        this.periodMillis = periodMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shard-fence-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::clean, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void clean() {
+        Date before = new Date(System.currentTimeMillis() - periodMillis);
+        for (int shard = 0; shard < Shards.count(); shard++) {
+            try {
+                int deleted = Shards.on(shard, () -> TCCFenceHandler.deleteFenceByDate(before));
+                LOGGER.debug("[shard] 分片 {} 删除 {} 条过期 fence 记录", shard, deleted);
+            } catch (RuntimeException e) {
+                LOGGER.warn("[shard] 分片 {} 删除过期 fence 记录失败", shard, e);
+            }
+        }
+    }
+
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
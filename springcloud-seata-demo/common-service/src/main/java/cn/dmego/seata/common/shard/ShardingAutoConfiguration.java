@@ -0,0 +1,108 @@
+package cn.dmego.seata.common.shard;
+
+import cn.dmego.seata.common.datasource.DataSourcePoolAutoConfiguration;
+import cn.dmego.seata.common.datasource.DataSourcePoolMetrics;
+import cn.dmego.seata.common.datasource.SqlTimingFilter;
+import com.alibaba.druid.pool.DruidDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.seata.rm.tcc.TCCFenceHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @className: ShardingAutoConfiguration
+ *
+ * @description: 按账户ID哈希分库，dmego.sharding.enabled=true 开启。主数据源换成 ShardRoutingDataSource，
+ *               JdbcTemplate、事务管理器和 Seata 的 TCC fence 都使用它，fence 表随业务表分布在各个分片上。
+ *               排在共享连接池的自动配置之前，开启后不再创建单个的 Druid 连接池
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({DruidDataSource.class, AbstractRoutingDataSource.class})
+@ConditionalOnProperty(prefix = "dmego.sharding", name = "enabled", havingValue = "true")
+@AutoConfigureBefore(value = {DataSourcePoolAutoConfiguration.class, DataSourceAutoConfiguration.class},
+    name = "com.alibaba.druid.spring.boot.autoconfigure.DruidDataSourceAutoConfigure")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingAutoConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardingAutoConfiguration.class);
+
+    static final String POOL_NAME = "dataSource";
+
+    @Bean(name = POOL_NAME, destroyMethod = "close")
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, Environment environment,
+                                             ObjectProvider<SqlTimingFilter> sqlTimingFilter) throws SQLException {
+        List<String> urls = properties.getUrls();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("[shard] 开启分片时 dmego.sharding.urls 不能为空");
+        }
+        Binder binder = Binder.get(environment);
+        List<DruidDataSource> shards = new ArrayList<>(urls.size());
+        try {
+            for (int i = 0; i < urls.size(); i++) {
+                DruidDataSource pool = new DruidDataSource();
+                binder.bind("spring.datasource", Bindable.ofInstance(pool));
+                pool.setUrl(urls.get(i));
+                pool.setName(POOL_NAME + "-" + i);
+                sqlTimingFilter.ifAvailable(filter -> pool.setProxyFilters(Collections.singletonList(filter)));
+                shards.add(pool);
+                pool.init();
+            }
+        } catch (SQLException | RuntimeException e) {
+            shards.forEach(DruidDataSource::close);
+            throw e;
+        }
+        Shards.configure(urls.size(), properties.getActionKeys());
+        LOGGER.info("[shard] 开启分库, 分片数 {}, TCC 分片键 {}", urls.size(), properties.getActionKeys());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(TCCFenceHandler.class)
+    static class ShardedFenceConfiguration {
+
+        @Bean(initMethod = "start", destroyMethod = "close")
+        public ShardedFenceCleaner shardedFenceCleaner(ShardingProperties properties) {
+            return new ShardedFenceCleaner(properties.getFenceCleanPeriod().toMillis());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class ShardPoolMetricsConfiguration {
+
+        /**
+         * 每个分片的连接池一组指标，tag pool 为 dataSource-分片编号
+         */
+        @Bean
+        public SmartInitializingSingleton shardPoolMetricsBinder(ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 ShardRoutingDataSource dataSource,
+                                                                 ObjectProvider<SqlTimingFilter> sqlTimingFilter) {
+            return () -> meterRegistry.ifAvailable(registry -> {
+                for (DruidDataSource pool : dataSource.getShards()) {
+                    new DataSourcePoolMetrics(pool, pool.getName(), null).bindTo(registry);
+                }
+                sqlTimingFilter.ifAvailable(filter -> filter.bind(registry, POOL_NAME));
+            });
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package cn.dmego.seata.common.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @className: ShardingProperties
+ *
+ * @description: 按账户ID哈希分库，前缀 dmego.sharding。每个分片一个 Druid 连接池，
+ *               除 url 以外的连接池参数（username、maxActive、filters 等）都取自 spring.datasource
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+@ConfigurationProperties(prefix = "dmego.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 各分片的 JDBC URL，顺序即分片编号，每个分片库都要有业务表和 tcc_fence_log
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * TCC action 名称 -> 二阶段从 action 上下文中取分片键的参数名，例如 IOutAccountService: outId
+     */
+    private Map<String, String> actionKeys = new LinkedHashMap<>();
+
+    /**
+     * 各分片上 tcc_fence_log 的保留时长，也是清理周期
+     */
+    private Duration fenceCleanPeriod = Duration.ofDays(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<String> urls) {
+        this.urls = urls;
+    }
+
+    public Map<String, String> getActionKeys() {
+        return actionKeys;
+    }
+
+    public void setActionKeys(Map<String, String> actionKeys) {
+        this.actionKeys = actionKeys;
+    }
+
+    public Duration getFenceCleanPeriod() {
+        return fenceCleanPeriod;
+    }
+
+    public void setFenceCleanPeriod(Duration fenceCleanPeriod) {
+        this.fenceCleanPeriod = fenceCleanPeriod;
+    }
+}
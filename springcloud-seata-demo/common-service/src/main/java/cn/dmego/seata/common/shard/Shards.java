@@ -0,0 +1,152 @@
+package cn.dmego.seata.common.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * @className: Shards
+ *
+ * @description: 当前线程绑定的分片。ShardRoutingDataSource 按绑定的分片选择连接池，没有绑定时使用 0 号分片。
+ *               TCC 的 fence 事务在 Try / Confirm / Cancel 方法之前就取得连接，所以分片要在调用 TCC 方法之前绑定：
+ *               一阶段由调用方 route(账户ID, ...)，二阶段由 ShardAwareTCCResourceManager 按 action 上下文中的账户ID绑定，
+ *               fence 记录和业务 SQL 落在同一个分片的同一个本地事务中。
+ *               未开启分片时只有一个分片，所有方法直接执行
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+public final class Shards {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private static volatile int count = 1;
+
+    private static volatile Map<String, String> actionKeys = Collections.emptyMap();
+
+    private Shards() {
+    }
+
+    /**
+     * @param shardCount 分片数
+     * @param keys       TCC action 名称 -> action 上下文中作为分片键的参数名
+     */
+    static void configure(int shardCount, Map<String, String> keys) {
+        count = shardCount;
+        actionKeys = Collections.unmodifiableMap(new HashMap<>(keys));
+    }
+
+    public static int count() {
+        return count;
+    }
+
+    /**
+     * 分片数变化后同一个账户会落到其他分片，需要重新初始化数据
+     */
+    public static int shardOf(String key) {
+        int shards = count;
+        return shards == 1 ? 0 : Math.floorMod(key.hashCode(), shards);
+    }
+
+    /**
+     * @return 当前线程绑定的分片，没有绑定时为 null
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 在 key 所在的分片上执行。当前线程已绑定分片时（例如在 fence 事务内）只检查是否一致，
+     * 不一致说明连接已经取自其他分片，直接失败而不是把数据写到错误的分片
+     */
+    public static <T> T route(String key, Supplier<T> action) {
+        int shard = shardOf(key);
+        Integer bound = CURRENT.get();
+        if (bound == null) {
+            return on(shard, action);
+        }
+        if (bound != shard) {
+            throw new IllegalStateException("[shard] " + key + " 属于分片 " + shard + ", 当前线程绑定的是分片 " + bound);
+        }
+        return action.get();
+    }
+
+    public static <T> T on(int shard, Supplier<T> action) {
+        Integer previous = bind(shard);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 每个分片一个线程并行执行，线程上已绑定该分片，全部结束后返回，有分片失败时抛出第一个异常
+     */
+    public static void forEachShard(IntConsumer action) {
+        int shards = count;
+        if (shards == 1) {
+            on(0, () -> {
+                action.accept(0);
+                return null;
+            });
+            return;
+        }
+        AtomicInteger index = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(shards, r -> {
+            Thread thread = new Thread(r, "shard-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(shards);
+            for (int i = 0; i < shards; i++) {
+                int shard = i;
+                futures.add(executor.submit(() -> on(shard, () -> {
+                    action.accept(shard);
+                    return null;
+                })));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("[shard] 等待各分片执行结束时被中断", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return TCC action 的分片键参数名，没有配置时为 null
+     */
+    static String actionKey(String actionName) {
+        return actionKeys.get(actionName);
+    }
+
+    static Integer bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
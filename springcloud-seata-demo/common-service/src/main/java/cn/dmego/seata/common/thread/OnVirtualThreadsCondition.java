@@ -0,0 +1,32 @@
+package cn.dmego.seata.common.thread;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * @className: OnVirtualThreadsCondition
+ *
+ * @description: dmego.threads.mode 为 virtual / auto 且当前 JVM 支持虚拟线程时匹配
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+class OnVirtualThreadsCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        ThreadingProperties.Mode mode = Binder.get(context.getEnvironment())
+            .bind("dmego.threads.mode", ThreadingProperties.Mode.class)
+            .orElse(ThreadingProperties.Mode.PLATFORM);
+        if (mode == ThreadingProperties.Mode.PLATFORM) {
+            return ConditionOutcome.noMatch("dmego.threads.mode is platform");
+        }
+        if (!VirtualThreads.isSupported()) {
+            return ConditionOutcome.noMatch("virtual threads are not supported on Java "
+                + System.getProperty("java.version"));
+        }
+        return ConditionOutcome.match("dmego.threads.mode is " + mode.name().toLowerCase());
+    }
+}
@@ -0,0 +1,199 @@
+package cn.dmego.seata.common.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * @className: PinningMonitor
+ *
+ * @description: 订阅 JFR 的 jdk.VirtualThreadPinned 事件，统计虚拟线程被钉在载体线程上的位置。
+ *               虚拟线程在 synchronized 块或本地方法中阻塞时不能卸载，会一直占用载体线程，载体线程都被钉住后其他虚拟线程无法调度。
+ *               每个事件按栈顶第一个非 JDK 的方法归类，新出现的位置输出一次告警并打印栈，之后只计数。
+ *               JFR 的事件流 API 同样通过反射调用，只在虚拟线程模式下启动
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+public class PinningMonitor implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PinningMonitor.class);
+
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_SITES = 256;
+
+    private static final int LOGGED_FRAMES = 12;
+
+    private final long thresholdMillis;
+
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    private final AtomicLong pinnedCount = new AtomicLong();
+
+    private final AtomicLong pinnedNanos = new AtomicLong();
+
+    private AutoCloseable stream;
+
+    private Method getDuration;
+
+    private Method getStackTrace;
+
+    private Method getFrames;
+
+    private Method getMethod;
+
+    private Method getLineNumber;
+
+    private Method getType;
+
+    private Method getClassName;
+
+    private Method getMethodName;
+
+    public PinningMonitor(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    /**
+     * @return 事件流启动成功返回 true，JVM 不支持 JFR 事件流时返回 false
+     */
+    public synchronized boolean start() {
+        if (stream != null) {
+            return true;
+        }
+        try {
+            Class<?> streamClass = Class.forName("jdk.jfr.consumer.RecordingStream");
+            Class<?> settingsClass = Class.forName("jdk.jfr.EventSettings");
+            Class<?> eventClass = Class.forName("jdk.jfr.consumer.RecordedEvent");
+            Class<?> stackTraceClass = Class.forName("jdk.jfr.consumer.RecordedStackTrace");
+            Class<?> frameClass = Class.forName("jdk.jfr.consumer.RecordedFrame");
+            Class<?> methodClass = Class.forName("jdk.jfr.consumer.RecordedMethod");
+            Class<?> classClass = Class.forName("jdk.jfr.consumer.RecordedClass");
+            getDuration = eventClass.getMethod("getDuration");
+            getStackTrace = eventClass.getMethod("getStackTrace");
+            getFrames = stackTraceClass.getMethod("getFrames");
+            getMethod = frameClass.getMethod("getMethod");
+            getLineNumber = frameClass.getMethod("getLineNumber");
+            getType = methodClass.getMethod("getType");
+            getClassName = classClass.getMethod("getName");
+            getMethodName = methodClass.getMethod("getName");
+
+            Object recording = streamClass.getConstructor().newInstance();
+            Object settings = streamClass.getMethod("enable", String.class).invoke(recording, EVENT_NAME);
+            settings = settingsClass.getMethod("withThreshold", Duration.class)
+                .invoke(settings, Duration.ofMillis(thresholdMillis));
+            settingsClass.getMethod("withStackTrace").invoke(settings);
+            Consumer<Object> handler = this::onEvent;
+            streamClass.getMethod("onEvent", String.class, Consumer.class).invoke(recording, EVENT_NAME, handler);
+            streamClass.getMethod("startAsync").invoke(recording);
+            stream = (AutoCloseable) recording;
+            LOGGER.info("[vthread] 已开启虚拟线程钉住检测, 阈值 {}ms", thresholdMillis);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("[vthread] 无法开启虚拟线程钉住检测: {}", e.toString());
+            return false;
+        }
+    }
+
+    private void onEvent(Object event) {
+        try {
+            Duration duration = (Duration) getDuration.invoke(event);
+            pinnedCount.incrementAndGet();
+            pinnedNanos.addAndGet(duration.toNanos());
+            Object stackTrace = getStackTrace.invoke(event);
+            List<?> frames = stackTrace == null ? Collections.emptyList() : (List<?>) getFrames.invoke(stackTrace);
+            String site = site(frames);
+            LongAdder counter = sites.get(site);
+            if (counter == null) {
+                if (sites.size() >= MAX_SITES) {
+                    return;
+                }
+                LongAdder created = new LongAdder();
+                counter = sites.putIfAbsent(site, created);
+                if (counter == null) {
+                    counter = created;
+                    LOGGER.warn("[vthread] 虚拟线程在 {} 被钉住 {}ms, 调用栈:\n{}", site, duration.toMillis(),
+                        describe(frames));
+                }
+            }
+            counter.increment();
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("[vthread] 解析钉住事件失败", e);
+        }
+    }
+
+    /**
+     * 栈顶第一个非 JDK 的方法，全部是 JDK 方法时取栈顶
+     */
+    private String site(List<?> frames) throws ReflectiveOperationException {
+        String top = null;
+        for (Object frame : frames) {
+            String name = frameName(frame);
+            if (top == null) {
+                top = name;
+            }
+            if (!name.startsWith("java.") && !name.startsWith("jdk.") && !name.startsWith("sun.")) {
+                return name;
+            }
+        }
+        return top == null ? "unknown" : top;
+    }
+
+    private String describe(List<?> frames) throws ReflectiveOperationException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < frames.size() && i < LOGGED_FRAMES; i++) {
+            builder.append("\tat ").append(frameName(frames.get(i)))
+                .append(':').append(getLineNumber.invoke(frames.get(i))).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private String frameName(Object frame) throws ReflectiveOperationException {
+        Object method = getMethod.invoke(frame);
+        if (method == null) {
+            return "unknown";
+        }
+        return getClassName.invoke(getType.invoke(method)) + "." + getMethodName.invoke(method);
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    public double getPinnedSeconds() {
+        return pinnedNanos.get() / 1e9;
+    }
+
+    /**
+     * @return 各位置的钉住次数，按次数从多到少排列
+     */
+    public Map<String, Long> hotSpots() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        sites.entrySet().stream()
+            .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+            .forEach(entry -> result.put(entry.getKey(), entry.getValue().sum()));
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (stream != null) {
+            try {
+                stream.close();
+            } catch (Exception e) {
+                LOGGER.debug("[vthread] 关闭 JFR 事件流失败", e);
+            }
+            stream = null;
+        }
+    }
+}
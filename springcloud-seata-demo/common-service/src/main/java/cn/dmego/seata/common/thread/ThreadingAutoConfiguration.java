@@ -0,0 +1,70 @@
+package cn.dmego.seata.common.thread;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.undertow.servlet.api.DeploymentInfo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @className: ThreadingAutoConfiguration
+ *
+ * @description: 按 dmego.threads.mode 选择请求处理使用的线程，默认 platform，与原来的行为相同。
+ *               虚拟线程模式下：Undertow 的 Servlet 请求在虚拟线程上执行，
+ *               并通过 JFR 检测虚拟线程被钉住的位置，指标 vthread.pinned、vthread.pinned.time
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ThreadingProperties.class)
+public class ThreadingAutoConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(OnVirtualThreadsCondition.class)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass({UndertowServletWebServerFactory.class, DeploymentInfo.class})
+    static class VirtualThreadWebServerConfiguration {
+
+        @Bean
+        public VirtualThreadUndertowCustomizer virtualThreadUndertowCustomizer() {
+            return new VirtualThreadUndertowCustomizer();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @Conditional(OnVirtualThreadsCondition.class)
+    @ConditionalOnProperty(prefix = "dmego.threads", name = "pinning-monitor-enabled", havingValue = "true",
+        matchIfMissing = true)
+    static class PinningMonitorConfiguration {
+
+        @Bean(initMethod = "start", destroyMethod = "close")
+        public PinningMonitor pinningMonitor(ThreadingProperties properties) {
+            return new PinningMonitor(properties.getPinningThresholdMillis());
+        }
+
+        @Configuration(proxyBeanMethods = false)
+        @ConditionalOnClass(MeterRegistry.class)
+        static class PinningMetricsConfiguration {
+
+            /**
+             * actuator 会把容器中的 MeterBinder 绑定到 MeterRegistry
+             */
+            @Bean
+            public MeterBinder pinningMetrics(PinningMonitor pinningMonitor) {
+                return registry -> {
+                    FunctionCounter.builder("vthread.pinned", pinningMonitor, PinningMonitor::getPinnedCount)
+                        .description("虚拟线程被钉住超过阈值的次数").register(registry);
+                    FunctionCounter.builder("vthread.pinned.time", pinningMonitor, PinningMonitor::getPinnedSeconds)
+                        .baseUnit("seconds").register(registry);
+                };
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package cn.dmego.seata.common.thread;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @className: ThreadingProperties
+ *
+ * @description: 线程模式配置，前缀 dmego.threads。mode 可在启动参数中切换：
+ *               platform 为原来的平台线程；virtual 使用虚拟线程，JVM 不支持时退回平台线程；auto 按 JVM 版本自动选择
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+@ConfigurationProperties(prefix = "dmego.threads")
+public class ThreadingProperties {
+
+    public enum Mode {
+        PLATFORM, VIRTUAL, AUTO
+    }
+
+    private Mode mode = Mode.PLATFORM;
+
+    /**
+     * 虚拟线程模式下是否通过 JFR 检测虚拟线程被钉住，只记录持续时间超过阈值的事件
+     */
+    private boolean pinningMonitorEnabled = true;
+
+    private long pinningThresholdMillis = 20;
+
+    /**
+     * @return 是否实际使用虚拟线程
+     */
+    public boolean isVirtualThreads() {
+        return mode != Mode.PLATFORM && VirtualThreads.isSupported();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isPinningMonitorEnabled() {
+        return pinningMonitorEnabled;
+    }
+
+    public void setPinningMonitorEnabled(boolean pinningMonitorEnabled) {
+        this.pinningMonitorEnabled = pinningMonitorEnabled;
+    }
+
+    public long getPinningThresholdMillis() {
+        return pinningThresholdMillis;
+    }
+
+    public void setPinningThresholdMillis(long pinningThresholdMillis) {
+        this.pinningThresholdMillis = pinningThresholdMillis;
+    }
+}
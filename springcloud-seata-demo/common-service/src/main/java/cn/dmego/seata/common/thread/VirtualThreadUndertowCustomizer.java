@@ -0,0 +1,40 @@
+package cn.dmego.seata.common.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * @className: VirtualThreadUndertowCustomizer
+ *
+ * @description: Servlet 请求交给虚拟线程执行，Undertow 的 IO 线程收到请求后直接派发，不再经过 worker 线程池，
+ *               server.undertow.threads.worker 只限制非 Servlet 的阻塞任务。
+ *               请求在同一个虚拟线程上执行到结束，RootContext 等 ThreadLocal 与平台线程模式下的行为相同
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+public class VirtualThreadUndertowCustomizer
+    implements WebServerFactoryCustomizer<UndertowServletWebServerFactory>, DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadUndertowCustomizer.class);
+
+    private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+
+    @Override
+    public void customize(UndertowServletWebServerFactory factory) {
+        factory.addDeploymentInfoCustomizers(deploymentInfo -> {
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        });
+        LOGGER.info("[vthread] Servlet 请求在虚拟线程上执行, Java {}", System.getProperty("java.version"));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -10,6 +10,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +49,11 @@ public class IDUtils {
 
     private static final long SHARD_ID = getServerIdAsLong();
 
+    /**
+     * 不用 synchronized：虚拟线程在 synchronized 中阻塞（例如 logger.warn 写日志文件）时会钉住载体线程
+     */
+    private static final ReentrantLock LOCK = new ReentrantLock();
+
     private static long offset = 0;
 
     private static long lastEpoch = 0;
@@ -56,23 +62,28 @@ public class IDUtils {
         return nextId(System.currentTimeMillis() / 1000);
     }
 
-    private static synchronized long nextId(long epochSecond) {
-        if (epochSecond < lastEpoch) {
-            // warning: clock is turn back:
-            logger.warn("clock is back: " + epochSecond + " from previous:" + lastEpoch);
-            epochSecond = lastEpoch;
-        }
-        if (lastEpoch != epochSecond) {
-            lastEpoch = epochSecond;
-            reset();
-        }
-        offset++;
-        long next = offset & MAX_NEXT;
-        if (next == 0) {
-            logger.warn("maximum id reached in 1 second in epoch: " + epochSecond);
-            return nextId(epochSecond + 1);
+    private static long nextId(long epochSecond) {
+        LOCK.lock();
+        try {
+            if (epochSecond < lastEpoch) {
+                // warning: clock is turn back:
+                logger.warn("clock is back: " + epochSecond + " from previous:" + lastEpoch);
+                epochSecond = lastEpoch;
+            }
+            if (lastEpoch != epochSecond) {
+                lastEpoch = epochSecond;
+                reset();
+            }
+            offset++;
+            long next = offset & MAX_NEXT;
+            if (next == 0) {
+                logger.warn("maximum id reached in 1 second in epoch: " + epochSecond);
+                return nextId(epochSecond + 1);
+            }
+            return generateId(epochSecond, next, SHARD_ID);
+        } finally {
+            LOCK.unlock();
         }
-        return generateId(epochSecond, next, SHARD_ID);
     }
 
     private static void reset() {
@@ -0,0 +1,219 @@
+package cn.dmego.seata.common.batch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: BatchingLoaderTest
+ *
+ * @description: 请求合并测试：相同 key 只查询一次、loadAll 按 maxBatchSize 分批、没有其它请求时不等待窗口、
+ *               攒满的批次不等首个请求的窗口结束、查询异常交给每个等待者且不留在 single-flight 中
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 11:20
+ **/
+public class BatchingLoaderTest {
+
+    private static final long LONG_WINDOW_MICROS = TimeUnit.SECONDS.toMicros(2);
+
+    private final List<Collection<String>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void testSameKeyIsLoadedOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingLoader<String, String> loader = new BatchingLoader<>(blocking(release, null), 0, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> loader.load("A")));
+            }
+            awaitTrue(() -> loader.getLoadCount() == 8);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value-A", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loader.getQueryCount());
+            assertEquals(Collections.singletonList(Collections.singleton("A")), toSets(batches));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadAllIsChunkedByMaxBatchSize() {
+        BatchingLoader<String, String> loader = new BatchingLoader<>(recording(), LONG_WINDOW_MICROS, 4);
+
+        Map<String, String> result = loader.loadAll(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10"));
+
+        assertEquals(10, result.size());
+        assertEquals("value-7", result.get("7"));
+        assertEquals(3, loader.getQueryCount());
+        assertEquals(Arrays.asList(4, 4, 2), sizes(batches));
+    }
+
+    @Test
+    public void testUncontendedLoadDoesNotWaitForWindow() {
+        BatchingLoader<String, String> loader = new BatchingLoader<>(recording(), LONG_WINDOW_MICROS, 16);
+
+        long start = System.nanoTime();
+        assertEquals("value-A", loader.load("A"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 500, "没有并发请求时不应等待窗口, 实际 " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void testFullBatchDispatchesBeforeLeaderWindowEnds() throws Exception {
+        // 先让一个查询阻塞在途，之后的请求才会打开窗口
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingLoader<String, String> loader = new BatchingLoader<>(blocking(release, "X"), LONG_WINDOW_MICROS, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> blocked = executor.submit(() -> loader.load("X"));
+            awaitTrue(() -> batches.size() == 1);
+
+            long start = System.nanoTime();
+            List<Future<String>> results = new ArrayList<>();
+            for (String key : Arrays.asList("A", "B", "C")) {
+                results.add(executor.submit(() -> loader.load(key)));
+            }
+            for (Future<String> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            // 攒满 3 个 key 时立即查询，首个请求的线程也不再等到窗口结束
+            assertTrue(elapsedMillis < TimeUnit.MICROSECONDS.toMillis(LONG_WINDOW_MICROS) / 2,
+                "攒满的批次应立即查询, 实际 " + elapsedMillis + "ms");
+            assertEquals(new HashSet<>(Arrays.asList("A", "B", "C")), new HashSet<>(batches.get(1)));
+            assertEquals(2, loader.getQueryCount());
+
+            release.countDown();
+            assertEquals("value-X", blocked.get(5, TimeUnit.SECONDS));
+            assertEquals(2, loader.getQueryCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailureIsPropagatedToEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean failing = new AtomicBoolean(true);
+        BatchingLoader<String, String> loader = new BatchingLoader<>(keys -> {
+            batches.add(keys);
+            await(release);
+            if (failing.get()) {
+                throw new IllegalStateException("down");
+            }
+            return values(keys);
+        }, 0, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Map<String, String>> all = executor.submit(() -> loader.loadAll(Arrays.asList("A", "B")));
+            awaitTrue(() -> batches.size() == 1);
+            Future<String> a = executor.submit(() -> loader.load("A"));
+            Future<String> b = executor.submit(() -> loader.load("B"));
+            awaitTrue(() -> loader.getLoadCount() == 4);
+            release.countDown();
+
+            for (Future<?> waiter : Arrays.asList(all, a, b)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                assertEquals("down", e.getCause().getMessage());
+            }
+            assertEquals(1, loader.getQueryCount());
+
+            // 失败的结果不留在 single-flight 中，之后的请求重新查询
+            failing.set(false);
+            assertEquals("value-A", loader.load("A"));
+            assertEquals(2, loader.getQueryCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Function<Collection<String>, Map<String, String>> recording() {
+        return keys -> {
+            batches.add(keys);
+            return values(keys);
+        };
+    }
+
+    /**
+     * @param blockedKey 只有包含该 key 的批次阻塞，为 null 时每个批次都阻塞
+     */
+    private Function<Collection<String>, Map<String, String>> blocking(CountDownLatch release, String blockedKey) {
+        return keys -> {
+            batches.add(new ArrayList<>(keys));
+            if (blockedKey == null || keys.contains(blockedKey)) {
+                await(release);
+            }
+            return values(keys);
+        };
+    }
+
+    private static Map<String, String> values(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            values.put(key, "value-" + key);
+        }
+        return values;
+    }
+
+    private static List<HashSet<String>> toSets(List<Collection<String>> batches) {
+        List<HashSet<String>> sets = new ArrayList<>();
+        for (Collection<String> batch : batches) {
+            sets.add(new HashSet<>(batch));
+        }
+        return sets;
+    }
+
+    private static List<Integer> sizes(List<Collection<String>> batches) {
+        List<Integer> sizes = new ArrayList<>();
+        for (Collection<String> batch : batches) {
+            sizes.add(batch.size());
+        }
+        return sizes;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package cn.dmego.seata.common.codec;
+
+import cn.dmego.seata.common.dto.AccountDTO;
+import cn.dmego.seata.common.dto.OrderDTO;
+import cn.dmego.seata.common.dto.ProductDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @className: BinaryCodecBenchmark
+ *
+ * @description: 对比 Jackson 与 BinaryCodec 在服务间调用的请求 / 响应类型上一次编码 + 解码的耗时和报文字节数
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 17:40
+ **/
+public class BinaryCodecBenchmark {
+
+    private static final int WARMUP = 200_000;
+
+    private static final int ITERATIONS = 1_000_000;
+
+    public static Map<Long, Integer> prices;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        BinaryCodec codec = new BinaryCodec();
+
+        OrderDTO order = new OrderDTO();
+        order.setId(1234567890123456789L);
+        order.setUserId(1L);
+        order.setProductId(1L);
+        order.setCount(1);
+        order.setPayAmount(10);
+        AccountDTO account = new AccountDTO();
+        account.setUserId(1L);
+        account.setAmount(10);
+        prices = new LinkedHashMap<>();
+        for (long i = 1; i <= 10; i++) {
+            prices.put(i, (int) (i * 100));
+        }
+
+        Map<String, Object[]> cases = new LinkedHashMap<>();
+        cases.put("ProductDTO", new Object[]{new ProductDTO(1L, 1), ProductDTO.class});
+        cases.put("AccountDTO", new Object[]{account, AccountDTO.class});
+        cases.put("OrderDTO", new Object[]{order, OrderDTO.class});
+        cases.put("Map<Long,Integer>", new Object[]{prices,
+            BinaryCodecBenchmark.class.getField("prices").getGenericType()});
+        cases.put("Boolean", new Object[]{Boolean.TRUE, Boolean.class});
+
+        System.out.printf("%-18s %10s %10s %14s %14s%n", "type", "json B", "binary B", "json ns/op", "binary ns/op");
+        for (Map.Entry<String, Object[]> entry : cases.entrySet()) {
+            Object value = entry.getValue()[0];
+            Type type = (Type) entry.getValue()[1];
+            JavaType javaType = objectMapper.constructType(type);
+            int jsonBytes = objectMapper.writeValueAsBytes(value).length;
+            int binaryBytes = codec.encode(value, type).length;
+            double json = measure(() -> objectMapper.readValue(objectMapper.writeValueAsBytes(value), javaType));
+            double binary = measure(() -> codec.decode(codec.encode(value, type), type));
+            System.out.printf("%-18s %10d %10d %14.1f %14.1f%n", entry.getKey(), jsonBytes, binaryBytes, json, binary);
+        }
+    }
+
+    private static double measure(RoundTrip roundTrip) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += roundTrip.run().hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += roundTrip.run().hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private interface RoundTrip {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,177 @@
+package cn.dmego.seata.common.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: BinaryCodecTest
+ *
+ * @description: 二进制编码测试：POJO / List / Map 往返编码（含 null、负数和多字节字符），基本类型与包装类型互通，
+ *               不支持的类型退回 JSON，字段布局不一致、报文截断、多余字节和声明的长度超过报文时解码失败
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 14:30
+ **/
+public class BinaryCodecTest {
+
+    public static List<Long> ids;
+
+    public static Map<Long, Integer> prices;
+
+    public static List<Order> orders;
+
+    private final BinaryCodec codec = new BinaryCodec();
+
+    public static class Order {
+        private Long id;
+        private int count;
+        private String remark;
+        private Boolean paid;
+        private transient String ignored;
+    }
+
+    public static class BoxedOrder {
+        private Long id;
+        private Integer count;
+        private String remark;
+        private Boolean paid;
+    }
+
+    public static class RenamedOrder {
+        private Long id;
+        private int amount;
+        private String remark;
+        private Boolean paid;
+    }
+
+    public static class Nested {
+        private Order order;
+    }
+
+    public static class WithDate {
+        private Date created;
+    }
+
+    @Test
+    public void testPojoRoundTrip() {
+        Order order = order(-1234567890123L, -7, "备注 remark");
+        order.ignored = "not sent";
+
+        Order decoded = (Order) codec.decode(codec.encode(order, Order.class), Order.class);
+
+        assertEquals(order.id, decoded.id);
+        assertEquals(order.count, decoded.count);
+        assertEquals(order.remark, decoded.remark);
+        assertEquals(order.paid, decoded.paid);
+        assertNull(decoded.ignored);
+
+        Order empty = (Order) codec.decode(codec.encode(new Order(), Order.class), Order.class);
+        assertNull(empty.id);
+        assertNull(empty.remark);
+        assertNull(codec.decode(codec.encode(null, Order.class), Order.class));
+    }
+
+    @Test
+    public void testPrimitiveAndBoxedFieldsInteroperate() {
+        BoxedOrder boxed = new BoxedOrder();
+        boxed.id = 1L;
+        boxed.count = 3;
+        boxed.remark = "r";
+
+        // 一端声明 Integer、另一端声明 int 时布局指纹相同
+        Order decoded = (Order) codec.decode(codec.encode(boxed, BoxedOrder.class), Order.class);
+        assertEquals(Long.valueOf(1), decoded.id);
+        assertEquals(3, decoded.count);
+        assertEquals("r", decoded.remark);
+        assertNull(decoded.paid);
+
+        BoxedOrder back = (BoxedOrder) codec.decode(codec.encode(decoded, Order.class), BoxedOrder.class);
+        assertEquals(Integer.valueOf(3), back.count);
+
+        assertEquals(42, codec.decode(codec.encode(42, Integer.class), int.class));
+        assertEquals(Long.MIN_VALUE, codec.decode(codec.encode(Long.MIN_VALUE, long.class), Long.class));
+    }
+
+    @Test
+    public void testCollectionsRoundTrip() throws Exception {
+        Type listType = field("ids");
+        Type mapType = field("prices");
+        Type ordersType = field("orders");
+        List<Long> list = Arrays.asList(1L, null, Long.MAX_VALUE, -1L);
+        Map<Long, Integer> map = new LinkedHashMap<>();
+        map.put(1L, 100);
+        map.put(2L, null);
+        map.put(-3L, Integer.MIN_VALUE);
+        List<Order> orderList = Arrays.asList(order(1L, 1, "a"), null, order(2L, 2, null));
+
+        assertEquals(list, codec.decode(codec.encode(list, listType), listType));
+        assertEquals(map, codec.decode(codec.encode(map, mapType), mapType));
+        @SuppressWarnings("unchecked")
+        List<Order> decoded = (List<Order>) codec.decode(codec.encode(orderList, ordersType), ordersType);
+        assertEquals(3, decoded.size());
+        assertEquals("a", decoded.get(0).remark);
+        assertNull(decoded.get(1));
+        assertEquals(2, decoded.get(2).count);
+    }
+
+    @Test
+    public void testUnsupportedTypesFallBack() throws Exception {
+        assertTrue(codec.supports(Order.class));
+        assertTrue(codec.supports(field("prices")));
+        assertTrue(codec.supports(field("orders")));
+        assertFalse(codec.supports(Nested.class));
+        assertFalse(codec.supports(WithDate.class));
+        assertFalse(codec.supports(Date.class));
+        assertFalse(codec.supports(Object.class));
+        assertFalse(codec.supports(int[].class));
+        assertFalse(codec.supports(null));
+    }
+
+    @Test
+    public void testFieldLayoutMismatchIsRejected() {
+        byte[] bytes = codec.encode(order(1L, 1, "a"), Order.class);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(bytes, RenamedOrder.class));
+    }
+
+    @Test
+    public void testMalformedPayloadIsRejected() throws Exception {
+        byte[] bytes = codec.encode(order(1L, 1, "remark"), Order.class);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 1), Order.class));
+        assertThrows(IllegalArgumentException.class,
+            () -> codec.decode(Arrays.copyOf(bytes, bytes.length + 1), Order.class));
+
+        // 声明 2^31 个元素而报文只有几个字节：直接失败，不按声明的大小分配
+        byte[] hugeList = {1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 2};
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(hugeList, field("ids")));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(hugeList, field("prices")));
+        byte[] hugeString = {1, (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 'a'};
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(hugeString, String.class));
+    }
+
+    private static Order order(Long id, int count, String remark) {
+        Order order = new Order();
+        order.id = id;
+        order.count = count;
+        order.remark = remark;
+        order.paid = Boolean.TRUE;
+        return order;
+    }
+
+    private static Type field(String name) throws NoSuchFieldException {
+        return BinaryCodecTest.class.getField(name).getGenericType();
+    }
+}
@@ -0,0 +1,127 @@
+package cn.dmego.seata.common.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: DeadlineTest
+ *
+ * @description: 截止时间测试：嵌套绑定只保留更早的截止时间并能恢复，超时后 check 抛出异常，
+ *               查询超时按剩余时间向上取整到秒且只会缩短已有的超时
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 13:50
+ **/
+public class DeadlineTest {
+
+    @Test
+    public void testNestedBindKeepsEarlierDeadline() {
+        Deadline outer = Deadline.after(1_000);
+        Deadline previous = Deadline.bindIfEarlier(outer);
+        try {
+            assertNull(previous);
+            assertSame(outer, Deadline.current());
+
+            Deadline later = Deadline.after(60_000);
+            Deadline beforeLater = Deadline.bindIfEarlier(later);
+            assertSame(outer, Deadline.current());
+            Deadline.restore(beforeLater);
+
+            Deadline earlier = Deadline.after(100);
+            Deadline beforeEarlier = Deadline.bindIfEarlier(earlier);
+            assertSame(earlier, Deadline.current());
+            Deadline.restore(beforeEarlier);
+            assertSame(outer, Deadline.current());
+        } finally {
+            Deadline.restore(previous);
+        }
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void testCheckThrowsOnlyAfterExpiry() throws InterruptedException {
+        // 没有截止时间时不限制
+        Deadline.check("调用下游");
+
+        Deadline previous = Deadline.bindIfEarlier(Deadline.after(30));
+        try {
+            Deadline.check("调用下游");
+            assertFalse(Deadline.current().isExpired());
+
+            Thread.sleep(60);
+            assertTrue(Deadline.current().isExpired());
+            assertTrue(Deadline.current().remainingMillis() <= 0);
+            DeadlineExceededException e = assertThrows(DeadlineExceededException.class,
+                () -> Deadline.check("调用下游"));
+            assertTrue(e.getMessage().contains("调用下游"));
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    @Test
+    public void testQueryTimeoutIsRoundedUpAndOnlyShortened() throws Exception {
+        Deadline previous = Deadline.bindIfEarlier(Deadline.after(2_500));
+        try {
+            int[] timeout = {0};
+            Statement statement = statement(timeout);
+
+            Deadline.applyQueryTimeout(statement);
+            assertEquals(3, timeout[0]);
+
+            // 已有更短的超时时保留
+            timeout[0] = 1;
+            Deadline.applyQueryTimeout(statement);
+            assertEquals(1, timeout[0]);
+
+            timeout[0] = 30;
+            Deadline.applyQueryTimeout(statement);
+            assertEquals(3, timeout[0]);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    @Test
+    public void testQueryTimeoutWithoutDeadlineIsUnchanged() throws Exception {
+        int[] timeout = {7};
+        Deadline.applyQueryTimeout(statement(timeout));
+        assertEquals(7, timeout[0]);
+    }
+
+    @Test
+    public void testExpiredDeadlineRejectsStatement() throws Exception {
+        Deadline previous = Deadline.bindIfEarlier(Deadline.after(0));
+        try {
+            int[] timeout = {0};
+            Statement statement = statement(timeout);
+            assertThrows(DeadlineExceededException.class, () -> Deadline.applyQueryTimeout(statement));
+            assertEquals(0, timeout[0]);
+        } finally {
+            Deadline.restore(previous);
+        }
+    }
+
+    private static Statement statement(int[] timeout) {
+        return (Statement) Proxy.newProxyInstance(DeadlineTest.class.getClassLoader(), new Class<?>[] {Statement.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getQueryTimeout":
+                        return timeout[0];
+                    case "setQueryTimeout":
+                        timeout[0] = (Integer) args[0];
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+}
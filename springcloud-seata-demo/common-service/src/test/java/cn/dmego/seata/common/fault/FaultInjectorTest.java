@@ -0,0 +1,141 @@
+package cn.dmego.seata.common.fault;
+
+import cn.dmego.seata.common.deadline.Deadline;
+import cn.dmego.seata.common.deadline.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: FaultInjectorTest
+ *
+ * @description: 故障注入测试：规则格式校验、精确匹配优先于 类名.*、规则到期、调用前失败和 errorAfter 的调用后失败、
+ *               固定延迟和延迟分布的取值范围、延迟超过调用链截止时间时按截止时间抛出 DeadlineExceededException
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 14:10
+ **/
+public class FaultInjectorTest {
+
+    private static final String TARGET = "ProductFeignClient.reduceStock";
+
+    @Test
+    public void testInvalidRulesAreRejected() {
+        FaultInjector injector = new FaultInjector(new FaultInjectionProperties());
+
+        assertThrows(IllegalArgumentException.class, () -> injector.put("reduceStock", rule(null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> injector.put("ProductFeignClient.", rule(null, 0)));
+        assertThrows(IllegalArgumentException.class, () -> injector.put(TARGET, rule(null, 1.5)));
+        assertThrows(IllegalArgumentException.class, () -> injector.put(TARGET, rule("300-50", 0)));
+        assertThrows(IllegalArgumentException.class, () -> injector.put(TARGET, rule("exp:-1", 0)));
+        assertTrue(injector.isEmpty());
+    }
+
+    @Test
+    public void testExactTargetWinsOverWildcard() {
+        FaultInjector injector = new FaultInjector(new FaultInjectionProperties());
+        FaultRule wildcard = injector.put("ProductFeignClient.*", rule(null, 1));
+        FaultRule exact = injector.put(TARGET, rule(null, 0));
+
+        assertSame(exact, injector.find("ProductFeignClient", "reduceStock"));
+        assertSame(wildcard, injector.find("ProductFeignClient", "getProduct"));
+        assertNull(injector.find("AccountFeignClient", "reduceBalance"));
+
+        assertTrue(injector.remove(TARGET));
+        assertSame(wildcard, injector.find("ProductFeignClient", "reduceStock"));
+    }
+
+    @Test
+    public void testRuleExpires() {
+        FaultInjectionProperties.Rule spec = rule(null, 1);
+        spec.setDurationSeconds(1);
+        FaultRule rule = FaultRule.of(TARGET, spec);
+
+        assertFalse(rule.isExpired(System.currentTimeMillis()));
+        assertTrue(rule.isExpired(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(2)));
+        // 不设置有效时长时不过期
+        assertFalse(FaultRule.of(TARGET, rule(null, 1)).isExpired(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testErrorBeforeAndAfterCall() throws InterruptedException {
+        FaultInjector injector = new FaultInjector(new FaultInjectionProperties());
+        FaultRule before = injector.put(TARGET, rule(null, 1));
+
+        assertThrows(FaultInjectedException.class, () -> injector.before(before, TARGET));
+        assertEquals(1, before.calls.sum());
+        assertEquals(1, before.failed.sum());
+
+        FaultInjectionProperties.Rule spec = rule(null, 1);
+        spec.setErrorAfter(true);
+        FaultRule after = injector.put(TARGET, spec);
+        // 对方已执行成功、调用方收到失败
+        injector.before(after, TARGET);
+        assertThrows(FaultInjectedException.class, () -> injector.after(after, TARGET));
+        assertEquals(1, after.failed.sum());
+    }
+
+    @Test
+    public void testFixedLatencyIsAdded() throws InterruptedException {
+        FaultInjector injector = new FaultInjector(new FaultInjectionProperties());
+        FaultRule rule = injector.put(TARGET, rule("50", 0));
+
+        long start = System.nanoTime();
+        injector.before(rule, TARGET);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis >= 50, "应至少延迟 50ms, 实际 " + elapsedMillis + "ms");
+        assertEquals(1, rule.delayed.sum());
+        assertEquals(0, rule.failed.sum());
+    }
+
+    @Test
+    public void testLatencyStopsAtDeadline() {
+        FaultInjector injector = new FaultInjector(new FaultInjectionProperties());
+        FaultRule rule = injector.put(TARGET, rule("10000", 0));
+
+        Deadline previous = Deadline.bindIfEarlier(Deadline.after(50));
+        long start = System.nanoTime();
+        try {
+            assertThrows(DeadlineExceededException.class, () -> injector.before(rule, TARGET));
+        } finally {
+            Deadline.restore(previous);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis < 5_000, "应在截止时间返回, 实际 " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void testLatencyDistributions() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        FaultRule.Latency uniform = FaultRule.Latency.parse("50-300");
+        FaultRule.Latency exponential = FaultRule.Latency.parse("exp:100");
+        FaultRule.Latency fixed = FaultRule.Latency.parse(" 200 ");
+        long exponentialTotal = 0;
+        int samples = 20_000;
+        for (int i = 0; i < samples; i++) {
+            long value = uniform.next(random);
+            assertTrue(value >= 50 && value <= 300, "均匀分布越界: " + value);
+            long sample = exponential.next(random);
+            assertTrue(sample >= 0);
+            exponentialTotal += sample;
+            assertEquals(200, fixed.next(random));
+        }
+        double mean = (double) exponentialTotal / samples;
+        assertTrue(mean > 90 && mean < 110, "指数分布均值应接近 100: " + mean);
+    }
+
+    private static FaultInjectionProperties.Rule rule(String latency, double errorRate) {
+        FaultInjectionProperties.Rule rule = new FaultInjectionProperties.Rule();
+        rule.setLatency(latency);
+        rule.setErrorRate(errorRate);
+        return rule;
+    }
+}
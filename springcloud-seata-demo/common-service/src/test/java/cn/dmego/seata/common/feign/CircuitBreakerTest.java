@@ -0,0 +1,131 @@
+package cn.dmego.seata.common.feign;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: CircuitBreakerTest
+ *
+ * @description: 熔断器测试：调用数不足 minimumCalls 时不打开、失败率达到阈值时打开、窗口滑动后旧结果不再计入，
+ *               打开期间拒绝调用，到期后半开放行有限的探测，探测全部成功关闭、任一失败重新打开，未发出的调用归还探测名额
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 13:40
+ **/
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    @Test
+    public void testOpensWhenFailureRateReached() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 10, 60_000, 1);
+
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, true);
+        // 调用数不足 minimumCalls，失败率再高也不打开
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.isCallPermitted());
+        assertEquals(1, breaker.getNotPermittedCount());
+    }
+
+    @Test
+    public void testStaysClosedBelowThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 10, 60_000, 1);
+
+        for (int i = 0; i < 20; i++) {
+            call(breaker, i % 3 == 2);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getNotPermittedCount());
+    }
+
+    @Test
+    public void testOldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker(50, 4, 4, 60_000, 1);
+
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, false);
+        // 窗口 [F, S, S, S] -> [S, S, S, S]，最早的失败被挤出窗口
+        call(breaker, false);
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbesCloseOnSuccess() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        // 探测名额用完之前其它调用被拒绝
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // 关闭后从空窗口重新统计
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testHalfOpenProbeFailureReopens() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(2);
+
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testIgnoredProbeReturnsItsSlot() throws InterruptedException {
+        CircuitBreaker breaker = openBreaker(1);
+
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onIgnored();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static CircuitBreaker openBreaker(int halfOpenCalls) {
+        CircuitBreaker breaker = new CircuitBreaker(50, 2, 10, OPEN_MILLIS, halfOpenCalls);
+        call(breaker, true);
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failure) {
+        assertTrue(breaker.tryAcquire());
+        if (failure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
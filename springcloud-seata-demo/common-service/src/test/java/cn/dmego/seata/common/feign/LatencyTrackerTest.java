@@ -0,0 +1,73 @@
+package cn.dmego.seata.common.feign;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @className: LatencyTrackerTest
+ *
+ * @description: 对冲延迟估计测试：样本不足时不给出分位数、分位数按最近窗口内的样本计算，
+ *               每记录 32 次才刷新一次，窗口填满后旧样本被覆盖
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 14:00
+ **/
+public class LatencyTrackerTest {
+
+    @Test
+    public void testNoQuantileBeforeMinSamples() {
+        LatencyTracker tracker = new LatencyTracker(128, 0.95, 64);
+
+        for (int i = 1; i <= 63; i++) {
+            tracker.record(i);
+        }
+        assertEquals(-1, tracker.quantileMicros());
+
+        tracker.record(64);
+        assertEquals(61, tracker.quantileMicros());
+    }
+
+    @Test
+    public void testQuantileOfWindow() {
+        LatencyTracker tracker = new LatencyTracker(128, 0.95, 32);
+
+        // 乱序记录 1..128
+        for (int i = 0; i < 128; i++) {
+            tracker.record((i * 37) % 128 + 1);
+        }
+
+        assertEquals(122, tracker.quantileMicros());
+    }
+
+    @Test
+    public void testRefreshedEveryThirtyTwoRecords() {
+        LatencyTracker tracker = new LatencyTracker(32, 0.5, 1);
+        for (int i = 0; i < 32; i++) {
+            tracker.record(10);
+        }
+        assertEquals(10, tracker.quantileMicros());
+
+        // 刷新之前仍是上一次的结果
+        for (int i = 0; i < 31; i++) {
+            tracker.record(1_000);
+        }
+        assertEquals(10, tracker.quantileMicros());
+
+        tracker.record(1_000);
+        assertEquals(1_000, tracker.quantileMicros());
+    }
+
+    @Test
+    public void testOldSamplesLeaveTheWindow() {
+        LatencyTracker tracker = new LatencyTracker(64, 0.95, 1);
+        for (int i = 0; i < 64; i++) {
+            tracker.record(5_000);
+        }
+        assertEquals(5_000, tracker.quantileMicros());
+
+        for (int i = 0; i < 64; i++) {
+            tracker.record(100);
+        }
+        assertEquals(100, tracker.quantileMicros());
+    }
+}
@@ -0,0 +1,221 @@
+package cn.dmego.seata.common.replica;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import io.seata.core.context.RootContext;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: ReplicaRoutingTest
+ *
+ * @description: 读写分离测试：两个 H2 内存库分别作为主库和从库，后台线程按人为设定的延迟把主库的心跳和库存复制到从库。
+ *               验证从库足够新时读从库、延迟超过上限或处在事务中时回到主库、
+ *               readYourWrites=false 的语句在事务中也读从库且不影响事务本身，不依赖 MySQL
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:10
+ **/
+public class ReplicaRoutingTest {
+
+    private static final long HEARTBEAT_MILLIS = 20;
+
+    private static final long MAX_STALENESS_MILLIS = 300;
+
+    private static volatile long lagMillis;
+
+    private static DruidDataSource primary;
+
+    private static DruidDataSource replica;
+
+    private static ReplicaRoutingDataSource routing;
+
+    private static ScheduledExecutorService replication;
+
+    private static ReplicaLagMonitor monitor;
+
+    private static ReadOnlyInterceptor interceptor;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static TransactionTemplate transactionTemplate;
+
+    private static Lookups lookups;
+
+    public interface Lookups {
+
+        @ReadOnly
+        String role();
+
+        @ReadOnly(readYourWrites = false)
+        Integer stock();
+    }
+
+    @BeforeAll
+    public static void setUp() throws SQLException {
+        primary = pool("primary");
+        replica = pool("replica");
+        routing = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica));
+        routing.afterPropertiesSet();
+
+        JdbcTemplate primaryJdbc = new JdbcTemplate(primary);
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        // 单线程按快照顺序应用，延迟缩短时跳过比已应用快照更早的快照，和真实复制一样不会倒退
+        replication = Executors.newSingleThreadScheduledExecutor();
+        AtomicLong snapshots = new AtomicLong();
+        AtomicLong applied = new AtomicLong();
+        replication.scheduleWithFixedDelay(() -> {
+            List<Map<String, Object>> beats = primaryJdbc.queryForList("SELECT instance_id, beat_millis FROM replica_heartbeat");
+            Integer stock = primaryJdbc.queryForObject("SELECT stock FROM product WHERE id = 1", Integer.class);
+            long snapshot = snapshots.incrementAndGet();
+            replication.schedule(() -> {
+                if (snapshot < applied.get()) {
+                    return;
+                }
+                applied.set(snapshot);
+                for (Map<String, Object> beat : beats) {
+                    replicaJdbc.update("MERGE INTO replica_heartbeat KEY (instance_id) VALUES (?, ?)",
+                        beat.get("INSTANCE_ID"), beat.get("BEAT_MILLIS"));
+                }
+                replicaJdbc.update("UPDATE product SET stock = ? WHERE id = 1", stock);
+            }, lagMillis, TimeUnit.MILLISECONDS);
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        monitor = new ReplicaLagMonitor(primary, routing.getReplicas(), "replica_heartbeat", HEARTBEAT_MILLIS);
+        monitor.start();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        interceptor = new ReadOnlyInterceptor(monitor, MAX_STALENESS_MILLIS, transactionManager);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate = new JdbcTemplate(routing);
+
+        ProxyFactory proxyFactory = new ProxyFactory(new Lookups() {
+            @Override
+            public String role() {
+                return jdbcTemplate.queryForObject("SELECT name FROM db_role", String.class);
+            }
+
+            @Override
+            public Integer stock() {
+                return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = 1", Integer.class);
+            }
+        });
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(null, ReadOnly.class, true),
+            interceptor));
+        lookups = (Lookups) proxyFactory.getProxy();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        monitor.close();
+        replication.shutdownNow();
+        routing.close();
+    }
+
+    @BeforeEach
+    public void resetLag() throws InterruptedException {
+        lagMillis = 0;
+        jdbcTemplate.update("UPDATE product SET stock = 100 WHERE id = 1");
+        awaitTrue(() -> monitor.staleness(0) < MAX_STALENESS_MILLIS / 2
+            && Integer.valueOf(100).equals(new JdbcTemplate(replica).queryForObject(
+            "SELECT stock FROM product WHERE id = 1", Integer.class)));
+    }
+
+    @Test
+    public void testFreshReplicaServesReads() {
+        long before = interceptor.replicaReads.sum();
+
+        assertEquals("replica", lookups.role());
+        assertEquals(before + 1, interceptor.replicaReads.sum());
+    }
+
+    @Test
+    public void testLaggingReplicaFallsBackToPrimary() throws InterruptedException {
+        long before = interceptor.lagFallbacks.sum();
+        lagMillis = 1000;
+        awaitTrue(() -> monitor.staleness(0) > MAX_STALENESS_MILLIS);
+
+        assertEquals("primary", lookups.role());
+        assertEquals(before + 1, interceptor.lagFallbacks.sum());
+
+        // 延迟恢复后重新读从库
+        lagMillis = 0;
+        awaitTrue(() -> monitor.staleness(0) < MAX_STALENESS_MILLIS / 2);
+        assertEquals("replica", lookups.role());
+    }
+
+    @Test
+    public void testTransactionReadsPrimary() {
+        transactionTemplate.executeWithoutResult(status -> {
+            assertEquals("primary", lookups.role());
+            jdbcTemplate.update("UPDATE product SET stock = stock - 1 WHERE id = 1");
+            // readYourWrites=false 的语句读从库，看不到本事务未提交的扣减
+            assertEquals(100, lookups.stock());
+            // 挂起后恢复的仍是原来的事务连接
+            assertEquals(99, jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = 1", Integer.class));
+        });
+        assertEquals(99, new JdbcTemplate(primary).queryForObject("SELECT stock FROM product WHERE id = 1",
+            Integer.class));
+    }
+
+    @Test
+    public void testGlobalTransactionReadsPrimary() {
+        long before = interceptor.globalTxFallbacks.sum();
+        RootContext.bind("127.0.0.1:8091:1");
+        try {
+            assertEquals("primary", lookups.role());
+        } finally {
+            RootContext.unbind();
+        }
+        assertEquals(before + 1, interceptor.globalTxFallbacks.sum());
+    }
+
+    @Test
+    public void testUnknownStalenessBeforeFirstHeartbeat() {
+        ReplicaLagMonitor notStarted = new ReplicaLagMonitor(primary, routing.getReplicas(), "replica_heartbeat",
+            HEARTBEAT_MILLIS);
+
+        assertEquals(Long.MAX_VALUE, notStarted.staleness(0));
+        assertEquals(-1, notStarted.pick(MAX_STALENESS_MILLIS));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待超时");
+            TimeUnit.MILLISECONDS.sleep(HEARTBEAT_MILLIS);
+        }
+    }
+
+    private static DruidDataSource pool(String role) throws SQLException {
+        DruidDataSource pool = new DruidDataSource();
+        pool.setUrl("jdbc:h2:mem:replica_test_" + role + ";DB_CLOSE_DELAY=-1");
+        pool.setName(role);
+        pool.init();
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE db_role (name VARCHAR(16))");
+        jdbc.update("INSERT INTO db_role VALUES (?)", role);
+        jdbc.execute("CREATE TABLE product (id INT PRIMARY KEY, stock INT NOT NULL)");
+        jdbc.update("INSERT INTO product VALUES (1, 100)");
+        jdbc.execute("CREATE TABLE replica_heartbeat (instance_id VARCHAR(64) PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        return pool;
+    }
+}
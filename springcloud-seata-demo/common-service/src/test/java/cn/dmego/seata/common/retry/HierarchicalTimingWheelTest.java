@@ -0,0 +1,91 @@
+package cn.dmego.seata.common.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: HierarchicalTimingWheelTest
+ *
+ * @description: 时间轮测试：10ms 刻度、8 个槽的时间轮，超过 80ms 的任务进入上层，验证按到期顺序执行、
+ *               取消的任务不执行、执行线程池拒绝时交给 onRejected 而不在 tick 线程上执行
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:50
+ **/
+public class HierarchicalTimingWheelTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    @Test
+    public void testTasksRunInExpirationOrderAcrossLevels() throws InterruptedException {
+        List<Long> order = Collections.synchronizedList(new ArrayList<>());
+        Map<Long, Long> elapsed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(3);
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel("test", 10, 8, DIRECT)) {
+            long start = System.nanoTime();
+            for (long delay : new long[] {300, 20, 150}) {
+                wheel.schedule(() -> {
+                    elapsed.put(delay, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    order.add(delay);
+                    done.countDown();
+                }, delay);
+            }
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList(20L, 150L, 300L), order);
+            // 槽按刻度对齐，最多提前一个刻度
+            elapsed.forEach((delay, millis) -> assertTrue(millis >= delay - 20, delay + "ms 的任务在 " + millis + "ms 执行"));
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() throws InterruptedException {
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch later = new CountDownLatch(1);
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel("test", 10, 8, DIRECT)) {
+            HierarchicalTimingWheel.Timeout timeout = wheel.schedule(() -> ran.set(true), 50);
+            wheel.schedule(later::countDown, 100);
+
+            assertTrue(timeout.cancel());
+            assertFalse(timeout.cancel());
+            assertTrue(later.await(5, TimeUnit.SECONDS));
+            assertFalse(ran.get());
+        }
+    }
+
+    @Test
+    public void testRejectedTaskIsHandedToOnRejected() throws InterruptedException {
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("full");
+        };
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicReference<String> rejectedOn = new AtomicReference<>();
+        CountDownLatch rejected = new CountDownLatch(1);
+        try (HierarchicalTimingWheel wheel = new HierarchicalTimingWheel("test", 10, 8, rejecting)) {
+            wheel.schedule(() -> ran.set(true), 30, e -> {
+                rejectedOn.set(Thread.currentThread().getName());
+                rejected.countDown();
+            });
+
+            assertTrue(rejected.await(5, TimeUnit.SECONDS));
+            assertFalse(ran.get());
+            assertEquals("test-ticker", rejectedOn.get());
+            assertEquals(0, wheel.size());
+        }
+    }
+}
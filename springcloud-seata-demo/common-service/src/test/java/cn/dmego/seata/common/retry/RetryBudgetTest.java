@@ -0,0 +1,78 @@
+package cn.dmego.seata.common.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: RetryBudgetTest
+ *
+ * @description: 重试预算测试：保底额度、按首次请求数的比例放行，并发记录首次请求时计数不丢失，各下游互不影响
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:50
+ **/
+public class RetryBudgetTest {
+
+    @Test
+    public void testMinimumRetriesWithoutRequests() {
+        RetryBudget budget = new RetryBudget(0, 2, 10);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(budget.tryAcquireRetry("product"));
+        }
+        assertFalse(budget.tryAcquireRetry("product"));
+        // 每个下游单独计算
+        assertTrue(budget.tryAcquireRetry("account"));
+    }
+
+    @Test
+    public void testRetriesLimitedToRatioOfRequests() {
+        RetryBudget budget = new RetryBudget(0.5, 0, 10);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest("product");
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(budget.tryAcquireRetry("product"));
+        }
+        assertFalse(budget.tryAcquireRetry("product"));
+    }
+
+    @Test
+    public void testConcurrentRequestsAreAllCounted() throws InterruptedException {
+        int threads = 8;
+        int requestsPerThread = 20_000;
+        RetryBudget budget = new RetryBudget(1, 0, 10);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < requestsPerThread; i++) {
+                    budget.recordRequest("product");
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        for (int i = 0; i < threads * requestsPerThread; i++) {
+            assertTrue(budget.tryAcquireRetry("product"));
+        }
+        assertFalse(budget.tryAcquireRetry("product"));
+    }
+}
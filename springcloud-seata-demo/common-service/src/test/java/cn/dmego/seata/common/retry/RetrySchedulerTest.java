@@ -0,0 +1,121 @@
+package cn.dmego.seata.common.retry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: RetrySchedulerTest
+ *
+ * @description: 重试调度测试：失败后按退避等待再重试直到成功、达到最大重试次数或预算耗尽时以最后一次的异常结束、
+ *               不重试的异常直接结束、重试线程池拒绝执行时结束而不是在 tick 线程上调用
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 01:50
+ **/
+public class RetrySchedulerTest {
+
+    private static final RetryPolicy POLICY = new RetryPolicy(3, new DecorrelatedJitterBackoff(20, 40, 1.5));
+
+    @Test
+    public void testRetriesUntilSuccess() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger calls = new AtomicInteger();
+        try (RetryScheduler scheduler = scheduler(executor, new RetryBudget(0, 10, 10))) {
+            long start = System.nanoTime();
+            String result = scheduler.execute("product", () -> {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IllegalStateException("attempt " + calls.get());
+                }
+                return "ok";
+            }, POLICY).get(5, TimeUnit.SECONDS);
+
+            assertEquals("ok", result);
+            assertEquals(3, calls.get());
+            // 两次重试各至少等待 base 20ms
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGivesUpWithLastFailure() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger calls = new AtomicInteger();
+        try (RetryScheduler scheduler = scheduler(executor, new RetryBudget(0, 10, 10))) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> scheduler.execute("product", () -> {
+                throw new IllegalStateException("attempt " + calls.incrementAndGet());
+            }, POLICY).get(5, TimeUnit.SECONDS));
+
+            assertEquals("attempt 4", e.getCause().getMessage());
+            assertEquals(4, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNonRetryableFailureIsNotRetried() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger calls = new AtomicInteger();
+        try (RetryScheduler scheduler = scheduler(executor, new RetryBudget(0, 10, 10))) {
+            IllegalArgumentException failure = new IllegalArgumentException("bad request");
+            ExecutionException e = assertThrows(ExecutionException.class, () -> scheduler.execute("product", () -> {
+                calls.incrementAndGet();
+                throw failure;
+            }, error -> error instanceof IllegalArgumentException ? null : POLICY).get(5, TimeUnit.SECONDS));
+
+            assertSame(failure, e.getCause());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStopsWhenBudgetExhausted() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger calls = new AtomicInteger();
+        try (RetryScheduler scheduler = scheduler(executor, new RetryBudget(0, 0, 10))) {
+            assertThrows(ExecutionException.class, () -> scheduler.execute("product", () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("down");
+            }, POLICY).get(5, TimeUnit.SECONDS));
+
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedRetryCompletesWithLastFailure() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        AtomicInteger calls = new AtomicInteger();
+        try (RetryScheduler scheduler = scheduler(executor, new RetryBudget(0, 10, 10))) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> scheduler.execute("product", () -> {
+                calls.incrementAndGet();
+                throw new IllegalStateException("down");
+            }, POLICY).get(5, TimeUnit.SECONDS));
+
+            assertEquals("down", e.getCause().getMessage());
+            assertTrue(e.getCause().getSuppressed()[0] instanceof RejectedExecutionException);
+            assertEquals(1, calls.get());
+        }
+    }
+
+    private static RetryScheduler scheduler(ExecutorService executor, RetryBudget budget) {
+        return new RetryScheduler("test", 10, 64, executor, budget, null);
+    }
+}
@@ -0,0 +1,102 @@
+package cn.dmego.seata.common.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @className: ShardsTest
+ *
+ * @description: 分片绑定测试：未开启分片时都落在 0 号分片、分片号稳定且在范围内，
+ *               route 绑定分片并在结束后恢复，已绑定其他分片时拒绝执行，
+ *               forEachShard 在各自绑定了分片的线程上执行并抛出分片的异常
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 14:20
+ **/
+public class ShardsTest {
+
+    private static final int SHARDS = 4;
+
+    @Test
+    public void testSingleShardByDefault() {
+        assertEquals(1, Shards.count());
+        assertEquals(0, Shards.shardOf("U100001"));
+        assertEquals(Integer.valueOf(0), Shards.route("U100001", Shards::current));
+        assertNull(Shards.current());
+    }
+
+    @Test
+    public void testShardOfIsStableAndInRange() {
+        withShards(() -> {
+            for (int i = 0; i < 1000; i++) {
+                String account = "U" + i;
+                int shard = Shards.shardOf(account);
+                assertTrue(shard >= 0 && shard < SHARDS);
+                assertEquals(shard, Shards.shardOf(account));
+            }
+            // hashCode 为负数的键也落在范围内
+            assertTrue(Shards.shardOf("polygenelubricants") >= 0);
+        });
+    }
+
+    @Test
+    public void testRouteBindsAndRestores() {
+        withShards(() -> {
+            String account = "U100001";
+            int shard = Shards.shardOf(account);
+
+            assertEquals(Integer.valueOf(shard), Shards.route(account, Shards::current));
+            assertNull(Shards.current());
+
+            // 已绑定同一分片时直接执行，不改变绑定
+            assertEquals(Integer.valueOf(shard), Shards.on(shard, () -> Shards.route(account, Shards::current)));
+        });
+    }
+
+    @Test
+    public void testRouteRejectsOtherShard() {
+        withShards(() -> {
+            String account = "U100001";
+            int other = (Shards.shardOf(account) + 1) % SHARDS;
+
+            assertThrows(IllegalStateException.class, () -> Shards.on(other, () -> Shards.route(account, () -> 1)));
+            assertNull(Shards.current());
+        });
+    }
+
+    @Test
+    public void testForEachShardRunsOnBoundThreads() {
+        withShards(() -> {
+            Map<Integer, Integer> bound = new ConcurrentHashMap<>();
+            Shards.forEachShard(shard -> bound.put(shard, Shards.current()));
+
+            assertEquals(SHARDS, bound.size());
+            for (int shard = 0; shard < SHARDS; shard++) {
+                assertEquals(Integer.valueOf(shard), bound.get(shard));
+            }
+
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> Shards.forEachShard(shard -> {
+                if (shard == 2) {
+                    throw new IllegalStateException("shard 2 down");
+                }
+            }));
+            assertEquals("shard 2 down", e.getMessage());
+        });
+    }
+
+    private static void withShards(Runnable test) {
+        Shards.configure(SHARDS, Collections.emptyMap());
+        try {
+            test.run();
+        } finally {
+            Shards.configure(1, Collections.emptyMap());
+        }
+    }
+}
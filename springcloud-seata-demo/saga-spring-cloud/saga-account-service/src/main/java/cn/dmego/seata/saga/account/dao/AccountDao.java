@@ -1,5 +1,6 @@
 package cn.dmego.seata.saga.account.dao;
 
+import cn.dmego.seata.common.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface AccountDao {
 
+    @ReadOnly
     @Select("select balance from account where id = #{userId}")
     Integer getBalance(@Param("userId") Long userId);
 
@@ -1,5 +1,6 @@
 package cn.dmego.seata.saga.account.service.impl;
 
+import cn.dmego.seata.common.logging.TxLog;
 import cn.dmego.seata.saga.account.dao.AccountDao;
 import cn.dmego.seata.saga.account.service.AccountService;
 import io.seata.core.context.RootContext;
@@ -26,38 +27,39 @@ public class AccountServiceImpl implements AccountService {
     @Transactional(rollbackFor = Exception.class)
     @Override
     public Boolean reduceBalance(Long userId, Integer amount) throws Exception {
-        logger.info("[reduceBalance] 开始扣减余额, userId:{}, amount: {}", userId, amount);
-        logger.info("[reduceBalance] XID: {}", RootContext.getXID());
+        try (TxLog.Phase phase = TxLog.begin("reduceBalance", RootContext.getXID(), 0)) {
+            phase.field("userId", userId).field("amount", amount);
 
-        // 检查余额
-        checkBalance(userId, amount);
+            // 检查余额
+            checkBalance(userId, amount);
 
-        int result = accountDao.reduceBalance(userId, amount);
-        if(result == 0){
-            logger.warn("[reduceBalance] 扣减余额失败, userId:{}, amount: {} ", userId, amount);
-            return false;
+            int result = accountDao.reduceBalance(userId, amount);
+            if(result == 0){
+                return false;
+            }
+            logger.info("[reduceBalance] 扣减余额成功, userId:{}, amount: {}", userId, amount);
+            phase.success();
+            return true;
         }
-        logger.info("[reduceBalance] 扣减余额成功, userId:{}, amount: {}", userId, amount);
-        return true;
     }
 
     @Transactional(rollbackFor = Exception.class)
     @Override
     public Boolean compensateBalance(Long userId, Integer amount) throws Exception {
-        logger.info("[compensateBalance] 开始回滚余额, userId:{}, amount: {}", userId, amount);
-        logger.info("[compensateBalance] XID: {}", RootContext.getXID());
+        try (TxLog.Phase phase = TxLog.begin("compensateBalance", RootContext.getXID(), 0)) {
+            phase.field("userId", userId).field("amount", amount);
 
-        int result = accountDao.compensateBalance(userId, amount);
-        if(result == 0){
-            logger.warn("[compensateBalance] 回滚余额失败, userId:{}, amount: {}", userId, amount);
-            return false;
+            int result = accountDao.compensateBalance(userId, amount);
+            if(result == 0){
+                return false;
+            }
+            logger.info("[compensateBalance] 回滚余额成功, userId:{}, amount: {}", userId, amount);
+            phase.success();
+            return true;
         }
-        logger.info("[compensateBalance] 回滚余额成功, userId:{}, amount: {}", userId, amount);
-        return true;
     }
 
     private void checkBalance(Long userId, Integer price) throws Exception {
-        logger.info("[checkBalance] 检查用户 {} 余额", userId);
         Integer balance = accountDao.getBalance(userId);
         if (balance < price) {
             logger.warn("[checkBalance] 用户 {} 余额不足，当前余额:{}", userId, balance);
@@ -3,6 +3,7 @@ package cn.dmego.seata.saga.business;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import springfox.documentation.oas.annotations.EnableOpenApi;
 
 /**
@@ -14,6 +15,7 @@ import springfox.documentation.oas.annotations.EnableOpenApi;
 @EnableFeignClients
 @SpringBootApplication
 @EnableOpenApi
+@EnableScheduling
 public class SagaBusinessApplication {
     public static void main(String[] args) {
         SpringApplication.run(SagaBusinessApplication.class, args);
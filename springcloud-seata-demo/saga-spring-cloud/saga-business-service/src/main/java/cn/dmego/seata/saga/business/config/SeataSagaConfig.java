@@ -1,10 +1,19 @@
 package cn.dmego.seata.saga.business.config;
 
+import cn.dmego.seata.common.retry.RetryBudget;
+import cn.dmego.seata.common.retry.RetryScheduler;
+import cn.dmego.seata.saga.business.engine.MicrometerRetryListener;
+import cn.dmego.seata.saga.business.engine.SagaStateMachineConfig;
+import cn.dmego.seata.saga.business.engine.StateLogDurability;
 import io.seata.saga.engine.StateMachineEngine;
 import io.seata.saga.engine.config.DbStateMachineConfig;
 import io.seata.saga.engine.impl.ProcessCtrlStateMachineEngine;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.seata.saga.rm.StateMachineEngineHolder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
@@ -30,6 +39,48 @@ public class SeataSagaConfig {
     @Value("${seata.tx-service-group}")
     private String txServiceGroup;
 
+    @Value("${seata.saga.state-log.durability:WRITE_THROUGH}")
+    private StateLogDurability stateLogDurability;
+
+    @Value("${seata.saga.state-log.batch-size:64}")
+    private int stateLogBatchSize;
+
+    @Value("${seata.saga.state-log.flush-interval-millis:20}")
+    private long stateLogFlushIntervalMillis;
+
+    @Value("${seata.saga.expression.cache-enabled:true}")
+    private boolean expressionCacheEnabled;
+
+    @Value("${seata.saga.compensation.parallel:false}")
+    private boolean parallelCompensationEnabled;
+
+    @Value("${seata.saga.compensation.pool-size:8}")
+    private int compensationPoolSize;
+
+    @Value("${seata.saga.compensation.queue-capacity:64}")
+    private int compensationQueueCapacity;
+
+    @Value("${seata.saga.retry.scheduler.tick-millis:10}")
+    private long retryTickMillis;
+
+    @Value("${seata.saga.retry.scheduler.wheel-size:512}")
+    private int retryWheelSize;
+
+    @Value("${seata.saga.retry.scheduler.max-interval-millis:60000}")
+    private long retryMaxIntervalMillis;
+
+    @Value("${seata.saga.retry.scheduler.pool-size:8}")
+    private int retryPoolSize;
+
+    @Value("${seata.saga.retry.budget.ratio:0.2}")
+    private double retryBudgetRatio;
+
+    @Value("${seata.saga.retry.budget.min-per-second:10}")
+    private int retryBudgetMinPerSecond;
+
+    @Value("${seata.saga.retry.budget.window-seconds:10}")
+    private int retryBudgetWindowSeconds;
+
     @Bean
     public StateMachineEngine getStateMachineEngine(DbStateMachineConfig dbStateMachineConfig) {
         ProcessCtrlStateMachineEngine stateMachineEngine = new ProcessCtrlStateMachineEngine();
@@ -47,17 +98,37 @@ public class SeataSagaConfig {
      * 具体代码见StateMachineRepositoryImpl类registryStateMachine方法
      * 这个注册的触发方法在DefaultStateMachineConfig的初始化方法init()，这个类是DbStateMachineConfig的父类
      *
+     * 状态日志默认每次状态变更同步写库，seata.saga.state-log.durability=GROUP_COMMIT 时改为组提交，见 SagaStateMachineConfig
+     * 开启 seata.saga.retry.scheduler.enabled 时，ServiceTask 的重试改由 RetryScheduler 调度
+     *
      * @param dataSource dateSource
      * @param threadPoolExecutor threadPoolExecutor
+     * @param retryScheduler retryScheduler
+     * @param compensationExecutor 开启并发补偿时提前执行补偿调用的线程池
      * @return
      * @throws IOException
      */
     @Bean
-    public DbStateMachineConfig getDbStateMachineConfig(DataSource dataSource, ThreadPoolExecutor threadPoolExecutor) throws IOException {
+    public DbStateMachineConfig getDbStateMachineConfig(DataSource dataSource, ThreadPoolExecutor threadPoolExecutor,
+                                                        ObjectProvider<RetryScheduler> retryScheduler,
+                                                        @Qualifier("sagaCompensationExecutor")
+                                                        ObjectProvider<ThreadPoolTaskExecutor> compensationExecutor)
+        throws IOException {
         PathMatchingResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
         Resource[] resources = resourcePatternResolver.getResources("classpath:statelang/*.json");
 
-        DbStateMachineConfig dbStateMachineConfig = new DbStateMachineConfig();
+        SagaStateMachineConfig dbStateMachineConfig = new SagaStateMachineConfig();
+        dbStateMachineConfig.setStateLogDurability(stateLogDurability);
+        dbStateMachineConfig.setStateLogBatchSize(stateLogBatchSize);
+        dbStateMachineConfig.setStateLogFlushIntervalMillis(stateLogFlushIntervalMillis);
+        dbStateMachineConfig.setExpressionCacheEnabled(expressionCacheEnabled);
+        dbStateMachineConfig.setParallelCompensationEnabled(parallelCompensationEnabled);
+        ThreadPoolTaskExecutor compensationTaskExecutor = compensationExecutor.getIfAvailable();
+        if (compensationTaskExecutor != null) {
+            dbStateMachineConfig.setCompensationExecutor(compensationTaskExecutor.getThreadPoolExecutor());
+        }
+        dbStateMachineConfig.setRetryScheduler(retryScheduler.getIfAvailable());
+        dbStateMachineConfig.setRetryMaxIntervalMillis(retryMaxIntervalMillis);
         dbStateMachineConfig.setDataSource(dataSource);
 //        dbStateMachineConfig.setResources(resources);
         dbStateMachineConfig.setResources(new String[]{"classpath:statelang/*.json"});
@@ -75,13 +146,55 @@ public class SeataSagaConfig {
     @Bean
     public ThreadPoolExecutor getThreadPoolExecutor() {
         ThreadPoolTaskExecutor threadExecutor = new ThreadPoolTaskExecutor();
-        threadExecutor.initialize();
         threadExecutor.setThreadNamePrefix("SAGA_ASYNC_EXE_");
         threadExecutor.setCorePoolSize(1);
         threadExecutor.setMaxPoolSize(20);
+        threadExecutor.initialize();
         return threadExecutor.getThreadPoolExecutor();
     }
 
+    /**
+     * 重试调度器：时间轮等待 + 去相关抖动 + 按下游服务的重试预算，重试次数和预算耗尽次数输出到 Micrometer
+     * @param retryExecutor 到期的重试在这个线程池上执行
+     * @param meterRegistry meterRegistry
+     * @return retry scheduler
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "seata.saga.retry.scheduler", name = "enabled", havingValue = "true")
+    public RetryScheduler getRetryScheduler(@Qualifier("sagaRetryExecutor") ThreadPoolTaskExecutor retryExecutor,
+                                            MeterRegistry meterRegistry) {
+        RetryBudget retryBudget = new RetryBudget(retryBudgetRatio, retryBudgetMinPerSecond, retryBudgetWindowSeconds);
+        return new RetryScheduler("SAGA_RETRY", retryTickMillis, retryWheelSize, retryExecutor, retryBudget,
+            new MicrometerRetryListener(meterRegistry));
+    }
+
+    @Bean("sagaRetryExecutor")
+    @ConditionalOnProperty(prefix = "seata.saga.retry.scheduler", name = "enabled", havingValue = "true")
+    public ThreadPoolTaskExecutor getRetryExecutor() {
+        ThreadPoolTaskExecutor retryExecutor = new ThreadPoolTaskExecutor();
+        retryExecutor.setThreadNamePrefix("SAGA_RETRY_EXE_");
+        retryExecutor.setCorePoolSize(retryPoolSize);
+        retryExecutor.setMaxPoolSize(retryPoolSize);
+        retryExecutor.initialize();
+        return retryExecutor;
+    }
+
+    /**
+     * 并发补偿专用线程池：核心线程数等于最大线程数，队列有界，队列满时被拒绝的补偿不提前执行，轮到时由引擎线程自己调用
+     * @return compensation executor
+     */
+    @Bean("sagaCompensationExecutor")
+    @ConditionalOnProperty(prefix = "seata.saga.compensation", name = "parallel", havingValue = "true")
+    public ThreadPoolTaskExecutor getCompensationExecutor() {
+        ThreadPoolTaskExecutor compensationExecutor = new ThreadPoolTaskExecutor();
+        compensationExecutor.setThreadNamePrefix("SAGA_COMPENSATE_EXE_");
+        compensationExecutor.setCorePoolSize(compensationPoolSize);
+        compensationExecutor.setMaxPoolSize(compensationPoolSize);
+        compensationExecutor.setQueueCapacity(compensationQueueCapacity);
+        compensationExecutor.initialize();
+        return compensationExecutor;
+    }
+
     /**
      * Seata Server 进行事务恢复时需要通过这个 Holder 拿到 stateMachineEngine 实例
      * @param stateMachineEngine stateMachineEngine
@@ -0,0 +1,43 @@
+package cn.dmego.seata.saga.business.controller;
+
+import cn.dmego.seata.saga.business.service.SagaArchiveService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * SagaArchiveController
+ *
+ * @author dmego
+ * @date 2026/10/19 15:30
+ */
+@Api(tags = "状态机归档", description = "查询已归档的 saga 实例")
+@RestController
+@RequestMapping("/saga/archive")
+public class SagaArchiveController {
+
+    @Autowired
+    SagaArchiveService sagaArchiveService;
+
+    @ApiOperation(value = "查询已归档实例", notes = "返回实例字段及 states 状态列表")
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> getArchived(@ApiParam(name = "id", value = "状态机实例 ID", required = true) @PathVariable("id") String id) {
+        Map<String, Object> archived = sagaArchiveService.getArchived(id);
+        return archived == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(archived);
+    }
+
+    @ApiOperation(value = "立即归档", notes = "立即执行一次归档，返回归档的实例数")
+    @PostMapping("/run")
+    public int archive() {
+        return sagaArchiveService.archive();
+    }
+}
@@ -0,0 +1,72 @@
+package cn.dmego.seata.saga.business.dao;
+
+import cn.dmego.seata.saga.business.entity.SagaArchive;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 状态机实例归档
+ *
+ * @author dmego
+ * @date 2026/10/19 15:30
+ */
+@Mapper
+@Repository
+public interface SagaArchiveDao {
+
+    /**
+     * 查询可以归档的实例：已结束，且正向成功或补偿成功
+     *
+     * @param cutoff 结束时间早于该时间的实例才归档
+     * @param limit 批次大小
+     * @return 实例 ID
+     */
+    @Select("SELECT id FROM seata_state_machine_inst WHERE is_running = 0 AND gmt_end < #{cutoff} "
+        + "AND (status = 'SU' OR compensation_status = 'SU') ORDER BY gmt_end LIMIT #{limit}")
+    List<String> selectArchivableIds(@Param("cutoff") Date cutoff, @Param("limit") int limit);
+
+    /**
+     * 锁定候选实例并重新检查条件，查询候选 ID 之后被重新启动（前向重试、补偿）的实例不会被锁定和归档，
+     * 引擎对已锁定实例的更新要等归档事务提交
+     *
+     * @param ids 候选实例 ID
+     * @return 仍然可以归档的实例
+     */
+    @Select("<script>SELECT * FROM seata_state_machine_inst WHERE is_running = 0 "
+        + "AND (status = 'SU' OR compensation_status = 'SU') AND id IN "
+        + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach> FOR UPDATE</script>")
+    List<Map<String, Object>> selectMachineInstancesForUpdate(@Param("ids") List<String> ids);
+
+    @Select("<script>SELECT * FROM seata_state_inst WHERE machine_inst_id IN "
+        + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach>"
+        + " ORDER BY gmt_started</script>")
+    List<Map<String, Object>> selectStateInstances(@Param("ids") List<String> ids);
+
+    @Insert("<script>INSERT IGNORE INTO seata_state_machine_inst_archive (id, machine_id, tenant_id, business_key, "
+        + "status, compensation_status, gmt_started, gmt_end, gmt_archived, payload) VALUES "
+        + "<foreach collection='archives' item='a' separator=','>(#{a.id}, #{a.machineId}, #{a.tenantId}, "
+        + "#{a.businessKey}, #{a.status}, #{a.compensationStatus}, #{a.gmtStarted}, #{a.gmtEnd}, #{a.gmtArchived}, "
+        + "#{a.payload})</foreach></script>")
+    int insertArchives(@Param("archives") List<SagaArchive> archives);
+
+    @Delete("<script>DELETE FROM seata_state_inst WHERE machine_inst_id IN "
+        + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deleteStateInstances(@Param("ids") List<String> ids);
+
+    @Delete("<script>DELETE FROM seata_state_machine_inst WHERE is_running = 0 AND id IN "
+        + "<foreach collection='ids' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    int deleteMachineInstances(@Param("ids") List<String> ids);
+
+    @Select("SELECT id, machine_id AS machineId, tenant_id AS tenantId, business_key AS businessKey, status, "
+        + "compensation_status AS compensationStatus, gmt_started AS gmtStarted, gmt_end AS gmtEnd, "
+        + "gmt_archived AS gmtArchived, payload FROM seata_state_machine_inst_archive WHERE id = #{id}")
+    SagaArchive selectArchive(@Param("id") String id);
+}
@@ -0,0 +1,174 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.common.exception.FrameworkErrorCode;
+import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BufferedStateLogStore
+ *
+ * 状态日志的组提交装饰器：
+ * 1. 状态机实例的开始 / 重启 / 结束同步落库（结束前先把缓冲中的状态记录刷盘），TC 全局事务的注册和上报时机不变，
+ *    其中有状态记录写入失败时抛出异常，不记录实例结束；
+ * 2. 中间每个状态的开始 / 结束记录只进入缓冲，达到 batchSize 或者每隔 flushIntervalMillis 合并提交一次；
+ * 3. 查询前先刷盘，保证补偿、恢复时能读到完整的状态列表。
+ *
+ * 代价是进程崩溃时最多丢失最近一个刷盘周期内的状态记录，对这部分状态的补偿需要依赖业务侧的幂等与空补偿处理。
+ *
+ * @author dmego
+ * @date 2026/10/19 10:05
+ */
+public class BufferedStateLogStore implements StateLogStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BufferedStateLogStore.class);
+
+    private final StateLogStore delegate;
+
+    private final GroupCommitDataSource dataSource;
+
+    private final int batchSize;
+
+    private final ScheduledExecutorService flusher;
+
+    /**
+     * 状态机实例 id -> 该实例已缓冲的状态记录的写入结果
+     */
+    private final ConcurrentMap<String, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+
+    public BufferedStateLogStore(StateLogStore delegate, GroupCommitDataSource dataSource, int batchSize,
+        long flushIntervalMillis) {
+        this.delegate = delegate;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SAGA_STATE_LOG_FLUSH");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
+        delegate.recordStateMachineStarted(machineInstance, context);
+    }
+
+    @Override
+    public void recordStateMachineFinished(StateMachineInstance machineInstance, ProcessContext context) {
+        awaitWrites(machineInstance.getId());
+        delegate.recordStateMachineFinished(machineInstance, context);
+    }
+
+    @Override
+    public void recordStateMachineRestarted(StateMachineInstance machineInstance, ProcessContext context) {
+        awaitWrites(machineInstance.getId());
+        delegate.recordStateMachineRestarted(machineInstance, context);
+    }
+
+    @Override
+    public void recordStateStarted(StateInstance stateInstance, ProcessContext context) {
+        track(stateInstance, dataSource.runDeferred(() -> delegate.recordStateStarted(stateInstance, context)));
+        flushIfFull();
+    }
+
+    @Override
+    public void recordStateFinished(StateInstance stateInstance, ProcessContext context) {
+        track(stateInstance, dataSource.runDeferred(() -> delegate.recordStateFinished(stateInstance, context)));
+        flushIfFull();
+    }
+
+    @Override
+    public StateMachineInstance getStateMachineInstance(String stateMachineInstanceId) {
+        dataSource.flush();
+        return delegate.getStateMachineInstance(stateMachineInstanceId);
+    }
+
+    @Override
+    public StateMachineInstance getStateMachineInstanceByBusinessKey(String businessKey, String tenantId) {
+        dataSource.flush();
+        return delegate.getStateMachineInstanceByBusinessKey(businessKey, tenantId);
+    }
+
+    @Override
+    public List<StateMachineInstance> queryStateMachineInstanceByParentId(String parentId) {
+        dataSource.flush();
+        return delegate.queryStateMachineInstanceByParentId(parentId);
+    }
+
+    @Override
+    public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+        dataSource.flush();
+        return delegate.getStateInstance(stateInstanceId, machineInstId);
+    }
+
+    @Override
+    public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+        dataSource.flush();
+        return delegate.queryStateInstanceListByMachineInstanceId(stateMachineInstanceId);
+    }
+
+    /**
+     * 停止定时刷盘线程，并把剩余的状态记录写入数据库
+     */
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dataSource.flush();
+        dataSource.shutdown();
+    }
+
+    private void track(StateInstance stateInstance, CompletableFuture<Void> written) {
+        pendingWrites.merge(stateInstance.getMachineInstanceId(), written, CompletableFuture::allOf);
+    }
+
+    /**
+     * 刷盘并等待该实例缓冲的状态记录写完
+     */
+    private void awaitWrites(String machineInstanceId) {
+        dataSource.flush();
+        CompletableFuture<Void> written = pendingWrites.remove(machineInstanceId);
+        if (written == null) {
+            return;
+        }
+        try {
+            written.join();
+        } catch (CompletionException e) {
+            throw new EngineExecutionException(e.getCause(),
+                "状态日志写入失败, machineInstanceId: " + machineInstanceId, FrameworkErrorCode.ExceptionCaught);
+        }
+    }
+
+    private void flushIfFull() {
+        // 缓冲达到批次大小时由当前线程直接组提交，顺带起到背压作用
+        if (dataSource.getPendingCount() >= batchSize) {
+            dataSource.flush();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            dataSource.flush();
+        } catch (Throwable e) {
+            LOGGER.error("[flushQuietly] 定时刷盘状态日志失败", e);
+        }
+    }
+}
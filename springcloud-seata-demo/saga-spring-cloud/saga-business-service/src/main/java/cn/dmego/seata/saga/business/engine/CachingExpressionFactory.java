@@ -0,0 +1,67 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CachingExpressionFactory
+ *
+ * 替换状态机默认的 SpEL 表达式工厂：
+ * 1. 按表达式文本缓存编译结果，同一个表达式无论被多少个状态、多少个状态机版本引用都只编译一次；
+ * 2. 状态机里最常见的 #root、[key]、#root == true、[key] == false 这类取值和相等判断走 {@link FastPathExpression}，
+ *    不再进入 SpEL 解释执行，其余表达式仍交给原来的工厂处理。
+ *
+ * @author dmego
+ * @date 2026/10/19 11:20
+ */
+public class CachingExpressionFactory implements ExpressionFactory {
+
+    private final ExpressionFactory delegate;
+
+    private final Map<String, Expression> cache = new ConcurrentHashMap<>();
+
+    private final AtomicLong compiledCount = new AtomicLong();
+
+    private final AtomicLong fastPathCount = new AtomicLong();
+
+    public CachingExpressionFactory(ExpressionFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Expression createExpression(String expression) {
+        return cache.computeIfAbsent(expression, this::compile);
+    }
+
+    private Expression compile(String expression) {
+        compiledCount.incrementAndGet();
+        Expression fastPath = FastPathExpression.parse(expression, delegate);
+        if (fastPath != null) {
+            fastPathCount.incrementAndGet();
+            return fastPath;
+        }
+        return delegate.createExpression(expression);
+    }
+
+    public ExpressionFactory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return 已编译的表达式数量
+     */
+    public long getCompiledCount() {
+        return compiledCount.get();
+    }
+
+    /**
+     * @return 其中走快速路径的表达式数量
+     */
+    public long getFastPathCount() {
+        return fastPathCount.get();
+    }
+}
@@ -0,0 +1,84 @@
+package cn.dmego.seata.saga.business.engine;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CompensationDependencies
+ *
+ * 补偿状态之间声明的先后依赖。在状态机 json 的补偿状态上用 CompensateAfter 声明必须先完成的补偿状态，例如：
+ * <pre>
+ *   "compensateAccount": { ..., "CompensateAfter": ["compensateOrder"] }
+ * </pre>
+ * 没有声明依赖的补偿状态视为彼此独立，可以并发执行。Seata 解析状态时会忽略这个字段，这里单独读取一遍 json。
+ *
+ * @author dmego
+ * @date 2026/10/19 14:10
+ */
+public class CompensationDependencies {
+
+    public static final String COMPENSATE_AFTER = "CompensateAfter";
+
+    /**
+     * 状态机名称 -> 补偿状态名称 -> 依赖的补偿状态
+     */
+    private final Map<String, Map<String, Set<String>>> dependencies;
+
+    private CompensationDependencies(Map<String, Map<String, Set<String>>> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public static CompensationDependencies load(String[] resourcePatterns) throws IOException {
+        Map<String, Map<String, Set<String>>> dependencies = new HashMap<>();
+        if (resourcePatterns == null) {
+            return new CompensationDependencies(dependencies);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (String pattern : resourcePatterns) {
+            for (Resource resource : resolver.getResources(pattern)) {
+                JsonNode root;
+                try (InputStream in = resource.getInputStream()) {
+                    root = objectMapper.readTree(in);
+                }
+                JsonNode states = root.path("States");
+                Map<String, Set<String>> machine = new HashMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = states.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> state = fields.next();
+                    JsonNode after = state.getValue().path(COMPENSATE_AFTER);
+                    if (after.isArray() && after.size() > 0) {
+                        Set<String> names = new LinkedHashSet<>();
+                        after.forEach(node -> names.add(node.asText()));
+                        machine.put(state.getKey(), names);
+                    }
+                }
+                dependencies.put(root.path("Name").asText(), machine);
+            }
+        }
+        return new CompensationDependencies(dependencies);
+    }
+
+    /**
+     * @return 补偿状态 compensateState 必须等待完成的补偿状态
+     */
+    public Set<String> get(String stateMachineName, String compensateState) {
+        Map<String, Set<String>> machine = dependencies.get(stateMachineName);
+        if (machine == null) {
+            return Collections.emptySet();
+        }
+        Set<String> after = machine.get(compensateState);
+        return after == null ? Collections.<String>emptySet() : after;
+    }
+}
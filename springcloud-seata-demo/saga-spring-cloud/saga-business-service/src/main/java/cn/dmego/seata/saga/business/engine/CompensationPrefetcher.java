@@ -0,0 +1,273 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.expression.ExpressionFactory;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.engine.pcext.utils.CompensationHolder;
+import io.seata.saga.engine.pcext.utils.EngineUtils;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ServiceTaskState;
+import io.seata.saga.statelang.domain.State;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachine;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * CompensationPrefetcher
+ *
+ * 并发补偿：引擎仍然按 CompensationTrigger 弹栈的顺序逐个执行补偿状态，每个补偿状态照常记录状态日志、判断状态、
+ * 走自己的重试配置；区别是在第一个补偿状态开始时，把栈里其余没有未完成依赖的补偿调用提前提交到补偿线程池并发执行，
+ * 引擎轮到这些状态时 {@link PrefetchingServiceInvoker} 直接等待已经在执行的调用结果。
+ *
+ * 只有入参全部是 "$." 表达式或常量的补偿状态会被提前执行；轮到该状态时如果引擎算出的入参与提前执行时不一致，
+ * 丢弃提前执行的结果重新调用（补偿服务本身要求幂等）。
+ *
+ * @author dmego
+ * @date 2026/10/19 14:10
+ */
+public class CompensationPrefetcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompensationPrefetcher.class);
+
+    private static final String EXPRESSION_PREFIX = "$.";
+
+    private static final long STALE_MILLIS = 10 * 60 * 1000L;
+
+    /**
+     * 当前线程正在执行的补偿状态，由 {@link ParallelCompensationInterceptor} 设置
+     */
+    private static final ThreadLocal<String> CURRENT_KEY = new ThreadLocal<>();
+
+    private final ServiceInvoker delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final CompensationDependencies dependencies;
+
+    private final ExpressionFactoryManager expressionFactoryManager;
+
+    private final Map<String, PrefetchTask> tasks = new ConcurrentHashMap<>();
+
+    public CompensationPrefetcher(ServiceInvoker delegate, ThreadPoolExecutor executor,
+        CompensationDependencies dependencies, ExpressionFactoryManager expressionFactoryManager) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.dependencies = dependencies;
+        this.expressionFactoryManager = expressionFactoryManager;
+    }
+
+    /**
+     * 补偿状态执行前调用：标记当前线程的补偿状态，并提前提交栈里其余可以并发的补偿
+     */
+    @SuppressWarnings("unchecked")
+    public void beforeCompensation(ProcessContext context) {
+        StateInstruction instruction = context.getInstruction(StateInstruction.class);
+        State state = instruction.getState(context);
+        if (!(state instanceof ServiceTaskStateImpl) || !((ServiceTaskStateImpl) state).isForCompensation()) {
+            return;
+        }
+        StateMachineInstance machineInstance = (StateMachineInstance) context
+            .getVariable(DomainConstants.VAR_NAME_STATEMACHINE_INST);
+        Map<String, Object> contextVariables = (Map<String, Object>) context
+            .getVariable(DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT);
+        StateMachine stateMachine = machineInstance.getStateMachine();
+        CURRENT_KEY.set(key(machineInstance.getId(), state.getName()));
+
+        CompensationHolder holder = CompensationHolder.getCurrent(context, true);
+        Stack<StateInstance> stack = holder.getStateStackNeedCompensation();
+        if (stack.isEmpty() || contextVariables == null) {
+            return;
+        }
+        purgeStale();
+
+        // 还没完成的补偿状态：正在执行的这个 + 栈里剩余的
+        List<ServiceTaskStateImpl> remaining = new ArrayList<>();
+        Set<String> unfinished = new HashSet<>();
+        unfinished.add(state.getName());
+        for (StateInstance forward : new ArrayList<>(stack)) {
+            State forwardState = stateMachine.getState(EngineUtils.getOriginStateName(forward));
+            if (!(forwardState instanceof ServiceTaskState)) {
+                continue;
+            }
+            State compensateState = stateMachine.getState(((ServiceTaskState) forwardState).getCompensateState());
+            if (compensateState instanceof ServiceTaskStateImpl) {
+                remaining.add((ServiceTaskStateImpl) compensateState);
+                unfinished.add(compensateState.getName());
+            }
+        }
+
+        for (ServiceTaskStateImpl compensateState : remaining) {
+            String key = key(machineInstance.getId(), compensateState.getName());
+            if (tasks.containsKey(key) || dependsOnUnfinished(stateMachine.getName(), compensateState, unfinished)) {
+                continue;
+            }
+            Object[] input = resolveInput(compensateState, contextVariables);
+            if (input == null) {
+                continue;
+            }
+            PrefetchTask task = new PrefetchTask(compensateState, input);
+            tasks.put(key, task);
+            try {
+                executor.execute(task);
+                LOGGER.debug("[beforeCompensation] 提前执行补偿 {}, 状态机实例: {}", compensateState.getName(),
+                    machineInstance.getId());
+            } catch (RejectedExecutionException e) {
+                // 线程池已满时不提前执行，轮到该状态时由引擎线程自己调用
+                tasks.remove(key);
+            }
+        }
+    }
+
+    public void afterCompensation() {
+        CURRENT_KEY.remove();
+    }
+
+    /**
+     * 取出当前线程正在执行的补偿状态已经提前执行的调用，没有时返回 null
+     */
+    PrefetchTask take(ServiceTaskState state, Object[] input) {
+        String key = CURRENT_KEY.get();
+        if (key == null || !key.endsWith(":" + state.getName())) {
+            return null;
+        }
+        PrefetchTask task = tasks.remove(key);
+        if (task != null && !Arrays.deepEquals(task.input, input)) {
+            LOGGER.warn("[take] 补偿 {} 的入参已变化, 放弃提前执行的结果", state.getName());
+            task.discard();
+            return null;
+        }
+        return task;
+    }
+
+    /**
+     * 补偿中途失败时引擎不会再执行剩下的补偿状态，对应的提前执行结果在这里清理
+     */
+    private void purgeStale() {
+        long deadline = System.currentTimeMillis() - STALE_MILLIS;
+        tasks.values().removeIf(task -> task.createdAt < deadline && task.future.isDone());
+    }
+
+    private boolean dependsOnUnfinished(String stateMachineName, ServiceTaskStateImpl compensateState,
+        Set<String> unfinished) {
+        for (String after : dependencies.get(stateMachineName, compensateState.getName())) {
+            if (unfinished.contains(after)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object[] resolveInput(ServiceTaskStateImpl state, Map<String, Object> contextVariables) {
+        List<Object> assignments = state.getInput();
+        if (assignments == null) {
+            return new Object[0];
+        }
+        ExpressionFactory expressionFactory = expressionFactoryManager
+            .getExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE);
+        Object[] input = new Object[assignments.size()];
+        for (int i = 0; i < assignments.size(); i++) {
+            Object assignment = assignments.get(i);
+            if (!(assignment instanceof String)) {
+                return null;
+            }
+            String text = (String) assignment;
+            if (text.startsWith(EXPRESSION_PREFIX)) {
+                input[i] = expressionFactory.createExpression(text.substring(EXPRESSION_PREFIX.length()))
+                    .getValue(contextVariables);
+            } else if (text.startsWith("$")) {
+                // $Sequence 等其它类型的表达式不提前求值
+                return null;
+            } else {
+                input[i] = text;
+            }
+        }
+        return input;
+    }
+
+    private static String key(String machineInstanceId, String stateName) {
+        return machineInstanceId + ":" + stateName;
+    }
+
+    /**
+     * 提前执行的补偿调用。工作线程和引擎线程谁先 claim 谁执行，避免线程池被等待中的引擎线程占满时互相等待
+     */
+    class PrefetchTask implements Runnable {
+
+        private final ServiceTaskStateImpl state;
+
+        private final Object[] input;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private final FutureTask<Object> future;
+
+        private final long createdAt = System.currentTimeMillis();
+
+        PrefetchTask(ServiceTaskStateImpl state, Object[] input) {
+            this.state = state;
+            this.input = input;
+            this.future = new FutureTask<>(() -> {
+                try {
+                    return delegate.invoke(state, input);
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ExecutionException(e);
+                }
+            });
+        }
+
+        @Override
+        public void run() {
+            if (claimed.compareAndSet(false, true)) {
+                future.run();
+            }
+        }
+
+        /**
+         * 还没开始执行就直接丢弃，已经开始执行的等它结束，避免与重新发起的调用并发
+         */
+        void discard() {
+            if (claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.get();
+            } catch (Exception ignored) {
+                // 结果已经被丢弃
+            }
+        }
+
+        Object claimOrAwait() throws Throwable {
+            run();
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof ExecutionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactory;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * FastPathExpression
+ *
+ * 只支持以下形式，语义与 SpEL 保持一致：
+ * <pre>
+ *   #root                  [orderId]
+ *   #root == true          [orderResult] != false
+ *   #root == 'OK'          [count] == 1          [x] == null
+ * </pre>
+ * [key] 只在根对象是 Map 时直接取值，否则退回到原表达式工厂编译的表达式上执行。
+ *
+ * @author dmego
+ * @date 2026/10/19 11:20
+ */
+public class FastPathExpression implements Expression {
+
+    private static final Pattern PATTERN = Pattern.compile(
+        "^\\s*(#root|\\[\\s*([A-Za-z_$][\\w$]*)\\s*\\])\\s*(?:(==|!=)\\s*(true|false|null|-?\\d+(?:\\.\\d+)?|'[^']*'))?\\s*$");
+
+    private final String expressionString;
+
+    private final String key;
+
+    private final boolean hasComparison;
+
+    private final boolean negate;
+
+    private final Object literal;
+
+    private final ExpressionFactory fallbackFactory;
+
+    private volatile Expression fallback;
+
+    private FastPathExpression(String expressionString, String key, boolean hasComparison, boolean negate,
+        Object literal, ExpressionFactory fallbackFactory) {
+        this.expressionString = expressionString;
+        this.key = key;
+        this.hasComparison = hasComparison;
+        this.negate = negate;
+        this.literal = literal;
+        this.fallbackFactory = fallbackFactory;
+    }
+
+    /**
+     * @return 能走快速路径时返回表达式，否则返回 null
+     */
+    public static FastPathExpression parse(String expression, ExpressionFactory fallbackFactory) {
+        if (expression == null) {
+            return null;
+        }
+        Matcher matcher = PATTERN.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+        String key = matcher.group(2);
+        String operator = matcher.group(3);
+        Object literal = operator == null ? null : parseLiteral(matcher.group(4));
+        return new FastPathExpression(expression, key, operator != null, "!=".equals(operator), literal,
+            fallbackFactory);
+    }
+
+    private static Object parseLiteral(String text) {
+        switch (text) {
+            case "true":
+                return Boolean.TRUE;
+            case "false":
+                return Boolean.FALSE;
+            case "null":
+                return null;
+            default:
+                if (text.startsWith("'")) {
+                    return text.substring(1, text.length() - 1);
+                }
+                if (text.indexOf('.') >= 0) {
+                    return Double.valueOf(text);
+                }
+                long value = Long.parseLong(text);
+                return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+        }
+    }
+
+    @Override
+    public Object getValue(Object elContext) {
+        Object value;
+        if (key == null) {
+            value = elContext;
+        } else if (elContext instanceof Map) {
+            value = ((Map<?, ?>) elContext).get(key);
+        } else {
+            return fallback().getValue(elContext);
+        }
+        if (!hasComparison) {
+            return value;
+        }
+        boolean equal = equalityCheck(value, literal);
+        return negate != equal;
+    }
+
+    @Override
+    public void setValue(Object value, Object elContext) {
+        fallback().setValue(value, elContext);
+    }
+
+    @Override
+    public String getExpressionString() {
+        return expressionString;
+    }
+
+    private Expression fallback() {
+        Expression expression = fallback;
+        if (expression == null) {
+            expression = fallbackFactory.createExpression(expressionString);
+            fallback = expression;
+        }
+        return expression;
+    }
+
+    /**
+     * 与 SpEL 的 == 保持一致：数字按数值比较，其余按 equals 比较
+     */
+    static boolean equalityCheck(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            Number l = (Number) left;
+            Number r = (Number) right;
+            if (l instanceof BigDecimal || r instanceof BigDecimal) {
+                return new BigDecimal(l.toString()).compareTo(new BigDecimal(r.toString())) == 0;
+            }
+            if (l instanceof Double || l instanceof Float || r instanceof Double || r instanceof Float) {
+                return l.doubleValue() == r.doubleValue();
+            }
+            return l.longValue() == r.longValue();
+        }
+        if (left instanceof CharSequence && right instanceof CharSequence) {
+            return left.toString().equals(right.toString());
+        }
+        return Objects.equals(left, right);
+    }
+}
@@ -0,0 +1,454 @@
+package cn.dmego.seata.saga.business.engine;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GroupCommitDataSource
+ *
+ * 包装状态日志使用的数据源。在 {@link #runDeferred(Runnable)} 范围内执行的写语句不会立即落库，
+ * 而是记录下 SQL 和绑定参数放入缓冲队列，由 {@link #flush()} 在一个本地事务里按 JDBC batch 合并提交。
+ * 这样 Seata 自带的 DbAndReportTcStateLogStore 的 SQL、主键生成和 TC 分支上报逻辑都保持不变，
+ * 只是把多次单条提交变成一次组提交。
+ * 每批语句都交给同一个写线程按提交顺序执行，每条语句的写入结果通过 {@link #runDeferred(Runnable)} 返回的 future 通知调用方。
+ *
+ * @author dmego
+ * @date 2026/10/19 10:05
+ */
+public class GroupCommitDataSource implements DataSource {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GroupCommitDataSource.class);
+
+    /**
+     * 延迟写模式下当前线程记录的语句的写入结果
+     */
+    private static final ThreadLocal<List<CompletableFuture<Void>>> DEFERRED = new ThreadLocal<>();
+
+    private final DataSource target;
+
+    private final ThreadPoolExecutor writer;
+
+    private final Object bufferLock = new Object();
+
+    private List<PendingStatement> buffer = new ArrayList<>();
+
+    private CompletableFuture<Void> lastWrite = CompletableFuture.completedFuture(null);
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicLong flushCount = new AtomicLong();
+
+    private final AtomicLong statementCount = new AtomicLong();
+
+    public GroupCommitDataSource(DataSource target) {
+        this.target = target;
+        // 单线程保证各批按交换顺序落库，同一状态的 insert 一定先于 update；未启用组提交时线程不会创建
+        this.writer = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "SAGA_STATE_LOG_WRITE");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 在延迟写模式下执行 action，action 内部的 insert / update / delete 只进入缓冲队列
+     *
+     * @return action 记录的语句全部写入后完成，任一语句写入失败时以对应的 SQLException 异常完成
+     */
+    public CompletableFuture<Void> runDeferred(Runnable action) {
+        List<CompletableFuture<Void>> written = DEFERRED.get();
+        boolean outermost = written == null;
+        if (outermost) {
+            written = new ArrayList<>();
+            DEFERRED.set(written);
+        }
+        int from = written.size();
+        try {
+            action.run();
+        } finally {
+            if (outermost) {
+                DEFERRED.remove();
+            }
+        }
+        return CompletableFuture.allOf(written.subList(from, written.size()).toArray(new CompletableFuture[0]));
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getStatementCount() {
+        return statementCount.get();
+    }
+
+    /**
+     * 在锁内换出缓冲区并交给写线程，锁外等待写完；缓冲区为空时等待正在进行的写入，
+     * 保证返回时当前线程之前记录的语句都已经有了写入结果
+     *
+     * @return 本次换出的语句条数
+     */
+    public int flush() {
+        List<PendingStatement> batch;
+        CompletableFuture<Void> written;
+        synchronized (bufferLock) {
+            batch = buffer;
+            if (batch.isEmpty()) {
+                written = lastWrite;
+            } else {
+                buffer = new ArrayList<>();
+                pendingCount.addAndGet(-batch.size());
+                try {
+                    written = CompletableFuture.runAsync(() -> write(batch), writer);
+                } catch (RejectedExecutionException e) {
+                    for (PendingStatement statement : batch) {
+                        statement.written.completeExceptionally(e);
+                    }
+                    throw e;
+                }
+                lastWrite = written;
+            }
+        }
+        written.join();
+        return batch.size();
+    }
+
+    /**
+     * 停止写线程，调用前应先 {@link #flush()}
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("[shutdown] 状态日志写线程 10 秒内未结束");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<PendingStatement> batch) {
+        try {
+            writeBatch(batch);
+            for (PendingStatement statement : batch) {
+                statement.written.complete(null);
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.warn("[write] 批量提交 {} 条状态日志失败, 改为逐条提交", batch.size(), e);
+            writeOneByOne(batch);
+        }
+        flushCount.incrementAndGet();
+        statementCount.addAndGet(batch.size());
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("[write] 组提交状态日志 {} 条", batch.size());
+        }
+    }
+
+    private void writeBatch(List<PendingStatement> batch) throws SQLException {
+        try (Connection connection = target.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                PreparedStatement stmt = null;
+                String currentSql = null;
+                try {
+                    // 只合并相邻的同一条 SQL, 保证同一状态实例的 insert 一定先于 update 执行
+                    for (PendingStatement pendingStatement : batch) {
+                        if (!pendingStatement.sql.equals(currentSql)) {
+                            if (stmt != null) {
+                                stmt.executeBatch();
+                                stmt.close();
+                            }
+                            stmt = connection.prepareStatement(pendingStatement.sql);
+                            currentSql = pendingStatement.sql;
+                        }
+                        pendingStatement.bind(stmt);
+                        stmt.addBatch();
+                    }
+                    if (stmt != null) {
+                        stmt.executeBatch();
+                    }
+                } finally {
+                    if (stmt != null) {
+                        stmt.close();
+                    }
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private void writeOneByOne(List<PendingStatement> batch) {
+        for (PendingStatement pendingStatement : batch) {
+            try (Connection connection = target.getConnection();
+                 PreparedStatement stmt = connection.prepareStatement(pendingStatement.sql)) {
+                pendingStatement.bind(stmt);
+                stmt.executeUpdate();
+                if (!connection.getAutoCommit()) {
+                    connection.commit();
+                }
+                pendingStatement.written.complete(null);
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.error("[write] 状态日志写入失败, sql: {}", pendingStatement.sql, e);
+                pendingStatement.written.completeExceptionally(e);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (DEFERRED.get() != null) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, new DeferredConnectionHandler());
+        }
+        return target.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    private void enqueue(PendingStatement statement) {
+        List<CompletableFuture<Void>> written = DEFERRED.get();
+        if (written != null) {
+            written.add(statement.written);
+        }
+        synchronized (bufferLock) {
+            buffer.add(statement);
+            pendingCount.incrementAndGet();
+        }
+    }
+
+    private static boolean isWrite(String sql) {
+        String head = sql.trim().toLowerCase(Locale.ROOT);
+        return head.startsWith("insert") || head.startsWith("update") || head.startsWith("delete");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * 延迟模式下的连接：写语句返回记录参数的 PreparedStatement，读语句先 flush 再走真实连接，保证读到自己的写
+     */
+    private class DeferredConnectionHandler implements InvocationHandler {
+
+        private Connection physical;
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    String sql = (String) args[0];
+                    if (isWrite(sql)) {
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, new RecordingStatementHandler(sql));
+                    }
+                    flush();
+                    return GroupCommitDataSource.invoke(physical(), method, args);
+                case "getAutoCommit":
+                    return Boolean.TRUE;
+                case "setAutoCommit":
+                case "commit":
+                case "rollback":
+                    return null;
+                case "close":
+                    closed = true;
+                    if (physical != null) {
+                        physical.close();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isWrapperFor":
+                    return Boolean.FALSE;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "DeferredConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return GroupCommitDataSource.invoke(physical(), method, args);
+            }
+        }
+
+        private Connection physical() throws SQLException {
+            if (physical == null) {
+                physical = target.getConnection();
+            }
+            return physical;
+        }
+    }
+
+    /**
+     * 记录 setXxx 调用，executeUpdate 时把语句放入缓冲队列
+     */
+    private class RecordingStatementHandler implements InvocationHandler {
+
+        private final PendingStatement statement;
+
+        private boolean closed;
+
+        RecordingStatementHandler(String sql) {
+            this.statement = new PendingStatement(sql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                statement.record(method, args);
+                return null;
+            }
+            switch (name) {
+                case "clearParameters":
+                    statement.clear();
+                    return null;
+                case "executeUpdate":
+                case "execute":
+                    if (args != null && args.length > 0) {
+                        throw new SQLFeatureNotSupportedException("deferred statement only supports prepared execution");
+                    }
+                    enqueue(statement.copy());
+                    return "execute".equals(name) ? Boolean.FALSE : 1;
+                case "getUpdateCount":
+                    return 1;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "DeferredStatement[" + statement.sql + "]";
+                default:
+                    throw new SQLFeatureNotSupportedException("deferred statement does not support " + name);
+            }
+        }
+    }
+
+    private static class PendingStatement {
+
+        private final String sql;
+
+        private final List<Object[]> calls;
+
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+        PendingStatement(String sql) {
+            this(sql, new ArrayList<>());
+        }
+
+        private PendingStatement(String sql, List<Object[]> calls) {
+            this.sql = sql;
+            this.calls = calls;
+        }
+
+        void record(Method method, Object[] args) {
+            calls.add(new Object[]{method, args.clone()});
+        }
+
+        void clear() {
+            calls.clear();
+        }
+
+        PendingStatement copy() {
+            return new PendingStatement(sql, new ArrayList<>(calls));
+        }
+
+        void bind(PreparedStatement stmt) throws SQLException {
+            for (Object[] call : calls) {
+                try {
+                    ((Method) call[0]).invoke(stmt, (Object[]) call[1]);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getTargetException();
+                    if (cause instanceof SQLException) {
+                        throw (SQLException) cause;
+                    }
+                    throw new SQLException(cause);
+                } catch (IllegalAccessException e) {
+                    throw new SQLException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package cn.dmego.seata.saga.business.engine;
+
+import cn.dmego.seata.common.retry.RetryListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MicrometerRetryListener
+ *
+ * 按下游服务输出重试指标：
+ * saga.retry.attempts 已安排的重试次数，saga.retry.budget.exhausted 因预算耗尽放弃的重试次数，
+ * saga.retry.giveup 最终失败的调用次数。
+ * 每个下游的计数器只注册一次，重试事件只做一次 map 查找
+ *
+ * @author dmego
+ * @date 2026/10/19 16:20
+ */
+public class MicrometerRetryListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public MicrometerRetryListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onRetryScheduled(String downstream, int attempt, long delayMillis) {
+        counters(downstream).attempts.increment();
+    }
+
+    @Override
+    public void onBudgetExhausted(String downstream) {
+        counters(downstream).budgetExhausted.increment();
+    }
+
+    @Override
+    public void onGiveUp(String downstream, int attempts, Throwable cause) {
+        counters(downstream).giveUp.increment();
+    }
+
+    private Counters counters(String downstream) {
+        return counters.computeIfAbsent(downstream, key -> new Counters(meterRegistry, key));
+    }
+
+    private static class Counters {
+
+        private final Counter attempts;
+
+        private final Counter budgetExhausted;
+
+        private final Counter giveUp;
+
+        Counters(MeterRegistry registry, String downstream) {
+            this.attempts = Counter.builder("saga.retry.attempts").tag("downstream", downstream).register(registry);
+            this.budgetExhausted = Counter.builder("saga.retry.budget.exhausted").tag("downstream", downstream)
+                .register(registry);
+            this.giveUp = Counter.builder("saga.retry.giveup").tag("downstream", downstream).register(registry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.common.loader.LoadLevel;
+import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.pcext.InterceptableStateHandler;
+import io.seata.saga.engine.pcext.StateHandlerInterceptor;
+import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.DomainConstants;
+
+/**
+ * ParallelCompensationInterceptor
+ *
+ * 通过 Seata SPI（META-INF/services/io.seata.saga.engine.pcext.StateHandlerInterceptor）挂到 ServiceTask 的处理器上，
+ * 排在 Seata 自带的 ServiceTaskHandlerInterceptor 之后。SPI 实例不受 Spring 管理，
+ * 并发补偿组件从流程上下文里的状态机配置（{@link SagaStateMachineConfig} bean）获取，未开启并发补偿时什么也不做。
+ *
+ * @author dmego
+ * @date 2026/10/19 14:10
+ */
+@LoadLevel(name = "ParallelCompensation", order = 1000)
+public class ParallelCompensationInterceptor implements StateHandlerInterceptor {
+
+    @Override
+    public boolean match(Class<? extends InterceptableStateHandler> clazz) {
+        return clazz != null && ServiceTaskStateHandler.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void preProcess(ProcessContext context) throws EngineExecutionException {
+        CompensationPrefetcher prefetcher = prefetcher(context);
+        if (prefetcher != null) {
+            prefetcher.beforeCompensation(context);
+        }
+    }
+
+    @Override
+    public void postProcess(ProcessContext context, Exception exp) throws EngineExecutionException {
+        CompensationPrefetcher prefetcher = prefetcher(context);
+        if (prefetcher != null) {
+            prefetcher.afterCompensation();
+        }
+    }
+
+    private static CompensationPrefetcher prefetcher(ProcessContext context) {
+        Object config = context.getVariable(DomainConstants.VAR_NAME_STATEMACHINE_CONFIG);
+        return config instanceof SagaStateMachineConfig
+            ? ((SagaStateMachineConfig) config).getCompensationPrefetcher() : null;
+    }
+}
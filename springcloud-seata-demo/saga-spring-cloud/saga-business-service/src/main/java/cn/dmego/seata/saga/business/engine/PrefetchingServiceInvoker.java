@@ -0,0 +1,34 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.statelang.domain.ServiceTaskState;
+
+/**
+ * PrefetchingServiceInvoker
+ *
+ * 包装 SpringBean 类型的 ServiceInvoker：当前补偿状态已经被 {@link CompensationPrefetcher} 提前执行时，
+ * 直接返回（或等待）提前执行的结果，否则照常调用
+ *
+ * @author dmego
+ * @date 2026/10/19 14:10
+ */
+public class PrefetchingServiceInvoker implements ServiceInvoker {
+
+    private final ServiceInvoker delegate;
+
+    private final CompensationPrefetcher prefetcher;
+
+    public PrefetchingServiceInvoker(ServiceInvoker delegate, CompensationPrefetcher prefetcher) {
+        this.delegate = delegate;
+        this.prefetcher = prefetcher;
+    }
+
+    @Override
+    public Object invoke(ServiceTaskState serviceTaskState, Object... input) throws Throwable {
+        CompensationPrefetcher.PrefetchTask task = prefetcher.take(serviceTaskState, input);
+        if (task != null) {
+            return task.claimOrAwait();
+        }
+        return delegate.invoke(serviceTaskState, input);
+    }
+}
@@ -0,0 +1,240 @@
+package cn.dmego.seata.saga.business.engine;
+
+import cn.dmego.seata.common.retry.RetryScheduler;
+import io.seata.saga.engine.config.DbStateMachineConfig;
+import io.seata.saga.engine.evaluation.EvaluatorFactory;
+import io.seata.saga.engine.evaluation.EvaluatorFactoryManager;
+import io.seata.saga.engine.evaluation.expression.ExpressionEvaluatorFactory;
+import io.seata.saga.engine.expression.ExpressionFactory;
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.engine.invoker.ServiceInvokerManager;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.statelang.domain.DomainConstants;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * SagaStateMachineConfig
+ *
+ * 在 DbStateMachineConfig 的基础上：
+ * 1. 状态日志为 GROUP_COMMIT 时，把数据源包装成 {@link GroupCommitDataSource}，把父类创建的 DbAndReportTcStateLogStore 包装成组提交的 {@link BufferedStateLogStore}；
+ * 2. 把默认表达式工厂替换为 {@link CachingExpressionFactory}；
+ * 3. 配置了重试调度器时，用 {@link ScheduledRetryServiceInvoker} 包装 SpringBean 类型的服务调用器，只替换重试的等待方式；
+ * 4. 开启并发补偿并配置了补偿线程池时，用 {@link PrefetchingServiceInvoker} 包装 SpringBean 类型的服务调用器。
+ *
+ * @author dmego
+ * @date 2026/10/19 10:05
+ */
+public class SagaStateMachineConfig extends DbStateMachineConfig implements DisposableBean {
+
+    private StateLogDurability stateLogDurability = StateLogDurability.WRITE_THROUGH;
+
+    private int stateLogBatchSize = 64;
+
+    private long stateLogFlushIntervalMillis = 20;
+
+    private boolean expressionCacheEnabled = true;
+
+    private boolean parallelCompensationEnabled = false;
+
+    private ThreadPoolExecutor compensationExecutor;
+
+    private RetryScheduler retryScheduler;
+
+    private long retryMaxIntervalMillis = 60_000;
+
+    private String[] resourcePatterns;
+
+    private GroupCommitDataSource groupCommitDataSource;
+
+    private CompensationPrefetcher compensationPrefetcher;
+
+    @Override
+    public void setResources(String[] resources) {
+        this.resourcePatterns = resources;
+        super.setResources(resources);
+    }
+
+    /**
+     * 父类 afterPropertiesSet() 创建默认的状态日志存储后会回调这里，此时按配置决定是否包装
+     */
+    @Override
+    public void setStateLogStore(StateLogStore stateLogStore) {
+        if (stateLogDurability == StateLogDurability.GROUP_COMMIT && groupCommitDataSource != null
+            && stateLogStore != null && !(stateLogStore instanceof BufferedStateLogStore)) {
+            stateLogStore = new BufferedStateLogStore(stateLogStore, groupCommitDataSource, stateLogBatchSize,
+                stateLogFlushIntervalMillis);
+        }
+        super.setStateLogStore(stateLogStore);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (stateLogDurability == StateLogDurability.GROUP_COMMIT) {
+            installGroupCommitDataSource();
+        }
+        super.afterPropertiesSet();
+        if (expressionCacheEnabled) {
+            installExpressionCache();
+        }
+        if (retryScheduler != null) {
+            installScheduledRetry();
+        }
+        if (parallelCompensationEnabled && compensationExecutor != null) {
+            installParallelCompensation();
+        }
+    }
+
+    /**
+     * 只有组提交模式才包装数据源，须在父类创建状态日志存储之前执行，写穿模式下状态日志直接使用原数据源
+     */
+    private void installGroupCommitDataSource() {
+        DataSource dataSource = getDataSource();
+        if (dataSource == null || dataSource instanceof GroupCommitDataSource) {
+            return;
+        }
+        groupCommitDataSource = new GroupCommitDataSource(dataSource);
+        super.setDataSource(groupCommitDataSource);
+    }
+
+    /**
+     * 把默认 SpEL 表达式工厂替换为带缓存和快速路径的 {@link CachingExpressionFactory}，
+     * 表达式求值器工厂也要同步替换，否则 Status / Choice 表达式仍会走原工厂
+     */
+    private void installExpressionCache() {
+        ExpressionFactoryManager expressionFactoryManager = getExpressionFactoryManager();
+        ExpressionFactory defaultFactory = expressionFactoryManager
+            .getExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE);
+        if (defaultFactory == null || defaultFactory instanceof CachingExpressionFactory) {
+            return;
+        }
+        CachingExpressionFactory cachingExpressionFactory = new CachingExpressionFactory(defaultFactory);
+        expressionFactoryManager.putExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE,
+            cachingExpressionFactory);
+        EvaluatorFactory evaluatorFactory = getEvaluatorFactoryManager()
+            .getEvaluatorFactory(EvaluatorFactoryManager.EVALUATOR_TYPE_DEFAULT);
+        if (evaluatorFactory instanceof ExpressionEvaluatorFactory) {
+            ((ExpressionEvaluatorFactory) evaluatorFactory).setExpressionFactory(cachingExpressionFactory);
+        }
+    }
+
+    /**
+     * 重试从引擎线程上的 Thread.sleep 改为挂到时间轮上，须在并发补偿之前安装，提前执行的补偿调用也走这里的重试
+     */
+    private void installScheduledRetry() {
+        ServiceInvokerManager serviceInvokerManager = getServiceInvokerManager();
+        ServiceInvoker springBeanInvoker = serviceInvokerManager
+            .getServiceInvoker(DomainConstants.SERVICE_TYPE_SPRING_BEAN);
+        if (springBeanInvoker == null || springBeanInvoker instanceof ScheduledRetryServiceInvoker) {
+            return;
+        }
+        serviceInvokerManager.putServiceInvoker(DomainConstants.SERVICE_TYPE_SPRING_BEAN,
+            new ScheduledRetryServiceInvoker(springBeanInvoker, getApplicationContext(), retryScheduler,
+                retryMaxIntervalMillis));
+    }
+
+    /**
+     * 补偿状态的提前执行跑在单独的补偿线程池上，不占用引擎的异步执行线程池，调用的是包装前的 SpringBean 调用器，重试仍按各状态自己的 Retry 配置
+     */
+    private void installParallelCompensation() throws IOException {
+        ServiceInvokerManager serviceInvokerManager = getServiceInvokerManager();
+        ServiceInvoker springBeanInvoker = serviceInvokerManager
+            .getServiceInvoker(DomainConstants.SERVICE_TYPE_SPRING_BEAN);
+        if (springBeanInvoker == null || springBeanInvoker instanceof PrefetchingServiceInvoker) {
+            return;
+        }
+        compensationPrefetcher = new CompensationPrefetcher(springBeanInvoker, compensationExecutor,
+            CompensationDependencies.load(resourcePatterns), getExpressionFactoryManager());
+        serviceInvokerManager.putServiceInvoker(DomainConstants.SERVICE_TYPE_SPRING_BEAN,
+            new PrefetchingServiceInvoker(springBeanInvoker, compensationPrefetcher));
+    }
+
+    @Override
+    public void destroy() {
+        if (getStateLogStore() instanceof BufferedStateLogStore) {
+            ((BufferedStateLogStore) getStateLogStore()).shutdown();
+        }
+    }
+
+    /**
+     * @return 未开启并发补偿时为 null，由 {@link ParallelCompensationInterceptor} 从流程上下文里的配置获取
+     */
+    public CompensationPrefetcher getCompensationPrefetcher() {
+        return compensationPrefetcher;
+    }
+
+    /**
+     * @return 未开启组提交时为 null
+     */
+    public GroupCommitDataSource getGroupCommitDataSource() {
+        return groupCommitDataSource;
+    }
+
+    public StateLogDurability getStateLogDurability() {
+        return stateLogDurability;
+    }
+
+    public void setStateLogDurability(StateLogDurability stateLogDurability) {
+        this.stateLogDurability = stateLogDurability;
+    }
+
+    public int getStateLogBatchSize() {
+        return stateLogBatchSize;
+    }
+
+    public void setStateLogBatchSize(int stateLogBatchSize) {
+        this.stateLogBatchSize = stateLogBatchSize;
+    }
+
+    public boolean isExpressionCacheEnabled() {
+        return expressionCacheEnabled;
+    }
+
+    public void setExpressionCacheEnabled(boolean expressionCacheEnabled) {
+        this.expressionCacheEnabled = expressionCacheEnabled;
+    }
+
+    public boolean isParallelCompensationEnabled() {
+        return parallelCompensationEnabled;
+    }
+
+    public void setParallelCompensationEnabled(boolean parallelCompensationEnabled) {
+        this.parallelCompensationEnabled = parallelCompensationEnabled;
+    }
+
+    public ThreadPoolExecutor getCompensationExecutor() {
+        return compensationExecutor;
+    }
+
+    public void setCompensationExecutor(ThreadPoolExecutor compensationExecutor) {
+        this.compensationExecutor = compensationExecutor;
+    }
+
+    public RetryScheduler getRetryScheduler() {
+        return retryScheduler;
+    }
+
+    public void setRetryScheduler(RetryScheduler retryScheduler) {
+        this.retryScheduler = retryScheduler;
+    }
+
+    public long getRetryMaxIntervalMillis() {
+        return retryMaxIntervalMillis;
+    }
+
+    public void setRetryMaxIntervalMillis(long retryMaxIntervalMillis) {
+        this.retryMaxIntervalMillis = retryMaxIntervalMillis;
+    }
+
+    public long getStateLogFlushIntervalMillis() {
+        return stateLogFlushIntervalMillis;
+    }
+
+    public void setStateLogFlushIntervalMillis(long stateLogFlushIntervalMillis) {
+        this.stateLogFlushIntervalMillis = stateLogFlushIntervalMillis;
+    }
+}
@@ -0,0 +1,158 @@
+package cn.dmego.seata.saga.business.engine;
+
+import cn.dmego.seata.common.retry.DecorrelatedJitterBackoff;
+import cn.dmego.seata.common.retry.RetryPolicy;
+import cn.dmego.seata.common.retry.RetryScheduler;
+import io.seata.core.context.RootContext;
+import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.statelang.domain.Retry;
+import io.seata.saga.statelang.domain.ServiceTaskState;
+import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ScheduledRetryServiceInvoker
+ *
+ * 包装 SpringBean 类型的 ServiceInvoker，只替换重试的等待方式。Seata 自带的调用器按状态的 Retry 配置在引擎线程上
+ * Thread.sleep 后重试，下游抖动时大量状态机实例按相同的间隔同时重试；这里改为：
+ * 1. 等待时长使用去相关抖动，Retry 的 IntervalSeconds 作为下限，BackoffRate 作为增长倍率，maxIntervalMillis 作为上限；
+ * 2. 等待挂在 {@link RetryScheduler} 的时间轮上，不占用 sleep 的线程，重试在重试线程池上执行；
+ * 3. 每个下游服务（FeignClient 的 name）共享一个重试预算，预算耗尽时不再重试，直接按最后一次的异常走 Status / Catch。
+ *
+ * 方法查找、参数转换和反射调用仍由原调用器完成：每次调用交给它一个去掉了 Retry 配置的状态副本，原调用器只调用一次。
+ * 引擎的 ServiceInvoker 是同步接口，调用方线程仍然要等待最终结果；IsAsync 和没有 Retry 配置的状态直接交给原调用器。
+ *
+ * @author dmego
+ * @date 2026/10/19 16:20
+ */
+public class ScheduledRetryServiceInvoker implements ServiceInvoker {
+
+    private final ServiceInvoker delegate;
+
+    private final ApplicationContext applicationContext;
+
+    private final RetryScheduler retryScheduler;
+
+    private final long maxIntervalMillis;
+
+    private final Map<String, String> downstreams = new ConcurrentHashMap<>();
+
+    private final Map<Retry, RetryPolicy> policies = new ConcurrentHashMap<>();
+
+    private final Map<ServiceTaskState, ServiceTaskStateImpl> singleAttemptStates = new ConcurrentHashMap<>();
+
+    public ScheduledRetryServiceInvoker(ServiceInvoker delegate, ApplicationContext applicationContext,
+        RetryScheduler retryScheduler, long maxIntervalMillis) {
+        this.delegate = delegate;
+        this.applicationContext = applicationContext;
+        this.retryScheduler = retryScheduler;
+        this.maxIntervalMillis = maxIntervalMillis;
+    }
+
+    @Override
+    public Object invoke(ServiceTaskState serviceTaskState, Object... input) throws Throwable {
+        ServiceTaskStateImpl state = (ServiceTaskStateImpl) serviceTaskState;
+        List<Retry> retries = state.getRetry();
+        if (state.isAsync() || retries == null || retries.isEmpty()) {
+            return delegate.invoke(serviceTaskState, input);
+        }
+        ServiceTaskStateImpl singleAttempt = singleAttemptStates.computeIfAbsent(state,
+            ScheduledRetryServiceInvoker::withoutRetry);
+        String xid = RootContext.getXID();
+
+        try {
+            return retryScheduler.execute(downstream(state.getServiceName()), () -> {
+                // 重试在重试线程上执行，需要带上调用方线程的全局事务
+                boolean bound = xid != null && !xid.equals(RootContext.getXID());
+                if (bound) {
+                    RootContext.bind(xid);
+                }
+                try {
+                    return delegate.invoke(singleAttempt, input);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                } finally {
+                    if (bound) {
+                        RootContext.unbind();
+                    }
+                }
+            }, e -> matchRetry(retries, e)).get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 与 Seata 一致：按声明顺序匹配第一个异常类型符合的 Retry，Exceptions 为空时匹配所有异常
+     */
+    private RetryPolicy matchRetry(List<Retry> retries, Throwable e) {
+        for (Retry retry : retries) {
+            List<String> exceptions = retry.getExceptions();
+            if (exceptions == null || exceptions.isEmpty() || matches(exceptions, e.getClass())) {
+                return policies.computeIfAbsent(retry, r -> new RetryPolicy(r.getMaxAttempts(),
+                    new DecorrelatedJitterBackoff((long) (r.getIntervalSeconds() * 1000), maxIntervalMillis,
+                        r.getBackoffRate())));
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(List<String> exceptions, Class<?> type) {
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            if (exceptions.contains(c.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 下游服务名称取 FeignClient 的 name，非 Feign 的 bean 使用 ServiceName
+     */
+    private String downstream(String serviceName) {
+        return downstreams.computeIfAbsent(serviceName, name -> {
+            Object bean = applicationContext.getBean(name);
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(AopUtils.getTargetClass(bean))) {
+                FeignClient feignClient = AnnotatedElementUtils.findMergedAnnotation(type, FeignClient.class);
+                if (feignClient != null && !feignClient.name().isEmpty()) {
+                    return feignClient.name();
+                }
+            }
+            return name;
+        });
+    }
+
+    /**
+     * 原调用器解析出的 Method 缓存在副本上，之后的调用不再查找
+     */
+    private static ServiceTaskStateImpl withoutRetry(ServiceTaskState serviceTaskState) {
+        ServiceTaskStateImpl state = (ServiceTaskStateImpl) serviceTaskState;
+        ServiceTaskStateImpl copy = new ServiceTaskStateImpl();
+        copy.setName(state.getName());
+        copy.setServiceType(state.getServiceType());
+        copy.setServiceName(state.getServiceName());
+        copy.setServiceMethod(state.getServiceMethod());
+        copy.setParameterTypes(state.getParameterTypes());
+        copy.setMethod(state.getMethod());
+        return copy;
+    }
+
+    private static Exception rethrow(Throwable e) {
+        if (e instanceof Exception) {
+            return (Exception) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new RuntimeException(e);
+    }
+}
@@ -0,0 +1,20 @@
+package cn.dmego.seata.saga.business.engine;
+
+/**
+ * 状态日志持久化策略
+ *
+ * @author dmego
+ * @date 2026/10/19 10:05
+ */
+public enum StateLogDurability {
+
+    /**
+     * 每次状态变更都同步写库，等同于默认的 DbStateMachineConfig
+     */
+    WRITE_THROUGH,
+
+    /**
+     * 状态机实例的开始 / 结束 / 重启同步写库，中间的状态记录先缓冲，再按批次合并提交
+     */
+    GROUP_COMMIT
+}
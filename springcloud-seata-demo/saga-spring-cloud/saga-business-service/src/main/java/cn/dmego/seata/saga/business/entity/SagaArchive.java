@@ -0,0 +1,115 @@
+package cn.dmego.seata.saga.business.entity;
+
+import java.util.Date;
+
+/**
+ * 已归档的状态机实例
+ *
+ * @author dmego
+ * @date 2026/10/19 15:30
+ */
+public class SagaArchive {
+
+    private String id;
+
+    private String machineId;
+
+    private String tenantId;
+
+    private String businessKey;
+
+    private String status;
+
+    private String compensationStatus;
+
+    private Date gmtStarted;
+
+    private Date gmtEnd;
+
+    private Date gmtArchived;
+
+    /**
+     * 实例及其全部状态记录的 gzip json
+     */
+    private byte[] payload;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMachineId() {
+        return machineId;
+    }
+
+    public void setMachineId(String machineId) {
+        this.machineId = machineId;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getBusinessKey() {
+        return businessKey;
+    }
+
+    public void setBusinessKey(String businessKey) {
+        this.businessKey = businessKey;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCompensationStatus() {
+        return compensationStatus;
+    }
+
+    public void setCompensationStatus(String compensationStatus) {
+        this.compensationStatus = compensationStatus;
+    }
+
+    public Date getGmtStarted() {
+        return gmtStarted;
+    }
+
+    public void setGmtStarted(Date gmtStarted) {
+        this.gmtStarted = gmtStarted;
+    }
+
+    public Date getGmtEnd() {
+        return gmtEnd;
+    }
+
+    public void setGmtEnd(Date gmtEnd) {
+        this.gmtEnd = gmtEnd;
+    }
+
+    public Date getGmtArchived() {
+        return gmtArchived;
+    }
+
+    public void setGmtArchived(Date gmtArchived) {
+        this.gmtArchived = gmtArchived;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+}
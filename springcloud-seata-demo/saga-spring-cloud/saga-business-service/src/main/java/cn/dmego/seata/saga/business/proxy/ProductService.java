@@ -1,11 +1,15 @@
 package cn.dmego.seata.saga.business.proxy;
 
+import cn.dmego.seata.common.feign.Hedged;
 import cn.dmego.seata.saga.business.config.FeignErrorDecoder;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * ProductService
  *
@@ -22,7 +26,12 @@ public interface ProductService {
     @RequestMapping("/compensateStock")
     Boolean compensateStock(@RequestParam("productId") Long productId, @RequestParam("count") Integer count) throws Exception;
 
+    @Hedged
     @GetMapping("/getPrice")
     Integer getPrice(@RequestParam("productId") Long productId);
 
+    @Hedged
+    @GetMapping("/getPrices")
+    Map<Long, Integer> getPrices(@RequestParam("productIds") List<Long> productIds);
+
 }
@@ -0,0 +1,27 @@
+package cn.dmego.seata.saga.business.service;
+
+import java.util.Map;
+
+/**
+ * SagaArchiveService
+ *
+ * @author dmego
+ * @date 2026/10/19 15:30
+ */
+public interface SagaArchiveService {
+
+    /**
+     * 按批次把结束时间早于保留期的实例搬到归档表
+     *
+     * @return 本次归档的实例数
+     */
+    int archive();
+
+    /**
+     * 查询已归档的实例
+     *
+     * @param machineInstId 状态机实例 ID
+     * @return 实例字段及 states 状态列表，不存在时返回 null
+     */
+    Map<String, Object> getArchived(String machineInstId);
+}
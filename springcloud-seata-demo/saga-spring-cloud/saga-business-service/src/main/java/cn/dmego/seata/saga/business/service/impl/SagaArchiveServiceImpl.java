@@ -0,0 +1,186 @@
+package cn.dmego.seata.saga.business.service.impl;
+
+import cn.dmego.seata.saga.business.dao.SagaArchiveDao;
+import cn.dmego.seata.saga.business.entity.SagaArchive;
+import cn.dmego.seata.saga.business.service.SagaArchiveService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SagaArchiveServiceImpl
+ *
+ * 每个批次在一个本地事务里完成：锁定并重新检查候选实例、读出状态记录 -> 压缩写入 seata_state_machine_inst_archive -> 删除原记录。
+ * 批次之间停顿 pauseMillis，单次运行最多 maxBatches 个批次，避免长事务和持续占用 IO。
+ *
+ * @author dmego
+ * @date 2026/10/19 15:30
+ */
+@Service
+public class SagaArchiveServiceImpl implements SagaArchiveService {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private static final String STATES = "states";
+
+    @Autowired
+    SagaArchiveDao sagaArchiveDao;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${seata.saga.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${seata.saga.archive.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${seata.saga.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${seata.saga.archive.max-batches:50}")
+    private int maxBatches;
+
+    @Value("${seata.saga.archive.pause-millis:200}")
+    private long pauseMillis;
+
+    @Scheduled(fixedDelayString = "${seata.saga.archive.interval-millis:600000}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    @Override
+    public int archive() {
+        Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours));
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            if (archived == null || archived == 0) {
+                break;
+            }
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("[archive] 归档状态机实例 {} 个, 截止时间: {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(Date cutoff) {
+        List<String> ids = sagaArchiveDao.selectArchivableIds(cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Map<String, Object>> machines = sagaArchiveDao.selectMachineInstancesForUpdate(ids);
+        if (machines.isEmpty()) {
+            return 0;
+        }
+        List<String> lockedIds = new ArrayList<>(machines.size());
+        for (Map<String, Object> machine : machines) {
+            lockedIds.add((String) machine.get("id"));
+        }
+        Map<Object, List<Map<String, Object>>> statesByMachine = new HashMap<>();
+        for (Map<String, Object> state : sagaArchiveDao.selectStateInstances(lockedIds)) {
+            statesByMachine.computeIfAbsent(state.get("machine_inst_id"), k -> new ArrayList<>()).add(state);
+        }
+
+        Date now = new Date();
+        List<SagaArchive> archives = new ArrayList<>(machines.size());
+        for (Map<String, Object> machine : machines) {
+            Map<String, Object> document = new LinkedHashMap<>(machine);
+            document.put(STATES, statesByMachine.getOrDefault(machine.get("id"), new ArrayList<>()));
+
+            SagaArchive archive = new SagaArchive();
+            archive.setId((String) machine.get("id"));
+            archive.setMachineId((String) machine.get("machine_id"));
+            archive.setTenantId((String) machine.get("tenant_id"));
+            archive.setBusinessKey((String) machine.get("business_key"));
+            archive.setStatus((String) machine.get("status"));
+            archive.setCompensationStatus((String) machine.get("compensation_status"));
+            archive.setGmtStarted(toDate(machine.get("gmt_started")));
+            archive.setGmtEnd(toDate(machine.get("gmt_end")));
+            archive.setGmtArchived(now);
+            archive.setPayload(compress(document));
+            archives.add(archive);
+        }
+        sagaArchiveDao.insertArchives(archives);
+        sagaArchiveDao.deleteStateInstances(lockedIds);
+        return sagaArchiveDao.deleteMachineInstances(lockedIds);
+    }
+
+    @Override
+    public Map<String, Object> getArchived(String machineInstId) {
+        SagaArchive archive = sagaArchiveDao.selectArchive(machineInstId);
+        if (archive == null) {
+            return null;
+        }
+        Map<String, Object> document = decompress(archive.getPayload());
+        document.put("gmt_archived", archive.getGmtArchived());
+        return document;
+    }
+
+    private byte[] compress(Map<String, Object> document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Map<String, Object> decompress(byte[] payload) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, new TypeReference<LinkedHashMap<String, Object>>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+package cn.dmego.seata.saga.business;
+
+import cn.dmego.seata.saga.business.engine.CachingExpressionFactory;
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactory;
+import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ExpressionEvaluationBenchmark
+ *
+ * 按 place_order.json 里每个状态实际求值的表达式（Input / Output / Status / Choice），
+ * 分别用默认的 SpringELExpressionFactory 和 CachingExpressionFactory 求值，输出每个状态每次执行的表达式开销。
+ * 两种工厂都只编译一次表达式，差异只来自求值本身。
+ *
+ * @author dmego
+ * @date 2026/10/19 11:20
+ */
+public class ExpressionEvaluationBenchmark {
+
+    private static final int WARMUP = 200_000;
+
+    private static final int ITERATIONS = 2_000_000;
+
+    public static void main(String[] args) {
+        Map<String, Object> context = new HashMap<>();
+        context.put("orderId", 1234567890123L);
+        context.put("userId", 1L);
+        context.put("productId", 1L);
+        context.put("amount", 10);
+        context.put("count", 1);
+        context.put("orderResult", Boolean.TRUE);
+        context.put("accountResult", Boolean.TRUE);
+
+        // 状态名 -> 该状态一次执行中求值的 (表达式, 根对象)
+        Map<String, Object[][]> states = new LinkedHashMap<>();
+        states.put("orderService", new Object[][]{
+            {"[orderId]", context}, {"[userId]", context}, {"[productId]", context}, {"[amount]", context},
+            {"[count]", context}, {"#root", Boolean.TRUE}, {"#root == true", Boolean.TRUE}});
+        states.put("orderChoice", new Object[][]{{"[orderResult] == true", context}});
+        states.put("accountService", new Object[][]{
+            {"[userId]", context}, {"[amount]", context}, {"#root", Boolean.TRUE}, {"#root == true", Boolean.TRUE}});
+        states.put("accountChoice", new Object[][]{{"[accountResult] == true", context}});
+        states.put("productService", new Object[][]{
+            {"[productId]", context}, {"[count]", context}, {"#root", Boolean.TRUE}, {"#root == true", Boolean.TRUE}});
+        states.put("compensateOrder", new Object[][]{{"[orderId]", context}});
+
+        ExpressionFactory spel = new SpringELExpressionFactory();
+        ExpressionFactory cached = new CachingExpressionFactory(new SpringELExpressionFactory());
+
+        System.out.printf("%-16s %14s %14s%n", "state", "SpEL ns/exec", "cached ns/exec");
+        for (Map.Entry<String, Object[][]> state : states.entrySet()) {
+            double before = measure(spel, state.getValue());
+            double after = measure(cached, state.getValue());
+            System.out.printf("%-16s %14.1f %14.1f%n", state.getKey(), before, after);
+        }
+    }
+
+    private static double measure(ExpressionFactory factory, Object[][] evaluations) {
+        List<Expression> expressions = new ArrayList<>();
+        for (Object[] evaluation : evaluations) {
+            expressions.add(factory.createExpression((String) evaluation[0]));
+        }
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += run(expressions, evaluations);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += run(expressions, evaluations);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) {
+            System.out.println();
+        }
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private static long run(List<Expression> expressions, Object[][] evaluations) {
+        long hash = 0;
+        for (int i = 0; i < expressions.size(); i++) {
+            Object value = expressions.get(i).getValue(evaluations[i][1]);
+            hash += value == null ? 0 : value.hashCode();
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,135 @@
+package cn.dmego.seata.saga.business;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StateLogBenchmark
+ *
+ * 并发压测 /saga/buy，对比两种状态日志持久化策略：
+ * 1. seata.saga.state-log.durability=WRITE_THROUGH 启动 saga-business-service（等同默认 DbStateMachineConfig），运行本类；
+ * 2. 改为 GROUP_COMMIT 重启后再运行一次。
+ * 除了吞吐和延迟，还会统计 seata_order 库在压测期间的 insert / update 语句数和事务提交次数。
+ *
+ * 参数: [url] [并发数] [每个线程的请求数] [jdbcUrl] [user] [password]
+ *
+ * @author dmego
+ * @date 2026/10/19 10:05
+ */
+public class StateLogBenchmark {
+
+    private static final String[] STATUS_KEYS = {"Com_insert", "Com_update", "Handler_commit"};
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://127.0.0.1:8080/saga/buy";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int requestsPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        String jdbcUrl = args.length > 3 ? args[3] : "jdbc:mysql://127.0.0.1:3306/seata_order?useSSL=false";
+        String user = args.length > 4 ? args[4] : "root";
+        String password = args.length > 5 ? args[5] : "root123";
+        String body = "{\"userId\":1,\"productId\":1,\"count\":1}";
+
+        // 预热
+        for (int i = 0; i < 10; i++) {
+            post(url, body);
+        }
+
+        Map<String, Long> before = globalStatus(jdbcUrl, user, password);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < concurrency; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < requestsPerThread; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        post(url, body);
+                        latencies.add(System.nanoTime() - begin);
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        Map<String, Long> after = globalStatus(jdbcUrl, user, password);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        int completed = sorted.size();
+        System.out.printf("requests: %d, failures: %d, elapsed: %d ms%n", completed, failures.get(),
+            TimeUnit.NANOSECONDS.toMillis(elapsed));
+        System.out.printf("throughput: %.1f sagas/s%n", completed * 1e9 / elapsed);
+        System.out.printf("latency p50: %.1f ms, p95: %.1f ms, p99: %.1f ms%n",
+            percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+        for (String key : STATUS_KEYS) {
+            long delta = after.get(key) - before.get(key);
+            System.out.printf("%s: %d (%.2f per saga)%n", key, delta, completed == 0 ? 0 : (double) delta / completed);
+        }
+    }
+
+    private static void post(String url, String body) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int code = connection.getResponseCode();
+        try (InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                while (in.read() != -1) {
+                    // drain
+                }
+            }
+        }
+        if (code >= 400) {
+            throw new IllegalStateException("HTTP " + code);
+        }
+    }
+
+    private static Map<String, Long> globalStatus(String jdbcUrl, String user, String password) throws SQLException {
+        Map<String, Long> status = new HashMap<>();
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, user, password);
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW GLOBAL STATUS WHERE Variable_name IN ('Com_insert', 'Com_update', 'Handler_commit')")) {
+            while (rs.next()) {
+                status.put(rs.getString(1), rs.getLong(2));
+            }
+        }
+        return status;
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+}
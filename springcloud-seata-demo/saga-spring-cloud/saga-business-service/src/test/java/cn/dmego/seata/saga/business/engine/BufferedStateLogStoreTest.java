@@ -0,0 +1,236 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.exception.EngineExecutionException;
+import io.seata.saga.engine.store.StateLogStore;
+import io.seata.saga.proctrl.ProcessContext;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.StateMachineInstance;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineInstanceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static cn.dmego.seata.saga.business.engine.GroupCommitDataSourceTest.INSERT_STATE;
+import static cn.dmego.seata.saga.business.engine.GroupCommitDataSourceTest.UPDATE_STATE;
+import static cn.dmego.seata.saga.business.engine.GroupCommitDataSourceTest.count;
+import static cn.dmego.seata.saga.business.engine.GroupCommitDataSourceTest.createDatabase;
+import static cn.dmego.seata.saga.business.engine.GroupCommitDataSourceTest.execute;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BufferedStateLogStoreTest
+ *
+ * 用一个按 DbAndReportTcStateLogStore 方式写库的存储作为被包装对象，验证：
+ * 状态记录只进入缓冲，达到 batchSize 时由当前线程组提交；查询前先刷盘；
+ * 实例结束 / 重启前等待该实例的状态记录写完，有记录写入失败时抛出异常且不记录结束 / 重启。
+ * 定时刷盘间隔设置得足够长，不参与测试
+ *
+ * @author dmego
+ * @date 2026/10/20 13:00
+ */
+public class BufferedStateLogStoreTest {
+
+    private static final long NEVER_MILLIS = 3_600_000;
+
+    private JdbcDataSource target;
+
+    private Connection keepAlive;
+
+    private GroupCommitDataSource dataSource;
+
+    private RecordingStateLogStore delegate;
+
+    private BufferedStateLogStore store;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        target = createDatabase("buffered_state_log_test");
+        keepAlive = target.getConnection();
+        dataSource = new GroupCommitDataSource(target);
+        delegate = new RecordingStateLogStore(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        store.shutdown();
+        keepAlive.close();
+    }
+
+    @Test
+    public void testFinishWaitsForBufferedStates() throws SQLException {
+        store = new BufferedStateLogStore(delegate, dataSource, 64, NEVER_MILLIS);
+        StateMachineInstance machine = machine("m1");
+
+        store.recordStateMachineStarted(machine, null);
+        store.recordStateStarted(state("s1", "m1"), null);
+        store.recordStateFinished(state("s1", "m1"), null);
+        store.recordStateStarted(state("s2", "m1"), null);
+
+        assertEquals(3, dataSource.getPendingCount());
+        assertEquals(0, count(target));
+
+        store.recordStateMachineFinished(machine, null);
+
+        assertEquals(2, count(target));
+        assertEquals(Collections.singletonList("finished:m1"), delegate.machineEvents);
+    }
+
+    @Test
+    public void testFullBatchIsFlushedByCaller() throws SQLException {
+        store = new BufferedStateLogStore(delegate, dataSource, 2, NEVER_MILLIS);
+
+        store.recordStateStarted(state("s1", "m1"), null);
+        assertEquals(0, count(target));
+
+        store.recordStateStarted(state("s2", "m1"), null);
+        assertEquals(0, dataSource.getPendingCount());
+        assertEquals(2, count(target));
+    }
+
+    @Test
+    public void testQueryFlushesFirst() {
+        store = new BufferedStateLogStore(delegate, dataSource, 64, NEVER_MILLIS);
+
+        store.recordStateStarted(state("s1", "m1"), null);
+        store.queryStateInstanceListByMachineInstanceId("m1");
+
+        assertEquals(Collections.singletonList(1), delegate.rowsSeenByQuery);
+    }
+
+    @Test
+    public void testFinishFailsWhenStateWriteFailed() {
+        store = new BufferedStateLogStore(delegate, dataSource, 64, NEVER_MILLIS);
+        execute(target, INSERT_STATE, "s1", "m0", "SU");
+        StateMachineInstance machine = machine("m1");
+
+        store.recordStateStarted(state("s1", "m1"), null);
+        store.recordStateStarted(state("s2", "m1"), null);
+
+        EngineExecutionException e = assertThrows(EngineExecutionException.class,
+            () -> store.recordStateMachineFinished(machine, null));
+        assertTrue(e.getCause() instanceof SQLException);
+        assertTrue(delegate.machineEvents.isEmpty());
+
+        // 失败结果已经交给调用方，同一实例之后的结束记录不会重复报错
+        store.recordStateMachineFinished(machine, null);
+        assertEquals(Collections.singletonList("finished:m1"), delegate.machineEvents);
+    }
+
+    @Test
+    public void testRestartFailsWhenStateWriteFailed() {
+        store = new BufferedStateLogStore(delegate, dataSource, 64, NEVER_MILLIS);
+        execute(target, INSERT_STATE, "s1", "m0", "SU");
+
+        store.recordStateStarted(state("s1", "m1"), null);
+
+        assertThrows(EngineExecutionException.class, () -> store.recordStateMachineRestarted(machine("m1"), null));
+        assertTrue(delegate.machineEvents.isEmpty());
+    }
+
+    @Test
+    public void testFailureOfOtherInstanceDoesNotBlockFinish() throws SQLException {
+        store = new BufferedStateLogStore(delegate, dataSource, 64, NEVER_MILLIS);
+        execute(target, INSERT_STATE, "s1", "m0", "SU");
+
+        store.recordStateStarted(state("s1", "m1"), null);
+        store.recordStateStarted(state("s2", "m2"), null);
+
+        store.recordStateMachineFinished(machine("m2"), null);
+
+        assertEquals(Collections.singletonList("finished:m2"), delegate.machineEvents);
+        assertEquals(2, count(target));
+    }
+
+    private static StateMachineInstance machine(String id) {
+        StateMachineInstanceImpl machine = new StateMachineInstanceImpl();
+        machine.setId(id);
+        return machine;
+    }
+
+    private static StateInstance state(String id, String machineInstanceId) {
+        StateInstanceImpl state = new StateInstanceImpl();
+        state.setId(id);
+        state.setMachineInstanceId(machineInstanceId);
+        return state;
+    }
+
+    /**
+     * 状态记录按 Seata 的方式通过数据源写库，实例事件只记在内存里
+     */
+    private static class RecordingStateLogStore implements StateLogStore {
+
+        private final GroupCommitDataSource dataSource;
+
+        private final List<String> machineEvents = new ArrayList<>();
+
+        private final List<Integer> rowsSeenByQuery = new ArrayList<>();
+
+        RecordingStateLogStore(GroupCommitDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void recordStateMachineStarted(StateMachineInstance machineInstance, ProcessContext context) {
+        }
+
+        @Override
+        public void recordStateMachineFinished(StateMachineInstance machineInstance, ProcessContext context) {
+            machineEvents.add("finished:" + machineInstance.getId());
+        }
+
+        @Override
+        public void recordStateMachineRestarted(StateMachineInstance machineInstance, ProcessContext context) {
+            machineEvents.add("restarted:" + machineInstance.getId());
+        }
+
+        @Override
+        public void recordStateStarted(StateInstance stateInstance, ProcessContext context) {
+            execute(dataSource, INSERT_STATE, stateInstance.getId(), stateInstance.getMachineInstanceId(), "RU");
+        }
+
+        @Override
+        public void recordStateFinished(StateInstance stateInstance, ProcessContext context) {
+            execute(dataSource, UPDATE_STATE, "SU", stateInstance.getId());
+        }
+
+        @Override
+        public StateMachineInstance getStateMachineInstance(String stateMachineInstanceId) {
+            return null;
+        }
+
+        @Override
+        public StateMachineInstance getStateMachineInstanceByBusinessKey(String businessKey, String tenantId) {
+            return null;
+        }
+
+        @Override
+        public List<StateMachineInstance> queryStateMachineInstanceByParentId(String parentId) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public StateInstance getStateInstance(String stateInstanceId, String machineInstId) {
+            return null;
+        }
+
+        @Override
+        public List<StateInstance> queryStateInstanceListByMachineInstanceId(String stateMachineInstanceId) {
+            try {
+                rowsSeenByQuery.add(count(dataSource));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+            return Collections.emptyList();
+        }
+    }
+}
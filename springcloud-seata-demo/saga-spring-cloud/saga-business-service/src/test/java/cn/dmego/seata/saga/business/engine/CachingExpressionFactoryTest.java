@@ -0,0 +1,146 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.expression.Expression;
+import io.seata.saga.engine.expression.ExpressionFactory;
+import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CachingExpressionFactoryTest
+ *
+ * 快速路径与 SpEL 的求值结果逐个对比（取值、布尔、字符串、null、整数 / 小数 / BigDecimal 的数值比较），
+ * 不匹配快速路径的表达式交给原工厂，同一表达式只编译一次，
+ * [key] 遇到非 Map 的根对象时才编译原表达式并一直复用
+ *
+ * @author dmego
+ * @date 2026/10/20 14:40
+ */
+public class CachingExpressionFactoryTest {
+
+    @Test
+    public void testFastPathMatchesSpel() {
+        Map<String, Object> context = new HashMap<>();
+        context.put("orderId", 1234567890123L);
+        context.put("count", 1);
+        context.put("amount", new BigDecimal("10.00"));
+        context.put("orderResult", Boolean.TRUE);
+        context.put("accountResult", Boolean.FALSE);
+        context.put("code", "OK");
+
+        Object[][] cases = {
+            {"#root", Boolean.TRUE},
+            {"#root == true", Boolean.TRUE},
+            {"#root == true", Boolean.FALSE},
+            {"#root != false", Boolean.TRUE},
+            {"#root == 'OK'", "OK"},
+            {"#root == null", null},
+            {"[orderId]", context},
+            {"[missing]", context},
+            {"[orderResult] == true", context},
+            {"[accountResult] == true", context},
+            {"[accountResult] != true", context},
+            {"[code] == 'OK'", context},
+            {"[code] != 'FAIL'", context},
+            {"[missing] == null", context},
+            {"[orderId] != null", context},
+            {"[count] == 1", context},
+            {"[count] == 1.0", context},
+            {"[count] == 2", context},
+            {"[amount] == 10", context},
+            {"[amount] == 10.5", context},
+            {" [ count ] == 1 ", context}
+        };
+
+        ExpressionFactory spel = new SpringELExpressionFactory();
+        CachingExpressionFactory cached = new CachingExpressionFactory(new SpringELExpressionFactory());
+        for (Object[] c : cases) {
+            String expression = (String) c[0];
+            Expression fast = cached.createExpression(expression);
+            assertTrue(fast instanceof FastPathExpression, expression + " 应走快速路径");
+            assertEquals(spel.createExpression(expression).getValue(c[1]), fast.getValue(c[1]));
+        }
+    }
+
+    @Test
+    public void testOtherExpressionsUseDelegate() {
+        CachingExpressionFactory cached = new CachingExpressionFactory(new SpringELExpressionFactory());
+        Map<String, Object> context = Collections.singletonMap("count", 3);
+
+        for (String expression : new String[]{"[count] > 0", "[count] == 1 and true", "#root.size()", "[a][b]"}) {
+            assertFalse(cached.createExpression(expression) instanceof FastPathExpression, expression);
+        }
+        assertEquals(Boolean.TRUE, cached.createExpression("[count] > 0").getValue(context));
+        assertEquals(0, cached.getFastPathCount());
+    }
+
+    @Test
+    public void testExpressionsAreCompiledOnce() {
+        RecordingFactory delegate = new RecordingFactory();
+        CachingExpressionFactory cached = new CachingExpressionFactory(delegate);
+
+        Expression first = cached.createExpression("[orderId]");
+        assertSame(first, cached.createExpression("[orderId]"));
+        Expression complex = cached.createExpression("[count] > 0");
+        assertSame(complex, cached.createExpression("[count] > 0"));
+
+        assertEquals(2, cached.getCompiledCount());
+        assertEquals(1, cached.getFastPathCount());
+        assertEquals(Collections.singletonList("[count] > 0"), delegate.compiled);
+    }
+
+    @Test
+    public void testNonMapRootFallsBackOnce() {
+        RecordingFactory delegate = new RecordingFactory();
+        Expression expression = new CachingExpressionFactory(delegate).createExpression("[orderId] == 1");
+
+        assertEquals(Boolean.TRUE, expression.getValue(Collections.singletonMap("orderId", 1L)));
+        assertTrue(delegate.compiled.isEmpty());
+
+        Object root = new Object();
+        assertEquals("fallback:[orderId] == 1", expression.getValue(root));
+        assertEquals("fallback:[orderId] == 1", expression.getValue(root));
+        assertEquals(Collections.singletonList("[orderId] == 1"), delegate.compiled);
+        assertNull(FastPathExpression.parse("[orderId] > 1", delegate));
+    }
+
+    /**
+     * 记录编译过的表达式，求值结果标明来自原工厂
+     */
+    private static class RecordingFactory implements ExpressionFactory {
+
+        private final List<String> compiled = new ArrayList<>();
+
+        @Override
+        public Expression createExpression(String expression) {
+            compiled.add(expression);
+            return new Expression() {
+                @Override
+                public Object getValue(Object elContext) {
+                    return "fallback:" + expression;
+                }
+
+                @Override
+                public void setValue(Object value, Object elContext) {
+                }
+
+                @Override
+                public String getExpressionString() {
+                    return expression;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.expression.ExpressionFactoryManager;
+import io.seata.saga.engine.expression.spel.SpringELExpressionFactory;
+import io.seata.saga.engine.invoker.ServiceInvoker;
+import io.seata.saga.engine.pcext.StateInstruction;
+import io.seata.saga.engine.pcext.utils.CompensationHolder;
+import io.seata.saga.proctrl.impl.ProcessContextImpl;
+import io.seata.saga.statelang.domain.DomainConstants;
+import io.seata.saga.statelang.domain.ServiceTaskState;
+import io.seata.saga.statelang.domain.StateInstance;
+import io.seata.saga.statelang.domain.impl.ServiceTaskStateImpl;
+import io.seata.saga.statelang.domain.impl.StateInstanceImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineImpl;
+import io.seata.saga.statelang.domain.impl.StateMachineInstanceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CompensationPrefetcherTest
+ *
+ * 按引擎的方式逐个弹栈执行补偿状态：正向顺序 orderService -> accountService -> productService，
+ * 补偿顺序 compensateProduct -> compensateAccount -> compensateOrder，
+ * 其中 compensateAccount 在 json 里声明了 "CompensateAfter": ["compensateProduct"]。
+ * 验证互相独立的补偿在时间上重叠、声明了依赖的补偿等依赖完成后才开始、每个补偿只调用一次，
+ * 以及入参变化和线程池拒绝时回到引擎线程调用
+ *
+ * @author dmego
+ * @date 2026/10/20 10:30
+ */
+public class CompensationPrefetcherTest {
+
+    private static final String MACHINE_NAME = "ParallelCompensation";
+
+    private static final long CALL_MILLIS = 200;
+
+    private final Map<String, long[]> calls = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+
+    private final Map<String, Thread> callers = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    private StateMachineImpl stateMachine;
+
+    private ProcessContextImpl context;
+
+    private Map<String, Object> contextVariables;
+
+    private StateInstruction instruction;
+
+    private CompensationPrefetcher prefetcher;
+
+    private ServiceInvoker invoker;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4));
+
+        stateMachine = new StateMachineImpl();
+        stateMachine.setName(MACHINE_NAME);
+        forward("orderService", "compensateOrder");
+        forward("accountService", "compensateAccount");
+        forward("productService", "compensateProduct");
+
+        StateMachineInstanceImpl machineInstance = new StateMachineInstanceImpl();
+        machineInstance.setId("machine-1");
+        machineInstance.setStateMachine(stateMachine);
+        contextVariables = new HashMap<>();
+        contextVariables.put("orderId", 1L);
+        instruction = new StateInstruction(MACHINE_NAME, "");
+        context = new ProcessContextImpl();
+        context.setInstruction(instruction);
+        context.setVariable(DomainConstants.VAR_NAME_STATEMACHINE_INST, machineInstance);
+        context.setVariable(DomainConstants.VAR_NAME_STATEMACHINE_CONTEXT, contextVariables);
+        Stack<StateInstance> stack = CompensationHolder.getCurrent(context, true).getStateStackNeedCompensation();
+        for (String name : Arrays.asList("orderService", "accountService", "productService")) {
+            StateInstanceImpl stateInstance = new StateInstanceImpl();
+            stateInstance.setName(name);
+            stack.push(stateInstance);
+        }
+
+        ServiceInvoker delegate = (state, input) -> {
+            long start = System.nanoTime();
+            callers.put(state.getName(), Thread.currentThread());
+            invocations.computeIfAbsent(state.getName(), name -> new AtomicInteger()).incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(CALL_MILLIS);
+            calls.put(state.getName(), new long[] {start, System.nanoTime()});
+            return Boolean.TRUE;
+        };
+        ExpressionFactoryManager expressionFactoryManager = new ExpressionFactoryManager();
+        expressionFactoryManager.putExpressionFactory(ExpressionFactoryManager.DEFAULT_EXPRESSION_TYPE,
+            new SpringELExpressionFactory());
+        prefetcher = new CompensationPrefetcher(delegate, executor,
+            CompensationDependencies.load(new String[] {"classpath:compensation/*.json"}), expressionFactoryManager);
+        invoker = new PrefetchingServiceInvoker(delegate, prefetcher);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIndependentCompensationsOverlap() throws Throwable {
+        assertEquals(Boolean.TRUE, compensateNext(1L));
+        assertEquals(Boolean.TRUE, compensateNext(1L));
+        assertEquals(Boolean.TRUE, compensateNext(1L));
+
+        long[] product = calls.get("compensateProduct");
+        long[] account = calls.get("compensateAccount");
+        long[] order = calls.get("compensateOrder");
+        // compensateOrder 与 compensateProduct 同时执行
+        assertTrue(order[0] < product[1] && product[0] < order[1]);
+        // compensateAccount 等 compensateProduct 结束后才开始
+        assertTrue(account[0] >= product[1]);
+        for (String name : Arrays.asList("compensateProduct", "compensateAccount", "compensateOrder")) {
+            assertEquals(1, invocations.get(name).get(), name);
+        }
+        assertTrue(callers.get("compensateOrder") != Thread.currentThread());
+    }
+
+    @Test
+    public void testChangedInputIsInvokedAgain() throws Throwable {
+        compensateNext(1L);
+        compensateNext(1L);
+        // 引擎轮到 compensateOrder 时算出的入参与提前执行时不同
+        compensateNext(2L);
+
+        assertEquals(2, invocations.get("compensateOrder").get());
+        assertSame(Thread.currentThread(), callers.get("compensateOrder"));
+    }
+
+    @Test
+    public void testRejectedPrefetchRunsOnEngineThread() throws Throwable {
+        executor.shutdown();
+
+        compensateNext(1L);
+        compensateNext(1L);
+        compensateNext(1L);
+
+        assertEquals(1, invocations.get("compensateOrder").get());
+        assertSame(Thread.currentThread(), callers.get("compensateOrder"));
+    }
+
+    @Test
+    public void testDependenciesLoadedFromJson() throws Exception {
+        CompensationDependencies dependencies = CompensationDependencies
+            .load(new String[] {"classpath:compensation/*.json"});
+
+        assertEquals(Collections.singleton("compensateProduct"), dependencies.get(MACHINE_NAME, "compensateAccount"));
+        assertTrue(dependencies.get(MACHINE_NAME, "compensateOrder").isEmpty());
+        assertTrue(dependencies.get("Unknown", "compensateAccount").isEmpty());
+    }
+
+    /**
+     * 与引擎一致：弹出栈顶的正向状态，执行它的补偿状态，执行前后经过 ParallelCompensationInterceptor 的两个回调
+     */
+    private Object compensateNext(Object orderId) throws Throwable {
+        Stack<StateInstance> stack = CompensationHolder.getCurrent(context, true).getStateStackNeedCompensation();
+        ServiceTaskState forward = (ServiceTaskState) stateMachine.getState(stack.pop().getName());
+        ServiceTaskStateImpl compensate = (ServiceTaskStateImpl) stateMachine.getState(forward.getCompensateState());
+        instruction.setTemporaryState(compensate);
+        prefetcher.beforeCompensation(context);
+        try {
+            return invoker.invoke(compensate, orderId);
+        } finally {
+            prefetcher.afterCompensation();
+        }
+    }
+
+    private void forward(String name, String compensateName) {
+        ServiceTaskStateImpl forward = new ServiceTaskStateImpl();
+        forward.setName(name);
+        forward.setCompensateState(compensateName);
+        stateMachine.putState(name, forward);
+
+        ServiceTaskStateImpl compensate = new ServiceTaskStateImpl();
+        compensate.setName(compensateName);
+        compensate.setForCompensation(true);
+        compensate.setInput(Collections.<Object>singletonList("$.[orderId]"));
+        stateMachine.putState(compensateName, compensate);
+    }
+}
@@ -0,0 +1,171 @@
+package cn.dmego.seata.saga.business.engine;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GroupCommitDataSourceTest
+ *
+ * 在 H2 内存库上验证组提交数据源：延迟模式下的写语句只进入缓冲、flush 时一次提交；
+ * 延迟模式中的读语句先刷盘；批量提交失败时回滚整批并改为逐条提交，只有失败的语句的 future 异常完成；
+ * 延迟模式之外的连接直接写库
+ *
+ * @author dmego
+ * @date 2026/10/20 13:00
+ */
+public class GroupCommitDataSourceTest {
+
+    static final String INSERT_STATE = "INSERT INTO state_log (id, machine_inst_id, status) VALUES (?, ?, ?)";
+
+    static final String UPDATE_STATE = "UPDATE state_log SET status = ? WHERE id = ?";
+
+    private JdbcDataSource target;
+
+    private Connection keepAlive;
+
+    private GroupCommitDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        target = createDatabase("group_commit_test");
+        keepAlive = target.getConnection();
+        dataSource = new GroupCommitDataSource(target);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        dataSource.shutdown();
+        keepAlive.close();
+    }
+
+    @Test
+    public void testDeferredWritesAreBufferedUntilFlush() throws SQLException {
+        CompletableFuture<Void> written = dataSource.runDeferred(() -> {
+            execute(dataSource, INSERT_STATE, "s1", "m1", "RU");
+            execute(dataSource, INSERT_STATE, "s2", "m1", "RU");
+            execute(dataSource, UPDATE_STATE, "SU", "s1");
+        });
+
+        assertFalse(written.isDone());
+        assertEquals(3, dataSource.getPendingCount());
+        assertEquals(0, count(target));
+
+        assertEquals(3, dataSource.flush());
+
+        assertTrue(written.isDone());
+        written.join();
+        assertEquals(0, dataSource.getPendingCount());
+        assertEquals(2, count(target));
+        assertEquals("SU", status(target, "s1"));
+        assertEquals(1, dataSource.getFlushCount());
+        assertEquals(3, dataSource.getStatementCount());
+    }
+
+    @Test
+    public void testReadInsideDeferredSeesBufferedWrites() {
+        int[] seen = new int[1];
+        dataSource.runDeferred(() -> {
+            execute(dataSource, INSERT_STATE, "s1", "m1", "RU");
+            try {
+                seen[0] = count(dataSource);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).join();
+
+        assertEquals(1, seen[0]);
+        assertEquals(0, dataSource.getPendingCount());
+    }
+
+    @Test
+    public void testBatchFailureFallsBackToOneByOne() throws SQLException {
+        execute(target, INSERT_STATE, "s2", "m0", "SU");
+
+        CompletableFuture<Void> first = dataSource.runDeferred(() -> execute(dataSource, INSERT_STATE, "s1", "m1", "RU"));
+        CompletableFuture<Void> duplicate = dataSource.runDeferred(() -> execute(dataSource, INSERT_STATE, "s2", "m1", "RU"));
+        CompletableFuture<Void> third = dataSource.runDeferred(() -> execute(dataSource, INSERT_STATE, "s3", "m1", "RU"));
+
+        assertEquals(3, dataSource.flush());
+
+        first.join();
+        third.join();
+        CompletionException e = assertThrows(CompletionException.class, duplicate::join);
+        assertTrue(e.getCause() instanceof SQLException);
+        // 整批回滚后逐条提交，只有主键冲突的那一条没有写入
+        assertEquals(3, count(target));
+        assertEquals("SU", status(target, "s2"));
+        assertEquals(3, dataSource.getStatementCount());
+    }
+
+    @Test
+    public void testWritesOutsideDeferredGoDirectly() throws SQLException {
+        execute(dataSource, INSERT_STATE, "s1", "m1", "RU");
+
+        assertEquals(0, dataSource.getPendingCount());
+        assertEquals(1, count(target));
+        assertEquals(0, dataSource.flush());
+        assertEquals(0, dataSource.getFlushCount());
+    }
+
+    static JdbcDataSource createDatabase(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS state_log");
+            statement.execute("CREATE TABLE state_log (id VARCHAR(48) PRIMARY KEY, machine_inst_id VARCHAR(128) NOT NULL, "
+                + "status VARCHAR(2) NOT NULL)");
+        }
+        return dataSource;
+    }
+
+    /**
+     * 按 Seata 状态日志存储的方式执行一条写语句：取连接、预编译、绑定参数、executeUpdate、关闭
+     */
+    static void execute(DataSource dataSource, String sql, String... params) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static int count(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM state_log");
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static String status(DataSource dataSource, String id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT status FROM state_log WHERE id = ?")) {
+            stmt.setString(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
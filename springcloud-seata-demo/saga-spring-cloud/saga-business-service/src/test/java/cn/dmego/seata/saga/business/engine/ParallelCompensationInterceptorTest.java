@@ -0,0 +1,40 @@
+package cn.dmego.seata.saga.business.engine;
+
+import io.seata.saga.engine.pcext.handlers.ServiceTaskStateHandler;
+import io.seata.saga.engine.pcext.handlers.SubStateMachineHandler;
+import io.seata.saga.proctrl.impl.ProcessContextImpl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ParallelCompensationInterceptorTest
+ *
+ * 只挂在 ServiceTask 处理器上；流程上下文里没有开启并发补偿的状态机配置时什么也不做
+ *
+ * @author dmego
+ * @date 2026/10/20 10:30
+ */
+public class ParallelCompensationInterceptorTest {
+
+    private final ParallelCompensationInterceptor interceptor = new ParallelCompensationInterceptor();
+
+    @Test
+    public void testMatchesServiceTaskHandlerOnly() {
+        assertTrue(interceptor.match(ServiceTaskStateHandler.class));
+        assertFalse(interceptor.match(SubStateMachineHandler.class));
+        assertFalse(interceptor.match(null));
+    }
+
+    @Test
+    public void testNoopWithoutSagaConfig() {
+        ProcessContextImpl context = new ProcessContextImpl();
+
+        assertDoesNotThrow(() -> {
+            interceptor.preProcess(context);
+            interceptor.postProcess(context, null);
+        });
+    }
+}
@@ -0,0 +1,214 @@
+package cn.dmego.seata.saga.business.service.impl;
+
+import cn.dmego.seata.saga.business.dao.SagaArchiveDao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * SagaArchiveServiceTest
+ *
+ * 在 H2（MySQL 模式）内存库上执行 SagaArchiveDao 的真实语句：
+ * 已结束且成功的实例连同状态记录被归档和删除；仍在运行的实例不会被选中；
+ * 查询候选 ID 之后、加锁之前被引擎重新启动的实例在加锁时被排除，实例和状态记录都保留
+ *
+ * @author dmego
+ * @date 2026/10/20 12:10
+ */
+public class SagaArchiveServiceTest {
+
+    private static final long RETENTION_HOURS = 1;
+
+    private JdbcDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private SagaArchiveDao sagaArchiveDao;
+
+    private Connection keepAlive;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:saga_archive_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        // 内存库在最后一个连接关闭时销毁，测试期间保持一个连接
+        keepAlive = dataSource.getConnection();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE seata_state_machine_inst (id VARCHAR(128) PRIMARY KEY, "
+            + "machine_id VARCHAR(32) NOT NULL, tenant_id VARCHAR(32) NOT NULL, gmt_started DATETIME(3) NOT NULL, "
+            + "business_key VARCHAR(48), gmt_end DATETIME(3), status VARCHAR(2), compensation_status VARCHAR(2), "
+            + "is_running TINYINT(1), gmt_updated DATETIME(3) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE seata_state_inst (id VARCHAR(48) NOT NULL, "
+            + "machine_inst_id VARCHAR(128) NOT NULL, name VARCHAR(128) NOT NULL, gmt_started DATETIME(3) NOT NULL, "
+            + "status VARCHAR(2) NOT NULL, gmt_end DATETIME(3), PRIMARY KEY (id, machine_inst_id))");
+        jdbcTemplate.execute("CREATE TABLE seata_state_machine_inst_archive (id VARCHAR(128) PRIMARY KEY, "
+            + "machine_id VARCHAR(32) NOT NULL, tenant_id VARCHAR(32) NOT NULL, business_key VARCHAR(48), "
+            + "status VARCHAR(2), compensation_status VARCHAR(2), gmt_started DATETIME(3) NOT NULL, "
+            + "gmt_end DATETIME(3), gmt_archived DATETIME(3) NOT NULL, payload BLOB NOT NULL)");
+
+        Configuration configuration = new Configuration(
+            new Environment("test", new SpringManagedTransactionFactory(), dataSource));
+        configuration.addMapper(SagaArchiveDao.class);
+        sagaArchiveDao = new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(configuration))
+            .getMapper(SagaArchiveDao.class);
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    public void testFinishedInstanceIsArchivedWithStates() {
+        insertMachine("finished", "SU", null, false, 2);
+        insertState("finished", "s1");
+        insertState("finished", "s2");
+
+        SagaArchiveServiceImpl service = service(sagaArchiveDao);
+
+        assertEquals(1, service.archive());
+        assertEquals(0, count("seata_state_machine_inst"));
+        assertEquals(0, count("seata_state_inst"));
+
+        Map<String, Object> document = service.getArchived("finished");
+        assertNotNull(document);
+        assertEquals("SU", document.get("status"));
+        assertEquals(2, ((List<?>) document.get("states")).size());
+    }
+
+    @Test
+    public void testRunningInstanceIsSkipped() {
+        insertMachine("finished", "SU", null, false, 2);
+        insertMachine("running", "RU", null, true, 2);
+        insertState("running", "s1");
+        // 补偿失败的实例也不归档，留给人工处理
+        insertMachine("failed", "FA", "FA", false, 2);
+
+        SagaArchiveServiceImpl service = service(sagaArchiveDao);
+
+        assertEquals(1, service.archive());
+        assertEquals(1, countMachine("running"));
+        assertEquals(1, count("seata_state_inst"));
+        assertEquals(1, countMachine("failed"));
+        assertNull(service.getArchived("running"));
+        assertNull(service.getArchived("failed"));
+    }
+
+    @Test
+    public void testInstanceRestartedBetweenSelectAndLockSurvives() {
+        insertMachine("finished", "SU", null, false, 2);
+        insertState("finished", "s1");
+        insertMachine("restarted", "SU", null, false, 3);
+        insertState("restarted", "s1");
+
+        // 候选 ID 查出之后，引擎在另一个连接上重新启动实例（前向重试或补偿）并提交
+        SagaArchiveDao restartingDao = (SagaArchiveDao) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {SagaArchiveDao.class}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(sagaArchiveDao, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if ("selectArchivableIds".equals(method.getName())) {
+                    assertEquals(2, ((List<?>) result).size());
+                    restartOnAnotherConnection("restarted");
+                }
+                return result;
+            });
+
+        SagaArchiveServiceImpl service = service(restartingDao);
+
+        assertEquals(1, service.archive());
+        assertNotNull(service.getArchived("finished"));
+        assertNull(service.getArchived("restarted"));
+        assertEquals(1, countMachine("restarted"));
+        assertEquals(1, count("seata_state_inst"));
+    }
+
+    private SagaArchiveServiceImpl service(SagaArchiveDao dao) {
+        SagaArchiveServiceImpl service = new SagaArchiveServiceImpl();
+        service.sagaArchiveDao = dao;
+        service.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        service.objectMapper = new ObjectMapper();
+        setField(service, "retentionHours", RETENTION_HOURS);
+        setField(service, "batchSize", 10);
+        setField(service, "maxBatches", 5);
+        setField(service, "pauseMillis", 0L);
+        return service;
+    }
+
+    private void insertMachine(String id, String status, String compensationStatus, boolean running, long endedHoursAgo) {
+        Timestamp end = hoursAgo(endedHoursAgo);
+        jdbcTemplate.update("INSERT INTO seata_state_machine_inst (id, machine_id, tenant_id, gmt_started, business_key, "
+                + "gmt_end, status, compensation_status, is_running, gmt_updated) VALUES (?, 'm1', '000001', ?, ?, ?, ?, ?, ?, ?)",
+            id, hoursAgo(endedHoursAgo + 1), "bk-" + id, running ? null : end, status, compensationStatus,
+            running ? 1 : 0, end);
+    }
+
+    private void insertState(String machineInstId, String name) {
+        jdbcTemplate.update("INSERT INTO seata_state_inst (id, machine_inst_id, name, gmt_started, status) "
+            + "VALUES (?, ?, ?, ?, 'SU')", name, machineInstId, name, hoursAgo(3));
+    }
+
+    private void restartOnAnotherConnection(String id) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE seata_state_machine_inst SET is_running = 1, status = 'RU', gmt_end = NULL "
+                + "WHERE id = '" + id + "'");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private int countMachine(String id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM seata_state_machine_inst WHERE id = ?",
+            Integer.class, id);
+    }
+
+    private static Timestamp hoursAgo(long hours) {
+        return new Timestamp(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(hours));
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * ProductController
  *
@@ -44,4 +47,10 @@ public class ProductController {
         return productService.getPriceById(productId);
     }
 
+    @ApiOperation(value = "批量获取产品价格", notes = "根据多个产品ID获取产品价格, 一次 IN 查询")
+    @GetMapping("/getPrices")
+    Map<Long, Integer> getPrices(@ApiParam(name = "productIds", value = "产品ID", required = true) @RequestParam("productIds") List<Long> productIds) {
+        return productService.getPricesByIds(productIds);
+    }
+
 }
@@ -1,11 +1,16 @@
 package cn.dmego.seata.saga.product.dao;
 
+import cn.dmego.seata.common.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * ProductDao
  * 
@@ -16,12 +21,19 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface ProductDao {
 
+    @ReadOnly
     @Select("select stock from product where id = #{productId}")
     Integer getStock(@Param("productId") Long productId);
 
+    @ReadOnly
     @Select("select price from product where id = #{productId}")
     Integer selectPriceById(@Param("productId") Long productId);
 
+    @ReadOnly
+    @Select("<script>select id, price from product where id in "
+        + "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<Map<String, Object>> selectPricesByIds(@Param("productIds") Collection<Long> productIds);
+
     @Update("update product set stock = stock - #{count} where id = #{productId} and stock >= #{count}")
     int reduceStock(@Param("productId") Long productId, @Param("count") Integer count);
 
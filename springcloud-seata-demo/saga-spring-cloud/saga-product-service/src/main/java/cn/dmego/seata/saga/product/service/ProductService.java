@@ -1,5 +1,7 @@
 package cn.dmego.seata.saga.product.service;
 
+import java.util.List;
+import java.util.Map;
 
 /**
  * ProductService
@@ -14,4 +16,6 @@ public interface ProductService {
     Boolean compensateStock(Long productId, Integer count) throws Exception;
 
     Integer getPriceById(Long productId);
+
+    Map<Long, Integer> getPricesByIds(List<Long> productIds);
 }
@@ -1,10 +1,14 @@
 package cn.dmego.seata.tcc.business.proxy;
 
 
+import cn.dmego.seata.common.feign.Hedged;
 import io.seata.rm.tcc.api.BusinessActionContext;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductService
  *
@@ -28,6 +32,11 @@ public interface ProductService {
     @PostMapping("/cancel")
     boolean productCancel(@RequestBody BusinessActionContext actionContext);
 
+    @Hedged
     @GetMapping("/getPrice")
     Integer getPrice(@RequestParam("productId") Long productId);
+
+    @Hedged
+    @GetMapping("/getPrices")
+    Map<Long, Integer> getPrices(@RequestParam("productIds") List<Long> productIds);
 }
@@ -1,6 +1,7 @@
 package cn.dmego.seata.tcc.business.service.impl;
 
 import cn.dmego.seata.common.dto.BusinessDTO;
+import cn.dmego.seata.common.feign.DownstreamGuard;
 import cn.dmego.seata.common.util.ResultHolder;
 import cn.dmego.seata.tcc.business.proxy.OrderService;
 import cn.dmego.seata.tcc.business.proxy.ProductService;
@@ -34,6 +35,7 @@ public class BusinessServiceImpl implements BusinessService {
 
     @Override
     @GlobalTransactional
+    @DownstreamGuard({"tcc-product-service", "tcc-order-service"})
     public String handleBusiness(BusinessDTO businessDTO) {
         String xid = RootContext.getXID();
         logger.info("[handleBusiness] 开始下单");
@@ -5,6 +5,9 @@ import io.seata.rm.tcc.api.BusinessActionContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductController
  *
@@ -24,6 +27,11 @@ public class ProductController {
         return productService.getPriceById(productId);
     }
 
+    @GetMapping("/getPrices")
+    public Map<Long, Integer> getPrices(@RequestParam("productIds") List<Long> productIds){
+        return productService.getPricesByIds(productIds);
+    }
+
     @PostMapping("/try")
     public boolean productTry(@RequestBody BusinessActionContext actionContext,
                               @RequestParam("productId") Long productId,
@@ -1,11 +1,16 @@
 package cn.dmego.seata.tcc.product.dao;
 
+import cn.dmego.seata.common.replica.ReadOnly;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductDao
  *
@@ -22,9 +27,20 @@ public interface ProductDao {
      * @param productId 商品ID
      * @return 商品单价
      */
+    @ReadOnly
     @Select("SELECT price FROM product where id = #{productId}")
     Integer selectPriceById(@Param("productId") Long productId);
 
+    /**
+     * 根据商品 ID 批量查询单价
+     * @param productIds 商品ID
+     * @return 每行包含 id、price
+     */
+    @ReadOnly
+    @Select("<script>SELECT id, price FROM product WHERE id IN "
+        + "<foreach collection='productIds' item='id' open='(' separator=',' close=')'>#{id}</foreach></script>")
+    List<Map<String, Object>> selectPricesByIds(@Param("productIds") Collection<Long> productIds);
+
     /**
      * product Try 冻结余额
      * @param productId 商品 ID
@@ -5,6 +5,9 @@ import io.seata.rm.tcc.api.BusinessActionContextParameter;
 import io.seata.rm.tcc.api.LocalTCC;
 import io.seata.rm.tcc.api.TwoPhaseBusinessAction;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductService
  *
@@ -25,4 +28,6 @@ public interface ProductService {
     boolean productCancel(BusinessActionContext actionContext);
 
     Integer getPriceById(Long productId);
+
+    Map<Long, Integer> getPricesByIds(List<Long> productIds);
 }
@@ -1,5 +1,7 @@
 package cn.dmego.seata.tcc.product.service.impl;
 
+import cn.dmego.seata.common.batch.BatchingLoader;
+import cn.dmego.seata.common.logging.TxLog;
 import cn.dmego.seata.common.util.ResultHolder;
 import cn.dmego.seata.tcc.product.dao.ProductDao;
 import cn.dmego.seata.tcc.product.service.ProductService;
@@ -7,9 +9,16 @@ import io.seata.rm.tcc.api.BusinessActionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @className: ProductServiceImpl
  *
@@ -25,74 +34,109 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductDao productDao;
 
+    @Value("${product.price-loader.window-micros:500}")
+    private long priceLoaderWindowMicros;
+
+    @Value("${product.price-loader.max-batch-size:100}")
+    private int priceLoaderMaxBatchSize;
+
+    /**
+     * 单价查询合并：同一商品的并发查询共用一次查询，不同商品在合并窗口内合并成一次 IN 查询
+     */
+    private BatchingLoader<Long, Integer> priceLoader;
+
+    @PostConstruct
+    public void initPriceLoader() {
+        priceLoader = new BatchingLoader<>(this::selectPrices, priceLoaderWindowMicros, priceLoaderMaxBatchSize);
+    }
+
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean productTry(BusinessActionContext actionContext, Long productId, Integer count) {
-        String xId = actionContext.getXid();
-        long branchId = actionContext.getBranchId();
-        logger.info("[productTry]: 当前 XID:{}, branchId:{}, 商品:{}， 数量:{}", xId, branchId, productId, count);
-        int flag = productDao.productTry(productId, count);
+        try (TxLog.Phase phase = TxLog.begin("productTry", actionContext)) {
+            phase.field("productId", productId).field("count", count);
+            int flag = productDao.productTry(productId, count);
 
-        if(flag == 0){
-            throw new RuntimeException("库存服务 Try 阶段失败.");
-        }
+            if(flag == 0){
+                throw new RuntimeException("库存服务 Try 阶段失败.");
+            }
 
-        //事务成功，保存一个标识，供第二阶段进行判断
-        ResultHolder.setResult(getClass(), actionContext.getXid(), "p");
+            //事务成功，保存一个标识，供第二阶段进行判断
+            ResultHolder.setResult(getClass(), actionContext.getXid(), "p");
 
-        logger.info("[productTry]: 冻结 {} 库存成功", count);
-        return true;
+            logger.info("[productTry]: 商品 {} 冻结 {} 库存成功", productId, count);
+            phase.success();
+            return true;
+        }
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean productConfirm(BusinessActionContext actionContext) {
-        String xId = actionContext.getXid();
-        long branchId = actionContext.getBranchId();
         Integer productId = (Integer) actionContext.getActionContext("productId");
         Integer count = ((Integer) actionContext.getActionContext("count"));
-        logger.info("[productConfirm]: 当前 XID:{}, branchId:{}, 商品:{}， 数量:{}", xId, branchId, productId, count);
+        try (TxLog.Phase phase = TxLog.begin("productConfirm", actionContext)) {
+            phase.field("productId", productId).field("count", count);
 
-        // 幂等控制，如果commit阶段重复执行则直接返回
-        if (ResultHolder.getResult(getClass(), actionContext.getXid()) == null) {
-            return true;
-        }
+            // 幂等控制，如果commit阶段重复执行则直接返回
+            if (ResultHolder.getResult(getClass(), actionContext.getXid()) == null) {
+                phase.success();
+                return true;
+            }
 
-        int flag = productDao.productConfirm(productId.longValue(), count);
-        if(flag == 0){
-            throw new RuntimeException("库存服务 Confirm 阶段失败.");
+            int flag = productDao.productConfirm(productId.longValue(), count);
+            if(flag == 0){
+                throw new RuntimeException("库存服务 Confirm 阶段失败.");
+            }
+            // commit成功删除标识
+            ResultHolder.removeResult(getClass(), actionContext.getXid());
+            logger.info("[productConfirm]: 商品 {} 扣除 {} 库存成功", productId, count);
+            phase.success();
+            return true;
         }
-        // commit成功删除标识
-        ResultHolder.removeResult(getClass(), actionContext.getXid());
-        logger.info("[productConfirm]: 扣除 {} 库存成功", count);
-        return true;
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public boolean productCancel(BusinessActionContext actionContext) {
-        String xId = actionContext.getXid();
-        long branchId = actionContext.getBranchId();
         Integer productId = ((Integer) actionContext.getActionContext("productId"));
         Integer count = ((Integer) actionContext.getActionContext("count"));
-        logger.info("[productCancel]: 当前 XID:{}, branchId:{}, 商品:{}， 数量:{}", xId, branchId, productId, count);
-        // 幂等控制，如果 cancel 阶段重复执行则直接返回
-        if (ResultHolder.getResult(getClass(), actionContext.getXid()) == null) {
-            return true;
-        }
+        try (TxLog.Phase phase = TxLog.begin("productCancel", actionContext)) {
+            phase.field("productId", productId).field("count", count);
+            // 幂等控制，如果 cancel 阶段重复执行则直接返回
+            if (ResultHolder.getResult(getClass(), actionContext.getXid()) == null) {
+                phase.success();
+                return true;
+            }
 
-        int flag = productDao.productCancel(productId.longValue(), count);
-        if(flag == 0){
-            throw new RuntimeException("库存服务 Cancel 阶段失败.");
+            int flag = productDao.productCancel(productId.longValue(), count);
+            if(flag == 0){
+                throw new RuntimeException("库存服务 Cancel 阶段失败.");
+            }
+            // cancel 成功删除标识
+            ResultHolder.removeResult(getClass(), actionContext.getXid());
+            logger.info("[productCancel]: 商品 {} 解除冻结 {} 库存成功", productId, count);
+            phase.success();
+            return true;
         }
-        // cancel 成功删除标识
-        ResultHolder.removeResult(getClass(), actionContext.getXid());
-        logger.info("[productCancel]: 解除冻结 {} 库存成功", count);
-        return true;
     }
 
     @Override
     public Integer getPriceById(Long productId) {
-        return productDao.selectPriceById(productId);
+        return priceLoader.load(productId);
+    }
+
+    @Override
+    public Map<Long, Integer> getPricesByIds(List<Long> productIds) {
+        return priceLoader.loadAll(productIds);
+    }
+
+    private Map<Long, Integer> selectPrices(Collection<Long> productIds) {
+        Map<Long, Integer> prices = new HashMap<>();
+        for (Map<String, Object> row : productDao.selectPricesByIds(productIds)) {
+            Object price = row.get("price");
+            prices.put(((Number) row.get("id")).longValue(), price == null ? null : ((Number) price).intValue());
+        }
+        return prices;
     }
 }
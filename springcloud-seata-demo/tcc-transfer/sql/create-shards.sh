@@ -0,0 +1,18 @@
+#!/bin/bash
+# 创建 tcc-transfer 分库模式的分片库：tcc_test_out_0..N-1 和 tcc_test_in_0..N-1，
+# 每个分片库执行与单库相同的建表脚本，包含 account 和 tcc_fence_log
+# 用法：./create-shards.sh [分片数，默认 8] [mysql 参数，默认 -uroot -proot]
+set -e
+
+SHARDS=${1:-8}
+MYSQL_ARGS=${2:-"-uroot -proot"}
+DIR=$(cd "$(dirname "$0")" && pwd)
+
+for ((i = 0; i < SHARDS; i++)); do
+    for side in out in; do
+        db="tcc_test_${side}_${i}"
+        mysql ${MYSQL_ARGS} -e "CREATE DATABASE IF NOT EXISTS ${db} DEFAULT CHARACTER SET utf8mb4"
+        mysql ${MYSQL_ARGS} "${db}" < "${DIR}/tcc_test_${side}.sql"
+        echo "已创建 ${db}"
+    done
+done
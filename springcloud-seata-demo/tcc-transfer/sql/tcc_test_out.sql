@@ -34,4 +34,19 @@ CREATE TABLE IF NOT EXISTS `tcc_fence_log`
     KEY `idx_status` (`status`)
     ) ENGINE = InnoDB
     DEFAULT CHARSET = utf8;
+
+-- -------------------------------- 幂等键记录，见 common-service 的 IdempotencyStore --------------------------------
+CREATE TABLE IF NOT EXISTS `idempotency_record`
+(
+    `scope`         VARCHAR(128)  NOT NULL COMMENT '幂等键作用域',
+    `idem_key`      VARCHAR(128)  NOT NULL COMMENT '请求头 Idempotency-Key',
+    `request_hash`  CHAR(64)      NOT NULL COMMENT '请求体 SHA-256 摘要',
+    `status`        TINYINT       NOT NULL COMMENT 'status(in progress:1;completed:2)',
+    `result`        TEXT          NULL COMMENT '执行结果(JSON)',
+    `gmt_create`    DATETIME(3)   NOT NULL COMMENT 'create time',
+    `gmt_modified`  DATETIME(3)   NOT NULL COMMENT 'update time',
+    PRIMARY KEY (`scope`, `idem_key`),
+    KEY `idx_gmt_create` (`gmt_create`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8;
 SET FOREIGN_KEY_CHECKS = 1;
@@ -2,6 +2,7 @@ package cn.dmego.seata.tcc.in.controller;
 
 
 
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.in.service.IInAccountService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -22,12 +23,13 @@ public class InAccountController {
 
     @PostMapping(value = "/try")
     public boolean inTry(@RequestParam("inId") String inId, @RequestParam("amount") String amount){
-        return inAccountService.inTry(inId, amount);
+        // 开启分库时 Try 之前绑定收款账户所在的分片
+        return Shards.route(inId, () -> inAccountService.inTry(inId, amount));
     }
 
     @PostMapping(value = "/try2")
     public boolean inTry2(@RequestParam("inId") String inId, @RequestParam("amount") String amount){
-        return inAccountService.inTry2(inId, amount);
+        return Shards.route(inId, () -> inAccountService.inTry2(inId, amount));
     }
 
     @PostMapping(value = "/reset/{number}")
@@ -1,5 +1,6 @@
 package cn.dmego.seata.tcc.in.dao;
 
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.in.entity.Account;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -13,7 +14,7 @@ import java.util.List;
 /**
  * @className: InAccountDao
  *
- * @description: 收钱方
+ * @description: 收钱方，开启分库时按账户ID路由到所在分片，init / delete 作用于当前线程绑定的分片
  * @author: ZengKai<dmeago@gmail.com>
  * @date: 2020/12/8 17:31
  **/
@@ -25,17 +26,17 @@ public class InAccountDao {
 
     public int inComingTry(String accountId, double amount) {
         String sql = "UPDATE account SET incoming = incoming + ? WHERE id = ?";
-        return jdbcTemplate.update(sql, amount, accountId);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, accountId));
     }
 
     public int inComingConfirm(String accountId, double amount) {
         String sql = "UPDATE account SET balance = balance + ?, incoming = incoming - ? WHERE id = ?";
-        return jdbcTemplate.update(sql, amount, amount, accountId);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, amount, accountId));
     }
 
     public int inComingCancel(String accountId, double amount) {
         String sql = "UPDATE account SET incoming = incoming - ? WHERE id = ?";
-        return jdbcTemplate.update(sql, amount, accountId);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, accountId));
     }
 
 
@@ -19,8 +19,9 @@ public interface IInAccountService {
     boolean inTry(@BusinessActionContextParameter(paramName = "inId") String inId,
                   @BusinessActionContextParameter(paramName = "amount") String amount);
 
+    // 分片键在注册分支时就要写入 action 上下文，Try 失败时二阶段回滚才能找到 fence 记录所在的分片
     @TwoPhaseBusinessAction(name = "IInAccountService", commitMethod = "inConfirm", rollbackMethod = "inCancel", useTCCFence = true, isDelayReport = true)
-    boolean inTry2(String inId, String amount);
+    boolean inTry2(@BusinessActionContextParameter(paramName = "inId") String inId, String amount);
 
     boolean inConfirm( BusinessActionContext actionContext);
 
@@ -1,5 +1,6 @@
 package cn.dmego.seata.tcc.in.service.impl;
 
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.in.dao.InAccountDao;
 import cn.dmego.seata.tcc.in.entity.Account;
 import cn.dmego.seata.tcc.in.service.IInAccountService;
@@ -9,7 +10,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -29,6 +30,9 @@ public class InAccountServiceImpl implements IInAccountService {
     @Autowired
     private InAccountDao inAccountDao;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Override
     public boolean inTry(String inId, String amount){
         long s = System.currentTimeMillis();
@@ -106,16 +110,21 @@ public class InAccountServiceImpl implements IInAccountService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean reset(int number) {
-        List<Account> accounts =new ArrayList<>();
+        List<List<Account>> accounts = new ArrayList<>();
+        for (int i = 0; i < Shards.count(); i++) {
+            accounts.add(new ArrayList<>());
+        }
         for (int i = 1; i <= number; i++) {
             Account account = new Account(i+"", "0", "0", "0");
-            accounts.add(account);
+            accounts.get(Shards.shardOf(account.getId())).add(account);
         }
 
-        inAccountDao.delete();
-        inAccountDao.init(accounts);
+        // 各分片并行清空并写入，每个分片一个本地事务
+        Shards.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            inAccountDao.delete();
+            inAccountDao.init(accounts.get(shard));
+        }));
         return true;
     }
 }
@@ -1,5 +1,6 @@
 package cn.dmego.seata.tcc.out.controller;
 
+import cn.dmego.seata.common.idempotency.Idempotent;
 import cn.dmego.seata.tcc.out.entity.Transfer;
 import cn.dmego.seata.tcc.out.service.IOutAccountService;
 import cn.dmego.seata.tcc.out.service.ITransService;
@@ -27,6 +28,7 @@ public class TransController {
     @Autowired
     IOutAccountService outAccountService;
 
+    @Idempotent("transfer")
     @RequestMapping(value = "/tcc", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
     public String transferTcc(@RequestBody Transfer transfer){
         long s = System.currentTimeMillis();
@@ -37,6 +39,7 @@ public class TransController {
         return "request succ!";
     }
 
+    @Idempotent("transfer")
     @RequestMapping(value = "/tcc2", method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
     public String transferTcc2(@RequestBody Transfer transfer){
         long s = System.currentTimeMillis();
@@ -1,5 +1,6 @@
 package cn.dmego.seata.tcc.out.dao;
 
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.out.entity.Account;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -13,7 +14,7 @@ import java.util.List;
 /**
  * @className: OutAccountDao
  *
- * @description: 转账方Dao
+ * @description: 转账方Dao，开启分库时按账户ID路由到所在分片，init / delete 作用于当前线程绑定的分片
  * @author: ZengKai<dmeago@gmail.com>
  * @date: 2020/12/8 17:33
  **/
@@ -25,17 +26,17 @@ public class OutAccountDao {
 
     public int amountTry(String accountId, double amount){
         String sql = "UPDATE account SET freezed = freezed + ? WHERE ID = ? AND balance >= freezed + ?";
-        return jdbcTemplate.update(sql, amount, accountId, amount);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, accountId, amount));
     }
 
     public int amountConfirm(String accountId, double amount){
         String sql = "UPDATE account SET balance = balance - ?, freezed = freezed - ? WHERE ID = ?";
-        return jdbcTemplate.update(sql, amount, amount, accountId);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, amount, accountId));
     }
 
     public int amountCancel(String accountId, double amount){
         String sql = "UPDATE account SET freezed = freezed - ? WHERE ID = ?";
-        return jdbcTemplate.update(sql, amount, accountId);
+        return Shards.route(accountId, () -> jdbcTemplate.update(sql, amount, accountId));
     }
 
 
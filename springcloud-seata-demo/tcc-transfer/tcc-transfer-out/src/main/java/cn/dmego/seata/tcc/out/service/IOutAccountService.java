@@ -20,8 +20,9 @@ public interface IOutAccountService {
     boolean outTry(@BusinessActionContextParameter(paramName = "outId") String outId,
                    @BusinessActionContextParameter(paramName = "amount") String amount);
 
+    // 分片键在注册分支时就要写入 action 上下文，Try 失败时二阶段回滚才能找到 fence 记录所在的分片
     @TwoPhaseBusinessAction(name = "IOutAccountService", commitMethod = "outConfirm", rollbackMethod = "outCancel", useTCCFence = true, isDelayReport = true)
-    boolean outTry2(String outId, String amount);
+    boolean outTry2(@BusinessActionContextParameter(paramName = "outId") String outId, String amount);
 
     boolean outConfirm(BusinessActionContext actionContext);
 
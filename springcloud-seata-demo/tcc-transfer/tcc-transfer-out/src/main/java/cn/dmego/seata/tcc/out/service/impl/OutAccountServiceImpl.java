@@ -1,6 +1,7 @@
 package cn.dmego.seata.tcc.out.service.impl;
 
 
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.out.dao.OutAccountDao;
 import cn.dmego.seata.tcc.out.entity.Account;
 import cn.dmego.seata.tcc.out.service.IOutAccountService;
@@ -10,7 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +31,9 @@ public class OutAccountServiceImpl implements IOutAccountService {
     @Autowired
     OutAccountDao outAccountDao;
 
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
     @Override
     public boolean outTry(String outId, String amount) {
         long s = System.currentTimeMillis();
@@ -111,16 +115,21 @@ public class OutAccountServiceImpl implements IOutAccountService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean reset(int number) {
-        List<Account> accounts =new ArrayList<>();
+        List<List<Account>> accounts = new ArrayList<>();
+        for (int i = 0; i < Shards.count(); i++) {
+            accounts.add(new ArrayList<>());
+        }
         for (int i = 1; i <= number; i++) {
             Account account = new Account(i+"", "100000000", "0", "0");
-            accounts.add(account);
+            accounts.get(Shards.shardOf(account.getId())).add(account);
         }
 
-        outAccountDao.delete();
-        outAccountDao.init(accounts);
+        // 各分片并行清空并写入，每个分片一个本地事务
+        Shards.forEachShard(shard -> transactionTemplate.executeWithoutResult(status -> {
+            outAccountDao.delete();
+            outAccountDao.init(accounts.get(shard));
+        }));
         return true;
     }
 }
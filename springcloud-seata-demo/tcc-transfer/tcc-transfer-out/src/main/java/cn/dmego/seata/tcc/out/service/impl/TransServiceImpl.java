@@ -1,6 +1,8 @@
 package cn.dmego.seata.tcc.out.service.impl;
 
 
+import cn.dmego.seata.common.feign.DownstreamGuard;
+import cn.dmego.seata.common.shard.Shards;
 import cn.dmego.seata.tcc.out.entity.Transfer;
 import cn.dmego.seata.tcc.out.proxy.InAccountService;
 import cn.dmego.seata.tcc.out.service.IOutAccountService;
@@ -20,6 +22,7 @@ import org.springframework.stereotype.Service;
  * @date: 2020/12/8 17:35
  **/
 @Service
+@DownstreamGuard("tcc-transfer-in")
 public class TransServiceImpl implements ITransService {
 
     private static final Logger log = LoggerFactory.getLogger(TransServiceImpl.class);
@@ -35,8 +38,8 @@ public class TransServiceImpl implements ITransService {
     @GlobalTransactional
     public boolean transferAmount(Transfer transfer) {
         long s = System.currentTimeMillis();
-        // 执行转钱方 Try
-        boolean result = outAccountService.outTry(transfer.getOutId(), transfer.getAmount());
+        // 执行转钱方 Try，之前绑定转出账户所在的分片，fence 记录和冻结金额写在同一个分片的同一个本地事务中
+        boolean result = Shards.route(transfer.getOutId(), () -> outAccountService.outTry(transfer.getOutId(), transfer.getAmount()));
         if(!result){
             throw new RuntimeException("转账方转钱失败");
         }
@@ -56,7 +59,7 @@ public class TransServiceImpl implements ITransService {
     public boolean transferAmount2(Transfer transfer) {
         long s = System.currentTimeMillis();
         // 执行转钱方 Try2
-        boolean result = outAccountService.outTry2(transfer.getOutId(), transfer.getAmount());
+        boolean result = Shards.route(transfer.getOutId(), () -> outAccountService.outTry2(transfer.getOutId(), transfer.getAmount()));
         if(!result){
             throw new RuntimeException("转账方转钱失败");
         }
@@ -0,0 +1,138 @@
+package cn.dmego.seata.tcc.out;
+
+import cn.dmego.seata.common.thread.VirtualThreads;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: ConcurrentTransferBenchmark
+ *
+ * @description: 对比 tcc-transfer-out 在平台线程和虚拟线程模式下，10000 个并发转账时的吞吐、延迟、堆内存和线程数。
+ *               每个模式各跑一次：先以 --dmego.threads.mode=platform 启动 tcc-transfer-out 和 tcc-transfer-in，运行
+ *               ConcurrentTransferBenchmark platform；再以 --dmego.threads.mode=virtual（需要 JDK 21）重启，运行
+ *               ConcurrentTransferBenchmark virtual。两个服务都要加上 --management.endpoints.web.exposure.include=health,metrics。
+ *               参数：模式标签 [目标地址，默认 http://localhost:8082] [并发数，默认 10000] [持续秒数，默认 60]。
+ *               10000 个并发连接远超下游的在途配额（max-concurrent-requests）和连接池（maxActive），
+ *               对比时可以同时调大这两项，否则主要比较的是排队和快速失败的开销
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/19 21:10
+ **/
+public class ConcurrentTransferBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 ? args[0] : "unknown";
+        String target = args.length > 1 ? args[1] : "http://localhost:8082";
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        long durationMillis = TimeUnit.SECONDS.toMillis(args.length > 3 ? Long.parseLong(args[3]) : 60);
+
+        OkHttpClient client = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(concurrency, 5, TimeUnit.MINUTES))
+            .readTimeout(2, TimeUnit.MINUTES)
+            .build();
+
+        // 每个账户只被一个并发请求使用，避免行锁冲突掩盖线程模型的差异
+        post(client, target + "/reset/" + concurrency, "");
+        post(client, target.replace(":8082", ":8083") + "/inAccount/reset/" + concurrency, "");
+
+        AtomicLong maxHeap = new AtomicLong();
+        AtomicLong maxThreads = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            maxHeap.accumulateAndGet(metric(client, target, "jvm.memory.used?tag=area:heap"), Math::max);
+            maxThreads.accumulateAndGet(metric(client, target, "jvm.threads.live"), Math::max);
+        }, 0, 500, TimeUnit.MILLISECONDS);
+
+        // 客户端同样需要 concurrency 个阻塞调用，JDK 21 上用虚拟线程，避免压测端自身成为瓶颈
+        ExecutorService workers = VirtualThreads.isSupported()
+            ? VirtualThreads.newThreadPerTaskExecutor("benchmark-")
+            : Executors.newFixedThreadPool(concurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        long end = System.currentTimeMillis() + durationMillis;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        for (int i = 1; i <= concurrency; i++) {
+            String body = "{\"inId\":\"" + i + "\",\"outId\":\"" + i + "\",\"amount\":\"1\"}";
+            workers.execute(() -> {
+                try {
+                    while (System.currentTimeMillis() < end) {
+                        long begin = System.nanoTime();
+                        try {
+                            post(client, target + "/tcc", body);
+                            latencies.add(System.nanoTime() - begin);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+        workers.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%-10s %8s %10s %9s %9s %8s %10s %8s%n", "mode", "inflight", "tx/s", "p50 ms",
+            "p99 ms", "errors", "heap MB", "threads");
+        System.out.printf("%-10s %8d %10.1f %9.1f %9.1f %8d %10d %8d%n", label, concurrency,
+            sorted.size() / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get(),
+            maxHeap.get() >> 20, maxThreads.get());
+        System.out.println("vthread.pinned: " + metric(client, target, "vthread.pinned"));
+        client.connectionPool().evictAll();
+    }
+
+    private static void post(OkHttpClient client, String url, String json) throws IOException {
+        Request request = new Request.Builder().url(url).post(RequestBody.create(JSON, json)).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException(url + " 返回 " + response.code());
+            }
+        }
+    }
+
+    private static long metric(OkHttpClient client, String target, String name) {
+        Request request = new Request.Builder().url(target + "/actuator/metrics/" + name).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful() || response.body() == null) {
+                return 0;
+            }
+            JsonNode node = MAPPER.readTree(response.body().string());
+            return node.path("measurements").path(0).path("value").asLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -0,0 +1,130 @@
+package cn.dmego.seata.tcc.out;
+
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @className: ShardedTransferBenchmark
+ *
+ * @description: tcc-transfer 分库模式在 1、2、4、8 个分片下的转账吞吐。先用 sql/create-shards.sh 创建 8 组分片库，
+ *               每个分片数各跑一次：以 --dmego.sharding.enabled=true --dmego.sharding.urls=分片0,分片1,... 启动
+ *               tcc-transfer-out 和 tcc-transfer-in（1 个分片时只写 tcc_test_xxx_0），运行 ShardedTransferBenchmark 分片数。
+ *               每次先 reset 两边的账户（记录各分片并行初始化的耗时），再用随机的转出 / 转入账户压测，
+ *               结果追加到报告文件，运行结束时打印报告中所有分片数的结果。
+ *               参数：分片数标签 [目标地址，默认 http://localhost:8082] [账户数，默认 10000] [并发数，默认 64]
+ *               [持续秒数，默认 60] [报告文件，默认 sharded-transfer.csv]
+ * @author: ZengKai<dmeago@gmail.com>
+ * @date: 2026/10/20 00:40
+ **/
+public class ShardedTransferBenchmark {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final String HEADER = "shards,accounts,inflight,reset_ms,tx_per_s,p50_ms,p99_ms,errors";
+
+    public static void main(String[] args) throws Exception {
+        String label = args.length > 0 ? args[0] : "1";
+        String target = args.length > 1 ? args[1] : "http://localhost:8082";
+        int accounts = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+        long durationMillis = TimeUnit.SECONDS.toMillis(args.length > 4 ? Long.parseLong(args[4]) : 60);
+        Path report = Paths.get(args.length > 5 ? args[5] : "sharded-transfer.csv");
+
+        OkHttpClient client = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(concurrency, 5, TimeUnit.MINUTES))
+            .readTimeout(2, TimeUnit.MINUTES)
+            .build();
+
+        long resetStart = System.nanoTime();
+        post(client, target + "/reset/" + accounts, "");
+        post(client, target.replace(":8082", ":8083") + "/inAccount/reset/" + accounts, "");
+        long resetMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - resetStart);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        long end = System.currentTimeMillis() + durationMillis;
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                try {
+                    while (System.currentTimeMillis() < end) {
+                        int outId = ThreadLocalRandom.current().nextInt(accounts) + 1;
+                        int inId = ThreadLocalRandom.current().nextInt(accounts) + 1;
+                        String body = "{\"inId\":\"" + inId + "\",\"outId\":\"" + outId + "\",\"amount\":\"1\"}";
+                        long begin = System.nanoTime();
+                        try {
+                            post(client, target + "/tcc", body);
+                            latencies.add(System.nanoTime() - begin);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        workers.shutdown();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        String row = String.format("%s,%d,%d,%d,%.1f,%.1f,%.1f,%d", label, accounts, concurrency, resetMillis,
+            sorted.size() / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), errors.get());
+        if (!Files.exists(report)) {
+            Files.write(report, Collections.singletonList(HEADER), StandardCharsets.UTF_8);
+        }
+        Files.write(report, Collections.singletonList(row), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        System.out.printf("%-8s %9s %9s %10s %10s %9s %9s %8s%n", "shards", "accounts", "inflight", "reset ms",
+            "tx/s", "p50 ms", "p99 ms", "errors");
+        for (String line : Files.readAllLines(report, StandardCharsets.UTF_8)) {
+            if (line.equals(HEADER) || line.isEmpty()) {
+                continue;
+            }
+            String[] cells = line.split(",");
+            System.out.printf("%-8s %9s %9s %10s %10s %9s %9s %8s%n", (Object[]) cells);
+        }
+        client.connectionPool().evictAll();
+    }
+
+    private static void post(OkHttpClient client, String url, String json) throws IOException {
+        Request request = new Request.Builder().url(url).post(RequestBody.create(JSON, json)).build();
+        try (Response response = client.newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException(url + " 返回 " + response.code());
+            }
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+}
@@ -31,4 +31,15 @@ CREATE TABLE `undo_log` (
     `ext` varchar(100) DEFAULT NULL,
     PRIMARY KEY (`id`),
     UNIQUE KEY `ux_undo_log` (`xid`,`branch_id`)
-) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
\ No newline at end of file
+) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
+
+-- ----------------------------
+-- Table structure for replica_heartbeat
+-- 开启 dmego.replica 时每个服务实例一行，在主库写入、从从库读回，用来计算复制延迟
+-- ----------------------------
+DROP TABLE IF EXISTS `replica_heartbeat`;
+CREATE TABLE `replica_heartbeat` (
+    `instance_id` varchar(64) NOT NULL COMMENT '服务实例',
+    `beat_millis` bigint(20) NOT NULL COMMENT '实例写入心跳时的时间戳',
+    PRIMARY KEY (`instance_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8;
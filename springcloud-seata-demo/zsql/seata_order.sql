@@ -73,7 +73,9 @@ CREATE TABLE IF NOT EXISTS `seata_state_machine_inst`
     `is_running`          TINYINT(1) COMMENT 'is running(0 no|1 yes)',
     `gmt_updated`         DATETIME(3) NOT NULL,
     PRIMARY KEY (`id`),
-    UNIQUE KEY `unikey_buz_tenant` (`business_key`, `tenant_id`)
+    UNIQUE KEY `unikey_buz_tenant` (`business_key`, `tenant_id`),
+    -- 归档扫描按结束时间取已完成的实例
+    KEY `idx_running_gmt_end` (`is_running`, `gmt_end`)
     ) ENGINE = InnoDB
     DEFAULT CHARSET = utf8;
 
@@ -101,4 +103,25 @@ CREATE TABLE IF NOT EXISTS `seata_state_inst`
     ) ENGINE = InnoDB
     DEFAULT CHARSET = utf8;
 
+-- ----------------------------
+-- 已归档的 saga 实例：一行一个状态机实例，实例和它的全部状态记录压缩后存到 payload
+-- ----------------------------
+CREATE TABLE IF NOT EXISTS `seata_state_machine_inst_archive`
+(
+    `id`                  VARCHAR(128) NOT NULL COMMENT 'state machine instance id',
+    `machine_id`          VARCHAR(32)  NOT NULL COMMENT 'state machine definition id',
+    `tenant_id`           VARCHAR(32)  NOT NULL COMMENT 'tenant id',
+    `business_key`        VARCHAR(48) COMMENT 'business key',
+    `status`              VARCHAR(2) COMMENT 'status',
+    `compensation_status` VARCHAR(2) COMMENT 'compensation status',
+    `gmt_started`         DATETIME(3)  NOT NULL COMMENT 'start time',
+    `gmt_end`             DATETIME(3) COMMENT 'end time',
+    `gmt_archived`        DATETIME(3)  NOT NULL COMMENT 'archive time',
+    `payload`             LONGBLOB     NOT NULL COMMENT 'gzip json of instance and state instances',
+    PRIMARY KEY (`id`),
+    KEY `idx_business_key` (`business_key`, `tenant_id`),
+    KEY `idx_gmt_end` (`gmt_end`)
+    ) ENGINE = InnoDB
+    DEFAULT CHARSET = utf8;
+
 -- ----------------------------------------------------------------------------------------------
\ No newline at end of file